@@ -0,0 +1,106 @@
+package com.ivancaccamo.pacf1.controller;
+
+import com.ivancaccamo.pacf1.model.LiveSession;
+import com.ivancaccamo.pacf1.model.PredictionResponse;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.service.LiveStrategyService;
+import com.ivancaccamo.pacf1.service.OptimizationEngine;
+import com.ivancaccamo.pacf1.service.PythonMLService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller REST per la ri-ottimizzazione live durante la gara (strumenti del muretto box).
+ * <p>
+ * Il client apre una sessione all'inizio della gara e poi, ad ogni giro, chiede il piano ottimo
+ * per i giri rimanenti comunicando la situazione attuale della vettura.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+@RestController
+@RequestMapping("/api/live")
+public class LiveStrategyController {
+
+    @Autowired
+    private PythonMLService mlService;
+
+    @Autowired
+    private LiveStrategyService liveService;
+
+    /**
+     * Apre una sessione live: richiede le predizioni ML e risolve una sola volta la tabella della DP.
+     *
+     * @param circuit   Il nome del circuito.
+     * @param laps      Il numero totale di giri della gara.
+     * @param airTemp   La temperatura dell'aria in gradi Celsius.
+     * @param trackTemp La temperatura dell'asfalto in gradi Celsius.
+     * @param k         Il numero massimo di piani alternativi per interrogazione.
+     * @return La sessione aperta, 400 se i giri o {@code k} non sono validi oppure 503 se il servizio ML non risponde.
+     */
+    @PostMapping("/sessions")
+    public ResponseEntity<LiveSession> openSession(
+            @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
+            @RequestParam(defaultValue = "57") int laps,
+            @RequestParam(defaultValue = "30.0") double airTemp,
+            @RequestParam(defaultValue = "45.0") double trackTemp,
+            @RequestParam(defaultValue = "3") int k) {
+
+        // Controllo anticipato: evita la chiamata al servizio ML per richieste che verrebbero rifiutate
+        if (laps < 1 || laps > OptimizationEngine.MAX_RACE_LAPS || k < 1) return ResponseEntity.badRequest().build();
+
+        PredictionResponse predictions = mlService.getPrediction(circuit, airTemp, trackTemp);
+        if (predictions == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        try {
+            return ResponseEntity.ok(liveService.openSession(circuit, laps, predictions.getPredictions(), k));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Richiesta live non valida: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Restituisce il piano ottimo per i giri rimanenti a partire dalla situazione attuale.
+     * <p>
+     * Il tempo totale delle strategie restituite comprende solo i giri ancora da percorrere;
+     * gli stint partono dal giro {@code lap + 1}.
+     * </p>
+     *
+     * @param id       L'identificativo della sessione.
+     * @param lap      I giri già completati.
+     * @param compound La mescola montata.
+     * @param tyreAge  I giri già percorsi con la gomma montata.
+     * @param used     Le mescole già usate in gara, separate da virgola (es. "SOFT,MEDIUM").
+     * @param k        Il numero di piani alternativi richiesti.
+     * @return I piani per i giri rimanenti, oppure 400 se la sessione o i parametri non sono validi.
+     */
+    @GetMapping("/sessions/{id}/plan")
+    public ResponseEntity<List<RaceStrategy>> plan(
+            @PathVariable String id,
+            @RequestParam int lap,
+            @RequestParam String compound,
+            @RequestParam(defaultValue = "0") int tyreAge,
+            @RequestParam(defaultValue = "") List<String> used,
+            @RequestParam(defaultValue = "1") int k) {
+        try {
+            return ResponseEntity.ok(liveService.plan(id, lap, compound, tyreAge, used, k));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Richiesta live non valida: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Chiude una sessione live liberando la memoria della tabella.
+     *
+     * @param id L'identificativo della sessione.
+     */
+    @DeleteMapping("/sessions/{id}")
+    public void closeSession(@PathVariable String id) {
+        liveService.closeSession(id);
+    }
+}
@@ -1,16 +1,49 @@
 package com.ivancaccamo.pacf1.controller;
 
+import com.ivancaccamo.pacf1.model.OptimizationResult;
+import com.ivancaccamo.pacf1.model.PitWindowTable;
 import com.ivancaccamo.pacf1.model.PredictionResponse;
 import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.RobustStrategyResult;
+import com.ivancaccamo.pacf1.model.SafetyCarPlan;
 import com.ivancaccamo.pacf1.model.SavedStrategy;
+import com.ivancaccamo.pacf1.model.ScenarioResult;
+import com.ivancaccamo.pacf1.model.SimulationResult;
+import com.ivancaccamo.pacf1.model.StrategyScenario;
+import com.ivancaccamo.pacf1.model.TemperatureSweep;
 import com.ivancaccamo.pacf1.repository.StrategyRepository;
+import com.ivancaccamo.pacf1.service.BatchStrategyService;
+import com.ivancaccamo.pacf1.service.BeamSearchEngine;
+import com.ivancaccamo.pacf1.service.BranchAndBoundEngine;
+import com.ivancaccamo.pacf1.service.Deadline;
+import com.ivancaccamo.pacf1.service.EngineType;
+import com.ivancaccamo.pacf1.service.MonteCarloSimulator;
 import com.ivancaccamo.pacf1.service.OptimizationEngine;
 import com.ivancaccamo.pacf1.service.PythonMLService;
+import com.ivancaccamo.pacf1.service.RaceConditions;
+import com.ivancaccamo.pacf1.service.RiskMeasure;
+import com.ivancaccamo.pacf1.service.SimulationOptions;
+import com.ivancaccamo.pacf1.service.SolverMode;
+import com.ivancaccamo.pacf1.service.SolverOptions;
+import com.ivancaccamo.pacf1.service.TemperatureSweepService;
+import com.ivancaccamo.pacf1.service.TransitionMode;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller REST principale dell'applicazione SPS-F1.
@@ -33,36 +66,620 @@ public class StrategyController {
     @Autowired
     private OptimizationEngine optimizer;
 
+    @Autowired
+    private BranchAndBoundEngine branchAndBound;
+
+    @Autowired
+    private BeamSearchEngine beamSearch;
+
+    @Autowired
+    private BatchStrategyService batchService;
+
+    @Autowired
+    private TemperatureSweepService sweepService;
+
+    @Autowired
+    private MonteCarloSimulator simulator;
+
     @Autowired
     private StrategyRepository repository;
 
+    /**
+     * Numero massimo di calcoli in streaming eseguiti contemporaneamente; le richieste in eccesso attendono in coda.
+     */
+    private static final int STREAM_WORKERS = 2;
+
+    /**
+     * Numero massimo di calcoli in streaming in attesa: oltre questo limite la richiesta riceve 503
+     * invece di restare in una coda senza fine (e di scadere prima di iniziare).
+     */
+    private static final int STREAM_QUEUE_CAPACITY = 16;
+
+    /**
+     * Tempo massimo (in millisecondi) di apertura di uno stream prima della chiusura forzata.
+     */
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+
+    /**
+     * Numero massimo di giri del calcolo delle strategie (le simulazioni di endurance arrivano a qualche migliaio).
+     */
+    private static final int STRATEGY_MAX_LAPS = OptimizationEngine.MAX_RACE_LAPS;
+
+    /**
+     * Numero massimo di giri con carburante e gommatura della pista: la tabella dei costi ha una riga per
+     * ogni giro di partenza e cresce col quadrato dei giri.
+     */
+    private static final int STRATEGY_LAP_DEPENDENT_MAX_LAPS = 500;
+
+    /**
+     * Numero massimo di strategie quasi ottime restituite da una richiesta.
+     */
+    private static final int NEAR_OPTIMAL_MAX_RESULTS = 1_000;
+
+    /**
+     * Numero massimo di giri del piano con safety car (la politica cresce col quadrato dei giri).
+     */
+    private static final int SAFETY_CAR_MAX_LAPS = 300;
+
+    /**
+     * Numero massimo di gare di una simulazione Monte Carlo (i tempi sono tenuti in memoria per i percentili).
+     */
+    private static final int SIMULATION_MAX_RACES = 1_000_000;
+
+    /**
+     * Numero massimo di giri dell'ottimizzazione robusta (le tabelle crescono con giri e scenari).
+     */
+    private static final int ROBUST_MAX_LAPS = 200;
+
+    /**
+     * Budget di tempo predefinito (in millisecondi) dell'ottimizzazione robusta.
+     */
+    private static final long ROBUST_DEFAULT_BUDGET_MS = 2_000;
+
+    /**
+     * Esecutore dei calcoli in streaming, separato dai thread del server web.
+     */
+    private final ExecutorService streamExecutor = new ThreadPoolExecutor(STREAM_WORKERS, STREAM_WORKERS,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(STREAM_QUEUE_CAPACITY), new ThreadPoolExecutor.AbortPolicy());
+
     /**
      * Calcola le migliori strategie di gara basandosi sui parametri ambientali forniti.
      * <p>
      * Il flusso di esecuzione è il seguente:
      * 1. Invia i dati meteo al microservizio Python per ottenere le curve di degrado.
-     * 2. Se le predizioni sono valide, invoca l'OptimizationEngine.
-     * 3. Restituisce le Top 3 strategie ottimali calcolate tramite Programmazione Dinamica.
+     * 2. Se le predizioni sono valide, invoca il motore di ottimizzazione scelto.
+     * 3. Restituisce le Top K strategie ottimali.
+     * </p>
+     * <p>
+     * Il corpo della risposta resta la lista delle strategie; il motore usato e il lavoro svolto
+     * vengono riportati negli header {@code X-Strategy-Engine}, {@code X-Strategy-Nodes-Expanded}
+     * e {@code X-Strategy-Dp-States} (stati che la DP esaustiva risolverebbe). Per la beam search,
+     * se richiesto, l'header {@code X-Strategy-Optimality-Gap} riporta i secondi di distanza dall'ottimo esatto.
+     * </p>
+     * <p>
+     * Con {@code budgetMs > 0} il calcolo viene interrotto allo scadere del budget e vengono restituite
+     * le migliori strategie trovate fino a quel momento; l'header {@code X-Strategy-Partial} vale
+     * {@code true} quando il risultato è parziale.
      * </p>
      *
      * @param circuit   Il nome del circuito (es. "Bahrain Grand Prix").
      * @param laps      Il numero totale di giri della gara.
      * @param airTemp   La temperatura dell'aria in gradi Celsius.
      * @param trackTemp La temperatura dell'asfalto in gradi Celsius.
+     * @param k         Il numero di strategie alternative da restituire (default 3).
+     * @param engine    Il motore di ricerca: {@code DP} (default, esaustivo), {@code BRANCH_AND_BOUND}
+     *                  (best-first con potatura), {@code BEAM} (approssimato, bassa latenza) oppure
+     *                  {@code STOP_COUNT} (la strategia ottima per ogni numero di soste).
+     * @param beamWidth L'ampiezza del fascio della beam search (qualità contro latenza).
+     * @param exactGap  Se {@code true}, la beam search viene confrontata con l'ottimo esatto.
+     * @param budgetMs  Il budget di tempo del calcolo in millisecondi (default 0, nessun limite).
+     * @param minStops  Con {@code STOP_COUNT}: il numero minimo di soste (default 1).
+     * @param maxStops  Con {@code STOP_COUNT}: il numero massimo di soste (uguale a {@code minStops} per imporlo).
+     * @param solver    La modalità della DP: {@code RECURSIVE} (default, gare F1),
+     *                  {@code ITERATIVE} (bottom-up, per simulazioni da centinaia di giri) oppure
+     *                  {@code PARALLEL} (bottom-up distribuita su più core).
+     * @param transition La valutazione delle transizioni: {@code BRUTE_FORCE} (default, riferimento)
+     *                  oppure {@code CONVEX_HULL} (sub-quadratica, usata per {@code k = 1}).
+     * @param fuelEffect     I secondi guadagnati sul giro per ogni giro di carburante consumato (default 0, solo DP).
+     * @param trackEvolution I secondi guadagnati sul giro per ogni giro di gommatura della pista (default 0, solo DP).
+     * @param fuelWearFactor L'usura aggiuntiva relativa a serbatoio pieno (default 0, solo DP).
      * @return Una lista di oggetti {@link RaceStrategy} contenente le strategie suggerite,
-     * o una lista vuota se il servizio ML non risponde.
+     * o una lista vuota se il servizio ML non risponde; 400 se i giri sono fuori dai limiti.
      */
     // 1. Calcola Strategia
     @GetMapping("/strategy")
-    public List<RaceStrategy> getStrategy(
+    public ResponseEntity<List<RaceStrategy>> getStrategy(
+            @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
+            @RequestParam(defaultValue = "57") int laps,
+            @RequestParam(defaultValue = "30.0") double airTemp,
+            @RequestParam(defaultValue = "45.0") double trackTemp,
+            @RequestParam(defaultValue = "3") int k,
+            @RequestParam(defaultValue = "DP") EngineType engine,
+            @RequestParam(defaultValue = "" + BeamSearchEngine.DEFAULT_BEAM_WIDTH) int beamWidth,
+            @RequestParam(defaultValue = "false") boolean exactGap,
+            @RequestParam(defaultValue = "0") long budgetMs,
+            @RequestParam(defaultValue = "1") int minStops,
+            @RequestParam(defaultValue = "" + OptimizationEngine.DEFAULT_MAX_STOPS) int maxStops,
+            @RequestParam(defaultValue = "RECURSIVE") SolverMode solver,
+            @RequestParam(defaultValue = "BRUTE_FORCE") TransitionMode transition,
+            @RequestParam(defaultValue = "0.0") double fuelEffect,
+            @RequestParam(defaultValue = "0.0") double trackEvolution,
+            @RequestParam(defaultValue = "0.0") double fuelWearFactor) {
+
+        RaceConditions conditions = new RaceConditions(fuelEffect, trackEvolution, fuelWearFactor);
+        int maxLaps = conditions.isLapDependent() ? STRATEGY_LAP_DEPENDENT_MAX_LAPS : STRATEGY_MAX_LAPS;
+        if (laps < 1 || laps > maxLaps) return ResponseEntity.badRequest().build();
+
+        PredictionResponse predictions = mlService.getPrediction(circuit, airTemp, trackTemp);
+        if (predictions == null) return ResponseEntity.ok(new ArrayList<>());
+
+        List<PredictionResponse.TyrePrediction> tyres = predictions.getPredictions();
+        SolverOptions options = new SolverOptions(solver, transition);
+        options.setBudgetMs(budgetMs);
+        options.setRaceConditions(conditions);
+        OptimizationResult result = switch (engine) {
+            case BRANCH_AND_BOUND -> branchAndBound.search(laps, tyres, k, Deadline.after(budgetMs));
+            case BEAM -> beamSearch.search(laps, tyres, k, beamWidth, Deadline.after(budgetMs));
+            case STOP_COUNT -> optimizer.optimizeByStopCount(laps, tyres, k, minStops, maxStops);
+            case DP -> optimizer.optimize(laps, tyres, k, options);
+        };
+
+        // Distanza dall'ottimo: il Branch and Bound trova l'ottimo esatto espandendo pochi nodi
+        if (engine == EngineType.BEAM && exactGap && !result.isPartial() && !result.getStrategies().isEmpty()) {
+            List<RaceStrategy> exact = branchAndBound.search(laps, tyres, 1).getStrategies();
+            if (!exact.isEmpty()) {
+                result.setOptimalityGap(result.getStrategies().get(0).getTotalTime() - exact.get(0).getTotalTime());
+            }
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header("X-Strategy-Engine", result.getEngine())
+                .header("X-Strategy-Nodes-Expanded", String.valueOf(result.getNodesExpanded()))
+                .header("X-Strategy-Dp-States", String.valueOf(result.getDpStates()))
+                .header("X-Strategy-Partial", String.valueOf(result.isPartial()));
+        if (result.getOptimalityGap() != null) {
+            response.header("X-Strategy-Optimality-Gap", String.valueOf(result.getOptimalityGap()));
+        }
+        return response.body(result.getStrategies());
+    }
+
+    /**
+     * Calcola le migliori strategie inviandole progressivamente tramite <b>Server-Sent Events</b>.
+     * <p>
+     * Il client riceve subito una prima strategia approssimata (beam search con fascio 1, pochi millisecondi)
+     * come evento {@code update}; poi la DP esatta invia un nuovo evento {@code update} ogni volta che la lista
+     * delle migliori strategie migliora. L'evento finale {@code complete} contiene il risultato definitivo
+     * (lo stesso di {@code GET /api/strategy}); in caso di errore del servizio ML viene inviato un evento
+     * {@code error}. Se il client si disconnette il calcolo viene annullato al primo controllo della scadenza.
+     * </p>
+     *
+     * @param circuit   Il nome del circuito (es. "Bahrain Grand Prix").
+     * @param laps      Il numero totale di giri della gara.
+     * @param airTemp   La temperatura dell'aria in gradi Celsius.
+     * @param trackTemp La temperatura dell'asfalto in gradi Celsius.
+     * @param k         Il numero di strategie alternative da restituire (default 3).
+     * @param budgetMs  Il budget di tempo del calcolo in millisecondi (default 0, nessun limite).
+     * @param solver    La modalità della DP.
+     * @param transition La valutazione delle transizioni.
+     * @return L'emettitore degli eventi dello stream, 400 se i giri sono fuori dai limiti
+     *         oppure 503 se la coda dei calcoli in streaming è piena.
+     */
+    // 1b. Calcola Strategia in streaming
+    @GetMapping(value = "/strategy/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStrategy(
+            @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
+            @RequestParam(defaultValue = "57") int laps,
+            @RequestParam(defaultValue = "30.0") double airTemp,
+            @RequestParam(defaultValue = "45.0") double trackTemp,
+            @RequestParam(defaultValue = "3") int k,
+            @RequestParam(defaultValue = "0") long budgetMs,
+            @RequestParam(defaultValue = "RECURSIVE") SolverMode solver,
+            @RequestParam(defaultValue = "BRUTE_FORCE") TransitionMode transition) {
+
+        if (laps < 1 || laps > STRATEGY_MAX_LAPS) return ResponseEntity.badRequest().build();
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Deadline deadline = Deadline.after(budgetMs);
+
+        // Client disconnesso o stream scaduto: interrompiamo il calcolo
+        emitter.onCompletion(deadline::cancel);
+        emitter.onTimeout(deadline::cancel);
+        emitter.onError(error -> deadline.cancel());
+
+        try {
+            streamExecutor.execute(() -> {
+                try {
+                    PredictionResponse predictions = mlService.getPrediction(circuit, airTemp, trackTemp);
+                    if (predictions == null) {
+                        sendEvent(emitter, deadline, "error", "Servizio ML non disponibile");
+                        emitter.complete();
+                        return;
+                    }
+                    List<PredictionResponse.TyrePrediction> tyres = predictions.getPredictions();
+
+                    // Prima risposta immediata: strategia approssimata con il fascio minimo
+                    List<RaceStrategy> preview = beamSearch.search(laps, tyres, k, 1, deadline).getStrategies();
+                    if (!preview.isEmpty()) sendEvent(emitter, deadline, "update", preview);
+                    double previewBest = preview.isEmpty() ? Double.MAX_VALUE : preview.get(0).getTotalTime();
+
+                    // Raffinamento esatto: inoltriamo solo le liste che non peggiorano la strategia già mostrata
+                    OptimizationResult result = optimizer.optimize(laps, tyres, k, new SolverOptions(solver, transition),
+                            deadline, strategies -> {
+                                if (!strategies.isEmpty() && strategies.get(0).getTotalTime() <= previewBest) {
+                                    sendEvent(emitter, deadline, "update", strategies);
+                                }
+                            });
+
+                    sendEvent(emitter, deadline, "complete", result.getStrategies());
+                    emitter.complete();
+                } catch (RuntimeException e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Coda piena (o server in chiusura): il client può riprovare più tardi
+            System.err.println("Stream rifiutato, coda dei calcoli piena");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Calcola molti scenari di gara in una sola richiesta (sweep su circuiti, giri e temperature).
+     * <p>
+     * Le predizioni ML vengono richieste una sola volta per ogni combinazione distinta di circuito e temperature,
+     * in parallelo, e gli scenari vengono risolti in parallelo su un pool limitato
+     * (vedi {@link BatchStrategyService}). La risposta contiene un risultato per ogni scenario,
+     * nello stesso ordine della richiesta; gli scenari non calcolabili, o con parametri fuori dai limiti
+     * di {@code GET /api/strategy}, riportano il campo {@code error}.
+     * </p>
+     *
+     * @param scenarios La lista degli scenari da calcolare.
+     * @return I risultati degli scenari, oppure 400 se la lista supera il limite configurato.
+     */
+    // 1c. Calcola molti scenari
+    @PostMapping(value = "/strategy/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ScenarioResult>> batchStrategy(@RequestBody List<StrategyScenario> scenarios) {
+        if (scenarios.size() > batchService.getMaxScenarios()) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(batchService.solveAll(scenarios));
+    }
+
+    /**
+     * Variante in streaming del calcolo batch, scelta con l'header {@code Accept: application/x-ndjson}.
+     * <p>
+     * Ogni risultato viene scritto come una riga JSON appena è pronto (ordine di completamento):
+     * il campo {@code index} indica lo scenario della richiesta a cui si riferisce.
+     * </p>
+     *
+     * @param scenarios La lista degli scenari da calcolare.
+     * @return L'emettitore delle righe NDJSON, oppure 400 se la lista supera il limite configurato.
+     */
+    @PostMapping(value = "/strategy/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> batchStrategyStream(@RequestBody List<StrategyScenario> scenarios) {
+        if (scenarios.size() > batchService.getMaxScenarios()) return ResponseEntity.badRequest().build();
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L); // Nessun timeout: gli sweep possono durare a lungo
+        batchService.solveAll(scenarios, result -> {
+            // I risultati arrivano da più thread: ogni riga va scritta per intero
+            try {
+                synchronized (emitter) {
+                    emitter.send(result, MediaType.APPLICATION_JSON);
+                    emitter.send("\n", MediaType.TEXT_PLAIN);
+                }
+            } catch (IOException e) {
+                // Client disconnesso: i risultati successivi vengono scartati
+            }
+        }).whenComplete((ignored, error) -> {
+            if (error != null) emitter.completeWithError(error);
+            else emitter.complete();
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    /**
+     * Calcola come cambia la strategia ottima su una griglia di temperature (aria x pista).
+     * <p>
+     * Per ogni cella restituisce il tempo totale, il numero di soste e la sequenza di mescole della
+     * strategia ottima, in matrici compatte pronte per una heatmap (vedi {@link TemperatureSweep}).
+     * Le chiamate ML vengono eseguite in parallelo e le celle con le stesse predizioni condividono il calcolo.
+     * </p>
+     *
+     * @param circuit   Il nome del circuito.
+     * @param laps      Il numero totale di giri della gara.
+     * @param airMin    La temperatura minima dell'aria.
+     * @param airMax    La temperatura massima dell'aria.
+     * @param airStep   Il passo della temperatura dell'aria.
+     * @param trackMin  La temperatura minima della pista.
+     * @param trackMax  La temperatura massima della pista.
+     * @param trackStep Il passo della temperatura della pista.
+     * @return La griglia dei risultati, oppure 400 se i giri o gli intervalli non sono validi o la griglia è troppo grande.
+     */
+    // 1d. Sweep delle temperature
+    @GetMapping("/strategy/sweep")
+    public ResponseEntity<TemperatureSweep> temperatureSweep(
+            @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
+            @RequestParam(defaultValue = "57") int laps,
+            @RequestParam(defaultValue = "15.0") double airMin,
+            @RequestParam(defaultValue = "40.0") double airMax,
+            @RequestParam(defaultValue = "5.0") double airStep,
+            @RequestParam(defaultValue = "20.0") double trackMin,
+            @RequestParam(defaultValue = "60.0") double trackMax,
+            @RequestParam(defaultValue = "5.0") double trackStep) {
+
+        if (laps < 1 || laps > STRATEGY_MAX_LAPS) return ResponseEntity.badRequest().build();
+        if (!TemperatureSweepService.isValidGrid(airMin, airMax, airStep, trackMin, trackMax, trackStep,
+                batchService.getMaxScenarios())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Double> airTemps = TemperatureSweepService.range(airMin, airMax, airStep);
+        List<Double> trackTemps = TemperatureSweepService.range(trackMin, trackMax, trackStep);
+        return ResponseEntity.ok(sweepService.sweep(circuit, laps, airTemps, trackTemps));
+    }
+
+    /**
+     * Elenca tutte le strategie distinte il cui tempo totale è entro una tolleranza dall'ottimo.
+     * <p>
+     * A differenza del Top K, il numero di alternative non è fissato a priori: con una tolleranza di
+     * pochi secondi vengono restituite tutte le strategie "equivalenti" (es. finestre di sosta diverse
+     * ma ugualmente veloci), ordinate per tempo crescente. Se sono più di {@code maxResults} vengono
+     * restituite le migliori e l'header {@code X-Strategy-Truncated} vale {@code true}.
+     * </p>
+     *
+     * @param circuit    Il nome del circuito.
+     * @param laps       Il numero totale di giri della gara.
+     * @param airTemp    La temperatura dell'aria in gradi Celsius.
+     * @param trackTemp  La temperatura dell'asfalto in gradi Celsius.
+     * @param tolerance  La distanza massima dall'ottimo, in secondi (default 5).
+     * @param maxResults Il numero massimo di strategie restituite (default 200, al più 1000).
+     * @return Le strategie entro la tolleranza, o una lista vuota se il servizio ML non risponde;
+     * 400 se i parametri sono fuori dai limiti.
+     */
+    // 1e. Strategie quasi ottime
+    @GetMapping("/strategy/near-optimal")
+    public ResponseEntity<List<RaceStrategy>> getNearOptimalStrategies(
+            @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
+            @RequestParam(defaultValue = "57") int laps,
+            @RequestParam(defaultValue = "30.0") double airTemp,
+            @RequestParam(defaultValue = "45.0") double trackTemp,
+            @RequestParam(defaultValue = "5.0") double tolerance,
+            @RequestParam(defaultValue = "200") int maxResults) {
+
+        if (laps < 1 || laps > STRATEGY_MAX_LAPS) return ResponseEntity.badRequest().build();
+        if (!(tolerance >= 0) || maxResults < 1 || maxResults > NEAR_OPTIMAL_MAX_RESULTS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        PredictionResponse predictions = mlService.getPrediction(circuit, airTemp, trackTemp);
+        if (predictions == null) return ResponseEntity.ok(new ArrayList<>());
+
+        OptimizationResult result = optimizer.enumerateNearOptimal(laps, predictions.getPredictions(),
+                tolerance, maxResults);
+        return ResponseEntity.ok()
+                .header("X-Strategy-Engine", result.getEngine())
+                .header("X-Strategy-Nodes-Expanded", String.valueOf(result.getNodesExpanded()))
+                .header("X-Strategy-Dp-States", String.valueOf(result.getDpStates()))
+                .header("X-Strategy-Truncated", String.valueOf(result.isTruncated()))
+                .body(result.getStrategies());
+    }
+
+    /**
+     * Esporta la tabella dei valori della DP per i grafici delle finestre di sosta.
+     * <p>
+     * Per ogni giro e mescola riporta il tempo totale fermandosi in quel giro e il guadagno nel restare
+     * fuori, oltre al miglior tempo per finire la gara da ogni stato (vedi {@link PitWindowTable}).
+     * Con questi array il frontend può disegnare le finestre di sosta e aggiornare i grafici localmente,
+     * senza nuove chiamate a {@code /api/strategy}.
+     * </p>
+     *
+     * @param circuit   Il nome del circuito.
+     * @param laps      Il numero totale di giri della gara.
+     * @param airTemp   La temperatura dell'aria in gradi Celsius.
+     * @param trackTemp La temperatura dell'asfalto in gradi Celsius.
+     * @return La tabella dei valori, 400 se i giri sono fuori dai limiti oppure 503 se il servizio ML non risponde.
+     */
+    // 1f. Finestre di sosta
+    @GetMapping("/strategy/pit-window")
+    public ResponseEntity<PitWindowTable> getPitWindowTable(
             @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
             @RequestParam(defaultValue = "57") int laps,
             @RequestParam(defaultValue = "30.0") double airTemp,
             @RequestParam(defaultValue = "45.0") double trackTemp) {
 
+        if (laps < 1 || laps > STRATEGY_MAX_LAPS) return ResponseEntity.badRequest().build();
+
+        PredictionResponse predictions = mlService.getPrediction(circuit, airTemp, trackTemp);
+        if (predictions == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        PitWindowTable table = optimizer.pitWindowTable(laps, predictions.getPredictions());
+        table.setCircuit(circuit);
+        return ResponseEntity.ok(table);
+    }
+
+    /**
+     * Calcola la strategia ottima in valore atteso considerando la probabilità di safety car.
+     * <p>
+     * Restituisce il tempo atteso, il piano nominale (da seguire finché la safety car non entra in pista)
+     * e la politica reattiva: per ogni giro, mescola ed età della gomma, se fermarsi quando esce la
+     * safety car (vedi {@link SafetyCarPlan}).
+     * </p>
+     *
+     * @param circuit          Il nome del circuito.
+     * @param laps             Il numero totale di giri della gara.
+     * @param airTemp          La temperatura dell'aria in gradi Celsius.
+     * @param trackTemp        La temperatura dell'asfalto in gradi Celsius.
+     * @param scProbability    La probabilità di safety car in ogni giro (default 0.03), se non indicata giro per giro.
+     * @param scProbabilities  Le probabilità giro per giro (facoltative; i giri mancanti usano {@code scProbability}).
+     * @param scPitLoss        Il tempo perso per un pit-stop in regime di safety car.
+     * @return Il piano, 400 se i parametri non sono validi oppure 503 se il servizio ML non risponde.
+     */
+    // 1g. Strategia con safety car
+    @GetMapping("/strategy/safety-car")
+    public ResponseEntity<SafetyCarPlan> getSafetyCarPlan(
+            @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
+            @RequestParam(defaultValue = "57") int laps,
+            @RequestParam(defaultValue = "30.0") double airTemp,
+            @RequestParam(defaultValue = "45.0") double trackTemp,
+            @RequestParam(defaultValue = "0.03") double scProbability,
+            @RequestParam(required = false) List<Double> scProbabilities,
+            @RequestParam(defaultValue = "" + OptimizationEngine.DEFAULT_SAFETY_CAR_PIT_LOSS) double scPitLoss) {
+
+        if (laps < 2 || laps > SAFETY_CAR_MAX_LAPS || scPitLoss < 0) return ResponseEntity.badRequest().build();
+
+        double[] probabilities = new double[laps];
+        for (int lap = 0; lap < laps; lap++) {
+            probabilities[lap] = (scProbabilities != null && lap < scProbabilities.size())
+                    ? scProbabilities.get(lap) : scProbability;
+        }
+
         PredictionResponse predictions = mlService.getPrediction(circuit, airTemp, trackTemp);
-        if (predictions == null) return new ArrayList<>();
-        return optimizer.calculateTop3Strategies(laps, predictions.getPredictions());
+        if (predictions == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        try {
+            SafetyCarPlan plan = optimizer.optimizeWithSafetyCar(laps, predictions.getPredictions(), probabilities, scPitLoss);
+            plan.setCircuit(circuit);
+            return ResponseEntity.ok(plan);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Confronta le strategie candidate simulando molte gare con safety car, variabilità dei pit-stop
+     * ed errore sulla predizione del degrado.
+     * <p>
+     * Le candidate (ad esempio il Top K di {@code /strategy}) corrono le stesse gare simulate; per
+     * ognuna restituisce tempo medio, deviazione standard, 10° e 90° percentile e probabilità di
+     * essere la più veloce.
+     * </p>
+     *
+     * @param candidates       Le strategie da confrontare.
+     * @param circuit          Il nome del circuito.
+     * @param airTemp          La temperatura dell'aria in gradi Celsius.
+     * @param trackTemp        La temperatura dell'asfalto in gradi Celsius.
+     * @param races            Il numero di gare simulate (default 100000).
+     * @param scProbability    La probabilità di safety car in ogni giro (default 0.03).
+     * @param scPitLoss        Il tempo perso per un pit-stop in regime di safety car.
+     * @param pitLossSigma     La deviazione standard del tempo perso ai box, in secondi (default 1.0).
+     * @param degradationSigma La deviazione standard relativa del degrado reale (default 0.15).
+     * @param seed             Il seme del generatore casuale (facoltativo, per risultati riproducibili).
+     * @return Gli esiti, 400 se i parametri o le strategie non sono validi oppure 503 se il servizio ML non risponde.
+     */
+    // 1h. Simulazione Monte Carlo delle strategie candidate
+    @PostMapping("/strategy/simulate")
+    public ResponseEntity<SimulationResult> simulateStrategies(
+            @RequestBody List<RaceStrategy> candidates,
+            @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
+            @RequestParam(defaultValue = "30.0") double airTemp,
+            @RequestParam(defaultValue = "45.0") double trackTemp,
+            @RequestParam(defaultValue = "100000") int races,
+            @RequestParam(defaultValue = "0.03") double scProbability,
+            @RequestParam(defaultValue = "" + OptimizationEngine.DEFAULT_SAFETY_CAR_PIT_LOSS) double scPitLoss,
+            @RequestParam(defaultValue = "1.0") double pitLossSigma,
+            @RequestParam(defaultValue = "0.15") double degradationSigma,
+            @RequestParam(required = false) Long seed) {
+
+        if (candidates == null || candidates.isEmpty() || races < 1 || races > SIMULATION_MAX_RACES
+                || scPitLoss < 0 || pitLossSigma < 0 || degradationSigma < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        PredictionResponse predictions = mlService.getPrediction(circuit, airTemp, trackTemp);
+        if (predictions == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        SimulationOptions options = new SimulationOptions();
+        options.setRaces(races);
+        options.setSafetyCarProbability(scProbability);
+        options.setSafetyCarPitLoss(scPitLoss);
+        options.setPitLossSigma(pitLossSigma);
+        options.setDegradationSigma(degradationSigma);
+        options.setSeed(seed);
+        try {
+            return ResponseEntity.ok(simulator.simulate(candidates, predictions.getPredictions(), options));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Calcola la strategia robusta rispetto all'incertezza delle predizioni del servizio ML.
+     * <p>
+     * Il servizio ML restituisce, oltre alla predizione media, i quantili delle predizioni dei singoli
+     * alberi della Random Forest; ogni combinazione dei quantili delle mescole è uno scenario e viene
+     * scelta la strategia con il minor tempo nello scenario peggiore ({@code WORST_CASE}) oppure con il
+     * minor CVaR ({@code CVAR}, media della coda peggiore di peso {@code 1 - alpha}). Se il servizio ML
+     * non restituisce quantili resta il solo scenario puntuale.
+     * </p>
+     * <p>
+     * Allo scadere di {@code budgetMs} viene restituita la migliore strategia trovata: il risultato è
+     * marcato come parziale (anche nell'header {@code X-Strategy-Partial}) e riporta la distanza massima
+     * dall'ottimo robusto.
+     * </p>
+     *
+     * @param circuit   Il nome del circuito.
+     * @param laps      Il numero totale di giri della gara.
+     * @param airTemp   La temperatura dell'aria in gradi Celsius.
+     * @param trackTemp La temperatura dell'asfalto in gradi Celsius.
+     * @param quantiles I quantili richiesti al servizio ML (default 0.1, 0.5, 0.9).
+     * @param measure   La misura di rischio: {@code WORST_CASE} (default) oppure {@code CVAR}.
+     * @param alpha     Il livello del CVaR (default 0.8).
+     * @param budgetMs  Il budget di tempo del calcolo in millisecondi (default 2000, 0 = nessun limite).
+     * @return Il risultato, 400 se i parametri non sono validi oppure 503 se il servizio ML non risponde.
+     */
+    // 1i. Strategia robusta sugli scenari di predizione
+    @GetMapping("/strategy/robust")
+    public ResponseEntity<RobustStrategyResult> getRobustStrategy(
+            @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
+            @RequestParam(defaultValue = "57") int laps,
+            @RequestParam(defaultValue = "30.0") double airTemp,
+            @RequestParam(defaultValue = "45.0") double trackTemp,
+            @RequestParam(defaultValue = "0.1,0.5,0.9") List<Double> quantiles,
+            @RequestParam(defaultValue = "WORST_CASE") RiskMeasure measure,
+            @RequestParam(defaultValue = "0.8") double alpha,
+            @RequestParam(defaultValue = "" + ROBUST_DEFAULT_BUDGET_MS) long budgetMs) {
+
+        if (laps < 2 || laps > ROBUST_MAX_LAPS) return ResponseEntity.badRequest().build();
+        for (Double quantile : quantiles) {
+            if (quantile == null || !(quantile >= 0.0 && quantile <= 1.0)) return ResponseEntity.badRequest().build();
+        }
+
+        PredictionResponse predictions = mlService.getPrediction(circuit, airTemp, trackTemp, quantiles);
+        if (predictions == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        try {
+            List<List<PredictionResponse.TyrePrediction>> scenarios =
+                    OptimizationEngine.quantileScenarios(predictions.getPredictions());
+            RobustStrategyResult result = optimizer.optimizeRobust(laps, scenarios, measure, alpha,
+                    Deadline.after(budgetMs));
+            result.setCircuit(circuit);
+            return ResponseEntity.ok()
+                    .header("X-Strategy-Scenarios", String.valueOf(scenarios.size()))
+                    .header("X-Strategy-Nodes-Expanded", String.valueOf(result.getNodesExpanded()))
+                    .header("X-Strategy-Partial", String.valueOf(result.isPartial()))
+                    .body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Invia un evento dello stream; se il client non è più raggiungibile annulla il calcolo.
+     */
+    private void sendEvent(SseEmitter emitter, Deadline deadline, String name, Object data) {
+        if (deadline.wasReached() && !"complete".equals(name)) return;
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            deadline.cancel();
+        }
+    }
+
+    /**
+     * Arresta l'esecutore dei calcoli in streaming alla chiusura dell'applicazione.
+     */
+    @PreDestroy
+    public void shutdownStreams() {
+        streamExecutor.shutdownNow();
     }
 
     /**
@@ -0,0 +1,114 @@
+package com.ivancaccamo.pacf1.controller;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse;
+import com.ivancaccamo.pacf1.model.WhatIfSession;
+import com.ivancaccamo.pacf1.service.PythonMLService;
+import com.ivancaccamo.pacf1.service.WhatIfService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller REST per le analisi "what-if" interattive (slider dell'interfaccia).
+ * <p>
+ * Il client apre una sessione per uno scenario e poi modifica un parametro alla volta:
+ * ogni risposta contiene la strategia migliore per ogni numero di soste con i parametri aggiornati.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+@RestController
+@RequestMapping("/api/whatif")
+public class WhatIfController {
+
+    @Autowired
+    private PythonMLService mlService;
+
+    @Autowired
+    private WhatIfService whatIfService;
+
+    /**
+     * Apre una sessione what-if partendo dalle predizioni del servizio ML.
+     *
+     * @param circuit   Il nome del circuito.
+     * @param laps      Il numero totale di giri della gara.
+     * @param airTemp   La temperatura dell'aria in gradi Celsius.
+     * @param trackTemp La temperatura dell'asfalto in gradi Celsius.
+     * @param maxStops  Il numero massimo di soste considerato (al più {@link WhatIfService#MAX_STOPS}).
+     * @param pitLoss   Il tempo perso per ogni pit-stop (se assente, il valore standard del motore).
+     * @return Lo stato della sessione, 400 se i giri, le soste o la perdita ai box sono fuori dai limiti
+     *         oppure 503 se il servizio ML non risponde.
+     */
+    @PostMapping("/sessions")
+    public ResponseEntity<WhatIfSession> openSession(
+            @RequestParam(defaultValue = "Bahrain Grand Prix") String circuit,
+            @RequestParam(defaultValue = "57") int laps,
+            @RequestParam(defaultValue = "30.0") double airTemp,
+            @RequestParam(defaultValue = "45.0") double trackTemp,
+            @RequestParam(defaultValue = "" + WhatIfService.DEFAULT_MAX_STOPS) int maxStops,
+            @RequestParam(required = false) Double pitLoss) {
+
+        // Controllo anticipato: evita la chiamata al servizio ML per richieste che verrebbero rifiutate
+        if (laps < 1 || laps > WhatIfService.MAX_LAPS || maxStops < 0 || maxStops > WhatIfService.MAX_STOPS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        PredictionResponse predictions = mlService.getPrediction(circuit, airTemp, trackTemp);
+        if (predictions == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        try {
+            return ResponseEntity.ok(whatIfService.openSession(circuit, laps, predictions.getPredictions(), maxStops, pitLoss));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Richiesta what-if non valida: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Cambia il tempo perso per ogni pit-stop.
+     *
+     * @param id    L'identificativo della sessione.
+     * @param value Il nuovo tempo perso in secondi.
+     * @return Lo stato aggiornato, oppure 400 se la sessione o il valore non sono validi.
+     */
+    @PutMapping("/sessions/{id}/pit-loss")
+    public ResponseEntity<WhatIfSession> setPitLoss(@PathVariable String id, @RequestParam double value) {
+        try {
+            return ResponseEntity.ok(whatIfService.setPitLoss(id, value));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Richiesta what-if non valida: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Cambia la predizione di degrado di una mescola.
+     *
+     * @param id              L'identificativo della sessione.
+     * @param compound        La mescola da modificare.
+     * @param baseTime        Il nuovo tempo sul giro con gomma nuova.
+     * @param degradationRate Il nuovo degrado per giro.
+     * @return Lo stato aggiornato, oppure 400 se la sessione o la mescola non esistono o i valori non sono validi.
+     */
+    @PutMapping("/sessions/{id}/compounds/{compound}")
+    public ResponseEntity<WhatIfSession> updateCompound(@PathVariable String id, @PathVariable String compound,
+                                                        @RequestParam double baseTime,
+                                                        @RequestParam double degradationRate) {
+        try {
+            return ResponseEntity.ok(whatIfService.updateCompound(id, compound, baseTime, degradationRate));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Richiesta what-if non valida: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Chiude una sessione what-if.
+     *
+     * @param id L'identificativo della sessione.
+     */
+    @DeleteMapping("/sessions/{id}")
+    public void closeSession(@PathVariable String id) {
+        whatIfService.closeSession(id);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ivancaccamo.pacf1.model;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object che descrive la curva di degrado di una mescola.
+ * <p>
+ * Viene inviato dal servizio di Machine Learning insieme alla predizione di una mescola
+ * (campo {@code degradation_model}) e indica come il tempo sul giro cresce con l'età della gomma,
+ * a partire da {@code base_time} e {@code degradation_rate}. Senza specifica il degrado è lineare.
+ * I tipi supportati e il significato dei parametri sono:
+ * </p>
+ * <ul>
+ *     <li>{@code LINEAR}: il tempo cresce di {@code degradation_rate} ad ogni giro;</li>
+ *     <li>{@code QUADRATIC}: come il lineare, più {@code quadratic_rate * età^2} (usura che accelera);</li>
+ *     <li>{@code PIECEWISE}: il degrado per giro è {@code degradation_rate * rate_factors[i]} nel tratto
+ *     {@code i}, con i tratti separati dalle età di {@code breakpoints} (un fattore negativo nel primo
+ *     tratto descrive i giri di riscaldamento della gomma);</li>
+ *     <li>{@code CLIFF}: lineare fino all'età {@code cliff_lap}, poi il tempo peggiora di colpo di
+ *     {@code cliff_penalty} secondi e continua a crescere di {@code cliff_rate} in più per giro.</li>
+ * </ul>
+ *
+ * @author Team SPS-F1
+ */
+public class DegradationSpec {
+    private String type;
+    private double quadratic_rate;
+    private List<Integer> breakpoints;
+    private List<Double> rate_factors;
+    private int cliff_lap;
+    private double cliff_penalty;
+    private double cliff_rate;
+
+    /**
+     * Costruttore vuoto (necessario per Jackson).
+     */
+    public DegradationSpec() {}
+
+    /**
+     * Costruttore con il solo tipo del modello.
+     *
+     * @param type Il tipo del modello (es. "CLIFF").
+     */
+    public DegradationSpec(String type) {
+        this.type = type;
+    }
+
+    // Getters e Setters
+
+    /**
+     * Restituisce il tipo del modello.
+     * @return Il tipo ("LINEAR", "QUADRATIC", "PIECEWISE" o "CLIFF").
+     */
+    public String getType() { return type; }
+
+    /**
+     * Imposta il tipo del modello.
+     * @param type Il tipo del modello.
+     */
+    public void setType(String type) { this.type = type; }
+
+    /**
+     * Restituisce il coefficiente quadratico del modello {@code QUADRATIC}.
+     * @return I secondi per giro al quadrato.
+     */
+    public double getQuadratic_rate() { return quadratic_rate; }
+
+    /**
+     * Imposta il coefficiente quadratico del modello {@code QUADRATIC}.
+     * @param quadratic_rate I secondi per giro al quadrato.
+     */
+    public void setQuadratic_rate(double quadratic_rate) { this.quadratic_rate = quadratic_rate; }
+
+    /**
+     * Restituisce le età a cui iniziano i tratti del modello {@code PIECEWISE} (dopo il primo).
+     * @return Le età, in ordine crescente.
+     */
+    public List<Integer> getBreakpoints() { return breakpoints; }
+
+    /**
+     * Imposta le età a cui iniziano i tratti del modello {@code PIECEWISE}.
+     * @param breakpoints Le età, in ordine crescente.
+     */
+    public void setBreakpoints(List<Integer> breakpoints) { this.breakpoints = breakpoints; }
+
+    /**
+     * Restituisce i fattori del degrado per ogni tratto del modello {@code PIECEWISE}.
+     * @return Un fattore per tratto (uno in più delle età di separazione).
+     */
+    public List<Double> getRate_factors() { return rate_factors; }
+
+    /**
+     * Imposta i fattori del degrado per ogni tratto del modello {@code PIECEWISE}.
+     * @param rate_factors Un fattore per tratto.
+     */
+    public void setRate_factors(List<Double> rate_factors) { this.rate_factors = rate_factors; }
+
+    /**
+     * Restituisce l'età della gomma a cui inizia il crollo del modello {@code CLIFF}.
+     * @return L'età in giri.
+     */
+    public int getCliff_lap() { return cliff_lap; }
+
+    /**
+     * Imposta l'età della gomma a cui inizia il crollo del modello {@code CLIFF}.
+     * @param cliff_lap L'età in giri.
+     */
+    public void setCliff_lap(int cliff_lap) { this.cliff_lap = cliff_lap; }
+
+    /**
+     * Restituisce il peggioramento improvviso del tempo sul giro al crollo.
+     * @return I secondi persi.
+     */
+    public double getCliff_penalty() { return cliff_penalty; }
+
+    /**
+     * Imposta il peggioramento improvviso del tempo sul giro al crollo.
+     * @param cliff_penalty I secondi persi.
+     */
+    public void setCliff_penalty(double cliff_penalty) { this.cliff_penalty = cliff_penalty; }
+
+    /**
+     * Restituisce il degrado aggiuntivo per giro dopo il crollo.
+     * @return I secondi per giro.
+     */
+    public double getCliff_rate() { return cliff_rate; }
+
+    /**
+     * Imposta il degrado aggiuntivo per giro dopo il crollo.
+     * @param cliff_rate I secondi per giro.
+     */
+    public void setCliff_rate(double cliff_rate) { this.cliff_rate = cliff_rate; }
+}
@@ -0,0 +1,106 @@
+package com.ivancaccamo.pacf1.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Descrizione di una sessione di ottimizzazione live (gara in corso).
+ * <p>
+ * La sessione conserva lato server la tabella della DP già risolta per la gara:
+ * il client usa l'identificativo per chiedere a ogni giro il piano per i giri rimanenti.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class LiveSession {
+
+    /**
+     * L'identificativo della sessione.
+     */
+    private String id;
+
+    /**
+     * Il circuito della gara.
+     */
+    private String circuit;
+
+    /**
+     * Il numero totale di giri della gara.
+     */
+    private int laps;
+
+    /**
+     * Le mescole disponibili (nell'ordine usato dalla DP).
+     */
+    private List<String> compounds = new ArrayList<>();
+
+    /**
+     * Costruttore vuoto.
+     */
+    public LiveSession() {}
+
+    /**
+     * Costruttore completo.
+     *
+     * @param id        L'identificativo della sessione.
+     * @param circuit   Il circuito della gara.
+     * @param laps      Il numero totale di giri.
+     * @param compounds Le mescole disponibili.
+     */
+    public LiveSession(String id, String circuit, int laps, List<String> compounds) {
+        this.id = id;
+        this.circuit = circuit;
+        this.laps = laps;
+        this.compounds = compounds;
+    }
+
+    // Getters e Setters
+
+    /**
+     * Restituisce l'identificativo della sessione.
+     * @return L'identificativo.
+     */
+    public String getId() { return id; }
+
+    /**
+     * Imposta l'identificativo della sessione.
+     * @param id L'identificativo.
+     */
+    public void setId(String id) { this.id = id; }
+
+    /**
+     * Restituisce il circuito della gara.
+     * @return Il nome del circuito.
+     */
+    public String getCircuit() { return circuit; }
+
+    /**
+     * Imposta il circuito della gara.
+     * @param circuit Il nome del circuito.
+     */
+    public void setCircuit(String circuit) { this.circuit = circuit; }
+
+    /**
+     * Restituisce il numero totale di giri.
+     * @return Il numero di giri.
+     */
+    public int getLaps() { return laps; }
+
+    /**
+     * Imposta il numero totale di giri.
+     * @param laps Il numero di giri.
+     */
+    public void setLaps(int laps) { this.laps = laps; }
+
+    /**
+     * Restituisce le mescole disponibili.
+     * @return La lista delle mescole.
+     */
+    public List<String> getCompounds() { return compounds; }
+
+    /**
+     * Imposta le mescole disponibili.
+     * @param compounds La lista delle mescole.
+     */
+    public void setCompounds(List<String> compounds) { this.compounds = compounds; }
+}
@@ -0,0 +1,161 @@
+package com.ivancaccamo.pacf1.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Risultato di un calcolo di ottimizzazione, comprensivo delle statistiche di esecuzione.
+ * <p>
+ * Oltre alle strategie trovate, riporta quale motore le ha calcolate e quanto lavoro è stato necessario:
+ * i nodi espansi dal motore scelto e il numero di stati che la DP esaustiva risolverebbe per lo stesso
+ * problema, così i motori alternativi possono essere confrontati con quello di riferimento.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class OptimizationResult {
+
+    /**
+     * Le strategie trovate, ordinate per tempo totale crescente.
+     */
+    private List<RaceStrategy> strategies = new ArrayList<>();
+
+    /**
+     * Il motore che ha calcolato il risultato (es. "DP", "BRANCH_AND_BOUND").
+     */
+    private String engine;
+
+    /**
+     * Il numero di nodi (stati o strategie parziali) espansi dal motore.
+     */
+    private long nodesExpanded;
+
+    /**
+     * Il numero di stati (giro, maschera gomme usate) della tabella completa della DP esaustiva.
+     */
+    private long dpStates;
+
+    /**
+     * Distanza in secondi tra la migliore strategia trovata e l'ottimo esatto,
+     * oppure {@code null} se l'ottimo esatto non è noto (motori approssimati).
+     */
+    private Double optimalityGap;
+
+    /**
+     * {@code true} se il calcolo è stato interrotto dal budget di tempo: le strategie sono le migliori
+     * trovate fino a quel momento e potrebbero non essere ottime.
+     */
+    private boolean partial;
+
+    /**
+     * {@code true} se la lista è stata limitata al numero massimo di strategie richiesto
+     * e ne esistono altre che soddisfano la richiesta (es. entro la tolleranza dall'ottimo).
+     */
+    private boolean truncated;
+
+    /**
+     * Costruttore vuoto.
+     */
+    public OptimizationResult() {}
+
+    /**
+     * Costruttore completo.
+     *
+     * @param strategies    Le strategie trovate.
+     * @param engine        Il motore che ha calcolato il risultato.
+     * @param nodesExpanded Il numero di nodi espansi.
+     * @param dpStates      Il numero di stati della DP esaustiva.
+     */
+    public OptimizationResult(List<RaceStrategy> strategies, String engine, long nodesExpanded, long dpStates) {
+        this.strategies = strategies;
+        this.engine = engine;
+        this.nodesExpanded = nodesExpanded;
+        this.dpStates = dpStates;
+    }
+
+    // Getters e Setters
+
+    /**
+     * Restituisce le strategie trovate.
+     * @return Una lista di oggetti {@link RaceStrategy}.
+     */
+    public List<RaceStrategy> getStrategies() { return strategies; }
+
+    /**
+     * Imposta le strategie trovate.
+     * @param strategies La lista di strategie.
+     */
+    public void setStrategies(List<RaceStrategy> strategies) { this.strategies = strategies; }
+
+    /**
+     * Restituisce il motore che ha calcolato il risultato.
+     * @return Il nome del motore.
+     */
+    public String getEngine() { return engine; }
+
+    /**
+     * Imposta il motore che ha calcolato il risultato.
+     * @param engine Il nome del motore.
+     */
+    public void setEngine(String engine) { this.engine = engine; }
+
+    /**
+     * Restituisce il numero di nodi espansi.
+     * @return Il numero di nodi.
+     */
+    public long getNodesExpanded() { return nodesExpanded; }
+
+    /**
+     * Imposta il numero di nodi espansi.
+     * @param nodesExpanded Il numero di nodi.
+     */
+    public void setNodesExpanded(long nodesExpanded) { this.nodesExpanded = nodesExpanded; }
+
+    /**
+     * Restituisce il numero di stati della DP esaustiva.
+     * @return Il numero di stati.
+     */
+    public long getDpStates() { return dpStates; }
+
+    /**
+     * Imposta il numero di stati della DP esaustiva.
+     * @param dpStates Il numero di stati.
+     */
+    public void setDpStates(long dpStates) { this.dpStates = dpStates; }
+
+    /**
+     * Restituisce la distanza dall'ottimo esatto.
+     * @return La distanza in secondi, oppure {@code null} se non nota.
+     */
+    public Double getOptimalityGap() { return optimalityGap; }
+
+    /**
+     * Imposta la distanza dall'ottimo esatto.
+     * @param optimalityGap La distanza in secondi.
+     */
+    public void setOptimalityGap(Double optimalityGap) { this.optimalityGap = optimalityGap; }
+
+    /**
+     * Indica se il risultato è parziale (budget di tempo esaurito).
+     * @return {@code true} se il calcolo è stato interrotto.
+     */
+    public boolean isPartial() { return partial; }
+
+    /**
+     * Imposta se il risultato è parziale.
+     * @param partial {@code true} se il calcolo è stato interrotto.
+     */
+    public void setPartial(boolean partial) { this.partial = partial; }
+
+    /**
+     * Indica se la lista delle strategie è stata troncata.
+     * @return {@code true} se esistono altre strategie oltre a quelle restituite.
+     */
+    public boolean isTruncated() { return truncated; }
+
+    /**
+     * Imposta se la lista delle strategie è stata troncata.
+     * @param truncated {@code true} se esistono altre strategie oltre a quelle restituite.
+     */
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+}
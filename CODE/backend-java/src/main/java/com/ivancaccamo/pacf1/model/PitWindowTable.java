@@ -0,0 +1,190 @@
+package com.ivancaccamo.pacf1.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tabella dei valori della DP esportata per i grafici delle finestre di sosta.
+ * <p>
+ * Contiene, in array compatti, tutto ciò che serve al frontend per valutare le decisioni ai box
+ * senza richiamare il server:
+ * </p>
+ * <ul>
+ *     <li>{@link #getStintTimes()}: {@code [mescola][n]} tempo dei primi {@code n} giri di uno stint
+ *     con gomme nuove;</li>
+ *     <li>{@link #getRemainingTimes()}: {@code [maschera][giro]} miglior tempo per finire la gara
+ *     rientrando ai box alla fine del giro, avendo già usato le mescole della maschera
+ *     (bit {@code i} = mescola {@code i} di {@link #getCompounds()}), pit-stop compreso;</li>
+ *     <li>{@link #getPitLapTimes()}: {@code [mescola][giro]} tempo totale della gara partendo con la
+ *     mescola e fermandosi per la prima volta alla fine del giro;</li>
+ *     <li>{@link #getStayOutGains()}: {@code [mescola][giro]} quanto si guadagna restando fuori invece di
+ *     fermarsi alla fine del giro (positivo: conviene restare fuori, negativo o zero: conviene fermarsi).</li>
+ * </ul>
+ * <p>
+ * Le celle irraggiungibili o senza una strategia valida valgono {@code null}.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class PitWindowTable {
+
+    /**
+     * Il circuito della tabella.
+     */
+    private String circuit;
+
+    /**
+     * Il numero totale di giri della gara.
+     */
+    private int laps;
+
+    /**
+     * Il tempo perso per ogni pit-stop, già compreso nei tempi della tabella.
+     */
+    private double pitLoss;
+
+    /**
+     * Il tempo totale della strategia ottima.
+     */
+    private Double optimalTime;
+
+    /**
+     * Le mescole, nell'ordine usato dagli indici e dai bit delle maschere.
+     */
+    private List<String> compounds = new ArrayList<>();
+
+    /**
+     * Tempo dei primi {@code n} giri di uno stint per ogni mescola.
+     */
+    private double[][] stintTimes;
+
+    /**
+     * Miglior tempo per finire la gara da ogni stato (maschera, giro).
+     */
+    private Double[][] remainingTimes;
+
+    /**
+     * Tempo totale della gara per ogni mescola di partenza e giro della prima sosta.
+     */
+    private Double[][] pitLapTimes;
+
+    /**
+     * Guadagno nel restare fuori invece di fermarsi, per ogni mescola di partenza e giro.
+     */
+    private Double[][] stayOutGains;
+
+    /**
+     * Costruttore vuoto.
+     */
+    public PitWindowTable() {}
+
+    // Getters e Setters
+
+    /**
+     * Restituisce il circuito della tabella.
+     * @return Il nome del circuito.
+     */
+    public String getCircuit() { return circuit; }
+
+    /**
+     * Imposta il circuito della tabella.
+     * @param circuit Il nome del circuito.
+     */
+    public void setCircuit(String circuit) { this.circuit = circuit; }
+
+    /**
+     * Restituisce il numero totale di giri.
+     * @return Il numero di giri.
+     */
+    public int getLaps() { return laps; }
+
+    /**
+     * Imposta il numero totale di giri.
+     * @param laps Il numero di giri.
+     */
+    public void setLaps(int laps) { this.laps = laps; }
+
+    /**
+     * Restituisce il tempo perso per ogni pit-stop.
+     * @return Il tempo in secondi.
+     */
+    public double getPitLoss() { return pitLoss; }
+
+    /**
+     * Imposta il tempo perso per ogni pit-stop.
+     * @param pitLoss Il tempo in secondi.
+     */
+    public void setPitLoss(double pitLoss) { this.pitLoss = pitLoss; }
+
+    /**
+     * Restituisce il tempo totale della strategia ottima.
+     * @return Il tempo in secondi, oppure {@code null} se non esiste una strategia valida.
+     */
+    public Double getOptimalTime() { return optimalTime; }
+
+    /**
+     * Imposta il tempo totale della strategia ottima.
+     * @param optimalTime Il tempo in secondi.
+     */
+    public void setOptimalTime(Double optimalTime) { this.optimalTime = optimalTime; }
+
+    /**
+     * Restituisce le mescole della tabella.
+     * @return La lista delle mescole.
+     */
+    public List<String> getCompounds() { return compounds; }
+
+    /**
+     * Imposta le mescole della tabella.
+     * @param compounds La lista delle mescole.
+     */
+    public void setCompounds(List<String> compounds) { this.compounds = compounds; }
+
+    /**
+     * Restituisce i tempi degli stint.
+     * @return La matrice {@code [mescola][giri]}.
+     */
+    public double[][] getStintTimes() { return stintTimes; }
+
+    /**
+     * Imposta i tempi degli stint.
+     * @param stintTimes La matrice {@code [mescola][giri]}.
+     */
+    public void setStintTimes(double[][] stintTimes) { this.stintTimes = stintTimes; }
+
+    /**
+     * Restituisce i migliori tempi per finire la gara.
+     * @return La matrice {@code [maschera][giro]}.
+     */
+    public Double[][] getRemainingTimes() { return remainingTimes; }
+
+    /**
+     * Imposta i migliori tempi per finire la gara.
+     * @param remainingTimes La matrice {@code [maschera][giro]}.
+     */
+    public void setRemainingTimes(Double[][] remainingTimes) { this.remainingTimes = remainingTimes; }
+
+    /**
+     * Restituisce i tempi totali per giro della prima sosta.
+     * @return La matrice {@code [mescola][giro]}.
+     */
+    public Double[][] getPitLapTimes() { return pitLapTimes; }
+
+    /**
+     * Imposta i tempi totali per giro della prima sosta.
+     * @param pitLapTimes La matrice {@code [mescola][giro]}.
+     */
+    public void setPitLapTimes(Double[][] pitLapTimes) { this.pitLapTimes = pitLapTimes; }
+
+    /**
+     * Restituisce i guadagni nel restare fuori.
+     * @return La matrice {@code [mescola][giro]}.
+     */
+    public Double[][] getStayOutGains() { return stayOutGains; }
+
+    /**
+     * Imposta i guadagni nel restare fuori.
+     * @param stayOutGains La matrice {@code [mescola][giro]}.
+     */
+    public void setStayOutGains(Double[][] stayOutGains) { this.stayOutGains = stayOutGains; }
+}
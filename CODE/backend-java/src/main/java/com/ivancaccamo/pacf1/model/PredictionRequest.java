@@ -37,6 +37,12 @@ public class PredictionRequest {
      */
     private List<String> compounds;
 
+    /**
+     * I quantili richiesti per l'incertezza delle predizioni (es. [0.1, 0.5, 0.9]),
+     * oppure {@code null} per la sola predizione puntuale.
+     */
+    private List<Double> quantiles;
+
     /**
      * Costruttore di default senza argomenti.
      * <p>
@@ -114,4 +120,16 @@ public class PredictionRequest {
      * @param compounds Lista di mescole.
      */
     public void setCompounds(List<String> compounds) { this.compounds = compounds; }
+
+    /**
+     * Restituisce i quantili richiesti.
+     * @return Lista dei quantili, oppure {@code null}.
+     */
+    public List<Double> getQuantiles() { return quantiles; }
+
+    /**
+     * Imposta i quantili richiesti per l'incertezza delle predizioni.
+     * @param quantiles Lista dei quantili (tra 0 e 1), oppure {@code null}.
+     */
+    public void setQuantiles(List<Double> quantiles) { this.quantiles = quantiles; }
 }
\ No newline at end of file
@@ -54,6 +54,8 @@ public class PredictionResponse {
         private String compound;
         private double base_time;
         private double degradation_rate;
+        private List<TyreQuantile> quantiles;
+        private DegradationSpec degradation_model;
 
         // Costruttori, Getter, Setter per TyrePrediction
 
@@ -100,5 +102,78 @@ public class PredictionResponse {
          * @param degradation_rate Il degrado in secondi per giro.
          */
         public void setDegradation_rate(double degradation_rate) { this.degradation_rate = degradation_rate; }
+
+        /**
+         * Restituisce i quantili della predizione, presenti solo se richiesti al servizio ML.
+         * <p>
+         * Sono calcolati sulle predizioni dei singoli alberi della Random Forest e descrivono
+         * quanto è incerta la stima di tempo base e degrado.
+         * </p>
+         * @return La lista dei quantili, oppure {@code null}.
+         */
+        public List<TyreQuantile> getQuantiles() { return quantiles; }
+
+        /**
+         * Imposta i quantili della predizione.
+         * @param quantiles La lista dei quantili.
+         */
+        public void setQuantiles(List<TyreQuantile> quantiles) { this.quantiles = quantiles; }
+
+        /**
+         * Restituisce la curva di degrado della mescola, se fornita dal servizio ML.
+         * @return La specifica del modello, oppure {@code null} per il degrado lineare.
+         */
+        public DegradationSpec getDegradation_model() { return degradation_model; }
+
+        /**
+         * Imposta la curva di degrado della mescola.
+         * @param degradation_model La specifica del modello, oppure {@code null} per il degrado lineare.
+         */
+        public void setDegradation_model(DegradationSpec degradation_model) { this.degradation_model = degradation_model; }
+    }
+
+    /**
+     * Classe interna statica che rappresenta un quantile della predizione di una mescola.
+     */
+    public static class TyreQuantile {
+        private double quantile;
+        private double base_time;
+        private double degradation_rate;
+
+        /**
+         * Restituisce il livello del quantile.
+         * @return Il livello (da 0 a 1, es. 0.9).
+         */
+        public double getQuantile() { return quantile; }
+
+        /**
+         * Imposta il livello del quantile.
+         * @param quantile Il livello (da 0 a 1).
+         */
+        public void setQuantile(double quantile) { this.quantile = quantile; }
+
+        /**
+         * Restituisce il tempo base al livello del quantile.
+         * @return Il tempo base in secondi.
+         */
+        public double getBase_time() { return base_time; }
+
+        /**
+         * Imposta il tempo base al livello del quantile.
+         * @param base_time Il tempo in secondi.
+         */
+        public void setBase_time(double base_time) { this.base_time = base_time; }
+
+        /**
+         * Restituisce il tasso di degrado al livello del quantile.
+         * @return Il degrado in secondi per giro.
+         */
+        public double getDegradation_rate() { return degradation_rate; }
+
+        /**
+         * Imposta il tasso di degrado al livello del quantile.
+         * @param degradation_rate Il degrado in secondi per giro.
+         */
+        public void setDegradation_rate(double degradation_rate) { this.degradation_rate = degradation_rate; }
     }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.ivancaccamo.pacf1.model;
+
+/**
+ * Risultato dell'ottimizzazione robusta su più scenari di predizione del servizio ML.
+ * <p>
+ * La strategia è la stessa in tutti gli scenari ed è quella con il minor tempo secondo la misura di
+ * rischio scelta (scenario peggiore oppure CVaR); vengono riportati anche i suoi tempi scenario per
+ * scenario, per confrontarla con la strategia ottima della sola predizione puntuale.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class RobustStrategyResult {
+
+    /**
+     * Il circuito del calcolo.
+     */
+    private String circuit;
+
+    /**
+     * La misura di rischio usata (es. "WORST_CASE", "CVAR").
+     */
+    private String riskMeasure;
+
+    /**
+     * Il livello del CVaR (non significativo per lo scenario peggiore).
+     */
+    private double alpha;
+
+    /**
+     * La strategia robusta; il suo tempo totale è il valore della misura di rischio.
+     */
+    private RaceStrategy strategy;
+
+    /**
+     * Il valore della misura di rischio per la strategia robusta.
+     */
+    private double riskTime;
+
+    /**
+     * Il tempo medio della strategia robusta sugli scenari.
+     */
+    private double meanTime;
+
+    /**
+     * Il tempo della strategia robusta in ogni scenario.
+     */
+    private double[] scenarioTimes;
+
+    /**
+     * Il numero di strategie parziali espanse dalla ricerca.
+     */
+    private long nodesExpanded;
+
+    /**
+     * {@code true} se la ricerca è stata interrotta (budget di tempo o di memoria): la strategia è la migliore
+     * trovata fino a quel momento.
+     */
+    private boolean partial;
+
+    /**
+     * Distanza massima in secondi tra il rischio della strategia e quello dell'ottimo robusto (0 se esatta).
+     */
+    private double optimalityGap;
+
+    /**
+     * Costruttore vuoto.
+     */
+    public RobustStrategyResult() {}
+
+    // Getters e Setters
+
+    /**
+     * Restituisce il circuito del calcolo.
+     * @return Il nome del circuito.
+     */
+    public String getCircuit() { return circuit; }
+
+    /**
+     * Imposta il circuito del calcolo.
+     * @param circuit Il nome del circuito.
+     */
+    public void setCircuit(String circuit) { this.circuit = circuit; }
+
+    /**
+     * Restituisce la misura di rischio usata.
+     * @return Il nome della misura.
+     */
+    public String getRiskMeasure() { return riskMeasure; }
+
+    /**
+     * Imposta la misura di rischio usata.
+     * @param riskMeasure Il nome della misura.
+     */
+    public void setRiskMeasure(String riskMeasure) { this.riskMeasure = riskMeasure; }
+
+    /**
+     * Restituisce il livello del CVaR.
+     * @return Il livello (da 0 a 1).
+     */
+    public double getAlpha() { return alpha; }
+
+    /**
+     * Imposta il livello del CVaR.
+     * @param alpha Il livello (da 0 a 1).
+     */
+    public void setAlpha(double alpha) { this.alpha = alpha; }
+
+    /**
+     * Restituisce la strategia robusta.
+     * @return La strategia, oppure {@code null} se non esiste una strategia valida.
+     */
+    public RaceStrategy getStrategy() { return strategy; }
+
+    /**
+     * Imposta la strategia robusta.
+     * @param strategy La strategia.
+     */
+    public void setStrategy(RaceStrategy strategy) { this.strategy = strategy; }
+
+    /**
+     * Restituisce il valore della misura di rischio.
+     * @return Il tempo in secondi.
+     */
+    public double getRiskTime() { return riskTime; }
+
+    /**
+     * Imposta il valore della misura di rischio.
+     * @param riskTime Il tempo in secondi.
+     */
+    public void setRiskTime(double riskTime) { this.riskTime = riskTime; }
+
+    /**
+     * Restituisce il tempo medio sugli scenari.
+     * @return Il tempo in secondi.
+     */
+    public double getMeanTime() { return meanTime; }
+
+    /**
+     * Imposta il tempo medio sugli scenari.
+     * @param meanTime Il tempo in secondi.
+     */
+    public void setMeanTime(double meanTime) { this.meanTime = meanTime; }
+
+    /**
+     * Restituisce i tempi della strategia in ogni scenario.
+     * @return I tempi in secondi, nell'ordine degli scenari.
+     */
+    public double[] getScenarioTimes() { return scenarioTimes; }
+
+    /**
+     * Imposta i tempi della strategia in ogni scenario.
+     * @param scenarioTimes I tempi in secondi.
+     */
+    public void setScenarioTimes(double[] scenarioTimes) { this.scenarioTimes = scenarioTimes; }
+
+    /**
+     * Restituisce il numero di strategie parziali espanse.
+     * @return Il numero di nodi.
+     */
+    public long getNodesExpanded() { return nodesExpanded; }
+
+    /**
+     * Imposta il numero di strategie parziali espanse.
+     * @param nodesExpanded Il numero di nodi.
+     */
+    public void setNodesExpanded(long nodesExpanded) { this.nodesExpanded = nodesExpanded; }
+
+    /**
+     * Indica se il risultato è parziale (ricerca interrotta).
+     * @return {@code true} se la ricerca è stata interrotta.
+     */
+    public boolean isPartial() { return partial; }
+
+    /**
+     * Imposta se il risultato è parziale.
+     * @param partial {@code true} se la ricerca è stata interrotta.
+     */
+    public void setPartial(boolean partial) { this.partial = partial; }
+
+    /**
+     * Restituisce la distanza massima dall'ottimo robusto.
+     * @return La distanza in secondi (0 se la strategia è ottima).
+     */
+    public double getOptimalityGap() { return optimalityGap; }
+
+    /**
+     * Imposta la distanza massima dall'ottimo robusto.
+     * @param optimalityGap La distanza in secondi.
+     */
+    public void setOptimalityGap(double optimalityGap) { this.optimalityGap = optimalityGap; }
+}
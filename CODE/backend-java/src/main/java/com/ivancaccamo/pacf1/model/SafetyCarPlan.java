@@ -0,0 +1,211 @@
+package com.ivancaccamo.pacf1.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Risultato dell'ottimizzazione in valore atteso con le probabilità di safety car.
+ * <p>
+ * Contiene il piano nominale (le decisioni da prendere finché la safety car non entra in pista) e la
+ * politica reattiva: per ogni giro, mescola montata ed età della gomma, la mescola da montare se alla
+ * fine di quel giro c'è la safety car, oppure {@link #STAY_OUT} se conviene restare fuori.
+ * </p>
+ * <p>
+ * Le politiche sono indicizzate {@code [mescola][giro][età]} (mescola = indice in {@link #getCompounds()},
+ * età = giri percorsi con la gomma montata, da 1 al giro) e sono due, perché la scelta dipende dalla
+ * regola delle due mescole: {@link #getSafetyCarPolicy()} vale quando è già stata usata una seconda
+ * mescola, {@link #getSafetyCarPolicyFirstCompound()} quando finora è stata usata solo quella montata.
+ * Le combinazioni impossibili valgono {@link #UNREACHABLE}.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class SafetyCarPlan {
+
+    /**
+     * Decisione della politica: restare fuori.
+     */
+    public static final int STAY_OUT = -1;
+
+    /**
+     * Decisione della politica per uno stato impossibile o senza decisione (partenza e traguardo).
+     */
+    public static final int UNREACHABLE = -2;
+
+    /**
+     * Il circuito del piano.
+     */
+    private String circuit;
+
+    /**
+     * Il numero totale di giri della gara.
+     */
+    private int laps;
+
+    /**
+     * Il tempo perso per un pit-stop in regime di bandiera verde.
+     */
+    private double pitLoss;
+
+    /**
+     * Il tempo perso per un pit-stop in regime di safety car.
+     */
+    private double safetyCarPitLoss;
+
+    /**
+     * La probabilità di safety car alla fine di ogni giro (indice = giro - 1).
+     */
+    private double[] safetyCarProbabilities;
+
+    /**
+     * Il tempo totale atteso seguendo la politica ottima.
+     */
+    private double expectedTime;
+
+    /**
+     * Il piano nominale: la strategia seguita se la safety car non entra mai (tempo senza safety car).
+     */
+    private RaceStrategy nominalStrategy;
+
+    /**
+     * Le mescole, nell'ordine usato dagli indici delle politiche.
+     */
+    private List<String> compounds = new ArrayList<>();
+
+    /**
+     * Politica in regime di safety car con la regola delle due mescole già soddisfatta.
+     */
+    private int[][][] safetyCarPolicy;
+
+    /**
+     * Politica in regime di safety car quando è stata usata solo la mescola montata.
+     */
+    private int[][][] safetyCarPolicyFirstCompound;
+
+    /**
+     * Costruttore vuoto.
+     */
+    public SafetyCarPlan() {}
+
+    // Getters e Setters
+
+    /**
+     * Restituisce il circuito del piano.
+     * @return Il nome del circuito.
+     */
+    public String getCircuit() { return circuit; }
+
+    /**
+     * Imposta il circuito del piano.
+     * @param circuit Il nome del circuito.
+     */
+    public void setCircuit(String circuit) { this.circuit = circuit; }
+
+    /**
+     * Restituisce il numero totale di giri.
+     * @return Il numero di giri.
+     */
+    public int getLaps() { return laps; }
+
+    /**
+     * Imposta il numero totale di giri.
+     * @param laps Il numero di giri.
+     */
+    public void setLaps(int laps) { this.laps = laps; }
+
+    /**
+     * Restituisce il tempo perso per un pit-stop in bandiera verde.
+     * @return Il tempo in secondi.
+     */
+    public double getPitLoss() { return pitLoss; }
+
+    /**
+     * Imposta il tempo perso per un pit-stop in bandiera verde.
+     * @param pitLoss Il tempo in secondi.
+     */
+    public void setPitLoss(double pitLoss) { this.pitLoss = pitLoss; }
+
+    /**
+     * Restituisce il tempo perso per un pit-stop in regime di safety car.
+     * @return Il tempo in secondi.
+     */
+    public double getSafetyCarPitLoss() { return safetyCarPitLoss; }
+
+    /**
+     * Imposta il tempo perso per un pit-stop in regime di safety car.
+     * @param safetyCarPitLoss Il tempo in secondi.
+     */
+    public void setSafetyCarPitLoss(double safetyCarPitLoss) { this.safetyCarPitLoss = safetyCarPitLoss; }
+
+    /**
+     * Restituisce le probabilità di safety car per giro.
+     * @return Le probabilità (indice = giro - 1).
+     */
+    public double[] getSafetyCarProbabilities() { return safetyCarProbabilities; }
+
+    /**
+     * Imposta le probabilità di safety car per giro.
+     * @param safetyCarProbabilities Le probabilità (indice = giro - 1).
+     */
+    public void setSafetyCarProbabilities(double[] safetyCarProbabilities) { this.safetyCarProbabilities = safetyCarProbabilities; }
+
+    /**
+     * Restituisce il tempo totale atteso.
+     * @return Il tempo in secondi.
+     */
+    public double getExpectedTime() { return expectedTime; }
+
+    /**
+     * Imposta il tempo totale atteso.
+     * @param expectedTime Il tempo in secondi.
+     */
+    public void setExpectedTime(double expectedTime) { this.expectedTime = expectedTime; }
+
+    /**
+     * Restituisce il piano nominale.
+     * @return La strategia senza safety car, oppure {@code null} se non esiste una strategia valida.
+     */
+    public RaceStrategy getNominalStrategy() { return nominalStrategy; }
+
+    /**
+     * Imposta il piano nominale.
+     * @param nominalStrategy La strategia senza safety car.
+     */
+    public void setNominalStrategy(RaceStrategy nominalStrategy) { this.nominalStrategy = nominalStrategy; }
+
+    /**
+     * Restituisce le mescole del piano.
+     * @return La lista delle mescole.
+     */
+    public List<String> getCompounds() { return compounds; }
+
+    /**
+     * Imposta le mescole del piano.
+     * @param compounds La lista delle mescole.
+     */
+    public void setCompounds(List<String> compounds) { this.compounds = compounds; }
+
+    /**
+     * Restituisce la politica in regime di safety car con due mescole già usate.
+     * @return La matrice {@code [mescola][giro][età]}.
+     */
+    public int[][][] getSafetyCarPolicy() { return safetyCarPolicy; }
+
+    /**
+     * Imposta la politica in regime di safety car con due mescole già usate.
+     * @param safetyCarPolicy La matrice {@code [mescola][giro][età]}.
+     */
+    public void setSafetyCarPolicy(int[][][] safetyCarPolicy) { this.safetyCarPolicy = safetyCarPolicy; }
+
+    /**
+     * Restituisce la politica in regime di safety car con una sola mescola usata.
+     * @return La matrice {@code [mescola][giro][età]}.
+     */
+    public int[][][] getSafetyCarPolicyFirstCompound() { return safetyCarPolicyFirstCompound; }
+
+    /**
+     * Imposta la politica in regime di safety car con una sola mescola usata.
+     * @param safetyCarPolicyFirstCompound La matrice {@code [mescola][giro][età]}.
+     */
+    public void setSafetyCarPolicyFirstCompound(int[][][] safetyCarPolicyFirstCompound) { this.safetyCarPolicyFirstCompound = safetyCarPolicyFirstCompound; }
+}
@@ -0,0 +1,125 @@
+package com.ivancaccamo.pacf1.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Il risultato di uno scenario di una richiesta batch.
+ * <p>
+ * Il campo {@code index} riporta la posizione dello scenario nella richiesta, così il client può
+ * associare i risultati anche quando arrivano in ordine di completamento (formato NDJSON).
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class ScenarioResult {
+
+    /**
+     * La posizione dello scenario nella richiesta (a partire da 0).
+     */
+    private int index;
+
+    /**
+     * Lo scenario calcolato.
+     */
+    private StrategyScenario scenario;
+
+    /**
+     * Le strategie trovate, ordinate per tempo totale crescente (vuota in caso di errore).
+     */
+    private List<RaceStrategy> strategies = new ArrayList<>();
+
+    /**
+     * {@code true} se il calcolo è stato interrotto dal budget di tempo.
+     */
+    private boolean partial;
+
+    /**
+     * Il messaggio di errore, oppure {@code null} se lo scenario è stato calcolato.
+     */
+    private String error;
+
+    /**
+     * Costruttore vuoto.
+     */
+    public ScenarioResult() {}
+
+    /**
+     * Costruttore completo.
+     *
+     * @param index      La posizione dello scenario nella richiesta.
+     * @param scenario   Lo scenario calcolato.
+     * @param strategies Le strategie trovate.
+     * @param partial    {@code true} se il risultato è parziale.
+     * @param error      Il messaggio di errore, oppure {@code null}.
+     */
+    public ScenarioResult(int index, StrategyScenario scenario, List<RaceStrategy> strategies, boolean partial, String error) {
+        this.index = index;
+        this.scenario = scenario;
+        this.strategies = strategies;
+        this.partial = partial;
+        this.error = error;
+    }
+
+    // Getters e Setters
+
+    /**
+     * Restituisce la posizione dello scenario nella richiesta.
+     * @return L'indice dello scenario.
+     */
+    public int getIndex() { return index; }
+
+    /**
+     * Imposta la posizione dello scenario nella richiesta.
+     * @param index L'indice dello scenario.
+     */
+    public void setIndex(int index) { this.index = index; }
+
+    /**
+     * Restituisce lo scenario calcolato.
+     * @return Lo scenario.
+     */
+    public StrategyScenario getScenario() { return scenario; }
+
+    /**
+     * Imposta lo scenario calcolato.
+     * @param scenario Lo scenario.
+     */
+    public void setScenario(StrategyScenario scenario) { this.scenario = scenario; }
+
+    /**
+     * Restituisce le strategie trovate.
+     * @return Una lista di oggetti {@link RaceStrategy}.
+     */
+    public List<RaceStrategy> getStrategies() { return strategies; }
+
+    /**
+     * Imposta le strategie trovate.
+     * @param strategies La lista di strategie.
+     */
+    public void setStrategies(List<RaceStrategy> strategies) { this.strategies = strategies; }
+
+    /**
+     * Indica se il risultato è parziale.
+     * @return {@code true} se il calcolo è stato interrotto dal budget.
+     */
+    public boolean isPartial() { return partial; }
+
+    /**
+     * Imposta se il risultato è parziale.
+     * @param partial {@code true} se il calcolo è stato interrotto dal budget.
+     */
+    public void setPartial(boolean partial) { this.partial = partial; }
+
+    /**
+     * Restituisce il messaggio di errore.
+     * @return Il messaggio, oppure {@code null} se lo scenario è stato calcolato.
+     */
+    public String getError() { return error; }
+
+    /**
+     * Imposta il messaggio di errore.
+     * @param error Il messaggio di errore.
+     */
+    public void setError(String error) { this.error = error; }
+}
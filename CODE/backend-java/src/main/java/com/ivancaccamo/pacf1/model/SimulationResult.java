@@ -0,0 +1,165 @@
+package com.ivancaccamo.pacf1.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Risultato di una simulazione Monte Carlo delle strategie candidate.
+ * <p>
+ * Per ogni strategia riporta la distribuzione del tempo totale sulle gare simulate e la probabilità
+ * di essere la più veloce tra le candidate; le gare sono le stesse per tutte le candidate
+ * (stesse safety car e stesso degrado reale), così il confronto è equo.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class SimulationResult {
+
+    /**
+     * Il numero di gare simulate.
+     */
+    private int races;
+
+    /**
+     * Il tempo impiegato dalla simulazione, in millisecondi.
+     */
+    private long elapsedMs;
+
+    /**
+     * Gli esiti, nello stesso ordine delle strategie candidate.
+     */
+    private List<StrategyOutcome> outcomes = new ArrayList<>();
+
+    /**
+     * Costruttore vuoto.
+     */
+    public SimulationResult() {}
+
+    // Getters e Setters
+
+    /**
+     * Restituisce il numero di gare simulate.
+     * @return Il numero di gare.
+     */
+    public int getRaces() { return races; }
+
+    /**
+     * Imposta il numero di gare simulate.
+     * @param races Il numero di gare.
+     */
+    public void setRaces(int races) { this.races = races; }
+
+    /**
+     * Restituisce il tempo impiegato dalla simulazione.
+     * @return Il tempo in millisecondi.
+     */
+    public long getElapsedMs() { return elapsedMs; }
+
+    /**
+     * Imposta il tempo impiegato dalla simulazione.
+     * @param elapsedMs Il tempo in millisecondi.
+     */
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    /**
+     * Restituisce gli esiti delle strategie.
+     * @return La lista degli esiti.
+     */
+    public List<StrategyOutcome> getOutcomes() { return outcomes; }
+
+    /**
+     * Imposta gli esiti delle strategie.
+     * @param outcomes La lista degli esiti.
+     */
+    public void setOutcomes(List<StrategyOutcome> outcomes) { this.outcomes = outcomes; }
+
+    /**
+     * Distribuzione del tempo totale di una strategia candidata.
+     */
+    public static class StrategyOutcome {
+
+        private RaceStrategy strategy;
+        private double meanTime;
+        private double stdDevTime;
+        private double p10Time;
+        private double p90Time;
+        private double winProbability;
+
+        /**
+         * Costruttore vuoto.
+         */
+        public StrategyOutcome() {}
+
+        /**
+         * Restituisce la strategia simulata.
+         * @return La strategia (il tempo totale è quello deterministico).
+         */
+        public RaceStrategy getStrategy() { return strategy; }
+
+        /**
+         * Imposta la strategia simulata.
+         * @param strategy La strategia.
+         */
+        public void setStrategy(RaceStrategy strategy) { this.strategy = strategy; }
+
+        /**
+         * Restituisce il tempo medio.
+         * @return Il tempo in secondi.
+         */
+        public double getMeanTime() { return meanTime; }
+
+        /**
+         * Imposta il tempo medio.
+         * @param meanTime Il tempo in secondi.
+         */
+        public void setMeanTime(double meanTime) { this.meanTime = meanTime; }
+
+        /**
+         * Restituisce la deviazione standard del tempo.
+         * @return La deviazione standard in secondi.
+         */
+        public double getStdDevTime() { return stdDevTime; }
+
+        /**
+         * Imposta la deviazione standard del tempo.
+         * @param stdDevTime La deviazione standard in secondi.
+         */
+        public void setStdDevTime(double stdDevTime) { this.stdDevTime = stdDevTime; }
+
+        /**
+         * Restituisce il 10° percentile del tempo (scenario favorevole).
+         * @return Il tempo in secondi.
+         */
+        public double getP10Time() { return p10Time; }
+
+        /**
+         * Imposta il 10° percentile del tempo.
+         * @param p10Time Il tempo in secondi.
+         */
+        public void setP10Time(double p10Time) { this.p10Time = p10Time; }
+
+        /**
+         * Restituisce il 90° percentile del tempo (scenario sfavorevole).
+         * @return Il tempo in secondi.
+         */
+        public double getP90Time() { return p90Time; }
+
+        /**
+         * Imposta il 90° percentile del tempo.
+         * @param p90Time Il tempo in secondi.
+         */
+        public void setP90Time(double p90Time) { this.p90Time = p90Time; }
+
+        /**
+         * Restituisce la probabilità di essere la strategia più veloce tra le candidate.
+         * @return La probabilità (da 0 a 1).
+         */
+        public double getWinProbability() { return winProbability; }
+
+        /**
+         * Imposta la probabilità di essere la strategia più veloce.
+         * @param winProbability La probabilità (da 0 a 1).
+         */
+        public void setWinProbability(double winProbability) { this.winProbability = winProbability; }
+    }
+}
@@ -0,0 +1,139 @@
+package com.ivancaccamo.pacf1.model;
+
+/**
+ * Uno scenario di gara da ottimizzare all'interno di una richiesta batch.
+ * <p>
+ * Contiene gli stessi parametri della richiesta singola {@code GET /api/strategy},
+ * con gli stessi valori di default per i campi non specificati nel JSON.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class StrategyScenario {
+
+    /**
+     * Il nome del circuito (es. "Bahrain Grand Prix").
+     */
+    private String circuit = "Bahrain Grand Prix";
+
+    /**
+     * Il numero totale di giri della gara.
+     */
+    private int laps = 57;
+
+    /**
+     * La temperatura dell'aria in gradi Celsius.
+     */
+    private double airTemp = 30.0;
+
+    /**
+     * La temperatura dell'asfalto in gradi Celsius.
+     */
+    private double trackTemp = 45.0;
+
+    /**
+     * Il numero di strategie alternative richieste.
+     */
+    private int k = 3;
+
+    /**
+     * Il budget di tempo del calcolo in millisecondi (0 = nessun limite).
+     */
+    private long budgetMs = 0;
+
+    /**
+     * Costruttore vuoto (necessario per Jackson).
+     */
+    public StrategyScenario() {}
+
+    /**
+     * Costruttore con i parametri principali dello scenario.
+     *
+     * @param circuit   Il nome del circuito.
+     * @param laps      Il numero totale di giri.
+     * @param airTemp   La temperatura dell'aria.
+     * @param trackTemp La temperatura della pista.
+     * @param k         Il numero di strategie richieste.
+     */
+    public StrategyScenario(String circuit, int laps, double airTemp, double trackTemp, int k) {
+        this.circuit = circuit;
+        this.laps = laps;
+        this.airTemp = airTemp;
+        this.trackTemp = trackTemp;
+        this.k = k;
+    }
+
+    // Getters e Setters
+
+    /**
+     * Restituisce il nome del circuito.
+     * @return Il nome del circuito.
+     */
+    public String getCircuit() { return circuit; }
+
+    /**
+     * Imposta il nome del circuito.
+     * @param circuit Il nome del circuito.
+     */
+    public void setCircuit(String circuit) { this.circuit = circuit; }
+
+    /**
+     * Restituisce il numero totale di giri.
+     * @return Il numero di giri.
+     */
+    public int getLaps() { return laps; }
+
+    /**
+     * Imposta il numero totale di giri.
+     * @param laps Il numero di giri.
+     */
+    public void setLaps(int laps) { this.laps = laps; }
+
+    /**
+     * Restituisce la temperatura dell'aria.
+     * @return Temperatura in °C.
+     */
+    public double getAirTemp() { return airTemp; }
+
+    /**
+     * Imposta la temperatura dell'aria.
+     * @param airTemp Temperatura in °C.
+     */
+    public void setAirTemp(double airTemp) { this.airTemp = airTemp; }
+
+    /**
+     * Restituisce la temperatura della pista.
+     * @return Temperatura in °C.
+     */
+    public double getTrackTemp() { return trackTemp; }
+
+    /**
+     * Imposta la temperatura della pista.
+     * @param trackTemp Temperatura in °C.
+     */
+    public void setTrackTemp(double trackTemp) { this.trackTemp = trackTemp; }
+
+    /**
+     * Restituisce il numero di strategie richieste.
+     * @return Il numero di strategie.
+     */
+    public int getK() { return k; }
+
+    /**
+     * Imposta il numero di strategie richieste.
+     * @param k Il numero di strategie.
+     */
+    public void setK(int k) { this.k = k; }
+
+    /**
+     * Restituisce il budget di tempo del calcolo.
+     * @return Il budget in millisecondi (0 = nessun limite).
+     */
+    public long getBudgetMs() { return budgetMs; }
+
+    /**
+     * Imposta il budget di tempo del calcolo.
+     * @param budgetMs Il budget in millisecondi (0 = nessun limite).
+     */
+    public void setBudgetMs(long budgetMs) { this.budgetMs = budgetMs; }
+}
@@ -0,0 +1,180 @@
+package com.ivancaccamo.pacf1.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Risultato di uno sweep delle temperature: la strategia ottima per ogni cella della griglia
+ * temperatura aria x temperatura pista, in un formato compatto adatto a una heatmap.
+ * <p>
+ * Le matrici sono indicizzate {@code [i][j]}, con {@code i} indice di {@link #getAirTemps()} e
+ * {@code j} indice di {@link #getTrackTemps()}. Le sequenze di mescole (es. "SOFT-HARD") sono salvate
+ * una sola volta in {@link #getSequences()} e ogni cella ne riporta l'indice.
+ * Le celle senza risultato (servizio ML non disponibile) hanno tempo {@code null} e sequenza {@code -1}.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class TemperatureSweep {
+
+    /**
+     * Il circuito dello sweep.
+     */
+    private String circuit;
+
+    /**
+     * Il numero totale di giri della gara.
+     */
+    private int laps;
+
+    /**
+     * Le temperature dell'aria (righe della griglia).
+     */
+    private List<Double> airTemps = new ArrayList<>();
+
+    /**
+     * Le temperature della pista (colonne della griglia).
+     */
+    private List<Double> trackTemps = new ArrayList<>();
+
+    /**
+     * Il tempo totale della strategia ottima di ogni cella.
+     */
+    private Double[][] totalTimes;
+
+    /**
+     * Il numero di pit-stop della strategia ottima di ogni cella.
+     */
+    private int[][] pitStops;
+
+    /**
+     * L'indice in {@link #sequences} della sequenza di mescole di ogni cella.
+     */
+    private int[][] sequenceIndexes;
+
+    /**
+     * Le sequenze di mescole distinte presenti nella griglia.
+     */
+    private List<String> sequences = new ArrayList<>();
+
+    /**
+     * Costruttore vuoto.
+     */
+    public TemperatureSweep() {}
+
+    /**
+     * Costruisce una griglia vuota per le temperature indicate.
+     *
+     * @param circuit    Il circuito dello sweep.
+     * @param laps       Il numero totale di giri.
+     * @param airTemps   Le temperature dell'aria.
+     * @param trackTemps Le temperature della pista.
+     */
+    public TemperatureSweep(String circuit, int laps, List<Double> airTemps, List<Double> trackTemps) {
+        this.circuit = circuit;
+        this.laps = laps;
+        this.airTemps = airTemps;
+        this.trackTemps = trackTemps;
+        this.totalTimes = new Double[airTemps.size()][trackTemps.size()];
+        this.pitStops = new int[airTemps.size()][trackTemps.size()];
+        this.sequenceIndexes = new int[airTemps.size()][trackTemps.size()];
+    }
+
+    // Getters e Setters
+
+    /**
+     * Restituisce il circuito dello sweep.
+     * @return Il nome del circuito.
+     */
+    public String getCircuit() { return circuit; }
+
+    /**
+     * Imposta il circuito dello sweep.
+     * @param circuit Il nome del circuito.
+     */
+    public void setCircuit(String circuit) { this.circuit = circuit; }
+
+    /**
+     * Restituisce il numero totale di giri.
+     * @return Il numero di giri.
+     */
+    public int getLaps() { return laps; }
+
+    /**
+     * Imposta il numero totale di giri.
+     * @param laps Il numero di giri.
+     */
+    public void setLaps(int laps) { this.laps = laps; }
+
+    /**
+     * Restituisce le temperature dell'aria (righe).
+     * @return Le temperature in °C.
+     */
+    public List<Double> getAirTemps() { return airTemps; }
+
+    /**
+     * Imposta le temperature dell'aria (righe).
+     * @param airTemps Le temperature in °C.
+     */
+    public void setAirTemps(List<Double> airTemps) { this.airTemps = airTemps; }
+
+    /**
+     * Restituisce le temperature della pista (colonne).
+     * @return Le temperature in °C.
+     */
+    public List<Double> getTrackTemps() { return trackTemps; }
+
+    /**
+     * Imposta le temperature della pista (colonne).
+     * @param trackTemps Le temperature in °C.
+     */
+    public void setTrackTemps(List<Double> trackTemps) { this.trackTemps = trackTemps; }
+
+    /**
+     * Restituisce i tempi totali delle strategie ottime.
+     * @return La matrice dei tempi in secondi ({@code null} per le celle senza risultato).
+     */
+    public Double[][] getTotalTimes() { return totalTimes; }
+
+    /**
+     * Imposta i tempi totali delle strategie ottime.
+     * @param totalTimes La matrice dei tempi in secondi.
+     */
+    public void setTotalTimes(Double[][] totalTimes) { this.totalTimes = totalTimes; }
+
+    /**
+     * Restituisce il numero di pit-stop delle strategie ottime.
+     * @return La matrice dei pit-stop.
+     */
+    public int[][] getPitStops() { return pitStops; }
+
+    /**
+     * Imposta il numero di pit-stop delle strategie ottime.
+     * @param pitStops La matrice dei pit-stop.
+     */
+    public void setPitStops(int[][] pitStops) { this.pitStops = pitStops; }
+
+    /**
+     * Restituisce gli indici delle sequenze di mescole.
+     * @return La matrice degli indici in {@link #getSequences()} ({@code -1} per le celle senza risultato).
+     */
+    public int[][] getSequenceIndexes() { return sequenceIndexes; }
+
+    /**
+     * Imposta gli indici delle sequenze di mescole.
+     * @param sequenceIndexes La matrice degli indici.
+     */
+    public void setSequenceIndexes(int[][] sequenceIndexes) { this.sequenceIndexes = sequenceIndexes; }
+
+    /**
+     * Restituisce le sequenze di mescole distinte (es. "SOFT-MEDIUM-HARD").
+     * @return La lista delle sequenze.
+     */
+    public List<String> getSequences() { return sequences; }
+
+    /**
+     * Imposta le sequenze di mescole distinte.
+     * @param sequences La lista delle sequenze.
+     */
+    public void setSequences(List<String> sequences) { this.sequences = sequences; }
+}
@@ -0,0 +1,160 @@
+package com.ivancaccamo.pacf1.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stato di una sessione di analisi "what-if" (parametri modificabili dall'utente con gli slider).
+ * <p>
+ * Ad ogni modifica (perdita ai box, predizione di una mescola) il server aggiorna solo la parte
+ * interessata della tabella e restituisce di nuovo questo oggetto, con la strategia migliore
+ * per ogni numero di soste ordinata per tempo totale.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class WhatIfSession {
+
+    /**
+     * L'identificativo della sessione.
+     */
+    private String id;
+
+    /**
+     * Il circuito della gara.
+     */
+    private String circuit;
+
+    /**
+     * Il numero totale di giri della gara.
+     */
+    private int laps;
+
+    /**
+     * Il numero massimo di soste considerato.
+     */
+    private int maxStops;
+
+    /**
+     * Il tempo perso per ogni pit-stop, in secondi.
+     */
+    private double pitLoss;
+
+    /**
+     * Le predizioni correnti delle mescole.
+     */
+    private List<PredictionResponse.TyrePrediction> predictions = new ArrayList<>();
+
+    /**
+     * La strategia migliore per ogni numero di soste, ordinate per tempo totale crescente.
+     */
+    private List<RaceStrategy> strategies = new ArrayList<>();
+
+    /**
+     * Il tempo impiegato dall'ultimo aggiornamento, in microsecondi.
+     */
+    private long updateMicros;
+
+    /**
+     * Costruttore vuoto.
+     */
+    public WhatIfSession() {}
+
+    // Getters e Setters
+
+    /**
+     * Restituisce l'identificativo della sessione.
+     * @return L'identificativo.
+     */
+    public String getId() { return id; }
+
+    /**
+     * Imposta l'identificativo della sessione.
+     * @param id L'identificativo.
+     */
+    public void setId(String id) { this.id = id; }
+
+    /**
+     * Restituisce il circuito della gara.
+     * @return Il nome del circuito.
+     */
+    public String getCircuit() { return circuit; }
+
+    /**
+     * Imposta il circuito della gara.
+     * @param circuit Il nome del circuito.
+     */
+    public void setCircuit(String circuit) { this.circuit = circuit; }
+
+    /**
+     * Restituisce il numero totale di giri.
+     * @return Il numero di giri.
+     */
+    public int getLaps() { return laps; }
+
+    /**
+     * Imposta il numero totale di giri.
+     * @param laps Il numero di giri.
+     */
+    public void setLaps(int laps) { this.laps = laps; }
+
+    /**
+     * Restituisce il numero massimo di soste considerato.
+     * @return Il numero massimo di soste.
+     */
+    public int getMaxStops() { return maxStops; }
+
+    /**
+     * Imposta il numero massimo di soste considerato.
+     * @param maxStops Il numero massimo di soste.
+     */
+    public void setMaxStops(int maxStops) { this.maxStops = maxStops; }
+
+    /**
+     * Restituisce il tempo perso per ogni pit-stop.
+     * @return Il tempo in secondi.
+     */
+    public double getPitLoss() { return pitLoss; }
+
+    /**
+     * Imposta il tempo perso per ogni pit-stop.
+     * @param pitLoss Il tempo in secondi.
+     */
+    public void setPitLoss(double pitLoss) { this.pitLoss = pitLoss; }
+
+    /**
+     * Restituisce le predizioni correnti delle mescole.
+     * @return La lista delle predizioni.
+     */
+    public List<PredictionResponse.TyrePrediction> getPredictions() { return predictions; }
+
+    /**
+     * Imposta le predizioni correnti delle mescole.
+     * @param predictions La lista delle predizioni.
+     */
+    public void setPredictions(List<PredictionResponse.TyrePrediction> predictions) { this.predictions = predictions; }
+
+    /**
+     * Restituisce la strategia migliore per ogni numero di soste.
+     * @return Le strategie, ordinate per tempo totale crescente.
+     */
+    public List<RaceStrategy> getStrategies() { return strategies; }
+
+    /**
+     * Imposta la strategia migliore per ogni numero di soste.
+     * @param strategies Le strategie.
+     */
+    public void setStrategies(List<RaceStrategy> strategies) { this.strategies = strategies; }
+
+    /**
+     * Restituisce il tempo impiegato dall'ultimo aggiornamento.
+     * @return Il tempo in microsecondi.
+     */
+    public long getUpdateMicros() { return updateMicros; }
+
+    /**
+     * Imposta il tempo impiegato dall'ultimo aggiornamento.
+     * @param updateMicros Il tempo in microsecondi.
+     */
+    public void setUpdateMicros(long updateMicros) { this.updateMicros = updateMicros; }
+}
@@ -0,0 +1,258 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.OptimizationResult;
+import com.ivancaccamo.pacf1.model.PredictionResponse;
+import com.ivancaccamo.pacf1.model.ScenarioResult;
+import com.ivancaccamo.pacf1.model.StrategyScenario;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Servizio per il calcolo di molti scenari di gara in una sola richiesta (sweep notturni).
+ * <p>
+ * Rispetto a tante chiamate singole a {@code GET /api/strategy}:
+ * </p>
+ * <ul>
+ *     <li>le predizioni ML vengono richieste una sola volta per ogni combinazione distinta
+ *     (circuito, temperatura aria, temperatura pista), anche se usata da più scenari;</li>
+ *     <li>le chiamate al servizio Python partono in parallelo su un pool dedicato, limitato
+ *     per non sovraccaricare il microservizio;</li>
+ *     <li>gli scenari vengono risolti in parallelo su un pool limitato al numero di core,
+ *     e gli scenari con le stesse predizioni e gli stessi parametri condividono lo stesso calcolo
+ *     (es. temperature vicine per cui il modello ML predice lo stesso degrado).</li>
+ * </ul>
+ * <p>
+ * Ogni scenario viene risolto appena la sua predizione è disponibile, senza attendere le altre.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+@Service
+public class BatchStrategyService {
+
+    private final PythonMLService mlService;
+
+    private final OptimizationEngine optimizer;
+
+    /**
+     * Numero massimo di chiamate contemporanee al servizio ML (proprietà {@code pacf1.batch.ml-concurrency}).
+     */
+    @Value("${pacf1.batch.ml-concurrency:8}")
+    private int mlConcurrency = 8;
+
+    /**
+     * Numero di thread che risolvono gli scenari (proprietà {@code pacf1.batch.solver-threads};
+     * 0 = tutti i core disponibili).
+     */
+    @Value("${pacf1.batch.solver-threads:0}")
+    private int solverThreads = 0;
+
+    /**
+     * Numero massimo di scenari accettati in una richiesta (proprietà {@code pacf1.batch.max-scenarios}).
+     */
+    @Value("${pacf1.batch.max-scenarios:10000}")
+    private int maxScenarios = 10000;
+
+    /**
+     * Pool delle chiamate al servizio ML, creato alla prima richiesta batch.
+     */
+    private ExecutorService mlExecutor;
+
+    /**
+     * Pool dei calcoli delle strategie, creato alla prima richiesta batch.
+     */
+    private ExecutorService solverExecutor;
+
+    /**
+     * Chiave delle predizioni ML: scenari con gli stessi valori condividono la stessa chiamata.
+     */
+    private record PredictionKey(String circuit, double airTemp, double trackTemp) {
+        static PredictionKey of(StrategyScenario s) {
+            return new PredictionKey(s.getCircuit(), s.getAirTemp(), s.getTrackTemp());
+        }
+    }
+
+    /**
+     * Chiave dei calcoli: scenari con le stesse predizioni (anche se ottenute da temperature diverse)
+     * e gli stessi parametri condividono lo stesso risultato.
+     */
+    private record SolveKey(String predictions, int laps, int k, long budgetMs) {
+        static SolveKey of(StrategyScenario s, PredictionResponse response) {
+            return new SolveKey(SuffixTableCache.fingerprint(response.getPredictions()),
+                    s.getLaps(), Math.max(1, Math.min(s.getK(), OptimizationEngine.MAX_TOP_K)), s.getBudgetMs());
+        }
+    }
+
+    /**
+     * Costruisce il servizio.
+     *
+     * @param mlService Il client del servizio di Machine Learning.
+     * @param optimizer Il motore di ottimizzazione.
+     */
+    @Autowired
+    public BatchStrategyService(PythonMLService mlService, OptimizationEngine optimizer) {
+        this.mlService = mlService;
+        this.optimizer = optimizer;
+    }
+
+    /**
+     * Restituisce il numero massimo di scenari accettati in una richiesta.
+     *
+     * @return Il numero massimo di scenari.
+     */
+    public int getMaxScenarios() {
+        return maxScenarios;
+    }
+
+    /**
+     * Calcola tutti gli scenari e restituisce i risultati nello stesso ordine della richiesta.
+     *
+     * @param scenarios Gli scenari da calcolare.
+     * @return Un risultato per ogni scenario.
+     */
+    public List<ScenarioResult> solveAll(List<StrategyScenario> scenarios) {
+        ScenarioResult[] results = new ScenarioResult[scenarios.size()];
+        solveAll(scenarios, result -> results[result.getIndex()] = result).join();
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * Calcola tutti gli scenari notificando ogni risultato appena è pronto (ordine di completamento).
+     * <p>
+     * Il {@code consumer} può essere invocato contemporaneamente da più thread del pool.
+     * Gli scenari con parametri non validi (vedi {@link #validate(StrategyScenario)}) ricevono subito
+     * un risultato con il campo {@code error}, senza chiamare il servizio ML né occupare il pool.
+     * </p>
+     *
+     * @param scenarios Gli scenari da calcolare.
+     * @param consumer  Il destinatario dei risultati.
+     * @return Un future completato quando tutti i risultati sono stati consegnati.
+     */
+    public CompletableFuture<Void> solveAll(List<StrategyScenario> scenarios, Consumer<ScenarioResult> consumer) {
+        System.out.println("--- AVVIO BATCH - " + scenarios.size() + " SCENARI ---");
+        ExecutorService ml = getMlExecutor();
+        ExecutorService solver = getSolverExecutor();
+
+        // Una sola chiamata ML per ogni combinazione distinta di circuito e temperature
+        Map<PredictionKey, CompletableFuture<PredictionResponse>> predictions = new HashMap<>();
+        // Un solo calcolo per ogni combinazione distinta di predizioni e parametri (riempita dai thread ML)
+        Map<SolveKey, CompletableFuture<OptimizationResult>> solutions = new ConcurrentHashMap<>();
+
+        CompletableFuture<?>[] delivered = new CompletableFuture<?>[scenarios.size()];
+        for (int i = 0; i < scenarios.size(); i++) {
+            StrategyScenario scenario = scenarios.get(i);
+            int index = i;
+            String invalid = validate(scenario);
+            if (invalid != null) {
+                delivered[i] = CompletableFuture.completedFuture(
+                        new ScenarioResult(index, scenario, new ArrayList<>(), false, invalid)).thenAccept(consumer);
+                continue;
+            }
+            CompletableFuture<PredictionResponse> prediction = predictions.computeIfAbsent(PredictionKey.of(scenario),
+                    key -> CompletableFuture.supplyAsync(
+                            () -> mlService.getPrediction(key.circuit(), key.airTemp(), key.trackTemp()), ml));
+            CompletableFuture<OptimizationResult> solution = prediction.thenCompose(response -> {
+                if (response == null) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("Servizio ML non disponibile"));
+                }
+                return solutions.computeIfAbsent(SolveKey.of(scenario, response),
+                        key -> CompletableFuture.supplyAsync(() -> solve(scenario, response), solver));
+            });
+
+            delivered[i] = solution
+                    .handle((result, error) -> toResult(index, scenario, result, error))
+                    .thenAccept(consumer);
+        }
+        return CompletableFuture.allOf(delivered).whenComplete((ignored, error) ->
+                System.out.println("Chiamate ML distinte: " + predictions.size() + ", calcoli distinti: " + solutions.size()));
+    }
+
+    /**
+     * Controlla i parametri di uno scenario con le stesse regole di {@code GET /api/strategy}
+     * (il numero di strategie viene invece limitato dal motore a {@link OptimizationEngine#MAX_TOP_K}).
+     *
+     * @param scenario Lo scenario da controllare.
+     * @return Il motivo per cui lo scenario non è valido, oppure {@code null} se è valido.
+     */
+    static String validate(StrategyScenario scenario) {
+        if (scenario == null) return "Scenario mancante";
+        if (scenario.getCircuit() == null) return "Circuito mancante";
+        if (scenario.getLaps() < 1 || scenario.getLaps() > OptimizationEngine.MAX_RACE_LAPS) {
+            return "Numero di giri non valido: " + scenario.getLaps()
+                    + " (ammessi da 1 a " + OptimizationEngine.MAX_RACE_LAPS + ")";
+        }
+        if (scenario.getBudgetMs() < 0) return "Budget di tempo negativo: " + scenario.getBudgetMs();
+        return null;
+    }
+
+    /**
+     * Risolve uno scenario con le predizioni ricevute (eseguito sul pool dei calcoli).
+     */
+    private OptimizationResult solve(StrategyScenario scenario, PredictionResponse response) {
+        SolverOptions options = new SolverOptions();
+        options.setBudgetMs(scenario.getBudgetMs());
+        return optimizer.optimize(scenario.getLaps(), response.getPredictions(), scenario.getK(), options);
+    }
+
+    /**
+     * Converte l'esito del calcolo nel risultato dello scenario.
+     */
+    private ScenarioResult toResult(int index, StrategyScenario scenario, OptimizationResult result, Throwable error) {
+        if (error != null) {
+            Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+            return new ScenarioResult(index, scenario, new ArrayList<>(), false, cause.getMessage());
+        }
+        return new ScenarioResult(index, scenario, result.getStrategies(), result.isPartial(), null);
+    }
+
+    /**
+     * Restituisce il pool delle chiamate ML, creandolo alla prima richiesta.
+     */
+    private synchronized ExecutorService getMlExecutor() {
+        if (mlExecutor == null) {
+            mlExecutor = Executors.newFixedThreadPool(Math.max(1, mlConcurrency));
+        }
+        return mlExecutor;
+    }
+
+    /**
+     * Restituisce il pool dei calcoli, creandolo alla prima richiesta.
+     */
+    private synchronized ExecutorService getSolverExecutor() {
+        if (solverExecutor == null) {
+            int threads = solverThreads > 0 ? solverThreads : Runtime.getRuntime().availableProcessors();
+            solverExecutor = Executors.newFixedThreadPool(threads);
+            System.out.println("Pool batch avviato con " + threads + " thread di calcolo");
+        }
+        return solverExecutor;
+    }
+
+    /**
+     * Arresta i pool alla chiusura dell'applicazione.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (mlExecutor != null) {
+            mlExecutor.shutdown();
+            mlExecutor = null;
+        }
+        if (solverExecutor != null) {
+            solverExecutor.shutdown();
+            solverExecutor = null;
+        }
+    }
+}
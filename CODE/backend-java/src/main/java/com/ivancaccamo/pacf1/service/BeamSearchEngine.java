@@ -0,0 +1,181 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.OptimizationResult;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Motore <b>approssimato</b> di ricerca delle strategie basato su <b>Beam Search</b>.
+ * <p>
+ * Le strategie vengono costruite uno stint alla volta. Ad ogni livello (numero di soste) tutte le strategie
+ * parziali del fascio vengono estese con ogni mescola e durata, ma solo le {@code beamWidth} più promettenti
+ * passano al livello successivo. Le strategie parziali sono ordinate per tempo speso più il limite inferiore
+ * dei giri rimanenti usato anche da {@link BranchAndBoundEngine}.
+ * </p>
+ * <p>
+ * Il lavoro è O(soste * beamWidth * mescole * giri) e non dipende dal numero di maschere, quindi resta
+ * interattivo anche con molte mescole e gare lunghe. In cambio il risultato non è garantito ottimo:
+ * un fascio più ampio migliora la qualità a scapito della latenza. Le strategie restituite sono
+ * comunque valide e usano lo stesso modello ({@link RaceStrategy}/{@link com.ivancaccamo.pacf1.model.Stint})
+ * degli altri motori.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+@Service
+public class BeamSearchEngine {
+
+    /**
+     * Ampiezza del fascio di default: risposta in pochi millisecondi per le gare di Formula 1.
+     */
+    public static final int DEFAULT_BEAM_WIDTH = 64;
+
+    /**
+     * Tolleranza (in secondi) per considerare equivalenti due strategie parziali.
+     */
+    private static final double EPSILON = SolverContext.EQUIVALENCE_EPSILON;
+
+    /**
+     * Calcola le migliori {@code k} strategie trovate dalla beam search.
+     * <p>
+     * Le strategie con lo stesso tempo troncato al secondo sono considerate duplicati, come negli altri motori.
+     * Il risultato non riporta la distanza dall'ottimo, che non è nota al motore:
+     * può essere impostata dal chiamante confrontandolo con un motore esatto.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero di strategie richieste (limitato a {@link OptimizationEngine#MAX_TOP_K}).
+     * @param beamWidth Il numero di strategie parziali conservate ad ogni livello (almeno 1).
+     * @return Il risultato con le strategie, ordinate per tempo totale crescente, e il lavoro svolto.
+     */
+    public OptimizationResult search(int totalLaps, List<TyrePrediction> tyres, int k, int beamWidth) {
+        return search(totalLaps, tyres, k, beamWidth, Deadline.none());
+    }
+
+    /**
+     * Calcola le migliori {@code k} strategie trovate dalla beam search entro una scadenza.
+     * <p>
+     * La scadenza viene controllata prima di ogni espansione: allo scadere vengono restituite le strategie
+     * complete trovate fino a quel momento e il risultato è segnalato come parziale.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero di strategie richieste (limitato a {@link OptimizationEngine#MAX_TOP_K}).
+     * @param beamWidth Il numero di strategie parziali conservate ad ogni livello (almeno 1).
+     * @param deadline  La scadenza del calcolo.
+     * @return Il risultato con le strategie, ordinate per tempo totale crescente, e il lavoro svolto.
+     */
+    public OptimizationResult search(int totalLaps, List<TyrePrediction> tyres, int k, int beamWidth, Deadline deadline) {
+        System.out.println("--- AVVIO BEAM SEARCH - TOP " + k + " - AMPIEZZA " + beamWidth + " ---");
+
+        List<RaceStrategy> results = new ArrayList<>();
+        OptimizationResult result = new OptimizationResult(results, EngineType.BEAM.name(), 0,
+                OptimizationEngine.dpStateCount(totalLaps, tyres.size()));
+        if (tyres.isEmpty() || totalLaps < 1) return result;
+
+        int limit = Math.max(1, Math.min(k, OptimizationEngine.MAX_TOP_K));
+        int width = Math.max(1, beamWidth);
+        int tyreCount = tyres.size();
+        StintCostTable costs = StintCostTable.compile(tyres, totalLaps);
+        double[][] bounds = BranchAndBoundEngine.remainingLapsBounds(costs, totalLaps);
+
+        // Migliore strategia completa per ogni secondo (troncato), al massimo "limit" secondi
+        TreeMap<Integer, SearchNode> goals = new TreeMap<>();
+
+        List<SearchNode> beam = List.of(new SearchNode(null, 0, 0, -1, 0, 0.0, 0.0, 0));
+        long sequence = 1;
+        long expanded = 0;
+
+        // Candidati preselezionati per ogni livello: i migliori "width * limit * 2" per stima
+        // (max-heap, in cima il peggiore), abbastanza da riempire il fascio anche scartando le varianti
+        int capacity = width * limit * 2;
+
+        while (!beam.isEmpty()) {
+            PriorityQueue<SearchNode> candidates = new PriorityQueue<>(Comparator.reverseOrder());
+
+            for (SearchNode node : beam) {
+                if (deadline.isExpired()) break;
+                expanded++;
+                double pitCost = (node.lap == 0) ? 0 : OptimizationEngine.PIT_STOP_LOSS;
+                // Il primo stint può durare qualsiasi numero di giri, i successivi almeno MIN_STINT_LAPS
+                int minLaps = (node.lap == 0) ? 1 : OptimizationEngine.MIN_STINT_LAPS;
+                int maxLaps = (node.lap == 0) ? totalLaps - 2 : totalLaps - node.lap;
+
+                for (int i = 0; i < tyreCount; i++) {
+                    int nextMask = node.mask | (1 << i);
+                    double[] bound = Integer.bitCount(nextMask) >= 2 ? bounds[tyreCount] : bounds[i];
+                    for (int laps = minLaps; laps <= maxLaps; laps++) {
+                        int nextLap = node.lap + laps;
+                        double remaining = bound[totalLaps - nextLap];
+                        if (remaining >= OptimizationEngine.INFINITY) continue; // Non si può finire la gara
+
+                        double time = node.time + pitCost + costs.stintTime(i, laps);
+                        double estimate = time + remaining;
+                        if (nextLap == totalLaps) {
+                            offerGoal(goals, limit, new SearchNode(node, nextLap, nextMask, i, laps, time, estimate, sequence++));
+                        } else if (candidates.size() < capacity || estimate < candidates.peek().estimate) {
+                            candidates.add(new SearchNode(node, nextLap, nextMask, i, laps, time, estimate, sequence++));
+                            if (candidates.size() > capacity) candidates.poll();
+                        }
+                    }
+                }
+            }
+
+            beam = deadline.isExpired() ? List.of() : selectBeam(candidates, goals, limit, width, totalLaps);
+        }
+
+        for (SearchNode goal : goals.values()) results.add(goal.toStrategy(tyres));
+        result.setNodesExpanded(expanded);
+        result.setPartial(deadline.wasReached());
+        System.out.println("Nodi espansi: " + expanded + " (stati DP: " + result.getDpStates() + ")");
+        return result;
+    }
+
+    /**
+     * Sceglie le strategie parziali che formano il fascio del livello successivo.
+     * <p>
+     * I candidati preselezionati vengono ordinati per stima crescente; si scartano quelli che non possono battere
+     * la {@code k}-esima strategia completa già trovata, quelli equivalenti ad un candidato già scelto
+     * per lo stesso stato (giro, maschera) e quelli oltre i {@code limit} già scelti per lo stesso stato,
+     * così il fascio non si riempie di varianti della stessa strategia.
+     * </p>
+     */
+    private List<SearchNode> selectBeam(PriorityQueue<SearchNode> preselected, TreeMap<Integer, SearchNode> goals,
+                                        int limit, int width, int totalLaps) {
+        List<SearchNode> candidates = new ArrayList<>(preselected);
+        Collections.sort(candidates);
+        double threshold = goals.size() == limit ? goals.lastEntry().getValue().time + EPSILON : Double.MAX_VALUE;
+
+        List<SearchNode> beam = new ArrayList<>(Math.min(width, candidates.size()));
+        Map<Integer, List<SearchNode>> chosenByState = new HashMap<>();
+        for (SearchNode candidate : candidates) {
+            if (beam.size() == width || candidate.estimate > threshold) break;
+
+            List<SearchNode> chosen = chosenByState.computeIfAbsent(candidate.mask * (totalLaps + 1) + candidate.lap,
+                    state -> new ArrayList<>());
+            if (chosen.size() >= limit) continue;
+            if (!chosen.isEmpty() && candidate.time - chosen.get(chosen.size() - 1).time < EPSILON) continue;
+
+            chosen.add(candidate);
+            beam.add(candidate);
+        }
+        return beam;
+    }
+
+    /**
+     * Registra una strategia completa tra le migliori {@code limit} (una per secondo troncato).
+     */
+    private void offerGoal(TreeMap<Integer, SearchNode> goals, int limit, SearchNode goal) {
+        if (Integer.bitCount(goal.mask) < 2) return; // Regola delle due mescole
+        int second = (int) goal.time;
+        SearchNode existing = goals.get(second);
+        if (existing != null && existing.time <= goal.time) return;
+        goals.put(second, goal);
+        if (goals.size() > limit) goals.pollLastEntry();
+    }
+}
@@ -0,0 +1,243 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.OptimizationResult;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Motore alternativo di ricerca delle strategie basato su <b>A* / Branch and Bound</b>.
+ * <p>
+ * Invece di risolvere tutti gli stati (giro, maschera gomme usate) come la DP di {@link OptimizationEngine},
+ * esplora il grafo degli stint in ordine best-first: ogni nodo è una strategia parziale e viene ordinato
+ * per {@code f = g + h}, dove {@code g} è il tempo già speso e {@code h} un limite inferiore
+ * <b>ammissibile</b> del tempo necessario per i giri rimanenti. Le strategie complete escono quindi
+ * dalla coda in ordine di tempo crescente e la ricerca si ferma appena ne ha trovate {@code k}.
+ * </p>
+ * <p>
+ * Il limite inferiore è il tempo minimo per coprire i giri rimanenti rilassando il problema:
+ * ad ogni stint si usa la mescola più veloce per quella durata e si ignora la regola delle due mescole
+ * (restano pit-stop e durata minima degli stint); se finora è stata usata una sola mescola, almeno uno
+ * stint deve usarne un'altra. È più stretto del semplice "giro più veloce per giri rimanenti" e si calcola
+ * in O(mescole * giri^2) una volta per richiesta, senza la dimensione esponenziale delle maschere.
+ * </p>
+ * <p>
+ * I rami che non possono battere la {@code k}-esima migliore strategia completa già generata vengono
+ * scartati senza essere inseriti in coda (Branch and Bound). Una strategia parziale viene inoltre scartata
+ * quando lo stesso stato è già stato espanso con {@code k} tempi migliori distanti almeno un secondo tra loro,
+ * e le strategie parziali equivalenti (stessi stint in ordine diverso) vengono espanse una sola volta.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+@Service
+public class BranchAndBoundEngine {
+
+    /**
+     * Tolleranza (in secondi) per considerare equivalenti due strategie parziali o un limite e un tempo.
+     */
+    private static final double EPSILON = SolverContext.EQUIVALENCE_EPSILON;
+
+    /**
+     * Calcola le migliori {@code k} strategie con la ricerca best-first.
+     * <p>
+     * Usa la stessa regola di unicità della DP (tempo troncato al secondo) e trova la stessa strategia ottima.
+     * Le alternative sono esatte anche quando più strategie parziali dello stesso stato cadono nello stesso
+     * secondo, quindi possono risultare più veloci di quelle della DP, che conserva solo {@code k} soluzioni per stato.
+     * Il risultato riporta anche i nodi espansi e il numero di stati che la DP esaustiva avrebbe risolto.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero di strategie richieste (limitato a {@link OptimizationEngine#MAX_TOP_K}).
+     * @return Il risultato con le strategie, ordinate per tempo totale crescente, e il lavoro svolto.
+     */
+    public OptimizationResult search(int totalLaps, List<TyrePrediction> tyres, int k) {
+        return search(totalLaps, tyres, k, Deadline.none());
+    }
+
+    /**
+     * Calcola le migliori {@code k} strategie con la ricerca best-first entro una scadenza.
+     * <p>
+     * La scadenza viene controllata prima di ogni espansione. Le strategie complete escono dalla coda
+     * in ordine di tempo, quindi allo scadere quelle già trovate sono comunque le migliori in assoluto:
+     * il risultato (segnalato come parziale) ne contiene solo meno di {@code k}.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero di strategie richieste (limitato a {@link OptimizationEngine#MAX_TOP_K}).
+     * @param deadline  La scadenza del calcolo.
+     * @return Il risultato con le strategie, ordinate per tempo totale crescente, e il lavoro svolto.
+     */
+    public OptimizationResult search(int totalLaps, List<TyrePrediction> tyres, int k, Deadline deadline) {
+        System.out.println("--- AVVIO RICERCA BRANCH AND BOUND - TOP " + k + " ---");
+
+        List<RaceStrategy> results = new ArrayList<>();
+        OptimizationResult result = new OptimizationResult(results, EngineType.BRANCH_AND_BOUND.name(), 0,
+                OptimizationEngine.dpStateCount(totalLaps, tyres.size()));
+        if (tyres.isEmpty() || totalLaps < 1) return result;
+
+        int limit = Math.max(1, Math.min(k, OptimizationEngine.MAX_TOP_K));
+        int tyreCount = tyres.size();
+        StintCostTable costs = StintCostTable.compile(tyres, totalLaps);
+        double[][] bounds = remainingLapsBounds(costs, totalLaps);
+
+        // Per ogni stato: il tempo dell'ultima espansione e la "catena" di espansioni distanti almeno un secondo
+        int[] chainLengths = new int[(totalLaps + 1) << tyreCount];
+        double[] chainLast = new double[chainLengths.length];
+        double[] lastExpandedTime = new double[chainLengths.length];
+        Arrays.fill(lastExpandedTime, -OptimizationEngine.INFINITY);
+
+        // Migliori tempi delle strategie complete già generate, uno per secondo (per la potatura)
+        TreeMap<Integer, Double> goalBuckets = new TreeMap<>();
+        Set<Integer> acceptedSeconds = new HashSet<>();
+
+        PriorityQueue<SearchNode> open = new PriorityQueue<>();
+        long sequence = 0;
+        long expanded = 0;
+        open.add(new SearchNode(null, 0, 0, -1, 0, 0.0, 0.0, sequence++));
+
+        while (!open.isEmpty() && results.size() < limit && !deadline.isExpired()) {
+            SearchNode node = open.poll();
+
+            // Strategia completa: esce in ordine di tempo, la teniamo se il suo secondo è nuovo
+            if (node.lap == totalLaps) {
+                if (acceptedSeconds.add((int) node.time)) results.add(node.toStrategy(tyres));
+                continue;
+            }
+
+            // DOMINANZA: se lo stato è già stato espanso con "limit" tempi distanti almeno un secondo l'uno
+            // dall'altro (e da questo), ogni completamento di questo nodo cade in un secondo peggiore di
+            // "limit" strategie migliori con lo stesso finale, quindi non può entrare nel risultato.
+            // Anche le strategie parziali equivalenti (stessi stint in ordine diverso) vengono saltate.
+            int state = node.mask * (totalLaps + 1) + node.lap;
+            if (node.lap > 0) {
+                if (node.time - lastExpandedTime[state] < EPSILON) continue;
+                boolean extendsChain = chainLengths[state] == 0 || node.time - chainLast[state] >= 1.0;
+                if (extendsChain && chainLengths[state] >= limit) continue;
+                if (extendsChain) {
+                    chainLengths[state]++;
+                    chainLast[state] = node.time;
+                }
+                lastExpandedTime[state] = node.time;
+            }
+            expanded++;
+
+            double pitCost = (node.lap == 0) ? 0 : OptimizationEngine.PIT_STOP_LOSS;
+            // Il primo stint può durare qualsiasi numero di giri, i successivi almeno MIN_STINT_LAPS
+            int minLaps = (node.lap == 0) ? 1 : OptimizationEngine.MIN_STINT_LAPS;
+            int maxLaps = (node.lap == 0) ? totalLaps - 2 : totalLaps - node.lap;
+
+            for (int i = 0; i < tyreCount; i++) {
+                int nextMask = node.mask | (1 << i);
+                for (int laps = minLaps; laps <= maxLaps; laps++) {
+                    int nextLap = node.lap + laps;
+                    boolean finished = nextLap == totalLaps;
+
+                    // Con una sola mescola usata il limite impone di montarne un'altra (regola delle due mescole)
+                    double[] bound = Integer.bitCount(nextMask) >= 2 ? bounds[tyreCount] : bounds[i];
+                    double remaining = bound[totalLaps - nextLap];
+                    if (remaining >= OptimizationEngine.INFINITY) continue; // Giri rimanenti non coperti
+
+                    double time = node.time + pitCost + costs.stintTime(i, laps);
+                    double estimate = time + remaining;
+
+                    // BOUND: il ramo non può battere la k-esima strategia completa già trovata
+                    if (goalBuckets.size() == limit && estimate > kthBest(goalBuckets) + EPSILON) continue;
+
+                    if (finished) registerGoal(goalBuckets, limit, time);
+                    open.add(new SearchNode(node, nextLap, nextMask, i, laps, time, estimate, sequence++));
+                }
+            }
+        }
+
+        result.setNodesExpanded(expanded);
+        result.setPartial(deadline.wasReached());
+        System.out.println("Nodi espansi: " + expanded + " (stati DP: " + result.getDpStates() + ")");
+        return result;
+    }
+
+    /**
+     * Calcola i limiti inferiori ammissibili del tempo necessario per percorrere i giri rimanenti.
+     * <p>
+     * {@code bounds[tyreCount][r]} è il tempo minimo per coprire {@code r} giri partendo da un pit-stop,
+     * con stint di almeno {@code MIN_STINT_LAPS} giri e scegliendo per ogni stint la mescola più veloce
+     * per quella durata. {@code bounds[c][r]} è lo stesso limite quando finora è stata usata solo la
+     * mescola {@code c}: almeno uno degli stint rimanenti deve usare una mescola diversa.
+     * Vale {@link OptimizationEngine#INFINITY} se i giri non possono essere coperti
+     * (es. meno giri della durata minima di uno stint).
+     * </p>
+     *
+     * @param costs     La tabella dei costi degli stint.
+     * @param totalLaps Il numero totale di giri della gara.
+     * @return I limiti inferiori per ogni numero di giri rimanenti, da 0 a {@code totalLaps}.
+     */
+    static double[][] remainingLapsBounds(StintCostTable costs, int totalLaps) {
+        int tyreCount = costs.getTyreCount();
+        double[] envelope = lowerEnvelope(costs, totalLaps, -1);
+
+        double[][] bounds = new double[tyreCount + 1][];
+        bounds[tyreCount] = coverBound(envelope, null, null, totalLaps);
+        for (int c = 0; c < tyreCount; c++) {
+            bounds[c] = coverBound(envelope, lowerEnvelope(costs, totalLaps, c), bounds[tyreCount], totalLaps);
+        }
+        return bounds;
+    }
+
+    /**
+     * Inviluppo inferiore dei costi degli stint per ogni durata, su tutte le mescole tranne {@code excluded}.
+     */
+    private static double[] lowerEnvelope(StintCostTable costs, int totalLaps, int excluded) {
+        double[] envelope = new double[totalLaps + 1];
+        Arrays.fill(envelope, OptimizationEngine.INFINITY);
+        for (int t = 0; t < costs.getTyreCount(); t++) {
+            if (t == excluded) continue;
+            for (int n = 1; n <= totalLaps; n++) {
+                envelope[n] = Math.min(envelope[n], costs.stintTime(t, n));
+            }
+        }
+        return envelope;
+    }
+
+    /**
+     * DP ad una dimensione (giri rimanenti) sul problema rilassato.
+     * <p>
+     * Senza {@code others} calcola il limite libero; altrimenti il limite con almeno uno stint
+     * preso da {@code others} (le mescole diverse da quella già usata), dopo il quale vale {@code free}.
+     * </p>
+     */
+    private static double[] coverBound(double[] envelope, double[] others, double[] free, int totalLaps) {
+        double[] bound = new double[totalLaps + 1];
+        Arrays.fill(bound, OptimizationEngine.INFINITY);
+        if (others == null) bound[0] = 0;
+        for (int r = OptimizationEngine.MIN_STINT_LAPS; r <= totalLaps; r++) {
+            for (int n = OptimizationEngine.MIN_STINT_LAPS; n <= r; n++) {
+                double best = OptimizationEngine.PIT_STOP_LOSS + envelope[n] + bound[r - n];
+                if (others != null) {
+                    best = Math.min(best, OptimizationEngine.PIT_STOP_LOSS + others[n] + free[r - n]);
+                }
+                bound[r] = Math.min(bound[r], best);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Registra il tempo di una strategia completa appena generata tra le migliori {@code limit}
+     * (una per secondo troncato), usate come soglia di potatura.
+     */
+    private void registerGoal(TreeMap<Integer, Double> goalBuckets, int limit, double time) {
+        goalBuckets.merge((int) time, time, Math::min);
+        if (goalBuckets.size() > limit) goalBuckets.pollLastEntry();
+    }
+
+    /**
+     * Restituisce il tempo della {@code k}-esima migliore strategia completa generata finora.
+     */
+    private double kthBest(TreeMap<Integer, Double> goalBuckets) {
+        return goalBuckets.lastEntry().getValue();
+    }
+}
@@ -0,0 +1,39 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Degrado con "cliff": lineare fino all'età {@code cliffLap}, poi il tempo sul giro peggiora di colpo
+ * di {@code penalty} secondi e continua a crescere di {@code rate} secondi in più per ogni giro.
+ *
+ * @author Team SPS-F1
+ */
+class CliffDegradation implements DegradationModel {
+
+    private final int cliffLap;
+    private final double penalty;
+    private final double rate;
+
+    /**
+     * @param cliffLap L'età della gomma a cui inizia il crollo (almeno 1).
+     * @param penalty  Il peggioramento improvviso del tempo sul giro.
+     * @param rate     Il degrado aggiuntivo per giro dopo il crollo.
+     * @throws IllegalArgumentException se l'età del crollo non è valida.
+     */
+    CliffDegradation(int cliffLap, double penalty, double rate) {
+        if (cliffLap < 1) throw new IllegalArgumentException("Età del crollo non valida: " + cliffLap);
+        this.cliffLap = cliffLap;
+        this.penalty = penalty;
+        this.rate = rate;
+    }
+
+    @Override
+    public double lapTime(double baseTime, double degradationRate, int age) {
+        double time = baseTime + age * degradationRate;
+        if (age >= cliffLap) time += penalty + (age - cliffLap) * rate;
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return "CLIFF(" + cliffLap + "," + penalty + "," + rate + ")";
+    }
+}
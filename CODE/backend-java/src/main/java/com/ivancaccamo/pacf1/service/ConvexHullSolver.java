@@ -0,0 +1,115 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Risolutore DP con transizioni ottimizzate tramite <b>Convex Hull Trick</b>.
+ * <p>
+ * Con il modello di degrado lineare il costo di uno stint di {@code n} giri è
+ * {@code C(n) = T0 * n + D * n * (n - 1) / 2}. Per uno stato al giro {@code L} e uno stint
+ * che termina al giro {@code j}, il costo della transizione si scompone in
+ * </p>
+ * <pre>
+ *   C(j - L) + V(j) = [ -D * j ] * L + [ D/2 * j^2 + (T0 - D/2) * j + V(j) ] + [ D/2 * L^2 - (T0 - D/2) * L ]
+ * </pre>
+ * <p>
+ * cioè una retta in {@code L} (pendenza e intercetta dipendono solo da {@code j}) più un termine
+ * che dipende solo da {@code L}. Il minimo su tutte le durate diventa quindi il minimo di un
+ * insieme di rette in un punto, calcolato con un {@link LiChaoTree} per ogni coppia
+ * (mescola, maschera di arrivo) in O(log giri) invece di O(giri).
+ * </p>
+ * <p>
+ * La tabella viene riempita bottom-up: prima di elaborare il giro {@code L} si inseriscono le rette
+ * degli stati al giro {@code L + MIN_STINT_LAPS}, così ogni interrogazione vede solo stint di durata ammessa.
+ * Il valore della transizione scelta viene ricalcolato dalle tabelle esatte dei costi, quindi il
+ * tempo ottimo coincide con quello della versione esaustiva ({@link TransitionMode#BRUTE_FORCE});
+ * a parità di tempo può essere scelta una strategia equivalente diversa.
+ * Supporta solo {@code topK = 1}: per le liste k-best il motore usa la transizione esaustiva.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class ConvexHullSolver {
+
+    private ConvexHullSolver() {}
+
+    /**
+     * Indica se il contesto può essere risolto con la Convex Hull Trick.
+     *
+     * @param ctx Il contesto della richiesta.
+     * @return {@code true} se si cerca la sola strategia ottima e il modello di costo è quadratico.
+     */
+    static boolean supports(SolverContext ctx) {
+        return ctx.topK == 1 && ctx.stintCosts.isQuadratic();
+    }
+
+    /**
+     * Riempie la tabella del contesto per tutti gli stati con giro {@code >= 1}.
+     *
+     * @param ctx          Il contesto della richiesta (deve soddisfare {@link #supports(SolverContext)}).
+     * @param pitStopLoss  Il tempo perso per ogni pit-stop.
+     * @param minStintLaps La durata minima di uno stint successivo al primo.
+     */
+    static void solve(SolverContext ctx, double pitStopLoss, int minStintLaps) {
+        int totalLaps = ctx.totalLaps;
+        int tyreCount = ctx.tyres.size();
+        int maskCount = 1 << tyreCount;
+        StintCostTable costs = ctx.stintCosts;
+
+        // Un inviluppo di rette per ogni (mescola, maschera di arrivo che la contiene)
+        LiChaoTree[][] hulls = new LiChaoTree[tyreCount][maskCount];
+        for (int t = 0; t < tyreCount; t++) {
+            for (int mask = 0; mask < maskCount; mask++) {
+                if ((mask & (1 << t)) != 0) hulls[t][mask] = new LiChaoTree(totalLaps, totalLaps + 1);
+            }
+        }
+
+        // CASO BASE: Gara finita (valida solo con almeno 2 mescole diverse)
+        for (int mask = 1; mask < maskCount; mask++) {
+            int state = ctx.stateIndex(totalLaps, mask);
+            int count = 0;
+            if (Integer.bitCount(mask) >= 2) {
+                ctx.memo[state] = 0;
+                ctx.bestDecisions[state] = SolverContext.NO_DECISION;
+                ctx.nextRanks[state] = 0;
+                count = 1;
+            }
+            ctx.solutionCounts[state] = count;
+        }
+
+        for (int lap = totalLaps - 1; lap >= 1; lap--) {
+            if (ctx.deadline.isExpired()) return; // Budget esaurito: i giri precedenti restano non risolti
+
+            // Rendiamo disponibili gli stint che terminano al giro lap + minStintLaps
+            int arrival = lap + minStintLaps;
+            if (arrival <= totalLaps) {
+                for (int t = 0; t < tyreCount; t++) {
+                    double halfStep = costs.getDegradationStep(t) / 2;
+                    double linearTerm = costs.getFirstLapTime(t) - halfStep;
+                    for (int mask = 0; mask < maskCount; mask++) {
+                        if (hulls[t][mask] == null) continue;
+                        int next = ctx.stateIndex(arrival, mask);
+                        if (ctx.solutionCounts[next] <= 0) continue;
+                        double slope = -costs.getDegradationStep(t) * arrival;
+                        double intercept = halfStep * arrival * arrival + linearTerm * arrival + ctx.memo[next];
+                        hulls[t][mask].insert(arrival, slope, intercept);
+                    }
+                }
+            }
+
+            for (int mask = 1; mask < maskCount; mask++) {
+                int state = ctx.stateIndex(lap, mask);
+                int count = 0;
+                for (int t = 0; t < tyreCount; t++) {
+                    int nextMask = mask | (1 << t);
+                    int best = hulls[t][nextMask].query(lap);
+                    if (best == LiChaoTree.NONE) continue;
+
+                    // Valore esatto della transizione scelta, letto dalle tabelle dei costi
+                    int laps = best - lap;
+                    double totalTime = costs.stintTime(t, laps) + pitStopLoss + ctx.memo[ctx.stateIndex(best, nextMask)];
+                    count = ctx.insertSolution(state, count, totalTime, SolverContext.packDecision(t, laps), 0);
+                }
+                ctx.solutionCounts[state] = count;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Scadenza (budget di tempo) di un calcolo, verificata in modo cooperativo dai motori.
+ * <p>
+ * I motori controllano periodicamente {@link #isExpired()} nei propri cicli e, una volta scaduto il tempo,
+ * smettono di esplorare nuovi stati restituendo le migliori strategie trovate fino a quel momento.
+ * {@link #wasReached()} indica poi se il calcolo è stato davvero interrotto (risultato parziale).
+ * La scadenza può anche essere annullata in anticipo da un altro thread ({@link #cancel()}).
+ * La classe è sicura per l'uso da più thread (modalità parallela).
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class Deadline {
+
+    /**
+     * Budget massimo in millisecondi: oltre questa soglia la conversione in nanosecondi andrebbe in overflow.
+     */
+    private static final long MAX_BUDGET_MS = Long.MAX_VALUE / 1_000_000L;
+
+    /**
+     * Istante di scadenza in nanosecondi ({@link System#nanoTime()}), oppure {@link Long#MAX_VALUE} se illimitato.
+     */
+    private final long deadlineNanos;
+
+    /**
+     * Diventa {@code true} la prima volta che un controllo trova il tempo scaduto.
+     */
+    private volatile boolean reached;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Crea una scadenza a partire da adesso.
+     *
+     * @param budgetMs Il budget in millisecondi; un valore {@code <= 0}, o troppo grande per essere
+     *                 rappresentato in nanosecondi, indica nessuna scadenza.
+     * @return La scadenza.
+     */
+    public static Deadline after(long budgetMs) {
+        if (budgetMs <= 0 || budgetMs >= MAX_BUDGET_MS) return none();
+        long now = System.nanoTime();
+        long budgetNanos = budgetMs * 1_000_000L;
+        // Saturazione: oltre Long.MAX_VALUE la scadenza finirebbe nel passato
+        if (now > 0 && budgetNanos > Long.MAX_VALUE - now) return none();
+        return new Deadline(now + budgetNanos);
+    }
+
+    /**
+     * Crea una scadenza che non arriva mai.
+     *
+     * @return Una scadenza illimitata.
+     */
+    public static Deadline none() {
+        return new Deadline(Long.MAX_VALUE);
+    }
+
+    /**
+     * Indica se la scadenza ha un limite di tempo (le scadenze illimitate possono comunque essere annullate).
+     *
+     * @return {@code true} se creata con un budget positivo.
+     */
+    public boolean hasLimit() {
+        return deadlineNanos != Long.MAX_VALUE;
+    }
+
+    /**
+     * Controlla se il tempo è scaduto (punto di cancellazione cooperativa).
+     *
+     * @return {@code true} se il calcolo deve fermarsi.
+     */
+    public boolean isExpired() {
+        if (reached) return true;
+        if (deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos >= 0) {
+            reached = true;
+        }
+        return reached;
+    }
+
+    /**
+     * Annulla il calcolo: da questo momento ogni controllo trova la scadenza raggiunta
+     * (es. il client in attesa si è disconnesso).
+     */
+    public void cancel() {
+        reached = true;
+    }
+
+    /**
+     * Indica se almeno un controllo ha trovato il tempo scaduto (o il calcolo è stato annullato),
+     * cioè se il calcolo è stato interrotto.
+     *
+     * @return {@code true} se il risultato è parziale.
+     */
+    public boolean wasReached() {
+        return reached;
+    }
+}
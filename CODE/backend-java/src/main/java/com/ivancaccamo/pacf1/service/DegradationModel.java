@@ -0,0 +1,97 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.DegradationSpec;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+
+import java.util.Locale;
+
+/**
+ * Modello della curva di degrado di una mescola: il tempo sul giro in funzione dell'età della gomma.
+ * <p>
+ * Un modello non viene mai valutato dentro la DP: {@link StintCostTable} lo <b>compila</b> una sola volta
+ * per richiesta nei tempi sul giro di ogni età ({@link #compile}) e poi nelle somme prefisse, quindi un
+ * modello più ricco non cambia il costo del ciclo più interno. Se i tempi compilati non sono lineari
+ * nell'età, la tabella non è quadratica e le transizioni {@link TransitionMode#CONVEX_HULL} ricadono
+ * automaticamente su {@link TransitionMode#BRUTE_FORCE}.
+ * </p>
+ * <p>
+ * Il modello di ogni mescola è scelto dalla specifica inviata dal servizio ML
+ * ({@link TyrePrediction#getDegradation_model()}); senza specifica il degrado è lineare.
+ * Per aggiungere un modello basta implementare questa interfaccia e registrarne il tipo in {@link #of}.
+ * Il {@code toString()} di un modello deve descriverne tutti i parametri: entra nell'impronta con cui
+ * vengono condivise le tabelle della DP ({@link SuffixTableCache}).
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public interface DegradationModel {
+
+    /**
+     * Calcola il tempo di un giro.
+     *
+     * @param baseTime        Il tempo sul giro con gomma nuova predetto dal servizio ML.
+     * @param degradationRate Il degrado per giro predetto dal servizio ML.
+     * @param age             I giri già percorsi con la gomma (0 = gomma nuova).
+     * @return Il tempo del giro in secondi.
+     */
+    double lapTime(double baseTime, double degradationRate, int age);
+
+    /**
+     * Compila il modello nei tempi sul giro di ogni età, pronti per le somme prefisse di {@link StintCostTable}.
+     *
+     * @param tyre    La predizione della mescola.
+     * @param maxLaps La durata massima di uno stint.
+     * @return {@code lapTimes[a]} = tempo del giro con {@code a} giri di usura.
+     */
+    default double[] compile(TyrePrediction tyre, int maxLaps) {
+        double[] lapTimes = new double[maxLaps];
+        for (int age = 0; age < maxLaps; age++) {
+            lapTimes[age] = lapTime(tyre.getBase_time(), tyre.getDegradation_rate(), age);
+        }
+        return lapTimes;
+    }
+
+    /**
+     * Restituisce l'incremento del tempo sul giro per ogni giro di usura, usato quando l'usura dipende
+     * dal giro di gara (vedi {@link RaceConditions}).
+     *
+     * @param tyre    La predizione della mescola.
+     * @param maxLaps La durata massima di uno stint.
+     * @return {@code steps[a]} = tempo del giro di età {@code a + 1} meno quello di età {@code a}.
+     */
+    default double[] wearSteps(TyrePrediction tyre, int maxLaps) {
+        double[] lapTimes = compile(tyre, maxLaps + 1);
+        double[] steps = new double[maxLaps];
+        for (int age = 0; age < maxLaps; age++) steps[age] = lapTimes[age + 1] - lapTimes[age];
+        return steps;
+    }
+
+    /**
+     * Restituisce il modello di una mescola (lineare se la predizione non ne specifica uno).
+     *
+     * @param tyre La predizione della mescola.
+     * @return Il modello di degrado.
+     * @throws IllegalArgumentException se la specifica non è valida.
+     */
+    static DegradationModel forTyre(TyrePrediction tyre) {
+        return of(tyre.getDegradation_model());
+    }
+
+    /**
+     * Crea il modello descritto da una specifica.
+     *
+     * @param spec La specifica, oppure {@code null} per il degrado lineare.
+     * @return Il modello di degrado.
+     * @throws IllegalArgumentException se il tipo è sconosciuto o i parametri non sono validi.
+     */
+    static DegradationModel of(DegradationSpec spec) {
+        if (spec == null || spec.getType() == null) return LinearDegradation.INSTANCE;
+        return switch (spec.getType().toUpperCase(Locale.ROOT)) {
+            case "LINEAR" -> LinearDegradation.INSTANCE;
+            case "QUADRATIC" -> new QuadraticDegradation(spec.getQuadratic_rate());
+            case "PIECEWISE" -> PiecewiseDegradation.of(spec.getBreakpoints(), spec.getRate_factors());
+            case "CLIFF" -> new CliffDegradation(spec.getCliff_lap(), spec.getCliff_penalty(), spec.getCliff_rate());
+            default -> throw new IllegalArgumentException("Modello di degrado sconosciuto: " + spec.getType());
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Motore di ricerca usato per calcolare le strategie di una richiesta.
+ *
+ * @author Team SPS-F1
+ */
+public enum EngineType {
+
+    /**
+     * Programmazione Dinamica esaustiva ({@link OptimizationEngine}): risolve tutti gli stati
+     * (giro, maschera gomme usate), anche quelli chiaramente dominati. È il motore di riferimento.
+     */
+    DP,
+
+    /**
+     * Ricerca best-first (A*) sul grafo degli stint con potatura branch-and-bound
+     * ({@link BranchAndBoundEngine}): espande solo le strategie parziali che possono ancora
+     * entrare tra le migliori {@code k}. Esatta come la DP.
+     */
+    BRANCH_AND_BOUND,
+
+    /**
+     * Beam search approssimata sulle sequenze di stint ({@link BeamSearchEngine}): ad ogni sosta conserva
+     * solo le strategie parziali più promettenti. L'ampiezza del fascio regola il compromesso tra
+     * qualità e latenza.
+     */
+    BEAM,
+
+    /**
+     * DP con la dimensione del numero di soste ({@link OptimizationEngine#optimizeByStopCount}):
+     * restituisce la strategia ottima per ogni numero di soste, così le alternative sono davvero diverse.
+     */
+    STOP_COUNT
+}
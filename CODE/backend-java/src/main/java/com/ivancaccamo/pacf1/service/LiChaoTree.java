@@ -0,0 +1,116 @@
+package com.ivancaccamo.pacf1.service;
+
+import java.util.Arrays;
+
+/**
+ * Li Chao tree per il minimo di un insieme di rette su un dominio di interi {@code [0, maxX]}.
+ * <p>
+ * Struttura di supporto alla Convex Hull Trick di {@link ConvexHullSolver}: ogni retta è
+ * identificata da un intero (il giro di arrivo dello stint) e il metodo {@link #query(int)}
+ * restituisce l'identificativo della retta minima in un punto. Inserimento e interrogazione
+ * costano O(log maxX), senza vincoli sull'ordine delle pendenze o dei punti interrogati.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class LiChaoTree {
+
+    /** Identificativo che indica un nodo vuoto. */
+    static final int NONE = -1;
+
+    private final int maxX;
+    private final int[] nodes;
+    private final double[] slopes;
+    private final double[] intercepts;
+
+    /**
+     * Crea un albero vuoto.
+     *
+     * @param maxX     L'estremo superiore (incluso) del dominio.
+     * @param maxLines Il numero massimo di identificativi di retta (da 0 a {@code maxLines - 1}).
+     */
+    LiChaoTree(int maxX, int maxLines) {
+        this.maxX = maxX;
+        this.nodes = new int[4 * (maxX + 1)];
+        this.slopes = new double[maxLines];
+        this.intercepts = new double[maxLines];
+        Arrays.fill(nodes, NONE);
+    }
+
+    /**
+     * Inserisce la retta {@code y = slope * x + intercept} con l'identificativo dato.
+     *
+     * @param id        L'identificativo della retta.
+     * @param slope     La pendenza.
+     * @param intercept L'intercetta.
+     */
+    void insert(int id, double slope, double intercept) {
+        slopes[id] = slope;
+        intercepts[id] = intercept;
+
+        int node = 1;
+        int lo = 0;
+        int hi = maxX;
+        while (true) {
+            int current = nodes[node];
+            if (current == NONE) {
+                nodes[node] = id;
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            boolean betterLeft = value(id, lo) < value(current, lo);
+            boolean betterMid = value(id, mid) < value(current, mid);
+            // Il nodo conserva la retta migliore nel punto medio, l'altra scende nel sottoalbero
+            if (betterMid) {
+                nodes[node] = id;
+                id = current;
+            }
+            if (lo == hi) return;
+            if (betterLeft != betterMid) {
+                node = 2 * node;
+                hi = mid;
+            } else {
+                node = 2 * node + 1;
+                lo = mid + 1;
+            }
+        }
+    }
+
+    /**
+     * Restituisce l'identificativo della retta con valore minimo nel punto {@code x}.
+     *
+     * @param x Il punto interrogato.
+     * @return L'identificativo della retta minima, oppure {@link #NONE} se l'albero è vuoto.
+     */
+    int query(int x) {
+        int best = NONE;
+        int node = 1;
+        int lo = 0;
+        int hi = maxX;
+        while (nodes[node] != NONE) {
+            int current = nodes[node];
+            if (best == NONE || value(current, x) < value(best, x)) best = current;
+            if (lo == hi) break;
+            int mid = (lo + hi) >>> 1;
+            if (x <= mid) {
+                node = 2 * node;
+                hi = mid;
+            } else {
+                node = 2 * node + 1;
+                lo = mid + 1;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Valuta una retta già inserita.
+     *
+     * @param id L'identificativo della retta.
+     * @param x  Il punto.
+     * @return Il valore della retta in {@code x}.
+     */
+    double value(int id, int x) {
+        return slopes[id] * x + intercepts[id];
+    }
+}
@@ -0,0 +1,51 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+
+import java.util.Arrays;
+
+/**
+ * Degrado lineare, il modello storico: Tempo(età a) = BaseTime + a * DegradationRate.
+ *
+ * @author Team SPS-F1
+ */
+class LinearDegradation implements DegradationModel {
+
+    static final LinearDegradation INSTANCE = new LinearDegradation();
+
+    private LinearDegradation() {}
+
+    @Override
+    public double lapTime(double baseTime, double degradationRate, int age) {
+        return baseTime + age * degradationRate;
+    }
+
+    /**
+     * Accumula il degrado giro per giro, come nella simulazione originale (stessi valori in virgola mobile).
+     */
+    @Override
+    public double[] compile(TyrePrediction tyre, int maxLaps) {
+        double[] lapTimes = new double[maxLaps];
+        double currentLapTime = tyre.getBase_time();
+        for (int age = 0; age < maxLaps; age++) {
+            lapTimes[age] = currentLapTime;
+            currentLapTime += tyre.getDegradation_rate();
+        }
+        return lapTimes;
+    }
+
+    /**
+     * Incremento costante, senza gli arrotondamenti delle differenze tra tempi compilati.
+     */
+    @Override
+    public double[] wearSteps(TyrePrediction tyre, int maxLaps) {
+        double[] steps = new double[maxLaps];
+        Arrays.fill(steps, tyre.getDegradation_rate());
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        return "LINEAR";
+    }
+}
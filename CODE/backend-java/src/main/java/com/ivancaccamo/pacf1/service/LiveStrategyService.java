@@ -0,0 +1,158 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.LiveSession;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Servizio di ri-ottimizzazione live durante la gara.
+ * <p>
+ * All'apertura di una sessione la tabella della DP viene risolta una sola volta per l'intera gara
+ * e conservata in memoria. Ad ogni giro il muretto box comunica giro corrente, mescola montata,
+ * età della gomma e mescole già usate: il piano ottimo per i giri rimanenti viene letto dalla tabella
+ * ({@link OptimizationEngine#planFrom}) in pochi millisecondi, senza risolvere di nuovo la gara.
+ * </p>
+ * <p>
+ * Le sessioni sono limitate (proprietà {@code pacf1.live.max-sessions}): oltre il limite
+ * viene chiusa quella usata meno di recente.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+@Service
+public class LiveStrategyService {
+
+    private final OptimizationEngine optimizer;
+
+    /**
+     * Numero massimo di sessioni live tenute in memoria.
+     */
+    @Value("${pacf1.live.max-sessions:16}")
+    private int maxSessions = 16;
+
+    /**
+     * Una sessione aperta: la descrizione restituita al client e la tabella risolta.
+     */
+    private record Session(LiveSession info, SolverContext table) {}
+
+    /**
+     * Sessioni aperte, in ordine di accesso (la prima è quella usata meno di recente).
+     */
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+            return size() > maxSessions;
+        }
+    };
+
+    /**
+     * Costruisce il servizio.
+     *
+     * @param optimizer Il motore di ottimizzazione.
+     */
+    @Autowired
+    public LiveStrategyService(OptimizationEngine optimizer) {
+        this.optimizer = optimizer;
+    }
+
+    /**
+     * Apre una sessione live risolvendo l'intera tabella della DP per la gara.
+     *
+     * @param circuit   Il circuito della gara.
+     * @param totalLaps Il numero totale di giri.
+     * @param tyres     Le predizioni di degrado delle mescole disponibili.
+     * @param k         Il numero massimo di piani alternativi per interrogazione.
+     * @return La descrizione della sessione, con l'identificativo da usare per le interrogazioni.
+     * @throws IllegalArgumentException se i giri sono fuori da 1..{@link OptimizationEngine#MAX_RACE_LAPS}
+     *                                  o {@code k} non è positivo.
+     */
+    public LiveSession openSession(String circuit, int totalLaps, List<TyrePrediction> tyres, int k) {
+        // Stessi limiti di GET /api/strategy: la tabella della sessione resta in memoria per tutta la gara
+        if (totalLaps < 1 || totalLaps > OptimizationEngine.MAX_RACE_LAPS) {
+            throw new IllegalArgumentException("Numero di giri non valido: " + totalLaps);
+        }
+        if (k < 1) throw new IllegalArgumentException("Numero di piani non valido: " + k);
+        long start = System.nanoTime();
+        SolverContext table = optimizer.solveTable(totalLaps, tyres, k);
+
+        List<String> compounds = new ArrayList<>();
+        for (TyrePrediction tyre : tyres) compounds.add(tyre.getCompound());
+        LiveSession info = new LiveSession(UUID.randomUUID().toString(), circuit, totalLaps, compounds);
+
+        synchronized (sessions) {
+            sessions.put(info.getId(), new Session(info, table));
+        }
+        System.out.println("Sessione live " + info.getId() + " aperta in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return info;
+    }
+
+    /**
+     * Calcola il piano ottimo per i giri rimanenti leggendo la tabella della sessione.
+     *
+     * @param sessionId     L'identificativo della sessione.
+     * @param lap           I giri già completati.
+     * @param compound      La mescola montata.
+     * @param tyreAge       I giri già percorsi con la gomma montata
+     *                      (al più {@code lap + OptimizationEngine.MAX_PRIOR_TYRE_LAPS}).
+     * @param usedCompounds Le mescole già usate in gara (la mescola montata viene aggiunta comunque).
+     * @param k             Il numero di piani alternativi richiesti.
+     * @return I piani per i giri rimanenti, ordinati per tempo crescente (il tempo comprende solo i giri rimanenti).
+     * @throws IllegalArgumentException se la sessione non esiste o i parametri non sono validi.
+     */
+    public List<RaceStrategy> plan(String sessionId, int lap, String compound, int tyreAge,
+                                   List<String> usedCompounds, int k) {
+        Session session;
+        synchronized (sessions) {
+            session = sessions.get(sessionId);
+        }
+        if (session == null) throw new IllegalArgumentException("Sessione live inesistente: " + sessionId);
+
+        List<String> compounds = session.info().getCompounds();
+        if (lap < 0 || lap >= session.info().getLaps()) {
+            throw new IllegalArgumentException("Giro non valido: " + lap);
+        }
+        // Una gomma non può avere più giri della gara finora più quelli di prove e qualifica
+        if (tyreAge < 0 || tyreAge > lap + OptimizationEngine.MAX_PRIOR_TYRE_LAPS) {
+            throw new IllegalArgumentException("Età della gomma non valida: " + tyreAge);
+        }
+
+        int tyreIndex = compoundIndex(compounds, compound);
+        int usedMask = 0;
+        for (String used : usedCompounds) {
+            if (!used.isBlank()) usedMask |= 1 << compoundIndex(compounds, used.trim());
+        }
+
+        return optimizer.planFrom(session.table(), lap, tyreIndex, tyreAge, usedMask, k);
+    }
+
+    /**
+     * Chiude una sessione liberando la tabella.
+     *
+     * @param sessionId L'identificativo della sessione.
+     * @return {@code true} se la sessione esisteva.
+     */
+    public boolean closeSession(String sessionId) {
+        synchronized (sessions) {
+            return sessions.remove(sessionId) != null;
+        }
+    }
+
+    /**
+     * Restituisce l'indice di una mescola nella tabella della sessione.
+     */
+    private static int compoundIndex(List<String> compounds, String compound) {
+        int index = compounds.indexOf(compound);
+        if (index < 0) throw new IllegalArgumentException("Mescola non disponibile: " + compound);
+        return index;
+    }
+}
@@ -0,0 +1,277 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.SimulationResult;
+import com.ivancaccamo.pacf1.model.Stint;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulatore Monte Carlo per valutare la robustezza delle strategie candidate.
+ * <p>
+ * Il Top K della DP ordina le strategie su un unico tempo deterministico; qui ogni candidata viene
+ * corsa su migliaia di gare simulate in cui vengono campionati:
+ * </p>
+ * <ul>
+ *     <li>la safety car alla fine di ogni giro in cui una candidata si ferma (sosta a costo ridotto);</li>
+ *     <li>la variabilità del tempo perso ad ogni pit-stop;</li>
+ *     <li>l'errore della predizione del degrado, con un moltiplicatore per mescola e per gara.</li>
+ * </ul>
+ * <p>
+ * Le candidate corrono tutte le stesse gare (stesse safety car e stesso degrado reale), così la
+ * probabilità di vittoria confronta le strategie a parità di condizioni. Le gare sono divise in blocchi
+ * eseguiti in parallelo su tutti i core: ogni blocco ha il proprio generatore {@link SplittableRandom},
+ * ottenuto con {@code split()} prima dell'avvio, quindi a parità di seme il risultato non dipende
+ * dall'ordine di esecuzione. Le candidate vengono compilate in array di interi e il ciclo delle gare
+ * non alloca oggetti: il costo di uno stint è letto dalle somme prefisse di {@link StintCostTable},
+ * separando la parte dovuta al degrado (scalata dal moltiplicatore) da quella a gomma nuova.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+@Service
+public class MonteCarloSimulator {
+
+    /**
+     * Numero di blocchi di gare per ogni thread, per bilanciare il carico.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Numero di thread della simulazione (proprietà {@code pacf1.montecarlo.threads}; 0 = tutti i core).
+     */
+    @Value("${pacf1.montecarlo.threads:0}")
+    private int threads = 0;
+
+    /**
+     * Pool della simulazione, creato alla prima richiesta.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Le candidate compilate in array: per ogni candidata e stint, mescola, giri e slot della safety car
+     * della sosta alla fine dello stint (-1 per l'ultimo stint).
+     */
+    private record CompiledCandidates(int[][] tyres, int[][] laps, int[][] pitSlots, int slotCount) {}
+
+    /**
+     * Simula le strategie candidate e restituisce la distribuzione dei tempi di ciascuna.
+     *
+     * @param candidates Le strategie da confrontare.
+     * @param tyres      Le predizioni delle mescole usate dalle strategie.
+     * @param options    I parametri delle incertezze.
+     * @return Gli esiti, nello stesso ordine delle candidate.
+     * @throws IllegalArgumentException se una strategia usa una mescola sconosciuta o le opzioni non sono valide.
+     */
+    public SimulationResult simulate(List<RaceStrategy> candidates, List<TyrePrediction> tyres, SimulationOptions options) {
+        if (options.getRaces() < 1) throw new IllegalArgumentException("Serve almeno una gara simulata");
+        if (!(options.getSafetyCarProbability() >= 0.0 && options.getSafetyCarProbability() <= 1.0)) {
+            throw new IllegalArgumentException("Probabilità di safety car non valida: " + options.getSafetyCarProbability());
+        }
+        long start = System.nanoTime();
+        int races = options.getRaces();
+        System.out.println("--- AVVIO SIMULAZIONE MONTE CARLO - " + candidates.size() + " STRATEGIE x " + races + " GARE ---");
+
+        CompiledCandidates compiled = compile(candidates, tyres);
+        int maxStintLaps = 1;
+        for (int[] stintLaps : compiled.laps()) {
+            for (int laps : stintLaps) maxStintLaps = Math.max(maxStintLaps, laps);
+        }
+        StintCostTable costs = StintCostTable.compile(tyres, maxStintLaps);
+
+        // Tempi di ogni candidata in ogni gara: ogni blocco scrive solo il proprio intervallo di gare
+        double[][] times = new double[candidates.size()][races];
+        long[] wins = new long[candidates.size()];
+
+        if (!candidates.isEmpty()) {
+            ExecutorService pool = getExecutor();
+            int chunks = Math.min(races, Math.max(1, poolSize() * CHUNKS_PER_THREAD));
+            SplittableRandom root = options.getSeed() != null ? new SplittableRandom(options.getSeed()) : new SplittableRandom();
+            List<Callable<long[]>> tasks = new ArrayList<>();
+            for (int c = 0; c < chunks; c++) {
+                int from = (int) ((long) races * c / chunks);
+                int to = (int) ((long) races * (c + 1) / chunks);
+                SplittableRandom random = root.split();
+                tasks.add(() -> simulateChunk(compiled, costs, options, random, from, to, times));
+            }
+            try {
+                for (Future<long[]> chunk : pool.invokeAll(tasks)) {
+                    long[] chunkWins = chunk.get();
+                    for (int i = 0; i < wins.length; i++) wins[i] += chunkWins[i];
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Simulazione interrotta", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Simulazione fallita", e.getCause());
+            }
+        }
+
+        SimulationResult result = new SimulationResult();
+        result.setRaces(races);
+        for (int i = 0; i < candidates.size(); i++) {
+            result.getOutcomes().add(outcome(candidates.get(i), times[i], (double) wins[i] / races));
+        }
+        result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        System.out.println("Simulazione completata in " + result.getElapsedMs() + " ms");
+        return result;
+    }
+
+    /**
+     * Simula le gare {@code [from, to)} con il generatore del blocco.
+     *
+     * @return Il numero di vittorie di ogni candidata nel blocco.
+     */
+    private static long[] simulateChunk(CompiledCandidates compiled, StintCostTable costs, SimulationOptions options,
+                                        SplittableRandom random, int from, int to, double[][] times) {
+        int tyreCount = costs.getTyreCount();
+        int candidateCount = compiled.tyres().length;
+        double pitLoss = OptimizationEngine.PIT_STOP_LOSS;
+        double safetyCarPitLoss = options.getSafetyCarPitLoss();
+        double pitLossSigma = options.getPitLossSigma();
+        double degradationSigma = options.getDegradationSigma();
+        double safetyCarProbability = options.getSafetyCarProbability();
+
+        // Buffer del blocco, riusati per tutte le gare
+        double[] multipliers = new double[tyreCount];
+        boolean[] safetyCar = new boolean[compiled.slotCount()];
+        long[] wins = new long[candidateCount];
+
+        for (int race = from; race < to; race++) {
+            // Condizioni della gara, uguali per tutte le candidate
+            for (int t = 0; t < tyreCount; t++) {
+                multipliers[t] = Math.max(0.0, 1.0 + degradationSigma * random.nextGaussian());
+            }
+            for (int slot = 0; slot < safetyCar.length; slot++) {
+                safetyCar[slot] = random.nextDouble() < safetyCarProbability;
+            }
+
+            double best = Double.MAX_VALUE;
+            int winner = 0;
+            for (int c = 0; c < candidateCount; c++) {
+                int[] stintTyres = compiled.tyres()[c];
+                int[] stintLaps = compiled.laps()[c];
+                int[] pitSlots = compiled.pitSlots()[c];
+                double time = 0.0;
+                for (int s = 0; s < stintTyres.length; s++) {
+                    int t = stintTyres[s];
+                    int n = stintLaps[s];
+                    double[] stintCosts = costs.costsFor(t);
+                    double fresh = n * stintCosts[1];
+                    time += fresh + multipliers[t] * (stintCosts[n] - fresh);
+                    if (pitSlots[s] >= 0) {
+                        double loss = safetyCar[pitSlots[s]] ? safetyCarPitLoss : pitLoss;
+                        time += Math.max(0.0, loss + pitLossSigma * random.nextGaussian());
+                    }
+                }
+                times[c][race] = time;
+                if (time < best) {
+                    best = time;
+                    winner = c;
+                }
+            }
+            wins[winner]++;
+        }
+        return wins;
+    }
+
+    /**
+     * Converte le strategie in array: mescole, giri e slot della safety car per ogni sosta.
+     * Le soste nello stesso giro (anche di candidate diverse) condividono lo stesso slot.
+     */
+    private static CompiledCandidates compile(List<RaceStrategy> candidates, List<TyrePrediction> tyres) {
+        TreeSet<Integer> pitLaps = new TreeSet<>();
+        for (RaceStrategy candidate : candidates) {
+            List<Stint> stints = candidate.getStints();
+            for (int s = 0; s < stints.size() - 1; s++) pitLaps.add(stints.get(s).getEndLap());
+        }
+        List<Integer> slots = new ArrayList<>(pitLaps);
+
+        int[][] stintTyres = new int[candidates.size()][];
+        int[][] stintLaps = new int[candidates.size()][];
+        int[][] pitSlots = new int[candidates.size()][];
+        for (int c = 0; c < candidates.size(); c++) {
+            List<Stint> stints = candidates.get(c).getStints();
+            stintTyres[c] = new int[stints.size()];
+            stintLaps[c] = new int[stints.size()];
+            pitSlots[c] = new int[stints.size()];
+            for (int s = 0; s < stints.size(); s++) {
+                Stint stint = stints.get(s);
+                int tyreIndex = indexOf(tyres, stint.getCompound());
+                if (tyreIndex < 0) throw new IllegalArgumentException("Mescola sconosciuta: " + stint.getCompound());
+                if (stint.getLaps() < 1) throw new IllegalArgumentException("Stint senza giri: " + stint.getCompound());
+                stintTyres[c][s] = tyreIndex;
+                stintLaps[c][s] = stint.getLaps();
+                pitSlots[c][s] = s < stints.size() - 1 ? slots.indexOf(stint.getEndLap()) : -1;
+            }
+        }
+        return new CompiledCandidates(stintTyres, stintLaps, pitSlots, slots.size());
+    }
+
+    private static int indexOf(List<TyrePrediction> tyres, String compound) {
+        for (int i = 0; i < tyres.size(); i++) {
+            if (tyres.get(i).getCompound().equals(compound)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Calcola media, deviazione standard e percentili dei tempi di una candidata (l'array viene ordinato).
+     */
+    private static SimulationResult.StrategyOutcome outcome(RaceStrategy strategy, double[] times, double winProbability) {
+        double sum = 0.0;
+        for (double time : times) sum += time;
+        double mean = sum / times.length;
+        double squares = 0.0;
+        for (double time : times) squares += (time - mean) * (time - mean);
+
+        Arrays.sort(times);
+        SimulationResult.StrategyOutcome outcome = new SimulationResult.StrategyOutcome();
+        outcome.setStrategy(strategy);
+        outcome.setMeanTime(mean);
+        outcome.setStdDevTime(Math.sqrt(squares / times.length));
+        outcome.setP10Time(times[(int) Math.floor(0.1 * (times.length - 1))]);
+        outcome.setP90Time(times[(int) Math.ceil(0.9 * (times.length - 1))]);
+        outcome.setWinProbability(winProbability);
+        return outcome;
+    }
+
+    private int poolSize() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Restituisce il pool della simulazione, creandolo alla prima richiesta.
+     */
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(poolSize());
+            System.out.println("Pool Monte Carlo avviato con " + poolSize() + " thread");
+        }
+        return executor;
+    }
+
+    /**
+     * Arresta il pool alla chiusura dell'applicazione.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
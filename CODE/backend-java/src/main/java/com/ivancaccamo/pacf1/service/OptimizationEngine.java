@@ -1,11 +1,20 @@
 package com.ivancaccamo.pacf1.service;
 
+import com.ivancaccamo.pacf1.model.OptimizationResult;
+import com.ivancaccamo.pacf1.model.PitWindowTable;
 import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyreQuantile;
 import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.RobustStrategyResult;
+import com.ivancaccamo.pacf1.model.SafetyCarPlan;
 import com.ivancaccamo.pacf1.model.Stint;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Motore algoritmico principale del sistema SPS-F1.
@@ -19,6 +28,12 @@ import java.util.*;
  * L'algoritmo tiene conto del degrado degli pneumatici, del tempo perso in pit-lane e
  * dei vincoli regolamentari (obbligo di usare almeno due mescole diverse).
  * </p>
+ * <p>
+ * Le tabelle della DP vivono in un {@link SolverContext} creato per ogni richiesta, quindi più richieste
+ * concorrenti possono essere servite in parallelo dallo stesso singleton. L'unico stato condiviso è la
+ * cache delle tabelle complete ({@link SuffixTableCache}), pubblicate solo a calcolo concluso e poi
+ * lette in sola lettura dalle richieste con le stesse predizioni.
+ * </p>
  *
  * @author Team SPS-F1
  */
@@ -29,37 +44,127 @@ public class OptimizationEngine {
      * Tempo medio perso per effettuare un pit-stop (percorrenza pit-lane + cambio gomme).
      * Valore fisso stimato a 20.0 secondi.
      */
-    private static final double PIT_STOP_LOSS = 20.0;
+    static final double PIT_STOP_LOSS = 20.0;
+
+    /**
+     * Tempo perso di default per un pit-stop in regime di safety car (circa la metà di {@link #PIT_STOP_LOSS}).
+     */
+    public static final double DEFAULT_SAFETY_CAR_PIT_LOSS = PIT_STOP_LOSS / 2;
 
     /**
      * Valore sentinella per indicare un tempo o un costo infinito (strategia non valida).
      */
-    private static final double INFINITY = 1e9; // Un numero grandissimo
+    static final double INFINITY = 1e9; // Un numero grandissimo
 
     /**
-     * Cache per la Memoization.
-     * Mappa uno stato univoco (giro corrente + maschera gomme usate) al miglior tempo ottenibile da quello stato in poi.
-     * Chiave: "giroCorrente-mascheraGommeUsate" -> Valore: Miglior Tempo
+     * Durata minima (in giri) di uno stint successivo al primo.
      */
-    // Cache per la Memoization: salva i risultati parziali per non ricalcolarli
-    // Chiave: "giroCorrente-mascheraGommeUsate" -> Valore: Miglior Tempo
-    private Map<String, Double> memo = new HashMap<>();
-    
+    static final int MIN_STINT_LAPS = 10;
+
     /**
-     * Mappa utilizzata per tracciare le decisioni ottimali prese ad ogni passo.
-     * Fondamentale per la fase di backtracking che ricostruisce la lista degli stint finali.
+     * Numero massimo di strategie che un singolo calcolo può restituire.
+     * Limita la dimensione delle liste k-best salvate per ogni stato della DP.
      */
-    // Per ricostruire la strategia alla fine
-    private Map<String, StintDecision> bestDecisions = new HashMap<>();
+    public static final int MAX_TOP_K = 20;
+
+    /**
+     * Numero massimo di giri di una gara accettato dalle richieste (le simulazioni di endurance
+     * arrivano a qualche migliaio): le tabelle della DP crescono con i giri.
+     */
+    public static final int MAX_RACE_LAPS = 2_000;
+
+    /**
+     * Giri massimi che una gomma montata può avere in più rispetto ai giri di gara completati
+     * (set già usati nelle prove e in qualifica).
+     */
+    public static final int MAX_PRIOR_TYRE_LAPS = 60;
+
+    /**
+     * Numero massimo di soste considerato di default dal calcolo per numero di soste
+     * (più che sufficiente per una gara di Formula 1).
+     */
+    public static final int DEFAULT_MAX_STOPS = 5;
+
+    /**
+     * Numero massimo di scenari di predizione dell'ottimizzazione robusta (es. 7 quantili per 3 mescole):
+     * con 343 scenari e 200 giri la ricerca resta entro pochi secondi e nel budget di memoria.
+     */
+    public static final int MAX_SCENARIOS = 343;
+
+    /**
+     * Numero minimo di stati di un fronte d'onda elaborati da un singolo task della modalità parallela.
+     */
+    private static final int WAVEFRONT_CHUNK_STATES = 4;
+
+    /**
+     * Numero di thread usati dalla modalità {@link SolverMode#PARALLEL}
+     * (proprietà {@code pacf1.solver.parallelism}; 0 = tutti i core disponibili).
+     */
+    @Value("${pacf1.solver.parallelism:0}")
+    private int parallelism = 0;
+
+    /**
+     * Numero minimo di giri per cui la modalità {@link SolverMode#PARALLEL} usa davvero più thread
+     * (proprietà {@code pacf1.solver.parallel-min-laps}): sotto questa soglia il costo di
+     * coordinamento supera il guadagno e la tabella viene riempita in modo sequenziale.
+     */
+    @Value("${pacf1.solver.parallel-min-laps:150}")
+    private int parallelMinLaps = 150;
+
+    /**
+     * Cache condivisa delle tabelle complete, riusate tra richieste con le stesse predizioni.
+     */
+    private final SuffixTableCache tableCache = new SuffixTableCache();
+
+    /**
+     * Tabella restituita dalla cache: la sottotabella della gara e se era già presente.
+     */
+    private record SharedTable(SolverContext ctx, boolean reused) {}
+
+    /**
+     * Pool condiviso dalle richieste in modalità parallela, creato alla prima richiesta che ne ha bisogno.
+     */
+    private ForkJoinPool wavefrontPool;
+
+    /**
+     * Kernel del ciclo interno della DP a soluzione singola (scalare di default).
+     */
+    private volatile StintKernel stintKernel = new ScalarStintKernel();
+
+    /**
+     * Seleziona all'avvio il kernel del ciclo interno della DP a soluzione singola
+     * (proprietà {@code pacf1.solver.vector}).
+     * <p>
+     * Con {@code true} viene usato il kernel SIMD della Vector API, se il backend è stato compilato con il
+     * profilo Maven {@code vector} e la JVM avviata con {@code --add-modules jdk.incubator.vector};
+     * altrimenti si resta sul kernel scalare.
+     * I risultati sono identici in entrambi i casi.
+     * </p>
+     *
+     * @param vectorEnabled {@code true} per richiedere il kernel SIMD.
+     */
+    @Value("${pacf1.solver.vector:false}")
+    public void setVectorKernelEnabled(boolean vectorEnabled) {
+        this.stintKernel = StintKernel.select(vectorEnabled);
+    }
+
+    /**
+     * Imposta la dimensione della cache delle tabelle complete (proprietà {@code pacf1.solver.table-cache-slots}),
+     * in soluzioni parziali conservate (circa 16 byte ciascuna); con 0 la cache è disattivata e ogni
+     * richiesta risolve la propria tabella.
+     *
+     * @param slots Il numero massimo di soluzioni parziali in cache.
+     */
+    @Value("${pacf1.solver.table-cache-slots:" + SuffixTableCache.DEFAULT_MAX_SLOTS + "}")
+    public void setTableCacheSlots(long slots) {
+        tableCache.setMaxSlots(slots);
+    }
 
     /**
      * Metodo principale per il calcolo delle strategie.
      * <p>
-     * Esegue una ricerca esaustiva intelligente per trovare le Top 3 strategie migliori.
-     * Invece di lanciare una singola esecuzione DP, itera su tutte le possibili combinazioni
-     * di "Primo Stint" (mescola iniziale e durata) e delega alla DP l'ottimizzazione del resto della gara.
-     * Questo approccio ibrido permette di diversificare i risultati e trovare alternative valide
-     * (es. strategia a 1 sosta vs 2 soste).
+     * Mantiene la firma storica del sistema e delega a
+     * {@link #calculateTopStrategies(int, List, int)} con {@code k = 3}.
      * </p>
      *
      * @param totalLaps Il numero totale di giri della gara.
@@ -67,252 +172,1150 @@ public class OptimizationEngine {
      * @return Una lista contenente le migliori 3 strategie uniche, ordinate per tempo totale crescente.
      */
     public List<RaceStrategy> calculateTop3Strategies(int totalLaps, List<TyrePrediction> tyres) {
-        System.out.println("--- AVVIO ALGORITMO DP (N SOSTE) - RICERCA ESAUSTIVA TOP 3 ---");
-        
-        List<RaceStrategy> candidates = new ArrayList<>();
-        if (tyres.isEmpty()) return candidates;
-
-        // Invece di chiedere subito "qual è il meglio assoluto",
-        // proviamo manualmente ogni possibile PRIMO STINT (Mescola + Durata)
-        // e chiediamo alla DP di risolvere ottimamente il RESTO della gara.
-        
-        for (int i = 0; i < tyres.size(); i++) {
-            TyrePrediction startTyre = tyres.get(i);
-            int startMask = (1 << i); // Maschera con la prima gomma usata
+        return calculateTopStrategies(totalLaps, tyres, 3);
+    }
+
+    /**
+     * Calcola le migliori {@code k} strategie con una singola esecuzione della DP k-best.
+     * <p>
+     * Ogni stato della DP conserva le sue {@code k} migliori soluzioni parziali, quindi
+     * una sola risoluzione basta per conoscere le alternative migliori al resto della gara
+     * per qualsiasi "Primo Stint" (mescola iniziale e durata). Le combinazioni di primo stint
+     * vengono poi unite alle soluzioni parziali in un heap limitato a {@code k} candidati:
+     * nessuna lista completa di strategie viene mai materializzata.
+     * </p>
+     * <p>
+     * Come in passato, strategie con lo stesso tempo (troncato al secondo) vengono considerate
+     * duplicati e ne viene restituita una sola.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero di strategie richieste (limitato a {@link #MAX_TOP_K}).
+     * @return Una lista contenente le migliori {@code k} strategie uniche, ordinate per tempo totale crescente.
+     */
+    public List<RaceStrategy> calculateTopStrategies(int totalLaps, List<TyrePrediction> tyres, int k) {
+        return calculateTopStrategies(totalLaps, tyres, k, SolverMode.RECURSIVE);
+    }
 
-            // Proviamo diverse durate per il primo stint (es. da 1 giro fino a metà gara)
-            // Usiamo uno step di 3 giri per avere varietà senza troppi calcoli
-            int minStint = Math.max(2, (int)(totalLaps * 0.15));
-            int maxStint = Math.max(minStint + 2, totalLaps - 2);
-            int step = Math.max(1, totalLaps / 15); // Step adattivo
+    /**
+     * Calcola le migliori {@code k} strategie scegliendo la modalità di esecuzione della DP.
+     * <p>
+     * Con {@link SolverMode#RECURSIVE} gli stati vengono risolti su richiesta (top-down);
+     * con {@link SolverMode#ITERATIVE} l'intera tabella viene riempita a ritroso dall'ultimo giro
+     * prima di valutare i primi stint, senza ricorsione; con {@link SolverMode#PARALLEL} lo stesso
+     * riempimento viene distribuito su più core. Il risultato è identico.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero di strategie richieste (limitato a {@link #MAX_TOP_K}).
+     * @param mode      La modalità di esecuzione della DP.
+     * @return Una lista contenente le migliori {@code k} strategie uniche, ordinate per tempo totale crescente.
+     */
+    public List<RaceStrategy> calculateTopStrategies(int totalLaps, List<TyrePrediction> tyres, int k, SolverMode mode) {
+        return calculateTopStrategies(totalLaps, tyres, k, new SolverOptions(mode, TransitionMode.BRUTE_FORCE));
+    }
 
-            for (int firstStintLaps = 1; firstStintLaps < totalLaps - 1; firstStintLaps++) {
-                
-                // IMPORTANTE: Puliamo la memoria per ogni tentativo, altrimenti riusa calcoli vecchi
-                memo.clear();
-                bestDecisions.clear();
+    /**
+     * Calcola le migliori {@code k} strategie con le opzioni algoritmiche indicate.
+     * <p>
+     * Oltre alla modalità della DP, le opzioni permettono di scegliere la valutazione delle transizioni:
+     * con {@link TransitionMode#CONVEX_HULL} (solo per {@code k = 1} e degrado lineare) la tabella
+     * viene riempita bottom-up da {@link ConvexHullSolver} in O(giri log giri) per maschera,
+     * invece che in O(giri^2). Se la richiesta non è compatibile, si usa la transizione esaustiva,
+     * che resta sempre disponibile come riferimento.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero di strategie richieste (limitato a {@link #MAX_TOP_K}).
+     * @param options   Le opzioni algoritmiche (modalità della DP, tipo di transizione).
+     * @return Una lista contenente le migliori {@code k} strategie uniche, ordinate per tempo totale crescente.
+     */
+    public List<RaceStrategy> calculateTopStrategies(int totalLaps, List<TyrePrediction> tyres, int k, SolverOptions options) {
+        return optimize(totalLaps, tyres, k, options).getStrategies();
+    }
+
+    /**
+     * Calcola le migliori {@code k} strategie e restituisce anche le statistiche di esecuzione.
+     * <p>
+     * Come nodi espansi viene riportato il numero di stati della DP effettivamente risolti
+     * (in modalità ricorsiva solo quelli raggiungibili, altrimenti l'intera tabella).
+     * </p>
+     * <p>
+     * Senza budget di tempo la tabella completa viene presa dalla cache condivisa (vedi {@link SuffixTableCache}):
+     * richieste con le stesse predizioni, anche per gare di lunghezza diversa, riusano lo stesso calcolo
+     * e in quel caso i nodi espansi sono 0.
+     * </p>
+     * <p>
+     * Con un budget di tempo ({@link SolverOptions#getBudgetMs()}) la scadenza viene controllata ad ogni stato:
+     * quando arriva, la DP smette di risolvere nuovi stati e l'enumerazione dei primi stint usa solo quelli
+     * già risolti. Gli stati vengono risolti a partire dalla fine della gara, quindi il risultato contiene
+     * strategie valide (con un primo stint più lungo del necessario) che migliorano col tempo concesso;
+     * in questo caso il risultato è segnalato come parziale.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero di strategie richieste (limitato a {@link #MAX_TOP_K}).
+     * @param options   Le opzioni algoritmiche (modalità della DP, tipo di transizione).
+     * @return Il risultato con le strategie, ordinate per tempo totale crescente, e il lavoro svolto.
+     */
+    public OptimizationResult optimize(int totalLaps, List<TyrePrediction> tyres, int k, SolverOptions options) {
+        return optimize(totalLaps, tyres, k, options, Deadline.after(options.getBudgetMs()), null);
+    }
+
+    /**
+     * Calcola le migliori {@code k} strategie notificando i risultati intermedi.
+     * <p>
+     * Ogni volta che l'enumerazione dei primi stint migliora la lista delle {@code k} strategie,
+     * la nuova lista viene passata al {@code listener} (sullo stesso thread del calcolo).
+     * La scadenza può essere anche annullata dall'esterno ({@link Deadline#cancel()}), ad esempio quando
+     * il client che attende i risultati si disconnette: il calcolo si ferma al primo controllo successivo.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero di strategie richieste (limitato a {@link #MAX_TOP_K}).
+     * @param options   Le opzioni algoritmiche (il budget di tempo viene ignorato: vale {@code deadline}).
+     * @param deadline  La scadenza del calcolo.
+     * @param listener  Il destinatario dei risultati intermedi, oppure {@code null}.
+     * @return Il risultato con le strategie, ordinate per tempo totale crescente, e il lavoro svolto.
+     */
+    public OptimizationResult optimize(int totalLaps, List<TyrePrediction> tyres, int k, SolverOptions options,
+                                       Deadline deadline, StrategyListener listener) {
+        SolverMode mode = options.getMode();
+        System.out.println("--- AVVIO ALGORITMO DP K-BEST (N SOSTE) - TOP " + k + " - " + mode
+                + " / " + options.getTransition() + " ---");
+
+        List<RaceStrategy> results = new ArrayList<>();
+        OptimizationResult result = new OptimizationResult(results, EngineType.DP.name(), 0,
+                dpStateCount(totalLaps, tyres.size()));
+        if (tyres.isEmpty()) return result;
+
+        int limit = Math.max(1, Math.min(k, MAX_TOP_K));
+
+        SolverContext ctx;
+        boolean tableFilled = true;
+        boolean reused = false;
+        RaceConditions conditions = options.getRaceConditions();
+        boolean lapDependent = conditions != null && conditions.isLapDependent();
+        if (listener == null && !deadline.hasLimit() && !deadline.wasReached() && !lapDependent
+                && tableCache.isEnabled()) {
+            // Senza budget né risultati intermedi la tabella completa può essere condivisa con altre richieste
+            // (una tabella interrotta a metà non deve mai finire in cache; con costi dipendenti dal giro
+            // la tabella vale solo per questa lunghezza di gara e non viene condivisa)
+            SharedTable shared = sharedTable(totalLaps, tyres, limit, options);
+            ctx = shared.ctx();
+            reused = shared.reused();
+        } else {
+            // Allochiamo una sola volta le tabelle dense (e i costi degli stint) per questa richiesta:
+            // da qui in poi la DP lavora solo su array primitivi, senza allocazioni
+            ctx = new SolverContext(totalLaps, tyres, limit, conditions);
+            ctx.deadline = deadline;
+            tableFilled = fillTable(ctx, options);
+        }
+
+        // Heap limitato (max-heap sul tempo): in cima c'è il peggiore dei candidati tenuti
+        PriorityQueue<RootCandidate> heap = new PriorityQueue<>(
+                Comparator.comparingDouble((RootCandidate c) -> c.totalTime).reversed());
+
+        offerFirstStints(ctx, heap, limit, !tableFilled, listener);
+
+        // Budget esaurito (o calcolo annullato) prima di risolvere un solo stato utile: risolviamo comunque
+        // gli stati dell'ultimo stint, poche centinaia, così il risultato parziale contiene almeno una strategia
+        if (heap.isEmpty() && ctx.deadline.wasReached()) {
+            solveLastStints(ctx);
+            offerFirstStints(ctx, heap, limit, false, listener);
+        }
+
+        results.addAll(buildStrategies(ctx, heap));
+
+        // Stati effettivamente risolti dalla DP (per confronto con i motori alternativi);
+        // con una tabella riusata dalla cache questa richiesta non ne ha risolto nessuno
+        long solvedStates = 0;
+        if (!reused) {
+            for (int count : ctx.solutionCounts) {
+                if (count != SolverContext.UNSOLVED) solvedStates++;
+            }
+        }
+        result.setNodesExpanded(solvedStates);
+        result.setPartial(ctx.deadline.wasReached());
+        if (result.isPartial()) {
+            System.out.println("Calcolo interrotto (budget esaurito o richiesta annullata): risultato parziale ("
+                    + solvedStates + " stati risolti)");
+        }
+        return result;
+    }
+
+    /**
+     * Calcola in una sola passata la strategia ottima per ogni numero di soste.
+     * <p>
+     * Le liste k-best della DP scartano i duplicati per secondo troncato, quindi le prime {@code k}
+     * strategie sono spesso varianti quasi identiche con lo stesso numero di soste. Qui invece la DP
+     * ha la dimensione aggiuntiva delle soste ({@link StopCountSolver}): ogni elemento della lista è il
+     * migliore con un numero di soste diverso, ordinati per tempo totale. Fissando
+     * {@code minStops = maxStops} si impone il numero di soste; con {@code maxStops} lo si limita.
+     * Il budget di tempo non è supportato: il lavoro cresce linearmente con {@code maxStops}.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero massimo di strategie (numeri di soste) restituite.
+     * @param minStops  Il numero minimo di soste.
+     * @param maxStops  Il numero massimo di soste.
+     * @return Il risultato con una strategia per numero di soste, ordinate per tempo totale crescente.
+     */
+    public OptimizationResult optimizeByStopCount(int totalLaps, List<TyrePrediction> tyres, int k,
+                                                  int minStops, int maxStops) {
+        System.out.println("--- AVVIO ALGORITMO DP PER NUMERO DI SOSTE (" + minStops + "-" + maxStops + ") ---");
+        List<RaceStrategy> results = new ArrayList<>();
+        OptimizationResult result = new OptimizationResult(results, EngineType.STOP_COUNT.name(), 0,
+                dpStateCount(totalLaps, tyres.size()));
+        if (tyres.isEmpty() || totalLaps < 2 || maxStops < Math.max(1, minStops)) return result;
+
+        StopCountSolver solver = new StopCountSolver(totalLaps, tyres, maxStops);
+        List<RaceStrategy> perStopCount = solver.bestPerStopCount(PIT_STOP_LOSS, Math.max(1, minStops), maxStops);
+        results.addAll(perStopCount.subList(0, Math.min(Math.max(1, k), perStopCount.size())));
+
+        // Stati della tabella per numero di soste
+        result.setNodesExpanded((long) (solver.getMaxStops() + 1) * ((1L << tyres.size()) - 1) * totalLaps);
+        return result;
+    }
+
+    /**
+     * Calcola la strategia ottima in valore atteso tenendo conto delle probabilità di safety car.
+     * <p>
+     * In regime di safety car un pit-stop costa circa la metà: la DP stocastica ({@link SafetyCarSolver})
+     * sceglie giro per giro se fermarsi sapendo se la safety car è in pista, e restituisce sia il piano
+     * nominale (senza safety car) sia la politica reattiva per ogni giro, mescola ed età della gomma.
+     * </p>
+     *
+     * @param totalLaps        Il numero totale di giri della gara.
+     * @param tyres            La lista delle predizioni di degrado per le mescole disponibili.
+     * @param probabilities    La probabilità di safety car alla fine di ogni giro (indice = giro - 1),
+     *                         almeno {@code totalLaps - 1} valori tra 0 e 1.
+     * @param safetyCarPitLoss Il tempo perso per un pit-stop in regime di safety car.
+     * @return Il piano con tempo atteso, piano nominale e politica (senza circuito, impostato dal chiamante).
+     * @throws IllegalArgumentException se le probabilità non sono valide.
+     */
+    public SafetyCarPlan optimizeWithSafetyCar(int totalLaps, List<TyrePrediction> tyres, double[] probabilities,
+                                               double safetyCarPitLoss) {
+        if (probabilities.length < totalLaps - 1) {
+            throw new IllegalArgumentException("Servono le probabilità di safety car per " + (totalLaps - 1) + " giri");
+        }
+        for (double probability : probabilities) {
+            if (!(probability >= 0.0 && probability <= 1.0)) {
+                throw new IllegalArgumentException("Probabilità di safety car non valida: " + probability);
+            }
+        }
+        System.out.println("--- AVVIO DP STOCASTICA CON SAFETY CAR (" + totalLaps + " giri) ---");
+
+        SafetyCarSolver solver = new SafetyCarSolver(totalLaps, tyres, Arrays.copyOf(probabilities, totalLaps),
+                PIT_STOP_LOSS, safetyCarPitLoss);
+        if (!tyres.isEmpty() && totalLaps >= 2) solver.solve();
+        return solver.toPlan();
+    }
+
+    /**
+     * Calcola la strategia robusta rispetto all'incertezza delle predizioni: la stessa strategia viene
+     * valutata in tutti gli scenari e si minimizza il tempo dello scenario peggiore oppure il CVaR.
+     * <p>
+     * Gli scenari vengono risolti insieme da {@link ScenarioBatchSolver}: una DP a lotti con tabelle dense
+     * condivise fornisce il miglior finale di ogni scenario, usato come limite inferiore esatto da una
+     * ricerca best-first sulle strategie.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param scenarios Gli scenari equiprobabili, ad esempio da {@link #quantileScenarios}: per ciascuno le
+     *                  predizioni delle stesse mescole, nello stesso ordine.
+     * @param measure   La misura di rischio da minimizzare.
+     * @param alpha     Il livello del CVaR, tra 0 e 1 (ignorato per {@link RiskMeasure#WORST_CASE}).
+     * @return Il risultato (senza circuito, impostato dal chiamante).
+     * @throws IllegalArgumentException se gli scenari o il livello non sono validi.
+     */
+    public RobustStrategyResult optimizeRobust(int totalLaps, List<List<TyrePrediction>> scenarios,
+                                               RiskMeasure measure, double alpha) {
+        return optimizeRobust(totalLaps, scenarios, measure, alpha, Deadline.none());
+    }
+
+    /**
+     * Calcola la strategia robusta entro una scadenza.
+     * <p>
+     * Allo scadere del tempo (o del budget di memoria della ricerca) viene restituita la migliore strategia
+     * trovata, marcata come parziale e con la distanza massima dall'ottimo robusto.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param scenarios Gli scenari equiprobabili, per ciascuno le predizioni delle stesse mescole.
+     * @param measure   La misura di rischio da minimizzare.
+     * @param alpha     Il livello del CVaR, tra 0 e 1.
+     * @param deadline  La scadenza del calcolo.
+     * @return Il risultato (senza circuito, impostato dal chiamante).
+     * @throws IllegalArgumentException se gli scenari o il livello non sono validi.
+     */
+    public RobustStrategyResult optimizeRobust(int totalLaps, List<List<TyrePrediction>> scenarios,
+                                               RiskMeasure measure, double alpha, Deadline deadline) {
+        if (scenarios.isEmpty() || scenarios.size() > MAX_SCENARIOS) {
+            throw new IllegalArgumentException("Servono da 1 a " + MAX_SCENARIOS + " scenari");
+        }
+        if (!(alpha >= 0.0 && alpha <= 1.0)) throw new IllegalArgumentException("Livello del CVaR non valido: " + alpha);
+        List<TyrePrediction> reference = scenarios.get(0);
+        for (List<TyrePrediction> scenario : scenarios) {
+            if (scenario.size() != reference.size()) throw new IllegalArgumentException("Scenari con mescole diverse");
+            for (int t = 0; t < scenario.size(); t++) {
+                if (!scenario.get(t).getCompound().equals(reference.get(t).getCompound())) {
+                    throw new IllegalArgumentException("Scenari con mescole diverse");
+                }
+            }
+        }
+        System.out.println("--- AVVIO OTTIMIZZAZIONE ROBUSTA (" + measure + ", " + scenarios.size() + " scenari) ---");
+
+        ScenarioBatchSolver solver = new ScenarioBatchSolver(totalLaps, scenarios, measure, alpha);
+        if (reference.isEmpty() || totalLaps < 2) {
+            RobustStrategyResult result = new RobustStrategyResult();
+            result.setRiskMeasure(measure.name());
+            result.setAlpha(alpha);
+            return result;
+        }
+        solver.solveTable();
+        RobustStrategyResult result = solver.search(deadline);
+        System.out.println("Strategia robusta trovata, nodi espansi: " + result.getNodesExpanded());
+        return result;
+    }
+
+    /**
+     * Costruisce gli scenari di predizione dai quantili restituiti dal servizio ML.
+     * <p>
+     * Per ogni mescola tempo base e degrado sono presi allo stesso quantile, mentre le mescole variano
+     * in modo indipendente: gli scenari sono tutte le combinazioni dei quantili delle mescole, così la
+     * strategia robusta tiene conto anche del caso in cui una mescola va meglio del previsto e un'altra
+     * peggio. Le mescole senza quantili contribuiscono con la sola predizione puntuale.
+     * </p>
+     *
+     * @param tyres Le predizioni delle mescole, con i quantili facoltativi.
+     * @return Gli scenari (uno solo, la predizione puntuale, se non ci sono quantili).
+     * @throws IllegalArgumentException se le combinazioni superano {@link #MAX_SCENARIOS}.
+     */
+    public static List<List<TyrePrediction>> quantileScenarios(List<TyrePrediction> tyres) {
+        List<List<TyrePrediction>> scenarios = new ArrayList<>();
+        scenarios.add(new ArrayList<>());
+        for (TyrePrediction tyre : tyres) {
+            List<TyrePrediction> variants = new ArrayList<>();
+            if (tyre.getQuantiles() == null || tyre.getQuantiles().isEmpty()) {
+                variants.add(tyre);
+            } else {
+                for (TyreQuantile quantile : tyre.getQuantiles()) {
+                    TyrePrediction variant = new TyrePrediction();
+                    variant.setCompound(tyre.getCompound());
+                    variant.setBase_time(quantile.getBase_time());
+                    variant.setDegradation_rate(quantile.getDegradation_rate());
+                    variant.setDegradation_model(tyre.getDegradation_model());
+                    variants.add(variant);
+                }
+            }
+            if ((long) scenarios.size() * variants.size() > MAX_SCENARIOS) {
+                throw new IllegalArgumentException("Troppi scenari: al massimo " + MAX_SCENARIOS);
+            }
+
+            List<List<TyrePrediction>> extended = new ArrayList<>();
+            for (List<TyrePrediction> scenario : scenarios) {
+                for (TyrePrediction variant : variants) {
+                    List<TyrePrediction> next = new ArrayList<>(scenario);
+                    next.add(variant);
+                    extended.add(next);
+                }
+            }
+            scenarios = extended;
+        }
+        return scenarios;
+    }
+
+    /**
+     * Elenca tutte le strategie distinte il cui tempo totale è entro {@code tolerance} secondi dall'ottimo.
+     * <p>
+     * La tabella completa della DP ({@link #solveTable}) fornisce per ogni stato (giro, maschera) il tempo
+     * minimo per finire la gara: è un limite <b>esatto</b>, quindi una strategia parziale viene estesa solo
+     * se può ancora chiudere entro la tolleranza, e ogni ramo esplorato porta ad almeno un risultato.
+     * Le strategie parziali sono visitate in ordine di tempo stimato (best-first), perciò quelle complete
+     * escono in ordine di tempo crescente e, se sono più di {@code maxResults}, vengono restituite le migliori
+     * e il risultato è segnalato come troncato. Il lavoro è proporzionale al numero di strategie restituite.
+     * Due strategie sono distinte se differiscono per almeno una mescola o durata di uno stint.
+     * </p>
+     *
+     * @param totalLaps  Il numero totale di giri della gara.
+     * @param tyres      La lista delle predizioni di degrado per le mescole disponibili.
+     * @param tolerance  La distanza massima dall'ottimo, in secondi.
+     * @param maxResults Il numero massimo di strategie restituite.
+     * @return Il risultato con le strategie ordinate per tempo totale crescente.
+     */
+    public OptimizationResult enumerateNearOptimal(int totalLaps, List<TyrePrediction> tyres, double tolerance,
+                                                   int maxResults) {
+        System.out.println("--- AVVIO ENUMERAZIONE ENTRO " + tolerance + " s DALL'OTTIMO ---");
+        List<RaceStrategy> results = new ArrayList<>();
+        OptimizationResult result = new OptimizationResult(results, EngineType.DP.name(), 0,
+                dpStateCount(totalLaps, tyres.size()));
+        if (tyres.isEmpty() || totalLaps < 2 || maxResults < 1) return result;
+
+        SolverContext ctx = solveTable(totalLaps, tyres, 1);
+        StintCostTable costs = ctx.stintCosts;
+
+        // Radice: ogni primo stint, con stima esatta = costo dello stint + miglior tempo dallo stato raggiunto
+        PriorityQueue<SearchNode> open = new PriorityQueue<>();
+        SearchNode start = new SearchNode(null, 0, 0, -1, 0, 0.0, 0.0, 0);
+        long sequence = 1;
+        for (int t = 0; t < tyres.size(); t++) {
+            for (int laps = 1; laps < totalLaps; laps++) {
+                double remaining = remainingTime(ctx, laps, 1 << t);
+                if (remaining >= INFINITY) continue;
+                double time = costs.stintTime(t, 0, laps);
+                open.add(new SearchNode(start, laps, 1 << t, t, laps, time, time + remaining, sequence++));
+            }
+        }
+        if (open.isEmpty()) return result;
+        double threshold = open.peek().estimate + Math.max(0.0, tolerance) + SolverContext.EQUIVALENCE_EPSILON;
+
+        long expanded = 0;
+        while (!open.isEmpty()) {
+            SearchNode node = open.poll();
+            if (node.estimate > threshold) break; // Le successive sono ancora più lente
+            if (results.size() == maxResults) {
+                result.setTruncated(true);
+                break;
+            }
+            if (node.lap == totalLaps) {
+                results.add(node.toStrategy(tyres));
+                continue;
+            }
+
+            expanded++;
+            for (int t = 0; t < tyres.size(); t++) {
+                int nextMask = node.mask | (1 << t);
+                for (int laps = MIN_STINT_LAPS; node.lap + laps <= totalLaps; laps++) {
+                    int nextLap = node.lap + laps;
+                    double remaining = remainingTime(ctx, nextLap, nextMask);
+                    if (remaining >= INFINITY) continue;
+                    double time = node.time + PIT_STOP_LOSS + costs.stintTime(t, node.lap, laps);
+                    // Limite esatto: se nemmeno il miglior finale rientra nella tolleranza, il ramo non serve
+                    if (time + remaining > threshold) continue;
+                    open.add(new SearchNode(node, nextLap, nextMask, t, laps, time, time + remaining, sequence++));
+                }
+            }
+        }
+
+        result.setNodesExpanded(expanded);
+        System.out.println("Strategie entro la tolleranza: " + results.size()
+                + (result.isTruncated() ? " (troncate)" : "") + ", nodi espansi: " + expanded);
+        return result;
+    }
+
+    /**
+     * Esporta la tabella dei valori della DP per i grafici delle finestre di sosta.
+     * <p>
+     * La tabella completa ({@link #solveTable}) contiene già il miglior tempo per finire la gara da ogni
+     * stato (giro, maschera): invece di ricostruire un solo percorso viene restituita per intero, insieme
+     * ai costi degli stint, così il frontend può valutare qualsiasi decisione ai box localmente.
+     * Per ogni mescola di partenza vengono anche calcolati il tempo totale in funzione del giro della
+     * prima sosta e il guadagno nel restare fuori (confronto con la miglior sosta successiva, tramite
+     * un minimo dei suffissi). Il lavoro aggiuntivo è O(maschere * giri).
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @return La tabella dei valori (senza circuito, impostato dal chiamante).
+     */
+    public PitWindowTable pitWindowTable(int totalLaps, List<TyrePrediction> tyres) {
+        PitWindowTable table = new PitWindowTable();
+        table.setLaps(totalLaps);
+        table.setPitLoss(PIT_STOP_LOSS);
+        List<String> compounds = new ArrayList<>();
+        for (TyrePrediction tyre : tyres) compounds.add(tyre.getCompound());
+        table.setCompounds(compounds);
+
+        int tyreCount = tyres.size();
+        double[][] stintTimes = new double[tyreCount][];
+        Double[][] remainingTimes = new Double[1 << tyreCount][totalLaps + 1];
+        Double[][] pitLapTimes = new Double[tyreCount][totalLaps + 1];
+        Double[][] stayOutGains = new Double[tyreCount][totalLaps + 1];
+        table.setStintTimes(stintTimes);
+        table.setRemainingTimes(remainingTimes);
+        table.setPitLapTimes(pitLapTimes);
+        table.setStayOutGains(stayOutGains);
+        if (tyreCount == 0 || totalLaps < 1) return table;
+
+        SolverContext ctx = solveTable(totalLaps, tyres, 1);
+        for (int t = 0; t < tyreCount; t++) {
+            stintTimes[t] = Arrays.copyOf(ctx.stintCosts.costsFor(t), totalLaps + 1);
+        }
+        for (int mask = 1; mask < (1 << tyreCount); mask++) {
+            for (int lap = 1; lap <= totalLaps; lap++) {
+                double remaining = remainingTime(ctx, lap, mask);
+                if (remaining < INFINITY) remainingTimes[mask][lap] = remaining;
+            }
+        }
+
+        double optimum = INFINITY;
+        for (int t = 0; t < tyreCount; t++) {
+            // Tempo totale in funzione del giro della prima sosta
+            for (int lap = 1; lap < totalLaps; lap++) {
+                Double remaining = remainingTimes[1 << t][lap];
+                if (remaining == null) continue;
+                pitLapTimes[t][lap] = stintTimes[t][lap] + remaining;
+                optimum = Math.min(optimum, pitLapTimes[t][lap]);
+            }
+            // Guadagno nel restare fuori: confronto con la miglior sosta nei giri successivi
+            double bestLater = INFINITY;
+            for (int lap = totalLaps - 1; lap >= 1; lap--) {
+                if (pitLapTimes[t][lap] == null) continue;
+                if (bestLater < INFINITY) stayOutGains[t][lap] = pitLapTimes[t][lap] - bestLater;
+                bestLater = Math.min(bestLater, pitLapTimes[t][lap]);
+            }
+        }
+        if (optimum < INFINITY) table.setOptimalTime(optimum);
+        return table;
+    }
+
+    /**
+     * Restituisce il miglior tempo per finire la gara da uno stato di una tabella completa ({@code INFINITY} se impossibile).
+     */
+    private static double remainingTime(SolverContext ctx, int lap, int mask) {
+        int state = ctx.stateIndex(lap, mask);
+        return ctx.solutionCounts[state] > 0 ? ctx.memo[state * ctx.topK] : INFINITY;
+    }
+
+    /**
+     * Prova ogni possibile primo stint (mescola e durata) e inserisce nell'heap le migliori soluzioni complete.
+     *
+     * @param ctx           Il contesto (tabelle DP) della richiesta corrente.
+     * @param heap          L'heap limitato dei candidati.
+     * @param limit         Il numero massimo di candidati da conservare.
+     * @param solveOnDemand Se {@code true} gli stati mancanti vengono risolti ricorsivamente (modalità ricorsiva).
+     * @param listener      Il destinatario dei risultati intermedi, oppure {@code null}.
+     */
+    private void offerFirstStints(SolverContext ctx, PriorityQueue<RootCandidate> heap, int limit,
+                                  boolean solveOnDemand, StrategyListener listener) {
+        // Proviamo ogni possibile PRIMO STINT (Mescola + Durata) e leggiamo dalla DP
+        // le migliori k soluzioni per il RESTO della gara, tutte calcolate in una sola passata.
+        for (int i = 0; i < ctx.tyres.size(); i++) {
+            int startMask = (1 << i); // Maschera con la prima gomma usata
+
+            for (int firstStintLaps = 1; firstStintLaps < ctx.totalLaps - 1; firstStintLaps++) {
 
                 // Calcoliamo il costo del primo stint manuale
-                double firstStintTime = calculateStintTime(startTyre, firstStintLaps);
+                double firstStintTime = ctx.stintCosts.stintTime(i, 0, firstStintLaps);
 
-                // Chiediamo alla DP: "Qual è il tempo minimo per finire la gara da qui in poi?"
+                // Chiediamo alla DP: "Quali sono i k tempi migliori per finire la gara da qui in poi?"
                 // Nota: solve() aggiungerà automaticamente il costo del pit stop iniziale
-                double timeRest = solve(firstStintLaps, startMask, totalLaps, tyres);
-
-                if (timeRest < INFINITY) {
-                    // Ricostruiamo la strategia per la seconda parte
-                    RaceStrategy restStrategy = reconstructStrategy(firstStintLaps, startMask, totalLaps, tyres);
-                    
-                    if (restStrategy != null) {
-                        // Creiamo la strategia completa unendo Primo Stint + Resto
-                        RaceStrategy fullStrategy = new RaceStrategy();
-                        
-                        // Tempo totale = Primo Stint + Resto (che include i pit stop successivi)
-                        fullStrategy.setTotalTime(firstStintTime + timeRest);
-                        
-                        // Aggiungiamo il primo stint in testa alla lista
-                        fullStrategy.getStints().add(new Stint(startTyre.getCompound(), 1, firstStintLaps));
-                        fullStrategy.getStints().addAll(restStrategy.getStints());
-                        
-                        // Calcoliamo le soste (Numero di stint - 1)
-                        fullStrategy.setPitStops(fullStrategy.getStints().size() - 1);
-
-                        candidates.add(fullStrategy);
-                    }
+                // Allo scadere del budget smettiamo di risolvere nuovi stati: restano validi quelli già risolti
+                if (solveOnDemand && !ctx.deadline.isExpired()) {
+                    solve(ctx, firstStintLaps, startMask);
+                }
+
+                int next = ctx.stateIndex(firstStintLaps, startMask);
+                boolean improved = false;
+                for (int r = 0; r < ctx.solutionCounts[next]; r++) {
+                    // Tempo totale = Primo Stint + Resto (che include i pit stop successivi)
+                    double totalTime = firstStintTime + ctx.memo[next * ctx.topK + r];
+
+                    // Le soluzioni del resto sono ordinate: se questa non entra nell'heap, nemmeno le successive
+                    if (heap.size() == limit && totalTime >= heap.peek().totalTime) break;
+
+                    improved |= offerCandidate(heap, limit, new RootCandidate(totalTime, i, firstStintLaps, r));
+                }
+
+                // Notifichiamo la lista aggiornata (es. streaming verso il client)
+                if (improved && listener != null) {
+                    listener.onUpdate(buildStrategies(ctx, heap));
                 }
             }
         }
+    }
+
+    /**
+     * Risolve, senza controllare la scadenza, gli stati da cui la gara si può chiudere con un solo stint.
+     * Sono pochi (al più {@code MIN_STINT_LAPS + 1} giri per ogni maschera) e bastano per garantire
+     * almeno una strategia valida anche quando il budget scade subito.
+     *
+     * @param ctx Il contesto della richiesta corrente.
+     */
+    private void solveLastStints(SolverContext ctx) {
+        int maskCount = 1 << ctx.tyres.size();
+        for (int lap = ctx.totalLaps; lap >= Math.max(1, ctx.totalLaps - MIN_STINT_LAPS); lap--) {
+            for (int mask = 1; mask < maskCount; mask++) {
+                relaxState(ctx, lap, mask);
+            }
+        }
+    }
+
+    /**
+     * Riempie l'intera tabella della DP (bottom-up) per un uso ripetuto, ad esempio una sessione live:
+     * da qui in poi ogni interrogazione con {@link #planFrom} legge soltanto la tabella.
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     La lista delle predizioni di degrado per le mescole disponibili.
+     * @param k         Il numero massimo di strategie per interrogazione (limitato a {@link #MAX_TOP_K}).
+     * @return Il contesto con tutti gli stati risolti.
+     */
+    SolverContext solveTable(int totalLaps, List<TyrePrediction> tyres, int k) {
+        int topK = Math.max(1, Math.min(k, MAX_TOP_K));
+        SolverOptions options = new SolverOptions(SolverMode.PARALLEL, TransitionMode.BRUTE_FORCE);
+        if (tableCache.isEnabled()) return sharedTable(totalLaps, tyres, topK, options).ctx();
 
-        // 3. ORDINIAMO E FILTRIAMO
-        // Ordiniamo per tempo totale crescente
-        candidates.sort(Comparator.comparingDouble(RaceStrategy::getTotalTime));
+        SolverContext ctx = new SolverContext(totalLaps, tyres, topK);
+        fillCompleteTable(ctx, options);
+        return ctx;
+    }
+
+    /**
+     * Restituisce la tabella completa di una gara dalla cache condivisa, risolvendola se manca.
+     * <p>
+     * Una tabella mancante (o più corta della gara) viene risolta per la gara più lunga tra quella richiesta
+     * e quella già in cache, così la nuova tabella copre entrambe e la sostituisce. La risoluzione avviene
+     * fuori dal lock della cache: due richieste contemporanee per la stessa tabella possono risolverla
+     * entrambe, ma il risultato è identico.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     Le predizioni delle mescole.
+     * @param topK      Il numero di soluzioni per stato.
+     * @param options   Le opzioni usate per riempire una tabella mancante.
+     * @return La sottotabella della gara (sola lettura) e se è stata riusata.
+     */
+    private SharedTable sharedTable(int totalLaps, List<TyrePrediction> tyres, int topK, SolverOptions options) {
+        TransitionMode transition = options.getTransition();
+        SolverContext cached = tableCache.lookup(tyres, totalLaps, topK, transition);
+        if (cached != null) {
+            System.out.println("Tabella DP riusata dalla cache (" + totalLaps + " giri, top " + topK + ")");
+            return new SharedTable(cached, true);
+        }
+
+        int laps = Math.max(totalLaps, tableCache.coveredLaps(tyres, topK, transition));
+        SolverContext table = new SolverContext(laps, tyres, topK);
+        fillCompleteTable(table, options);
+        tableCache.store(table, transition);
+        return new SharedTable(table.suffixView(totalLaps), false);
+    }
+
+    /**
+     * Riempie la tabella secondo le opzioni: transizioni convesse, fronti d'onda o bottom-up.
+     *
+     * @param ctx     Il contesto da riempire.
+     * @param options Le opzioni algoritmiche.
+     * @return {@code false} in modalità ricorsiva (gli stati verranno risolti su richiesta).
+     */
+    private boolean fillTable(SolverContext ctx, SolverOptions options) {
+        // Con le transizioni convesse o in modalità iterativa riempiamo subito tutta la tabella,
+        // a ritroso dall'ultimo giro; in modalità ricorsiva gli stati vengono risolti su richiesta
+        if (options.getTransition() == TransitionMode.CONVEX_HULL && ConvexHullSolver.supports(ctx)) {
+            ConvexHullSolver.solve(ctx, PIT_STOP_LOSS, MIN_STINT_LAPS);
+        } else if (options.getMode() == SolverMode.PARALLEL && ctx.totalLaps >= parallelMinLaps) {
+            solveWavefronts(ctx);
+        } else if (options.getMode() != SolverMode.RECURSIVE) {
+            solveBottomUp(ctx);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Riempie tutta la tabella anche in modalità ricorsiva (fronti d'onda per le gare lunghe).
+     */
+    private void fillCompleteTable(SolverContext ctx, SolverOptions options) {
+        if (fillTable(ctx, options)) return;
+        if (ctx.totalLaps >= parallelMinLaps) {
+            solveWavefronts(ctx);
+        } else {
+            solveBottomUp(ctx);
+        }
+    }
+
+    /**
+     * Calcola le migliori strategie per il resto della gara a partire da una situazione di gara in corso.
+     * <p>
+     * La gomma montata ha già {@code tyreAge} giri: ogni candidato prosegue lo stint attuale per
+     * {@code n >= 0} giri (il costo è la differenza delle somme prefisse, perché la gomma parte usurata)
+     * e poi legge dalla tabella già risolta le migliori soluzioni dallo stato (giro + n, maschera).
+     * Con {@code n = 0} si rientra subito ai box. Lo stint attuale non è soggetto a {@link #MIN_STINT_LAPS},
+     * così il piano resta valido anche quando si è costretti a fermarsi presto (es. foratura).
+     * Il lavoro è O(giri rimanenti * k) e non richiede di risolvere nuovi stati.
+     * </p>
+     *
+     * @param ctx       Il contesto restituito da {@link #solveTable}.
+     * @param lap       I giri già completati (da 0 a giri totali - 1).
+     * @param tyreIndex L'indice della mescola montata.
+     * @param tyreAge   I giri già percorsi con la gomma montata (al più {@code lap + MAX_PRIOR_TYRE_LAPS}).
+     * @param usedMask  La maschera delle mescole già usate (inclusa quella montata).
+     * @param k         Il numero di strategie richieste (al più quello della tabella).
+     * @return Le strategie per i giri rimanenti, ordinate per tempo crescente; il tempo totale
+     * comprende solo i giri ancora da percorrere.
+     * @throws IllegalArgumentException se l'età della gomma non è valida.
+     */
+    List<RaceStrategy> planFrom(SolverContext ctx, int lap, int tyreIndex, int tyreAge, int usedMask, int k) {
+        if (tyreAge < 0 || tyreAge > lap + MAX_PRIOR_TYRE_LAPS) {
+            throw new IllegalArgumentException("Età della gomma non valida: " + tyreAge);
+        }
+        int limit = Math.max(1, Math.min(k, ctx.topK));
+        int remainingLaps = ctx.totalLaps - lap;
+        int mask = usedMask | (1 << tyreIndex);
+
+        // Gomma molto usurata (es. da una sessione precedente): serve una tabella dei costi più lunga
+        StintCostTable costs = (tyreAge + remainingLaps <= ctx.stintCosts.getMaxLaps())
+                ? ctx.stintCosts : StintCostTable.compile(ctx.tyres, tyreAge + remainingLaps);
+        double alreadySpent = costs.stintTime(tyreIndex, tyreAge);
+
+        PriorityQueue<RootCandidate> heap = new PriorityQueue<>(
+                Comparator.comparingDouble((RootCandidate c) -> c.totalTime).reversed());
+
+        // Con la gomma nuova lo stint attuale deve durare almeno un giro
+        for (int n = (tyreAge == 0) ? 1 : 0; n <= remainingLaps; n++) {
+            double stintTime = costs.stintTime(tyreIndex, tyreAge + n) - alreadySpent;
+            int next = ctx.stateIndex(lap + n, mask);
+            for (int r = 0; r < ctx.solutionCounts[next]; r++) {
+                double totalTime = stintTime + ctx.memo[next * ctx.topK + r];
+                if (heap.size() == limit && totalTime >= heap.peek().totalTime) break;
+                offerCandidate(heap, limit, new RootCandidate(totalTime, tyreIndex, n, r));
+            }
+        }
+        return buildStrategies(ctx, heap, lap, usedMask);
+    }
+
+    /**
+     * Restituisce il numero di stati (giro, maschera) della tabella completa della DP,
+     * cioè il lavoro della versione esaustiva con cui confrontare gli altri motori.
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyreCount Il numero di mescole disponibili.
+     * @return Il numero di stati con giro da 1 a {@code totalLaps} e maschera non vuota.
+     */
+    static long dpStateCount(int totalLaps, int tyreCount) {
+        return (long) Math.max(0, totalLaps) * ((1L << tyreCount) - 1);
+    }
+
+    /**
+     * Ricostruisce le strategie complete dei candidati dell'heap, ordinate per tempo totale crescente.
+     *
+     * @param ctx  Il contesto (tabelle DP) della richiesta corrente.
+     * @param heap L'heap dei candidati (non viene modificato).
+     * @return Le strategie con tutti gli stint.
+     */
+    private List<RaceStrategy> buildStrategies(SolverContext ctx, PriorityQueue<RootCandidate> heap) {
+        return buildStrategies(ctx, heap, 0, 0);
+    }
+
+    /**
+     * Ricostruisce le strategie dei candidati dell'heap a partire da un giro qualsiasi.
+     * Il "primo stint" di ogni candidato inizia al giro {@code startLap + 1} (se dura almeno un giro).
+     *
+     * @param ctx       Il contesto (tabelle DP) della richiesta corrente.
+     * @param heap      L'heap dei candidati (non viene modificato).
+     * @param startLap  I giri già percorsi.
+     * @param startMask Le mescole già usate prima del primo stint.
+     * @return Le strategie con tutti gli stint, ordinate per tempo crescente.
+     */
+    private List<RaceStrategy> buildStrategies(SolverContext ctx, PriorityQueue<RootCandidate> heap,
+                                               int startLap, int startMask) {
+        // Ordiniamo i candidati per tempo totale crescente e ricostruiamo gli stint
+        List<RootCandidate> best = new ArrayList<>(heap);
+        best.sort(Comparator.comparingDouble(c -> c.totalTime));
 
-        // Rimuoviamo duplicati (strategie con lo stesso tempo quasi identico)
-        List<RaceStrategy> uniqueResults = new ArrayList<>();
-        Set<Integer> seenTimes = new HashSet<>(); // Usiamo int per arrotondare e filtrare
+        List<RaceStrategy> strategies = new ArrayList<>();
+        for (RootCandidate candidate : best) {
+            RaceStrategy fullStrategy = new RaceStrategy();
+            fullStrategy.setTotalTime(candidate.totalTime);
 
-        for (RaceStrategy s : candidates) {
-            int timeInt = (int) s.getTotalTime();
-            // Se non abbiamo già una strategia con questo tempo esatto, la aggiungiamo
-            if (!seenTimes.contains(timeInt)) {
-                uniqueResults.add(s);
-                seenTimes.add(timeInt);
+            // Aggiungiamo il primo stint in testa alla lista, poi seguiamo le decisioni della DP
+            if (candidate.firstStintLaps > 0) {
+                fullStrategy.getStints().add(new Stint(ctx.tyres.get(candidate.tyreIndex).getCompound(),
+                        startLap + 1, startLap + candidate.firstStintLaps));
+            }
+            if (!reconstructStrategy(ctx, fullStrategy, startLap + candidate.firstStintLaps,
+                    startMask | (1 << candidate.tyreIndex), candidate.rank)) {
+                continue;
             }
-            if (uniqueResults.size() >= 3) break; // Ci fermiamo a 3
+
+            // Calcoliamo le soste (Numero di stint - 1)
+            fullStrategy.setPitStops(fullStrategy.getStints().size() - 1);
+            strategies.add(fullStrategy);
         }
+        return strategies;
+    }
 
-        return uniqueResults;
+    /**
+     * Inserisce un candidato nell'heap limitato delle strategie migliori.
+     * <p>
+     * Se nell'heap esiste già una strategia con lo stesso tempo troncato al secondo, viene
+     * conservata solo la più veloce delle due. Se l'heap supera {@code limit} elementi,
+     * viene scartato il candidato peggiore.
+     * </p>
+     *
+     * @param heap      Il max-heap dei candidati (in cima il peggiore).
+     * @param limit     Il numero massimo di candidati da conservare.
+     * @param candidate Il nuovo candidato.
+     * @return {@code true} se il candidato è entrato nell'heap.
+     */
+    private boolean offerCandidate(PriorityQueue<RootCandidate> heap, int limit, RootCandidate candidate) {
+        int timeInt = (int) candidate.totalTime; // Usiamo int per arrotondare e filtrare
+        for (RootCandidate existing : heap) {
+            if ((int) existing.totalTime == timeInt) {
+                if (candidate.totalTime >= existing.totalTime) return false;
+                heap.remove(existing);
+                break;
+            }
+        }
+        heap.add(candidate);
+        if (heap.size() > limit) return heap.poll() != candidate;
+        return true;
     }
+
     /**
-     * FUNZIONE RICORSIVA CORE (DP).
+     * FUNZIONE RICORSIVA CORE (DP k-best).
      * <p>
-     * Questo metodo implementa il cuore dell'algoritmo di Programmazione Dinamica.
-     * Calcola il tempo minimo necessario per completare la gara partendo da uno stato specifico
-     * definito dal giro corrente e dalle mescole già utilizzate.
+     * Questo metodo implementa la versione top-down della Programmazione Dinamica.
+     * Calcola i {@code topK} tempi migliori necessari per completare la gara partendo da uno stato
+     * specifico definito dal giro corrente e dalle mescole già utilizzate.
+     * Tutte le tabelle lette e scritte appartengono al contesto della richiesta.
      * </p>
      * <p>
      * Utilizza la tecnica della <b>Memoization</b>: prima di calcolare una soluzione, controlla
-     * se lo stato (currentLap, usedTyresMask) è già stato risolto e salvato nella mappa {@code memo}.
-     * Se è un nuovo stato, esplora tutte le possibili decisioni future (quale gomma montare e per quanti giri),
-     * sceglie quella che minimizza il tempo totale e salva la decisione migliore.
+     * se lo stato (currentLap, usedTyresMask) è già stato risolto e salvato nella tabella {@code memo}.
+     * Se è un nuovo stato, risolve ricorsivamente tutti gli stati raggiungibili con il prossimo stint
+     * e poi delega a {@link #relaxState(SolverContext, int, int)} la scelta delle {@code topK} soluzioni migliori.
      * </p>
      *
+     * @param ctx           Il contesto (tabelle DP) della richiesta corrente.
      * @param currentLap    Il giro attuale da cui inizia il prossimo stint (stato temporale).
      * @param usedTyresMask Una bitmask intera che traccia lo storico delle mescole usate.
      * (es. bit 0 = Soft, bit 1 = Medium, bit 2 = Hard).
      * Indispensabile per verificare il regolamento delle due mescole.
-     * @param totalLaps     Il numero totale di giri della gara.
-     * @param tyres         La lista delle predizioni disponibili per le gomme.
      * @return Il tempo minimo stimato in secondi per arrivare alla fine della gara da questo punto,
      * oppure {@code INFINITY} se non esiste una strategia valida.
      */
-    private double solve(int currentLap, int usedTyresMask, int totalLaps, List<TyrePrediction> tyres) {
+    private double solve(SolverContext ctx, int currentLap, int usedTyresMask) {
+        // MEMOIZATION: Se abbiamo già calcolato questo stato, restituiamo il valore salvato
+        int stateIndex = ctx.stateIndex(currentLap, usedTyresMask);
+        if (ctx.solutionCounts[stateIndex] != SolverContext.UNSOLVED) {
+            return ctx.bestTime(stateIndex, INFINITY);
+        }
+
+        // CANCELLAZIONE COOPERATIVA: a budget esaurito lo stato resta non risolto
+        if (ctx.deadline.isExpired()) return INFINITY;
+
+        // RICORSIONE: risolviamo prima tutti gli stati raggiungibili con il prossimo stint
+        for (int i = 0; i < ctx.tyres.size(); i++) {
+            int nextMask = usedTyresMask | (1 << i);
+            for (int laps = MIN_STINT_LAPS; laps <= (ctx.totalLaps - currentLap); laps++) {
+                solve(ctx, currentLap + laps, nextMask);
+            }
+        }
+
+        // Se il budget è scaduto durante la ricorsione alcuni successori potrebbero mancare:
+        // non salviamo un valore calcolato su informazioni incomplete
+        if (ctx.deadline.isExpired()) return INFINITY;
+
+        relaxState(ctx, currentLap, usedTyresMask);
+        return ctx.bestTime(stateIndex, INFINITY);
+    }
+
+    /**
+     * DP ITERATIVA (bottom-up).
+     * <p>
+     * Riempie l'intera tabella del contesto lavorando a ritroso dall'ultimo giro: ogni strato
+     * (giro) dipende solo da giri successivi, che sono quindi già risolti quando viene elaborato.
+     * Non usa ricorsione né mappe, quindi la profondità dello stack è costante e la memoria
+     * è limitata alle tabelle dense del contesto (giri x maschere x k), anche per gare di
+     * centinaia di giri.
+     * </p>
+     * <p>
+     * Il giro 0 non viene risolto: la partenza è gestita dall'enumerazione dei primi stint.
+     * </p>
+     *
+     * @param ctx Il contesto (tabelle DP) della richiesta corrente.
+     */
+    private void solveBottomUp(SolverContext ctx) {
+        int maskCount = 1 << ctx.tyres.size();
+        for (int lap = ctx.totalLaps; lap >= 1; lap--) {
+            // La maschera vuota non è raggiungibile dopo la partenza
+            for (int mask = 1; mask < maskCount; mask++) {
+                if (ctx.deadline.isExpired()) return; // Budget esaurito: i giri precedenti restano non risolti
+                relaxState(ctx, lap, mask);
+            }
+        }
+    }
+
+    /**
+     * DP BOTTOM-UP PARALLELA (fronti d'onda di giri).
+     * <p>
+     * Ogni stint successivo al primo dura almeno {@link #MIN_STINT_LAPS} giri, quindi uno stato al giro
+     * {@code L} dipende solo da stati con giro {@code >= L + MIN_STINT_LAPS}. Tutti gli stati di un blocco
+     * di {@code MIN_STINT_LAPS} giri consecutivi (per ogni maschera) sono quindi indipendenti tra loro:
+     * ogni blocco forma un "fronte d'onda" che viene suddiviso tra i thread del pool.
+     * I blocchi vengono elaborati a ritroso dall'ultimo giro, attendendo il completamento di ciascuno
+     * prima di passare al successivo.
+     * </p>
+     * <p>
+     * Ogni stato scrive solo le proprie celle delle tabelle dense e legge quelle di blocchi già completati,
+     * quindi non servono sincronizzazioni aggiuntive e il risultato coincide con {@link #solveBottomUp(SolverContext)}.
+     * </p>
+     *
+     * @param ctx Il contesto (tabelle DP) della richiesta corrente.
+     */
+    private void solveWavefronts(SolverContext ctx) {
+        ForkJoinPool pool = getWavefrontPool();
+        int maskCount = 1 << ctx.tyres.size();
+        for (int topLap = ctx.totalLaps; topLap >= 1 && !ctx.deadline.isExpired(); topLap -= MIN_STINT_LAPS) {
+            int blockLaps = Math.min(MIN_STINT_LAPS, topLap);
+            pool.invoke(new WavefrontTask(ctx, topLap, maskCount - 1, 0, blockLaps * (maskCount - 1)));
+        }
+    }
+
+    /**
+     * Restituisce il pool della modalità parallela, creandolo alla prima richiesta.
+     *
+     * @return Il pool con il livello di parallelismo configurato.
+     */
+    private synchronized ForkJoinPool getWavefrontPool() {
+        if (wavefrontPool == null) {
+            int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+            wavefrontPool = new ForkJoinPool(threads);
+            System.out.println("Pool DP parallela avviato con " + threads + " thread");
+        }
+        return wavefrontPool;
+    }
+
+    /**
+     * Chiude il pool della modalità parallela allo spegnimento dell'applicazione.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (wavefrontPool != null) {
+            wavefrontPool.shutdown();
+            wavefrontPool = null;
+        }
+    }
+
+    /**
+     * Calcola le {@code topK} soluzioni migliori di un singolo stato, assumendo che tutti gli
+     * stati raggiungibili con il prossimo stint siano già stati risolti.
+     * <p>
+     * È il passo comune alle modalità ricorsiva e iterativa: esplora tutte le possibili decisioni
+     * (quale gomma montare e per quanti giri), le combina con le soluzioni già ordinate degli stati
+     * successivi e conserva le {@code topK} migliori nel contesto.
+     * </p>
+     *
+     * @param ctx           Il contesto (tabelle DP) della richiesta corrente.
+     * @param currentLap    Il giro attuale da cui inizia il prossimo stint.
+     * @param usedTyresMask La maschera delle mescole già usate.
+     */
+    private void relaxState(SolverContext ctx, int currentLap, int usedTyresMask) {
+        int totalLaps = ctx.totalLaps;
+        int stateIndex = ctx.stateIndex(currentLap, usedTyresMask);
+
+        double[] memo = ctx.memo;
+        int topK = ctx.topK;
+        int base = stateIndex * topK;
+        int count = 0;
+
         // CASO BASE: Gara finita
         if (currentLap == totalLaps) {
             // Controlliamo la regola: abbiamo usato almeno 2 mescole diverse?
             // Contiamo i bit a 1 nella maschera
             if (Integer.bitCount(usedTyresMask) >= 2) {
-                return 0; // Costo 0 per finire (abbiamo già finito)
+                memo[base] = 0; // Costo 0 per finire (abbiamo già finito)
+                ctx.bestDecisions[base] = SolverContext.NO_DECISION;
+                ctx.nextRanks[base] = 0;
+                count = 1;
             } else {
-                return INFINITY; // Strategia illegale, penalità infinita
+                // Altrimenti strategia illegale: nessuna soluzione (tempo infinito)
+                memo[base] = INFINITY;
             }
+            ctx.solutionCounts[stateIndex] = count;
+            return;
         }
 
-        // MEMOIZATION: Se abbiamo già calcolato questo stato, restituiamo il valore salvato
-        String stateKey = currentLap + "-" + usedTyresMask;
-        if (memo.containsKey(stateKey)) {
-            return memo.get(stateKey);
-        }
+        // Costo del Pit Stop (se non è la partenza)
+        double pitCost = (currentLap == 0) ? 0 : PIT_STOP_LOSS;
 
-        double minTime = INFINITY;
-        StintDecision bestDecision = null;
+        // Con una sola soluzione per stato il ciclo interno è una riduzione di minimo su array contigui
+        if (topK == 1) {
+            ctx.solutionCounts[stateIndex] = relaxSingle(ctx, currentLap, usedTyresMask, base, pitCost);
+            return;
+        }
 
         // PROVIAMO TUTTE LE POSSIBILI MOSSE (Next Stint)
         // Iteriamo su ogni mescola disponibile
-        for (int i = 0; i < tyres.size(); i++) {
-            TyrePrediction tyre = tyres.get(i);
-            
+        for (int i = 0; i < ctx.tyres.size(); i++) {
+            // Costi precalcolati degli stint con questa mescola che partono da questo giro (lettura O(1) per durata)
+            double[] tyreCosts = ctx.stintCosts.costsFor(i, currentLap);
+
             // Maschera aggiornata se usiamo questa gomma (1 << i accende il bit i-esimo)
             int nextMask = usedTyresMask | (1 << i);
 
             // Proviamo tutte le lunghezze possibili per questo stint
-            // Minimo 5 giri, massimo fino alla fine della gara
-            for (int laps = 10; laps <= (totalLaps - currentLap); laps += 1) { // Step 1 per precisione massima
+            // Minimo 10 giri, massimo fino alla fine della gara
+            for (int laps = MIN_STINT_LAPS; laps <= (totalLaps - currentLap); laps += 1) { // Step 1 per precisione massima
                 
                 int nextLap = currentLap + laps;
-                
-                // Costo = Tempo guida + Pit Stop (se non è la partenza)
-                double driveTime = calculateStintTime(tyre, laps);
-                double pitCost = (currentLap == 0) ? 0 : PIT_STOP_LOSS;
-                
-                // RICORSIONE: Tempo totale = costo attuale + costo migliore dal prossimo giro in poi
-                double timeToFinish = solve(nextLap, nextMask, totalLaps, tyres);
-                double totalTime = driveTime + pitCost + timeToFinish;
+                double driveTime = tyreCosts[laps];
+
+                // Tempo totale = costo attuale + ciascuna delle soluzioni migliori dal prossimo giro in poi
+                int next = ctx.stateIndex(nextLap, nextMask);
+                int nextBase = next * topK;
+                for (int r = 0; r < ctx.solutionCounts[next]; r++) {
+                    double totalTime = driveTime + pitCost + memo[nextBase + r];
+
+                    // Le soluzioni successive sono ordinate: se questa non entra, nemmeno le altre
+                    if (count == topK && totalTime >= memo[base + count - 1]) break;
 
-                if (totalTime < minTime) {
-                    minTime = totalTime;
                     // Memorizziamo la decisione presa per ricostruire il percorso dopo
-                    bestDecision = new StintDecision(tyre.getCompound(), laps, nextMask);
+                    count = ctx.insertSolution(base, count, totalTime, SolverContext.packDecision(i, laps), r);
                 }
             }
         }
 
         // Salviamo il risultato in memoria
-        memo.put(stateKey, minTime);
-        if (bestDecision != null) {
-            bestDecisions.put(stateKey, bestDecision);
+        if (count == 0) memo[base] = INFINITY;
+        ctx.solutionCounts[stateIndex] = count;
+    }
+
+    /**
+     * Variante di {@link #relaxState(SolverContext, int, int)} per {@code topK = 1}.
+     * <p>
+     * Con il layout "per maschera" i valori degli stati di arrivo di una mescola sono contigui in
+     * {@code memo}, come i costi degli stint: per ogni mescola la durata migliore viene trovata dal
+     * {@link StintKernel} selezionato (scalare o SIMD). Gli stati senza soluzione valgono {@link #INFINITY},
+     * quindi non vengono mai scelti se esiste un'alternativa valida.
+     * A parità di tempo vince la prima durata e la prima mescola, come nel ciclo generale.
+     * </p>
+     *
+     * @param ctx           Il contesto (tabelle DP) della richiesta corrente.
+     * @param currentLap    Il giro attuale da cui inizia il prossimo stint.
+     * @param usedTyresMask La maschera delle mescole già usate.
+     * @param base          La posizione della soluzione dello stato nelle tabelle.
+     * @param pitCost       Il costo del pit-stop per questo stato.
+     * @return Il numero di soluzioni salvate (0 o 1).
+     */
+    private int relaxSingle(SolverContext ctx, int currentLap, int usedTyresMask, int base, double pitCost) {
+        StintKernel kernel = stintKernel;
+        double[] memo = ctx.memo;
+        int candidates = ctx.totalLaps - currentLap - MIN_STINT_LAPS + 1;
+        int count = 0;
+
+        for (int i = 0; i < ctx.tyres.size() && candidates > 0; i++) {
+            double[] tyreCosts = ctx.stintCosts.costsFor(i, currentLap);
+            int first = ctx.stateIndex(currentLap + MIN_STINT_LAPS, usedTyresMask | (1 << i));
+
+            int best = kernel.firstArgMin(tyreCosts, MIN_STINT_LAPS, pitCost, memo, first, candidates);
+            int laps = MIN_STINT_LAPS + best;
+            double totalTime = tyreCosts[laps] + pitCost + memo[first + best];
+            if (totalTime >= INFINITY) continue; // Nessuno stato di arrivo valido con questa mescola
+
+            count = ctx.insertSolution(base, count, totalTime, SolverContext.packDecision(i, laps), 0);
         }
 
-        return minTime;
+        if (count == 0) memo[base] = INFINITY;
+        return count;
     }
 
     /**
-     * Ricostruisce la strategia ottinale completa a partire dai dati salvati.
+     * Ricostruisce una strategia completa a partire dai dati salvati.
      * <p>
-     * Una volta che il metodo {@code solve()} ha popolato la mappa {@code bestDecisions},
-     * questo metodo "naviga" attraverso le decisioni migliori salvate per trasformarle
-     * in una lista ordinata di oggetti {@link Stint} comprensibile per l'utente.
+     * Una volta che il metodo {@code solve()} ha popolato le tabelle {@code bestDecisions} e
+     * {@code nextRanks}, questo metodo "naviga" attraverso le decisioni salvate per la soluzione
+     * di rango richiesto e le trasforma in oggetti {@link Stint} comprensibili per l'utente,
+     * aggiungendoli in coda alla strategia ricevuta.
      * </p>
      *
+     * @param ctx       Il contesto (tabelle DP) della richiesta corrente.
+     * @param strategy  La strategia a cui aggiungere gli stint ricostruiti.
      * @param startLap  Il giro di partenza della ricostruzione.
      * @param startMask La maschera delle gomme iniziale.
-     * @param totalLaps Il numero totale di giri.
-     * @param tyres     Le informazioni sulle gomme.
-     * @return Un oggetto {@link RaceStrategy} completo, o {@code null} se il percorso è interrotto.
+     * @param startRank Il rango della soluzione da ricostruire nello stato di partenza.
+     * @return {@code true} se il percorso è stato ricostruito, {@code false} se è interrotto.
      */
     // Ricostruisce la strategia seguendo le "briciole di pane" lasciate dalla DP
-    private RaceStrategy reconstructStrategy(int startLap, int startMask, int totalLaps, List<TyrePrediction> tyres) {
-        RaceStrategy strategy = new RaceStrategy();
+    private boolean reconstructStrategy(SolverContext ctx, RaceStrategy strategy,
+                                        int startLap, int startMask, int startRank) {
         int currentLap = startLap;
         int mask = startMask;
-        int stops = -1; 
-        
-        // Se partiamo da metà gara (es. per le alternative), i pit stop vanno contati diversamente
-        if (startLap > 0) stops = 0; 
-
-        while (currentLap < totalLaps) {
-            String key = currentLap + "-" + mask;
-            StintDecision decision = bestDecisions.get(key);
-            
-            if (decision == null) return null; 
-
-            strategy.getStints().add(new Stint(decision.compound, currentLap + 1, currentLap + decision.laps));
-            
-            stops++;
-            currentLap += decision.laps;
-            mask = decision.nextMask;
-        }
-        
-        strategy.setPitStops(stops);
-        
-        // Recuperiamo il tempo totale specifico per QUESTA strategia
-        // Usiamo la chiave di partenza passata come argomento
-        String startKey = startLap + "-" + startMask;
-        Double totalTime = memo.get(startKey);
-        strategy.setTotalTime(totalTime != null ? totalTime : 0.0);
-        
-        return strategy;
-    }
-
-    /**
-     * Calcola il tempo totale impiegato per percorrere un certo numero di giri con una specifica gomma.
-     * <p>
-     * Simula il degrado giro per giro: al tempo base viene aggiunto il tasso di degrado
-     * accumulato per ogni giro successivo al primo.
-     * Modello lineare: Tempo(giro i) = BaseTime + (i * DegradationRate).
-     * </p>
-     *
-     * @param tyre La predizione della gomma (contiene base time e degradation rate).
-     * @param laps Il numero di giri da percorrere nello stint.
-     * @return Il tempo totale in secondi.
+        int rank = startRank;
+
+        while (currentLap < ctx.totalLaps) {
+            int state = ctx.stateIndex(currentLap, mask);
+            if (rank >= ctx.solutionCounts[state]) return false;
+
+            int slot = state * ctx.topK + rank;
+            int decision = ctx.bestDecisions[slot];
+            if (decision == SolverContext.NO_DECISION) return false;
+
+            int tyreIndex = SolverContext.decisionTyre(decision);
+            int laps = SolverContext.decisionLaps(decision);
+            strategy.getStints().add(new Stint(ctx.tyres.get(tyreIndex).getCompound(), currentLap + 1, currentLap + laps));
+
+            rank = ctx.nextRanks[slot];
+            currentLap += laps;
+            mask |= (1 << tyreIndex);
+        }
+        return true;
+    }
+
+    /**
+     * Task di un fronte d'onda: risolve un intervallo di stati del blocco di giri
+     * {@code (topLap - MIN_STINT_LAPS, topLap]}, dividendosi a metà finché l'intervallo è abbastanza grande.
+     * Gli stati del blocco sono numerati giro per giro (dal più alto), maschera per maschera.
      */
-    private double calculateStintTime(TyrePrediction tyre, int laps) {
-        double total = 0;
-        double currentLapTime = tyre.getBase_time();
-        for (int i = 0; i < laps; i++) {
-            total += currentLapTime;
-            currentLapTime += tyre.getDegradation_rate();
+    private class WavefrontTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient SolverContext ctx;
+        private final int topLap;
+        private final int masksPerLap;
+        private final int from;
+        private final int to;
+
+        WavefrontTask(SolverContext ctx, int topLap, int masksPerLap, int from, int to) {
+            this.ctx = ctx;
+            this.topLap = topLap;
+            this.masksPerLap = masksPerLap;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= WAVEFRONT_CHUNK_STATES) {
+                for (int s = from; s < to; s++) {
+                    if (ctx.deadline.isExpired()) return;
+                    // La maschera vuota non è raggiungibile dopo la partenza
+                    relaxState(ctx, topLap - s / masksPerLap, 1 + s % masksPerLap);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new WavefrontTask(ctx, topLap, masksPerLap, from, middle),
+                    new WavefrontTask(ctx, topLap, masksPerLap, middle, to));
         }
-        return total;
     }
 
     /**
-     * Classe helper interna (DTO) per memorizzare una decisione ottimale nel grafo DP.
+     * Classe helper interna per un candidato dell'heap delle strategie migliori.
      * <p>
-     * Salva quale gomma è stata scelta, per quanti giri e quale sarà la prossima bitmask,
-     * permettendo al metodo {@code reconstructStrategy} di ripercorrere il cammino minimo.
+     * Descrive una strategia completa in forma compatta: mescola e durata del primo stint,
+     * più il rango della soluzione scelta per il resto della gara.
      * </p>
      */
-    // Classe helper interna per salvare le decisioni
-    private static class StintDecision {
-        String compound;
-        int laps;
-        int nextMask;
+    private static class RootCandidate {
+        final double totalTime;
+        final int tyreIndex;
+        final int firstStintLaps;
+        final int rank;
 
-        public StintDecision(String compound, int laps, int nextMask) {
-            this.compound = compound;
-            this.laps = laps;
-            this.nextMask = nextMask;
+        RootCandidate(double totalTime, int tyreIndex, int firstStintLaps, int rank) {
+            this.totalTime = totalTime;
+            this.tyreIndex = tyreIndex;
+            this.firstStintLaps = firstStintLaps;
+            this.rank = rank;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.ivancaccamo.pacf1.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Degrado a tratti: il degrado per giro è {@code DegradationRate * fattore} del tratto in cui si trova la gomma.
+ * <p>
+ * I tratti sono separati dalle età di {@code breakpoints}; ad esempio con età {@code [3, 20]} e fattori
+ * {@code [-2.0, 1.0, 1.8]} la gomma migliora nei primi 3 giri (riscaldamento), poi degrada normalmente
+ * e dal ventesimo giro quasi il doppio.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class PiecewiseDegradation implements DegradationModel {
+
+    private final int[] breakpoints;
+    private final double[] rateFactors;
+
+    private PiecewiseDegradation(int[] breakpoints, double[] rateFactors) {
+        this.breakpoints = breakpoints;
+        this.rateFactors = rateFactors;
+    }
+
+    /**
+     * Crea il modello verificando i tratti.
+     *
+     * @param breakpoints Le età (crescenti, positive) a cui inizia ogni tratto dopo il primo.
+     * @param rateFactors I fattori del degrado, uno per tratto.
+     * @return Il modello.
+     * @throws IllegalArgumentException se i tratti non sono coerenti.
+     */
+    static PiecewiseDegradation of(List<Integer> breakpoints, List<Double> rateFactors) {
+        List<Integer> ages = breakpoints != null ? breakpoints : List.of();
+        if (rateFactors == null || rateFactors.size() != ages.size() + 1) {
+            throw new IllegalArgumentException("Il degrado a tratti richiede un fattore per ogni tratto");
+        }
+        int[] separators = new int[ages.size()];
+        for (int i = 0; i < separators.length; i++) {
+            separators[i] = ages.get(i);
+            if (separators[i] < 1 || (i > 0 && separators[i] <= separators[i - 1])) {
+                throw new IllegalArgumentException("Età dei tratti non crescenti: " + ages);
+            }
+        }
+        double[] factors = new double[rateFactors.size()];
+        for (int i = 0; i < factors.length; i++) factors[i] = rateFactors.get(i);
+        return new PiecewiseDegradation(separators, factors);
+    }
+
+    @Override
+    public double lapTime(double baseTime, double degradationRate, int age) {
+        // Somma dei degradi dei giri già percorsi, tratto per tratto
+        double time = baseTime;
+        int from = 0;
+        for (int segment = 0; segment < rateFactors.length && from < age; segment++) {
+            int to = segment < breakpoints.length ? Math.min(age, breakpoints[segment]) : age;
+            time += (to - from) * degradationRate * rateFactors[segment];
+            from = to;
+        }
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return "PIECEWISE(" + Arrays.toString(breakpoints) + "," + Arrays.toString(rateFactors) + ")";
+    }
+}
@@ -48,9 +48,28 @@ public class PythonMLService {
      * {@code null} se il servizio Python non è raggiungibile o restituisce errore.
      */
     public PredictionResponse getPrediction(String circuit, double airTemp, double trackTemp) {
+        return getPrediction(circuit, airTemp, trackTemp, null);
+    }
+
+    /**
+     * Come {@link #getPrediction(String, double, double)}, chiedendo anche i quantili delle predizioni.
+     * <p>
+     * Per ogni mescola il servizio Python restituisce, oltre alla media della Random Forest, i quantili
+     * richiesti calcolati sulle predizioni dei singoli alberi
+     * (vedi {@link PredictionResponse.TyrePrediction#getQuantiles()}).
+     * </p>
+     *
+     * @param circuit   Il nome del circuito su cui effettuare la predizione.
+     * @param airTemp   La temperatura dell'aria attuale.
+     * @param trackTemp La temperatura dell'asfalto attuale.
+     * @param quantiles I quantili richiesti (tra 0 e 1), oppure {@code null} per la sola predizione puntuale.
+     * @return Le predizioni, oppure {@code null} se il servizio Python non è raggiungibile o restituisce errore.
+     */
+    public PredictionResponse getPrediction(String circuit, double airTemp, double trackTemp, List<Double> quantiles) {
         List<String> compounds = List.of("SOFT", "MEDIUM", "HARD");
         
         PredictionRequest request = new PredictionRequest(circuit, airTemp, trackTemp, compounds);
+        request.setQuantiles(quantiles);
 
         try {
             return restTemplate.postForObject(ML_SERVICE_URL, request, PredictionResponse.class);
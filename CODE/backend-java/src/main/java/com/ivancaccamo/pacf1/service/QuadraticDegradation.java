@@ -0,0 +1,29 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Degrado quadratico, per l'usura che accelera con l'età della gomma:
+ * Tempo(età a) = BaseTime + a * DegradationRate + a^2 * quadraticRate.
+ *
+ * @author Team SPS-F1
+ */
+class QuadraticDegradation implements DegradationModel {
+
+    private final double quadraticRate;
+
+    /**
+     * @param quadraticRate Il coefficiente quadratico, in secondi per giro al quadrato.
+     */
+    QuadraticDegradation(double quadraticRate) {
+        this.quadraticRate = quadraticRate;
+    }
+
+    @Override
+    public double lapTime(double baseTime, double degradationRate, int age) {
+        return baseTime + age * degradationRate + (double) age * age * quadraticRate;
+    }
+
+    @Override
+    public String toString() {
+        return "QUADRATIC(" + quadraticRate + ")";
+    }
+}
@@ -0,0 +1,128 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Coefficienti dell'evoluzione della gara giro per giro: consumo del carburante e gommatura della pista.
+ * <p>
+ * Il tempo del giro {@code L} con una gomma di età {@code a} diventa:
+ * </p>
+ * <pre>
+ * T = BaseTime + usura - (fuelEffect + trackEvolution) * (L - 1)
+ * </pre>
+ * <p>
+ * dove l'usura accumulata cresce ad ogni giro percorso con la gomma dell'incremento della curva di degrado
+ * della mescola ({@code DegradationRate} nel modello lineare) moltiplicato per
+ * {@code (1 + fuelWearFactor * carburante)}, con il carburante rimasto espresso come
+ * frazione del pieno (1 al via, quasi 0 all'ultimo giro). Il guadagno di carburante e pista da solo sposta
+ * tutte le strategie dello stesso tempo; è l'usura più alta a serbatoio pieno a premiare le mescole
+ * più dure all'inizio e stint più lunghi nella seconda metà di gara.
+ * </p>
+ * <p>
+ * Con tutti i coefficienti a 0 (default) il modello coincide con quello lineare storico.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class RaceConditions {
+
+    /**
+     * Secondi guadagnati sul giro per ogni giro di carburante consumato (default 0).
+     */
+    private double fuelEffect = 0.0;
+
+    /**
+     * Secondi guadagnati sul giro per ogni giro di gommatura della pista (default 0).
+     */
+    private double trackEvolution = 0.0;
+
+    /**
+     * Usura aggiuntiva relativa con il serbatoio pieno (default 0; es. 0.3 = +30% di degrado al via).
+     */
+    private double fuelWearFactor = 0.0;
+
+    /**
+     * Costruttore vuoto: nessun effetto del giro di gara.
+     */
+    public RaceConditions() {}
+
+    /**
+     * Costruttore completo.
+     *
+     * @param fuelEffect     I secondi guadagnati per ogni giro di carburante consumato.
+     * @param trackEvolution I secondi guadagnati per ogni giro di gommatura della pista.
+     * @param fuelWearFactor L'usura aggiuntiva relativa con il serbatoio pieno.
+     */
+    public RaceConditions(double fuelEffect, double trackEvolution, double fuelWearFactor) {
+        this.fuelEffect = fuelEffect;
+        this.trackEvolution = trackEvolution;
+        this.fuelWearFactor = fuelWearFactor;
+    }
+
+    /**
+     * Indica se il costo di uno stint dipende dal giro in cui inizia.
+     *
+     * @return {@code true} se almeno un coefficiente è diverso da 0.
+     */
+    public boolean isLapDependent() {
+        return fuelEffect != 0.0 || trackEvolution != 0.0 || fuelWearFactor != 0.0;
+    }
+
+    /**
+     * Restituisce lo spostamento del tempo sul giro dovuto a carburante e pista.
+     *
+     * @param lap Il giro di gara (da 1).
+     * @return Lo spostamento in secondi (negativo: il giro è più veloce).
+     */
+    double lapOffset(int lap) {
+        return -(fuelEffect + trackEvolution) * (lap - 1);
+    }
+
+    /**
+     * Restituisce il moltiplicatore dell'usura di un giro in base al carburante rimasto.
+     *
+     * @param lap       Il giro di gara (da 1).
+     * @param totalLaps Il numero totale di giri della gara.
+     * @return Il moltiplicatore del degrado della mescola.
+     */
+    double wearMultiplier(int lap, int totalLaps) {
+        double fuel = (double) (totalLaps - lap + 1) / totalLaps;
+        return 1.0 + fuelWearFactor * fuel;
+    }
+
+    // Getters e Setters
+
+    /**
+     * Restituisce il guadagno per giro di carburante consumato.
+     * @return I secondi per giro.
+     */
+    public double getFuelEffect() { return fuelEffect; }
+
+    /**
+     * Imposta il guadagno per giro di carburante consumato.
+     * @param fuelEffect I secondi per giro.
+     */
+    public void setFuelEffect(double fuelEffect) { this.fuelEffect = fuelEffect; }
+
+    /**
+     * Restituisce il guadagno per giro di gommatura della pista.
+     * @return I secondi per giro.
+     */
+    public double getTrackEvolution() { return trackEvolution; }
+
+    /**
+     * Imposta il guadagno per giro di gommatura della pista.
+     * @param trackEvolution I secondi per giro.
+     */
+    public void setTrackEvolution(double trackEvolution) { this.trackEvolution = trackEvolution; }
+
+    /**
+     * Restituisce l'usura aggiuntiva relativa con il serbatoio pieno.
+     * @return Il fattore (0 = nessun effetto).
+     */
+    public double getFuelWearFactor() { return fuelWearFactor; }
+
+    /**
+     * Imposta l'usura aggiuntiva relativa con il serbatoio pieno.
+     * @param fuelWearFactor Il fattore (0 = nessun effetto).
+     */
+    public void setFuelWearFactor(double fuelWearFactor) { this.fuelWearFactor = fuelWearFactor; }
+}
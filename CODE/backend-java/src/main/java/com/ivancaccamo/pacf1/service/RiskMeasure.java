@@ -0,0 +1,58 @@
+package com.ivancaccamo.pacf1.service;
+
+import java.util.Arrays;
+
+/**
+ * Misura di rischio con cui l'ottimizzazione robusta confronta le strategie su più scenari di predizione.
+ * <p>
+ * Gli scenari sono equiprobabili. Entrambe le misure sono monotone (se una strategia è più lenta in ogni
+ * scenario, il suo rischio non può essere minore), proprietà su cui si basa il limite inferiore della ricerca.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public enum RiskMeasure {
+
+    /**
+     * Il tempo nello scenario peggiore.
+     */
+    WORST_CASE,
+
+    /**
+     * Il Conditional Value at Risk: la media dei tempi nella coda peggiore degli scenari, di peso
+     * {@code 1 - alpha}. Con {@code alpha = 0} è il tempo medio, per {@code alpha} vicino a 1 tende
+     * allo scenario peggiore.
+     */
+    CVAR;
+
+    /**
+     * Valuta la misura sui tempi di una strategia.
+     *
+     * @param times   I tempi della strategia in ogni scenario.
+     * @param alpha   Il livello del CVaR (ignorato per {@link #WORST_CASE}).
+     * @param scratch Un array di appoggio lungo almeno quanto {@code times}.
+     * @return Il valore della misura.
+     */
+    double evaluate(double[] times, double alpha, double[] scratch) {
+        int n = times.length;
+        if (this == WORST_CASE || n == 1) {
+            double worst = times[0];
+            for (int s = 1; s < n; s++) worst = Math.max(worst, times[s]);
+            return worst;
+        }
+
+        // Coda peggiore: gli scenari più lenti fino a un peso totale di (1 - alpha) * n (l'ultimo anche in parte)
+        System.arraycopy(times, 0, scratch, 0, n);
+        Arrays.sort(scratch, 0, n);
+        double tail = (1.0 - alpha) * n;
+        if (tail <= 1.0) return scratch[n - 1];
+        double sum = 0.0;
+        double weight = tail;
+        for (int s = n - 1; s >= 0 && weight > 0.0; s--) {
+            double w = Math.min(1.0, weight);
+            sum += w * scratch[s];
+            weight -= w;
+        }
+        return sum / tail;
+    }
+}
@@ -0,0 +1,261 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.SafetyCarPlan;
+import com.ivancaccamo.pacf1.model.Stint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DP stocastica in valore atteso con le probabilità di safety car per giro.
+ * <p>
+ * Alla fine di ogni giro la safety car può essere in pista con una probabilità nota: in quel caso
+ * un pit-stop costa {@code safetyCarPitLoss} (circa metà del normale) invece di {@code pitLoss}.
+ * La decisione (restare fuori o montare una mescola) viene presa conoscendo la situazione del giro,
+ * quindi il valore di uno stato è la media, pesata con la probabilità di safety car, della
+ * decisione migliore in bandiera verde e di quella migliore in regime di safety car.
+ * </p>
+ * <p>
+ * Rispetto alla DP deterministica lo stato deve conoscere l'<b>età</b> della gomma montata (una sosta
+ * può avvenire in qualunque giro), ma la maschera delle mescole si riduce a un solo bit: finché è stata
+ * usata solo la mescola montata la regola delle due mescole non è soddisfatta, dopo non conta più quali
+ * mescole siano state usate. Lo stato è quindi (giro, mescola, età, regola) e le tabelle sono array densi:
+ * i valori di un giro dipendono solo da quelli del giro successivo, quindi ne bastano due strati,
+ * mentre le decisioni di tutti gli stati vengono conservate (un byte ciascuna) per la politica.
+ * Il lavoro è O(giri^2 * mescole) più O(giri * mescole^2) per le soste.
+ * </p>
+ * <p>
+ * Le regole sono quelle di {@link OptimizationEngine}: ogni stint dopo il primo dura almeno
+ * {@link OptimizationEngine#MIN_STINT_LAPS} giri. Con probabilità nulle il tempo atteso coincide
+ * con l'ottimo deterministico.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class SafetyCarSolver {
+
+    private final int totalLaps;
+    private final int tyreCount;
+    private final List<TyrePrediction> tyres;
+    private final double pitLoss;
+    private final double safetyCarPitLoss;
+    private final double[] probabilities;
+
+    /**
+     * Tempo sul giro per ogni mescola ed età della gomma ({@code [mescola][età]}, età da 0).
+     */
+    private final double[][] lapTimes;
+
+    /**
+     * Decisione in bandiera verde per ogni stato ({@link SafetyCarPlan#STAY_OUT} o mescola da montare).
+     */
+    private final byte[] greenDecisions;
+
+    /**
+     * Decisione in regime di safety car per ogni stato.
+     */
+    private final byte[] safetyCarDecisions;
+
+    private double expectedTime = OptimizationEngine.INFINITY;
+    private int startTyre = -1;
+
+    /**
+     * Prepara il calcolo.
+     *
+     * @param totalLaps        Il numero totale di giri della gara.
+     * @param tyres            Le predizioni delle mescole disponibili.
+     * @param probabilities    La probabilità di safety car alla fine di ogni giro (indice = giro - 1).
+     * @param pitLoss          Il tempo perso per un pit-stop in bandiera verde.
+     * @param safetyCarPitLoss Il tempo perso per un pit-stop in regime di safety car.
+     */
+    SafetyCarSolver(int totalLaps, List<TyrePrediction> tyres, double[] probabilities, double pitLoss,
+                    double safetyCarPitLoss) {
+        this.totalLaps = totalLaps;
+        this.tyres = tyres;
+        this.tyreCount = tyres.size();
+        this.probabilities = probabilities;
+        this.pitLoss = pitLoss;
+        this.safetyCarPitLoss = safetyCarPitLoss;
+
+        StintCostTable costs = StintCostTable.compile(tyres, totalLaps);
+        this.lapTimes = new double[tyreCount][totalLaps];
+        for (int t = 0; t < tyreCount; t++) {
+            double[] stintCosts = costs.costsFor(t);
+            for (int age = 0; age < totalLaps; age++) lapTimes[t][age] = stintCosts[age + 1] - stintCosts[age];
+        }
+
+        int states = (totalLaps + 1) * tyreCount * (totalLaps + 1) * 2;
+        this.greenDecisions = new byte[states];
+        this.safetyCarDecisions = new byte[states];
+        Arrays.fill(greenDecisions, (byte) SafetyCarPlan.UNREACHABLE);
+        Arrays.fill(safetyCarDecisions, (byte) SafetyCarPlan.UNREACHABLE);
+    }
+
+    private int decisionIndex(int lap, int tyre, int age, int rule) {
+        return (((lap * tyreCount + tyre) * (totalLaps + 1)) + age) * 2 + rule;
+    }
+
+    private int valueIndex(int tyre, int age, int rule) {
+        return (tyre * (totalLaps + 1) + age) * 2 + rule;
+    }
+
+    /**
+     * Risolve la DP a ritroso dall'ultimo giro.
+     */
+    void solve() {
+        final double infinity = OptimizationEngine.INFINITY;
+        int layer = tyreCount * (totalLaps + 1) * 2;
+        double[] next = new double[layer];
+        double[] current = new double[layer];
+
+        // Traguardo: valido solo con la regola delle due mescole soddisfatta
+        for (int t = 0; t < tyreCount; t++) {
+            for (int age = 0; age <= totalLaps; age++) {
+                next[valueIndex(t, age, 0)] = infinity;
+                next[valueIndex(t, age, 1)] = 0.0;
+            }
+        }
+
+        double[] bestPit = new double[tyreCount * 2];
+        byte[] bestPitTyre = new byte[tyreCount * 2];
+        for (int lap = totalLaps - 1; lap >= 1; lap--) {
+            double probability = probabilities[lap - 1];
+            // Dopo una sosta serve un intero stint di almeno MIN_STINT_LAPS giri
+            boolean pitWindowOpen = totalLaps - lap >= OptimizationEngine.MIN_STINT_LAPS;
+
+            // Miglior sosta dal giro corrente (senza la perdita ai box): dipende solo da mescola e regola attuali
+            if (pitWindowOpen) {
+                for (int t = 0; t < tyreCount; t++) {
+                    for (int rule = 0; rule <= 1; rule++) {
+                        double best = infinity;
+                        byte bestTyre = (byte) SafetyCarPlan.STAY_OUT;
+                        for (int n = 0; n < tyreCount; n++) {
+                            int nextRule = (rule == 1 || n != t) ? 1 : 0;
+                            double time = lapTimes[n][0] + next[valueIndex(n, 1, nextRule)];
+                            if (time < best) {
+                                best = time;
+                                bestTyre = (byte) n;
+                            }
+                        }
+                        bestPit[t * 2 + rule] = best;
+                        bestPitTyre[t * 2 + rule] = bestTyre;
+                    }
+                }
+            }
+
+            for (int t = 0; t < tyreCount; t++) {
+                for (int age = 1; age <= lap; age++) {
+                    boolean firstStint = age == lap;
+                    boolean canPit = pitWindowOpen && (firstStint || age >= OptimizationEngine.MIN_STINT_LAPS);
+                    for (int rule = 0; rule <= 1; rule++) {
+                        int state = valueIndex(t, age, rule);
+                        // Nel primo stint è stata usata una sola mescola
+                        if (firstStint && rule == 1) {
+                            current[state] = infinity;
+                            continue;
+                        }
+
+                        double stay = lapTimes[t][age] + next[valueIndex(t, age + 1, rule)];
+                        double green = stay;
+                        double safetyCar = stay;
+                        byte greenDecision = (byte) SafetyCarPlan.STAY_OUT;
+                        byte safetyCarDecision = (byte) SafetyCarPlan.STAY_OUT;
+                        if (canPit) {
+                            double pit = bestPit[t * 2 + rule];
+                            if (pitLoss + pit < green) {
+                                green = pitLoss + pit;
+                                greenDecision = bestPitTyre[t * 2 + rule];
+                            }
+                            if (safetyCarPitLoss + pit < safetyCar) {
+                                safetyCar = safetyCarPitLoss + pit;
+                                safetyCarDecision = bestPitTyre[t * 2 + rule];
+                            }
+                        }
+
+                        int decision = decisionIndex(lap, t, age, rule);
+                        greenDecisions[decision] = greenDecision;
+                        safetyCarDecisions[decision] = safetyCarDecision;
+                        current[state] = (green >= infinity || safetyCar >= infinity)
+                                ? infinity : (1 - probability) * green + probability * safetyCar;
+                    }
+                }
+            }
+
+            double[] swap = next;
+            next = current;
+            current = swap;
+        }
+
+        // Partenza: nessuna sosta prima del via, si sceglie solo la mescola iniziale
+        for (int t = 0; t < tyreCount; t++) {
+            double time = lapTimes[t][0] + next[valueIndex(t, 1, 0)];
+            if (time < expectedTime) {
+                expectedTime = time;
+                startTyre = t;
+            }
+        }
+    }
+
+    /**
+     * Costruisce il piano con il tempo atteso, il piano nominale e le politiche in regime di safety car.
+     *
+     * @return Il piano (senza circuito, impostato dal chiamante).
+     */
+    SafetyCarPlan toPlan() {
+        SafetyCarPlan plan = new SafetyCarPlan();
+        plan.setLaps(totalLaps);
+        plan.setPitLoss(pitLoss);
+        plan.setSafetyCarPitLoss(safetyCarPitLoss);
+        plan.setSafetyCarProbabilities(probabilities);
+        plan.setExpectedTime(expectedTime);
+        for (TyrePrediction tyre : tyres) plan.getCompounds().add(tyre.getCompound());
+        if (startTyre >= 0 && expectedTime < OptimizationEngine.INFINITY) plan.setNominalStrategy(nominalStrategy());
+
+        int[][][] policy = new int[tyreCount][totalLaps + 1][];
+        int[][][] policyFirstCompound = new int[tyreCount][totalLaps + 1][];
+        for (int t = 0; t < tyreCount; t++) {
+            for (int lap = 0; lap <= totalLaps; lap++) {
+                policy[t][lap] = new int[lap + 1];
+                policyFirstCompound[t][lap] = new int[lap + 1];
+                for (int age = 0; age <= lap; age++) {
+                    policy[t][lap][age] = safetyCarDecisions[decisionIndex(lap, t, age, 1)];
+                    policyFirstCompound[t][lap][age] = safetyCarDecisions[decisionIndex(lap, t, age, 0)];
+                }
+            }
+        }
+        plan.setSafetyCarPolicy(policy);
+        plan.setSafetyCarPolicyFirstCompound(policyFirstCompound);
+        return plan;
+    }
+
+    /**
+     * Segue le decisioni in bandiera verde dalla partenza: è il piano finché la safety car non entra in pista.
+     */
+    private RaceStrategy nominalStrategy() {
+        RaceStrategy strategy = new RaceStrategy();
+        int tyre = startTyre;
+        int age = 1;
+        int rule = 0;
+        int stintStart = 1;
+        double time = lapTimes[tyre][0];
+        for (int lap = 1; lap < totalLaps; lap++) {
+            int decision = greenDecisions[decisionIndex(lap, tyre, age, rule)];
+            if (decision >= 0) {
+                strategy.getStints().add(new Stint(tyres.get(tyre).getCompound(), stintStart, lap));
+                if (decision != tyre) rule = 1;
+                tyre = decision;
+                age = 0;
+                stintStart = lap + 1;
+                time += pitLoss;
+            }
+            time += lapTimes[tyre][age];
+            age++;
+        }
+        strategy.getStints().add(new Stint(tyres.get(tyre).getCompound(), stintStart, totalLaps));
+        strategy.setPitStops(strategy.getStints().size() - 1);
+        strategy.setTotalTime(time);
+        return strategy;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Implementazione scalare di {@link StintKernel}: un semplice ciclo sui candidati.
+ * È il riferimento per le altre implementazioni e il fallback sempre disponibile.
+ *
+ * @author Team SPS-F1
+ */
+class ScalarStintKernel implements StintKernel {
+
+    @Override
+    public int firstArgMin(double[] costs, int costOffset, double pitCost, double[] values, int valueOffset, int length) {
+        int best = -1;
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            double time = costs[costOffset + i] + pitCost + values[valueOffset + i];
+            if (best < 0 || time < min) {
+                min = time;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return "scalare";
+    }
+}
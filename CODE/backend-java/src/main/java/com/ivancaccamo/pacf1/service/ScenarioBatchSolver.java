@@ -0,0 +1,435 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.RobustStrategyResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ottimizzazione robusta: una sola strategia valutata su più scenari di predizione contemporaneamente.
+ * <p>
+ * Il rischio (scenario peggiore o CVaR) di una strategia non è una somma sugli stint, quindi non si può
+ * ottimizzare direttamente con la DP. Il calcolo ha due fasi:
+ * </p>
+ * <ol>
+ *     <li>una DP a lotti riempie, per ogni stato (giro, maschera), il miglior tempo per finire la gara
+ *     in <b>ogni</b> scenario. Tutti gli scenari condividono stati, transizioni e controlli di fattibilità
+ *     (che non dipendono dalle predizioni): le tabelle sono array densi con gli scenari contigui, così il
+ *     ciclo più interno scorre gli scenari in memoria sequenziale e una passata costa poco più di quella
+ *     di un singolo scenario;</li>
+ *     <li>una ricerca best-first sulle strategie parziali con un vettore di tempi per scenario. Il tempo
+ *     finora più il miglior finale di ogni scenario è un limite inferiore valido per ogni scenario e,
+ *     essendo la misura di rischio monotona, il rischio di quel vettore è un limite inferiore del rischio
+ *     di qualsiasi completamento: la prima strategia completa estratta è quindi l'ottimo robusto esatto.
+ *     Una strategia parziale viene scartata se un'altra, già espansa nello stesso stato, è più veloce o
+ *     uguale in tutti gli scenari, oppure se il suo limite non migliora la migliore strategia completa già
+ *     trovata (la prima viene da una discesa golosa sulla tabella, rifinita con una ricerca locale).</li>
+ * </ol>
+ * <p>
+ * Con il CVaR il limite è meno stretto e la coda può crescere rapidamente con i giri: la ricerca si ferma
+ * alla scadenza o quando la coda supera {@link #SEARCH_MEMORY_VALUES}, restituendo la migliore strategia
+ * trovata con la distanza massima dall'ottimo.
+ * </p>
+ * <p>
+ * Le regole sono quelle di {@link OptimizationEngine}: almeno due mescole, pit-stop da
+ * {@link OptimizationEngine#PIT_STOP_LOSS} secondi e stint dopo il primo di almeno
+ * {@link OptimizationEngine#MIN_STINT_LAPS} giri. Con un solo scenario il risultato coincide con l'ottimo
+ * deterministico.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class ScenarioBatchSolver {
+
+    /**
+     * Budget di memoria della coda della ricerca, in valori {@code double} (circa 128 MB): oltre questa soglia
+     * la ricerca si ferma con la migliore strategia trovata.
+     */
+    static final long SEARCH_MEMORY_VALUES = 16_000_000L;
+
+    /**
+     * Occupazione stimata di un nodo oltre ai tempi degli scenari, in valori {@code double}.
+     */
+    private static final int NODE_OVERHEAD_VALUES = 12;
+
+    /**
+     * Numero minimo di nodi in coda concessi alla ricerca, qualunque sia il numero di scenari.
+     */
+    private static final long MIN_OPEN_NODES = 10_000L;
+
+    /**
+     * Miglioramento minimo del rischio accettato dalla ricerca locale (evita cicli sugli arrotondamenti).
+     */
+    private static final double IMPROVEMENT_EPSILON = 1e-9;
+
+    private final int totalLaps;
+    private final int tyreCount;
+    private final int maskCount;
+    private final int scenarioCount;
+    private final List<TyrePrediction> tyres;
+    private final RiskMeasure measure;
+    private final double alpha;
+
+    /**
+     * Costi degli stint: {@code stintCosts[t][n * scenari + s]} = tempo di {@code n} giri con la mescola
+     * {@code t} nello scenario {@code s}.
+     */
+    private final double[][] stintCosts;
+
+    /**
+     * Miglior tempo per finire la gara (pit-stop successivo compreso):
+     * {@code remaining[(giro * maschere + maschera) * scenari + s]}.
+     */
+    private final double[] remaining;
+
+    /**
+     * Per ogni stato (giro, maschera), {@code true} se la gara si può chiudere da lì (uguale in tutti gli scenari).
+     */
+    private final boolean[] feasible;
+
+    private long nodesExpanded;
+    private long sequence = 1;
+
+    /** La migliore strategia completa trovata finora e il suo rischio. */
+    private ScenarioNode incumbent;
+    private double incumbentRisk;
+
+    /**
+     * Strategia parziale con il tempo speso in ogni scenario.
+     */
+    private static final class ScenarioNode extends SearchNode {
+
+        /** Il tempo speso finora in ogni scenario. */
+        final double[] times;
+
+        ScenarioNode(SearchNode parent, int lap, int mask, int tyreIndex, int laps, double[] times,
+                     double estimate, long sequence) {
+            super(parent, lap, mask, tyreIndex, laps, 0.0, estimate, sequence);
+            this.times = times;
+        }
+    }
+
+    /**
+     * Prepara il calcolo.
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param scenarios Gli scenari: per ciascuno le predizioni delle stesse mescole, nello stesso ordine.
+     * @param measure   La misura di rischio da minimizzare.
+     * @param alpha     Il livello del CVaR.
+     */
+    ScenarioBatchSolver(int totalLaps, List<List<TyrePrediction>> scenarios, RiskMeasure measure, double alpha) {
+        this.totalLaps = totalLaps;
+        this.tyres = scenarios.get(0);
+        this.tyreCount = tyres.size();
+        this.maskCount = 1 << tyreCount;
+        this.scenarioCount = scenarios.size();
+        this.measure = measure;
+        this.alpha = alpha;
+
+        // Costi interlacciati: per ogni durata, i valori di tutti gli scenari sono contigui
+        this.stintCosts = new double[tyreCount][(totalLaps + 1) * scenarioCount];
+        for (int s = 0; s < scenarioCount; s++) {
+            StintCostTable costs = StintCostTable.compile(scenarios.get(s), totalLaps);
+            for (int t = 0; t < tyreCount; t++) {
+                double[] prefix = costs.costsFor(t);
+                for (int n = 0; n <= totalLaps; n++) stintCosts[t][n * scenarioCount + s] = prefix[n];
+            }
+        }
+        this.remaining = new double[(totalLaps + 1) * maskCount * scenarioCount];
+        this.feasible = new boolean[(totalLaps + 1) * maskCount];
+    }
+
+    /**
+     * Riempie a ritroso la tabella dei migliori finali di tutti gli scenari.
+     */
+    void solveTable() {
+        final double infinity = OptimizationEngine.INFINITY;
+        final double pitLoss = OptimizationEngine.PIT_STOP_LOSS;
+        for (int lap = totalLaps; lap >= 1; lap--) {
+            for (int mask = 1; mask < maskCount; mask++) {
+                int state = lap * maskCount + mask;
+                int base = state * scenarioCount;
+                if (lap == totalLaps) {
+                    // Traguardo: valido solo con almeno due mescole usate
+                    feasible[state] = Integer.bitCount(mask) >= 2;
+                    Arrays.fill(remaining, base, base + scenarioCount, feasible[state] ? 0.0 : infinity);
+                    continue;
+                }
+
+                Arrays.fill(remaining, base, base + scenarioCount, infinity);
+                for (int t = 0; t < tyreCount; t++) {
+                    int nextMask = mask | (1 << t);
+                    double[] costs = stintCosts[t];
+                    for (int laps = OptimizationEngine.MIN_STINT_LAPS; lap + laps <= totalLaps; laps++) {
+                        int next = (lap + laps) * maskCount + nextMask;
+                        if (!feasible[next]) continue;
+                        feasible[state] = true;
+
+                        // Stessa transizione per tutti gli scenari: il ciclo interno è su dati contigui
+                        int nextBase = next * scenarioCount;
+                        int costBase = laps * scenarioCount;
+                        for (int s = 0; s < scenarioCount; s++) {
+                            double time = pitLoss + costs[costBase + s] + remaining[nextBase + s];
+                            if (time < remaining[base + s]) remaining[base + s] = time;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cerca la strategia con il minor rischio (da chiamare dopo {@link #solveTable()}).
+     * <p>
+     * Una prima discesa golosa, che segue ad ogni passo il figlio con il limite inferiore più basso, fornisce
+     * subito una strategia completa; la ricerca best-first scarta poi ogni strategia parziale il cui limite
+     * non la migliora (Branch and Bound) e termina appena il limite del nodo estratto la raggiunge. Se la
+     * scadenza arriva, o la coda supera il budget di memoria, viene restituita la migliore strategia trovata
+     * con la distanza massima dall'ottimo.
+     * </p>
+     *
+     * @param deadline La scadenza del calcolo.
+     * @return Il risultato, senza strategia se non esiste una strategia valida.
+     */
+    RobustStrategyResult search(Deadline deadline) {
+        RobustStrategyResult result = new RobustStrategyResult();
+        result.setRiskMeasure(measure.name());
+        result.setAlpha(alpha);
+
+        double[] scratch = new double[scenarioCount];
+        double[] bound = new double[scenarioCount];
+        // Vettori dei tempi già espansi in ogni stato, per scartare le strategie parziali dominate
+        List<List<double[]>> expanded = new ArrayList<>();
+        for (int i = 0; i < (totalLaps + 1) * maskCount; i++) expanded.add(null);
+
+        ScenarioNode start = new ScenarioNode(null, 0, 0, -1, 0, new double[scenarioCount], 0.0, 0);
+        incumbent = null;
+        incumbentRisk = OptimizationEngine.INFINITY;
+        dive(start, bound, scratch);
+
+        long maxOpenNodes = Math.max(MIN_OPEN_NODES, SEARCH_MEMORY_VALUES / (scenarioCount + NODE_OVERHEAD_VALUES));
+        PriorityQueue<ScenarioNode> open = new PriorityQueue<>();
+        expand(start, open, bound, scratch);
+
+        double lowerBound = incumbentRisk;
+        boolean partial = false;
+        while (!open.isEmpty()) {
+            if (deadline.isExpired() || open.size() > maxOpenNodes) {
+                // Ricerca interrotta: il nodo in testa alla coda è il limite inferiore di tutte le strategie
+                partial = true;
+                lowerBound = Math.min(incumbentRisk, open.peek().estimate);
+                break;
+            }
+            ScenarioNode node = open.poll();
+            // Tutte le strategie rimaste non migliorano quella trovata: è l'ottimo robusto
+            if (node.estimate >= incumbentRisk) break;
+
+            int state = node.lap * maskCount + node.mask;
+            if (isDominated(expanded.get(state), node.times)) continue;
+            if (expanded.get(state) == null) expanded.set(state, new ArrayList<>());
+            expanded.get(state).add(node.times);
+            nodesExpanded++;
+            expand(node, open, bound, scratch);
+        }
+
+        if (incumbent != null) {
+            complete(result, incumbent, scratch);
+            result.setPartial(partial);
+            result.setOptimalityGap(Math.max(0.0, incumbentRisk - lowerBound));
+        }
+        result.setNodesExpanded(nodesExpanded);
+        return result;
+    }
+
+    /**
+     * Genera i figli di una strategia parziale: le strategie complete aggiornano la migliore trovata, le altre
+     * entrano in coda solo se il loro limite inferiore la può migliorare.
+     */
+    private void expand(ScenarioNode node, PriorityQueue<ScenarioNode> open, double[] bound, double[] scratch) {
+        for (int t = 0; t < tyreCount; t++) {
+            for (int laps = firstLaps(node); node.lap + laps <= totalLaps; laps++) {
+                ScenarioNode child = child(node, t, laps, bound, scratch);
+                if (child == null) continue;
+                if (child.lap == totalLaps) {
+                    if (child.estimate < incumbentRisk) {
+                        incumbent = child;
+                        incumbentRisk = child.estimate;
+                    }
+                } else if (child.estimate < incumbentRisk) {
+                    open.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Discesa golosa dalla partenza: ad ogni passo il figlio con il limite inferiore più basso,
+     * fino a una strategia completa che diventa la migliore trovata.
+     */
+    private void dive(ScenarioNode start, double[] bound, double[] scratch) {
+        ScenarioNode node = start;
+        while (node != null && node.lap < totalLaps) {
+            ScenarioNode best = null;
+            for (int t = 0; t < tyreCount; t++) {
+                for (int laps = firstLaps(node); node.lap + laps <= totalLaps; laps++) {
+                    ScenarioNode child = child(node, t, laps, bound, scratch);
+                    if (child != null && (best == null || child.estimate < best.estimate)) best = child;
+                }
+            }
+            node = best;
+        }
+        if (node != null) {
+            incumbent = node;
+            incumbentRisk = node.estimate;
+            improveIncumbent(scratch);
+        }
+    }
+
+    /**
+     * Ricerca locale sulla strategia trovata dalla discesa: sposta di un giro un pit-stop o cambia la mescola
+     * di uno stint finché il rischio migliora. Una strategia migliore fin dall'inizio scarta più nodi.
+     */
+    private void improveIncumbent(double[] scratch) {
+        List<int[]> stints = new ArrayList<>();
+        for (SearchNode node = incumbent; node.parent != null; node = node.parent) {
+            stints.add(0, new int[] { node.tyreIndex, node.laps });
+        }
+        int[] tyreOf = new int[stints.size()];
+        int[] lapsOf = new int[stints.size()];
+        for (int i = 0; i < stints.size(); i++) {
+            tyreOf[i] = stints.get(i)[0];
+            lapsOf[i] = stints.get(i)[1];
+        }
+
+        double[] times = new double[scenarioCount];
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            // Spostamento di un giro del pit-stop tra gli stint i e i + 1
+            for (int i = 0; i + 1 < lapsOf.length; i++) {
+                for (int shift = -1; shift <= 1; shift += 2) {
+                    lapsOf[i] += shift;
+                    lapsOf[i + 1] -= shift;
+                    if (tryIncumbent(tyreOf, lapsOf, times, scratch)) improved = true;
+                    else {
+                        lapsOf[i] -= shift;
+                        lapsOf[i + 1] += shift;
+                    }
+                }
+            }
+            // Cambio della mescola di uno stint
+            for (int i = 0; i < tyreOf.length; i++) {
+                int original = tyreOf[i];
+                for (int t = 0; t < tyreCount; t++) {
+                    if (t == tyreOf[i]) continue;
+                    int previous = tyreOf[i];
+                    tyreOf[i] = t;
+                    if (tryIncumbent(tyreOf, lapsOf, times, scratch)) improved = true;
+                    else tyreOf[i] = previous;
+                }
+                if (tyreOf[i] != original) improved = true;
+            }
+        }
+    }
+
+    /**
+     * Valuta una strategia completa e, se valida e con rischio minore, la rende la migliore trovata.
+     */
+    private boolean tryIncumbent(int[] tyreOf, int[] lapsOf, double[] times, double[] scratch) {
+        int mask = 0;
+        Arrays.fill(times, OptimizationEngine.PIT_STOP_LOSS * (lapsOf.length - 1));
+        for (int i = 0; i < lapsOf.length; i++) {
+            if (lapsOf[i] < (i == 0 ? 1 : OptimizationEngine.MIN_STINT_LAPS)) return false;
+            mask |= 1 << tyreOf[i];
+            int costBase = lapsOf[i] * scenarioCount;
+            for (int s = 0; s < scenarioCount; s++) times[s] += stintCosts[tyreOf[i]][costBase + s];
+        }
+        if (Integer.bitCount(mask) < 2) return false;
+        double risk = measure.evaluate(times, alpha, scratch);
+        if (risk >= incumbentRisk - IMPROVEMENT_EPSILON) return false;
+
+        // Ricostruisce la catena dei nodi della nuova strategia
+        ScenarioNode node = new ScenarioNode(null, 0, 0, -1, 0, new double[scenarioCount], 0.0, 0);
+        for (int i = 0; i < lapsOf.length; i++) {
+            double[] partialTimes = new double[scenarioCount];
+            int costBase = lapsOf[i] * scenarioCount;
+            double pitLoss = i == 0 ? 0.0 : OptimizationEngine.PIT_STOP_LOSS;
+            for (int s = 0; s < scenarioCount; s++) {
+                partialTimes[s] = node.times[s] + pitLoss + stintCosts[tyreOf[i]][costBase + s];
+            }
+            node = new ScenarioNode(node, node.lap + lapsOf[i], node.mask | (1 << tyreOf[i]), tyreOf[i], lapsOf[i],
+                    partialTimes, risk, sequence++);
+        }
+        incumbent = node;
+        incumbentRisk = risk;
+        return true;
+    }
+
+    /**
+     * Durata minima del prossimo stint: il primo stint può durare anche un solo giro.
+     */
+    private static int firstLaps(ScenarioNode node) {
+        return node.parent == null ? 1 : OptimizationEngine.MIN_STINT_LAPS;
+    }
+
+    /**
+     * Crea il figlio di una strategia parziale con uno stint di {@code laps} giri sulla mescola {@code t},
+     * oppure {@code null} se da lì la gara non si può chiudere.
+     */
+    private ScenarioNode child(ScenarioNode node, int t, int laps, double[] bound, double[] scratch) {
+        int nextLap = node.lap + laps;
+        int nextMask = node.mask | (1 << t);
+        if (!feasible[nextLap * maskCount + nextMask]) return null;
+        double pitLoss = node.parent == null ? 0.0 : OptimizationEngine.PIT_STOP_LOSS;
+        double[] times = new double[scenarioCount];
+        int costBase = laps * scenarioCount;
+        for (int s = 0; s < scenarioCount; s++) {
+            times[s] = node.times[s] + pitLoss + stintCosts[t][costBase + s];
+        }
+        double estimate = estimate(times, nextLap, nextMask, bound, scratch);
+        return new ScenarioNode(node, nextLap, nextMask, t, laps, times, estimate, sequence++);
+    }
+
+    /**
+     * Limite inferiore del rischio: tempo speso più il miglior finale di ogni scenario.
+     */
+    private double estimate(double[] times, int lap, int mask, double[] bound, double[] scratch) {
+        if (lap == totalLaps) return measure.evaluate(times, alpha, scratch);
+        int base = (lap * maskCount + mask) * scenarioCount;
+        for (int s = 0; s < scenarioCount; s++) bound[s] = times[s] + remaining[base + s];
+        return measure.evaluate(bound, alpha, scratch);
+    }
+
+    /**
+     * Indica se una strategia parziale espansa nello stesso stato è più veloce o uguale in tutti gli scenari.
+     */
+    private static boolean isDominated(List<double[]> expanded, double[] times) {
+        if (expanded == null) return false;
+        for (double[] other : expanded) {
+            boolean dominates = true;
+            for (int s = 0; s < times.length && dominates; s++) dominates = other[s] <= times[s];
+            if (dominates) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Compila il risultato con la strategia completa trovata.
+     */
+    private void complete(RobustStrategyResult result, ScenarioNode node, double[] scratch) {
+        double risk = measure.evaluate(node.times, alpha, scratch);
+        double sum = 0.0;
+        for (double time : node.times) sum += time;
+
+        RaceStrategy strategy = node.toStrategy(tyres);
+        strategy.setTotalTime(risk);
+        result.setStrategy(strategy);
+        result.setRiskTime(risk);
+        result.setMeanTime(sum / scenarioCount);
+        result.setScenarioTimes(node.times);
+    }
+}
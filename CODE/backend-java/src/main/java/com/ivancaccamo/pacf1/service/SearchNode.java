@@ -0,0 +1,85 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.Stint;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Nodo dei motori di ricerca sul grafo degli stint ({@link BranchAndBoundEngine}, {@link BeamSearchEngine},
+ * enumerazione delle strategie quasi ottime di {@link OptimizationEngine}):
+ * una strategia parziale che termina al giro {@code lap} con le mescole di {@code mask} già usate.
+ * <p>
+ * Ogni nodo conosce solo l'ultimo stint e il nodo padre, così le strategie parziali condividono i prefissi
+ * comuni. I nodi sono ordinati per stima {@code f} crescente; a parità di stima vince il nodo generato
+ * per primo, così l'ordine di esplorazione (e quindi il risultato) è deterministico.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class SearchNode implements Comparable<SearchNode> {
+
+    /** Il nodo padre (la strategia senza l'ultimo stint), {@code null} per la partenza. */
+    final SearchNode parent;
+
+    /** L'ultimo giro percorso. */
+    final int lap;
+
+    /** La maschera delle mescole usate. */
+    final int mask;
+
+    /** L'indice della mescola dell'ultimo stint. */
+    final int tyreIndex;
+
+    /** La durata in giri dell'ultimo stint. */
+    final int laps;
+
+    /** Il tempo speso finora ({@code g}), pit-stop compresi. */
+    final double time;
+
+    /** La stima del tempo totale ({@code f = g + h}). */
+    final double estimate;
+
+    /** L'ordine di generazione, usato per risolvere i pareggi. */
+    final long sequence;
+
+    SearchNode(SearchNode parent, int lap, int mask, int tyreIndex, int laps, double time, double estimate,
+               long sequence) {
+        this.parent = parent;
+        this.lap = lap;
+        this.mask = mask;
+        this.tyreIndex = tyreIndex;
+        this.laps = laps;
+        this.time = time;
+        this.estimate = estimate;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Ricostruisce la strategia completa risalendo la catena dei nodi padre.
+     *
+     * @param tyres Le predizioni delle mescole (per i nomi delle mescole).
+     * @return La strategia con tutti gli stint dalla partenza a questo nodo.
+     */
+    RaceStrategy toStrategy(List<TyrePrediction> tyres) {
+        LinkedList<Stint> stints = new LinkedList<>();
+        for (SearchNode node = this; node.parent != null; node = node.parent) {
+            stints.addFirst(new Stint(tyres.get(node.tyreIndex).getCompound(), node.parent.lap + 1, node.lap));
+        }
+
+        RaceStrategy strategy = new RaceStrategy();
+        strategy.setTotalTime(time);
+        strategy.setStints(new ArrayList<>(stints));
+        strategy.setPitStops(stints.size() - 1);
+        return strategy;
+    }
+
+    @Override
+    public int compareTo(SearchNode other) {
+        int byEstimate = Double.compare(estimate, other.estimate);
+        return byEstimate != 0 ? byEstimate : Long.compare(sequence, other.sequence);
+    }
+}
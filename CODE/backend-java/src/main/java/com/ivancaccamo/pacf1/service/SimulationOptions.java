@@ -0,0 +1,122 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Parametri delle incertezze campionate da {@link MonteCarloSimulator}.
+ * <p>
+ * I valori di default descrivono una gara "tipica": 3% di probabilità di safety car per giro,
+ * pit-stop con una deviazione standard di un secondo e degrado reale entro circa il 15% della predizione.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class SimulationOptions {
+
+    /**
+     * Numero di gare simulate (default 100000).
+     */
+    private int races = 100_000;
+
+    /**
+     * Probabilità che alla fine di un giro ci sia la safety car (default 0.03).
+     */
+    private double safetyCarProbability = 0.03;
+
+    /**
+     * Tempo perso per un pit-stop in regime di safety car.
+     */
+    private double safetyCarPitLoss = OptimizationEngine.DEFAULT_SAFETY_CAR_PIT_LOSS;
+
+    /**
+     * Deviazione standard (in secondi) del tempo perso ad ogni pit-stop (default 1.0).
+     */
+    private double pitLossSigma = 1.0;
+
+    /**
+     * Deviazione standard relativa del degrado reale rispetto alla predizione (default 0.15).
+     */
+    private double degradationSigma = 0.15;
+
+    /**
+     * Seme del generatore casuale, oppure {@code null} per un seme diverso ad ogni simulazione.
+     */
+    private Long seed;
+
+    /**
+     * Costruttore vuoto: opzioni di default.
+     */
+    public SimulationOptions() {}
+
+    // Getters e Setters
+
+    /**
+     * Restituisce il numero di gare simulate.
+     * @return Il numero di gare.
+     */
+    public int getRaces() { return races; }
+
+    /**
+     * Imposta il numero di gare simulate.
+     * @param races Il numero di gare.
+     */
+    public void setRaces(int races) { this.races = races; }
+
+    /**
+     * Restituisce la probabilità di safety car per giro.
+     * @return La probabilità.
+     */
+    public double getSafetyCarProbability() { return safetyCarProbability; }
+
+    /**
+     * Imposta la probabilità di safety car per giro.
+     * @param safetyCarProbability La probabilità.
+     */
+    public void setSafetyCarProbability(double safetyCarProbability) { this.safetyCarProbability = safetyCarProbability; }
+
+    /**
+     * Restituisce il tempo perso per un pit-stop in regime di safety car.
+     * @return Il tempo in secondi.
+     */
+    public double getSafetyCarPitLoss() { return safetyCarPitLoss; }
+
+    /**
+     * Imposta il tempo perso per un pit-stop in regime di safety car.
+     * @param safetyCarPitLoss Il tempo in secondi.
+     */
+    public void setSafetyCarPitLoss(double safetyCarPitLoss) { this.safetyCarPitLoss = safetyCarPitLoss; }
+
+    /**
+     * Restituisce la deviazione standard del tempo perso ai box.
+     * @return La deviazione standard in secondi.
+     */
+    public double getPitLossSigma() { return pitLossSigma; }
+
+    /**
+     * Imposta la deviazione standard del tempo perso ai box.
+     * @param pitLossSigma La deviazione standard in secondi.
+     */
+    public void setPitLossSigma(double pitLossSigma) { this.pitLossSigma = pitLossSigma; }
+
+    /**
+     * Restituisce la deviazione standard relativa del degrado.
+     * @return La deviazione standard relativa.
+     */
+    public double getDegradationSigma() { return degradationSigma; }
+
+    /**
+     * Imposta la deviazione standard relativa del degrado.
+     * @param degradationSigma La deviazione standard relativa.
+     */
+    public void setDegradationSigma(double degradationSigma) { this.degradationSigma = degradationSigma; }
+
+    /**
+     * Restituisce il seme del generatore casuale.
+     * @return Il seme, oppure {@code null}.
+     */
+    public Long getSeed() { return seed; }
+
+    /**
+     * Imposta il seme del generatore casuale (stesso seme, stessi risultati).
+     * @param seed Il seme, oppure {@code null}.
+     */
+    public void setSeed(Long seed) { this.seed = seed; }
+}
@@ -0,0 +1,275 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stato di una singola esecuzione della DP k-best.
+ * <p>
+ * Raccoglie le tabelle dense della Memoization e i costi precalcolati degli stint
+ * per <b>una</b> richiesta. Ogni chiamata a {@link OptimizationEngine} crea il proprio contesto,
+ * così il servizio (singleton Spring) resta privo di stato e può servire più richieste
+ * in parallelo senza che le tabelle di una richiesta vengano sovrascritte da un'altra.
+ * </p>
+ * <p>
+ * Il valore di uno stato dipende solo dai giri <b>rimanenti</b>, dalla maschera e dalle predizioni:
+ * una tabella completa risolta per {@code N} giri contiene quindi anche le soluzioni di ogni gara
+ * più corta con le stesse predizioni. {@link #suffixView(int)} espone questa sottotabella come
+ * contesto di sola lettura per la gara più corta, senza copiare gli array
+ * (vedi {@link SuffixTableCache}).
+ * </p>
+ * <p>
+ * Lo stato (giro corrente, maschera gomme usate) viene indicizzato con layout "per maschera"
+ * (i giri della stessa maschera sono contigui in memoria); la soluzione di rango {@code r}
+ * di uno stato si trova alla posizione {@code stateIndex * topK + r}.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class SolverContext {
+
+    /**
+     * Valore sentinella che marca uno stato non ancora calcolato nella tabella {@code solutionCounts}.
+     */
+    static final int UNSOLVED = -1;
+
+    /**
+     * Valore sentinella per uno stato privo di decisione (nessuna mossa valida).
+     */
+    static final int NO_DECISION = -1;
+
+    /**
+     * Tolleranza (in secondi) sotto la quale due soluzioni parziali dello stesso stato
+     * sono considerate equivalenti (es. gli stessi stint percorsi in ordine diverso).
+     */
+    static final double EQUIVALENCE_EPSILON = 1e-6;
+
+    /**
+     * Numero di bit riservati alla durata dello stint nella decisione impacchettata.
+     */
+    private static final int LAPS_BITS = 16;
+
+    /**
+     * Maschera per estrarre la durata dello stint dalla decisione impacchettata.
+     */
+    private static final int LAPS_MASK = (1 << LAPS_BITS) - 1;
+
+    /** Il numero totale di giri della gara. */
+    final int totalLaps;
+
+    /** Le predizioni delle mescole disponibili. */
+    final List<TyrePrediction> tyres;
+
+    /** Numero di soluzioni parziali conservate per ogni stato. */
+    final int topK;
+
+    /** Numero di giri (colonne) di ogni maschera nelle tabelle dense: {@code giri della tabella + 1}. */
+    private final int rowLength;
+
+    /** Spostamento dei giri di una sottotabella: il giro {@code L} corrisponde al giro {@code L + lapOffset}. */
+    private final int lapOffset;
+
+    /** Costi precalcolati degli stint (somme prefisse per mescola). */
+    final StintCostTable stintCosts;
+
+    /**
+     * Tabella densa per la Memoization (k-best): per ogni stato i {@code topK}
+     * tempi migliori ottenibili da quello stato in poi, ordinati in modo crescente.
+     */
+    final double[] memo;
+
+    /**
+     * Decisioni prese da ogni soluzione parziale, parallela a {@code memo}.
+     * Ogni cella contiene la decisione impacchettata (mescola nei bit alti, durata dello stint
+     * nei 16 bit bassi), oppure {@link #NO_DECISION}.
+     */
+    final int[] bestDecisions;
+
+    /**
+     * Per ogni soluzione parziale, il rango della soluzione scelta nello stato successivo.
+     */
+    final int[] nextRanks;
+
+    /**
+     * Numero di soluzioni parziali salvate per ogni stato, oppure {@link #UNSOLVED}.
+     */
+    final int[] solutionCounts;
+
+    /**
+     * Scadenza della richiesta: quando arriva, gli stati non ancora risolti restano {@link #UNSOLVED}.
+     */
+    Deadline deadline = Deadline.none();
+
+    /**
+     * Alloca le tabelle dense per una gara e marca tutti gli stati come non risolti.
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     Le predizioni delle mescole disponibili.
+     * @param topK      Il numero di soluzioni parziali da conservare per ogni stato.
+     */
+    SolverContext(int totalLaps, List<TyrePrediction> tyres, int topK) {
+        this(totalLaps, tyres, topK, null);
+    }
+
+    /**
+     * Alloca le tabelle dense per una gara con le condizioni giro per giro.
+     * Con condizioni dipendenti dal giro i costi degli stint dipendono anche dal giro di partenza,
+     * quindi la tabella non può essere condivisa tra gare di lunghezza diversa ({@link #suffixView}).
+     *
+     * @param totalLaps  Il numero totale di giri della gara.
+     * @param tyres      Le predizioni delle mescole disponibili.
+     * @param topK       Il numero di soluzioni parziali da conservare per ogni stato.
+     * @param conditions Le condizioni della gara, oppure {@code null}.
+     */
+    SolverContext(int totalLaps, List<TyrePrediction> tyres, int topK, RaceConditions conditions) {
+        this.totalLaps = totalLaps;
+        this.tyres = tyres;
+        this.topK = topK;
+        this.rowLength = totalLaps + 1;
+        this.lapOffset = 0;
+        this.stintCosts = StintCostTable.forRace(tyres, totalLaps, conditions);
+
+        int states = (totalLaps + 1) << tyres.size();
+        this.memo = new double[states * topK];
+        this.bestDecisions = new int[states * topK];
+        this.nextRanks = new int[states * topK];
+        this.solutionCounts = new int[states];
+        Arrays.fill(solutionCounts, UNSOLVED);
+    }
+
+    /**
+     * Crea la vista di una tabella già risolta per una gara più corta (stessi array, giri spostati).
+     */
+    private SolverContext(SolverContext table, int totalLaps) {
+        this.totalLaps = totalLaps;
+        this.tyres = table.tyres;
+        this.topK = table.topK;
+        this.rowLength = table.rowLength;
+        this.lapOffset = table.lapOffset + (table.totalLaps - totalLaps);
+        this.stintCosts = table.stintCosts;
+        this.memo = table.memo;
+        this.bestDecisions = table.bestDecisions;
+        this.nextRanks = table.nextRanks;
+        this.solutionCounts = table.solutionCounts;
+    }
+
+    /**
+     * Restituisce la sottotabella di una gara più corta: il giro {@code L} della gara di {@code totalLaps}
+     * giri ha gli stessi giri rimanenti del giro {@code L + (this.totalLaps - totalLaps)} di questa tabella.
+     * <p>
+     * La vista condivide gli array, quindi va usata in sola lettura e solo se questa tabella è completa.
+     * Il giro 0 della vista non è una partenza (corrisponde ad uno stato con sosta), ma la partenza
+     * è sempre gestita dall'enumerazione dei primi stint.
+     * </p>
+     *
+     * @param totalLaps Il numero totale di giri della gara più corta.
+     * @return Il contesto della gara più corta.
+     */
+    SolverContext suffixView(int totalLaps) {
+        if (totalLaps == this.totalLaps) return this;
+        if (totalLaps > this.totalLaps) {
+            throw new IllegalArgumentException("La tabella copre al massimo " + this.totalLaps + " giri");
+        }
+        if (stintCosts.isLapDependent()) {
+            throw new IllegalArgumentException("I costi dipendono dal giro: la tabella vale solo per " + this.totalLaps + " giri");
+        }
+        return new SolverContext(this, totalLaps);
+    }
+
+    /**
+     * Calcola la posizione di uno stato (giro, maschera) all'interno delle tabelle dense.
+     *
+     * @param lap  Il giro corrente.
+     * @param mask La maschera delle mescole usate.
+     * @return L'indice dello stato (la sua prima soluzione si trova a {@code indice * topK}).
+     */
+    int stateIndex(int lap, int mask) {
+        return mask * rowLength + lap + lapOffset;
+    }
+
+    /**
+     * Restituisce il miglior tempo salvato per uno stato già risolto.
+     *
+     * @param stateIndex L'indice dello stato.
+     * @param infinity   Il valore da restituire se lo stato non ha soluzioni valide.
+     * @return Il tempo minimo, oppure {@code infinity}.
+     */
+    double bestTime(int stateIndex, double infinity) {
+        return solutionCounts[stateIndex] > 0 ? memo[stateIndex * topK] : infinity;
+    }
+
+    /**
+     * Inserisce una soluzione parziale nella lista ordinata (al massimo {@code topK} elementi) di uno stato.
+     * <p>
+     * Le soluzioni equivalenti (tempo uguale entro {@link #EQUIVALENCE_EPSILON}) non vengono duplicate:
+     * a parità di tempo resta la prima trovata, come nella versione a soluzione singola.
+     * </p>
+     *
+     * @param base     La posizione della prima soluzione dello stato nelle tabelle.
+     * @param count    Il numero di soluzioni attualmente salvate per lo stato.
+     * @param time     Il tempo della nuova soluzione.
+     * @param decision La decisione impacchettata della nuova soluzione.
+     * @param nextRank Il rango della soluzione scelta nello stato successivo.
+     * @return Il nuovo numero di soluzioni salvate per lo stato.
+     */
+    int insertSolution(int base, int count, double time, int decision, int nextRank) {
+        // Posizione = prima soluzione strettamente peggiore della nuova
+        int pos = count;
+        while (pos > 0 && time < memo[base + pos - 1]) pos--;
+
+        // Equivalente ad una soluzione migliore (o uguale) già salvata: la ignoriamo
+        if (pos > 0 && time - memo[base + pos - 1] < EQUIVALENCE_EPSILON) return count;
+
+        if (pos < count && memo[base + pos] - time < EQUIVALENCE_EPSILON) {
+            // Equivalente ad una soluzione appena peggiore: la sostituiamo senza spostare le altre
+        } else {
+            if (pos >= topK) return count;
+            // Facciamo spazio spostando a destra le soluzioni peggiori (l'ultima esce se la lista è piena)
+            int last = Math.min(count, topK - 1);
+            for (int j = last; j > pos; j--) {
+                memo[base + j] = memo[base + j - 1];
+                bestDecisions[base + j] = bestDecisions[base + j - 1];
+                nextRanks[base + j] = nextRanks[base + j - 1];
+            }
+            if (count < topK) count++;
+        }
+
+        memo[base + pos] = time;
+        bestDecisions[base + pos] = decision;
+        nextRanks[base + pos] = nextRank;
+        return count;
+    }
+
+    /**
+     * Impacchetta una decisione (mescola scelta + durata dello stint) in un singolo intero.
+     *
+     * @param tyreIndex L'indice della mescola nella lista delle predizioni.
+     * @param laps      La durata dello stint in giri.
+     * @return La decisione codificata.
+     */
+    static int packDecision(int tyreIndex, int laps) {
+        return (tyreIndex << LAPS_BITS) | laps;
+    }
+
+    /**
+     * Estrae l'indice della mescola da una decisione impacchettata.
+     *
+     * @param decision La decisione codificata.
+     * @return L'indice della mescola.
+     */
+    static int decisionTyre(int decision) {
+        return decision >>> LAPS_BITS;
+    }
+
+    /**
+     * Estrae la durata dello stint da una decisione impacchettata.
+     *
+     * @param decision La decisione codificata.
+     * @return La durata dello stint in giri.
+     */
+    static int decisionLaps(int decision) {
+        return decision & LAPS_MASK;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Modalità di esecuzione della DP k-best di {@link OptimizationEngine}.
+ * <p>
+ * Tutte le modalità producono le stesse strategie; cambiano solo l'ordine in cui
+ * gli stati (giro, maschera gomme usate) vengono risolti e quindi il profilo di
+ * prestazioni e di memoria.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public enum SolverMode {
+
+    /**
+     * DP top-down con Memoization: risolve solo gli stati raggiungibili, ricorrendo
+     * una volta per ogni stint. Indicata per le gare di Formula 1 (50-80 giri).
+     */
+    RECURSIVE,
+
+    /**
+     * DP bottom-up iterativa: risolve gli stati a ritroso dall'ultimo giro, uno strato
+     * (giro) alla volta, senza ricorsione. Indicata per simulazioni lunghe (endurance,
+     * serie di gare) con centinaia di "giri", dove la ricorsione rischierebbe lo stack overflow.
+     */
+    ITERATIVE,
+
+    /**
+     * DP bottom-up parallela: gli stati vengono risolti a "fronti d'onda" di giri indipendenti,
+     * distribuiti sui core disponibili tramite un {@link java.util.concurrent.ForkJoinPool}.
+     * Per le gare corte (sotto la soglia configurata) si comporta come {@link #ITERATIVE}.
+     */
+    PARALLEL
+}
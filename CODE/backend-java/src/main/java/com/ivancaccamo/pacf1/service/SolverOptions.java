@@ -0,0 +1,101 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Opzioni di esecuzione di {@link OptimizationEngine}.
+ * <p>
+ * Raccoglie in un unico oggetto le scelte algoritmiche di una richiesta (modalità della DP,
+ * tipo di transizione, budget di tempo), così le firme del motore non crescono ad ogni nuova opzione.
+ * I valori di default riproducono il comportamento storico del sistema.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class SolverOptions {
+
+    /**
+     * La modalità di esecuzione della DP (default: ricorsiva).
+     */
+    private SolverMode mode = SolverMode.RECURSIVE;
+
+    /**
+     * La strategia di valutazione delle transizioni (default: esaustiva).
+     */
+    private TransitionMode transition = TransitionMode.BRUTE_FORCE;
+
+    /**
+     * Budget di tempo in millisecondi (default: 0, nessun limite). Allo scadere il motore restituisce
+     * le migliori strategie trovate fino a quel momento, segnalando il risultato come parziale.
+     */
+    private long budgetMs = 0;
+
+    /**
+     * Le condizioni della gara giro per giro (default: nessun effetto, costo indipendente dal giro).
+     */
+    private RaceConditions raceConditions = new RaceConditions();
+
+    /**
+     * Costruttore vuoto: opzioni di default.
+     */
+    public SolverOptions() {}
+
+    /**
+     * Costruttore completo.
+     *
+     * @param mode       La modalità di esecuzione della DP.
+     * @param transition La strategia di valutazione delle transizioni.
+     */
+    public SolverOptions(SolverMode mode, TransitionMode transition) {
+        this.mode = mode;
+        this.transition = transition;
+    }
+
+    // Getters e Setters
+
+    /**
+     * Restituisce la modalità di esecuzione della DP.
+     * @return La modalità.
+     */
+    public SolverMode getMode() { return mode; }
+
+    /**
+     * Imposta la modalità di esecuzione della DP.
+     * @param mode La modalità.
+     */
+    public void setMode(SolverMode mode) { this.mode = mode; }
+
+    /**
+     * Restituisce la strategia di valutazione delle transizioni.
+     * @return La strategia di transizione.
+     */
+    public TransitionMode getTransition() { return transition; }
+
+    /**
+     * Imposta la strategia di valutazione delle transizioni.
+     * @param transition La strategia di transizione.
+     */
+    public void setTransition(TransitionMode transition) { this.transition = transition; }
+
+    /**
+     * Restituisce il budget di tempo del calcolo.
+     * @return Il budget in millisecondi (0 = nessun limite).
+     */
+    public long getBudgetMs() { return budgetMs; }
+
+    /**
+     * Imposta il budget di tempo del calcolo.
+     * @param budgetMs Il budget in millisecondi (0 = nessun limite).
+     */
+    public void setBudgetMs(long budgetMs) { this.budgetMs = budgetMs; }
+
+    /**
+     * Restituisce le condizioni della gara giro per giro.
+     * @return Le condizioni (carburante e gommatura della pista).
+     */
+    public RaceConditions getRaceConditions() { return raceConditions; }
+
+    /**
+     * Imposta le condizioni della gara giro per giro.
+     * @param raceConditions Le condizioni (carburante e gommatura della pista).
+     */
+    public void setRaceConditions(RaceConditions raceConditions) { this.raceConditions = raceConditions; }
+}
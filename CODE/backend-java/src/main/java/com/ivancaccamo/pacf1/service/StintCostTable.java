@@ -0,0 +1,312 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+
+import java.util.List;
+
+/**
+ * Tabella precalcolata dei costi degli stint, costruita una sola volta per ogni richiesta.
+ * <p>
+ * Per ogni mescola conserva le <b>somme prefisse</b> dei tempi sul giro: la cella {@code [t][n]}
+ * contiene il tempo totale per percorrere {@code n} giri con la mescola {@code t} partendo da gomme nuove.
+ * In questo modo il motore di ottimizzazione legge il costo di qualsiasi stint in O(1),
+ * invece di simulare il degrado giro per giro ad ogni transizione della DP.
+ * </p>
+ * <p>
+ * La tabella è costruita a partire dai tempi sul giro in funzione dell'età della gomma,
+ * quindi funziona per qualsiasi curva di degrado (non solo quella lineare).
+ * </p>
+ * <p>
+ * Con le {@link RaceConditions} (carburante e gommatura della pista) il costo di uno stint dipende anche
+ * dal giro in cui inizia: la tabella diventa bidimensionale, con una riga di somme prefisse per ogni giro
+ * di partenza ({@link #costsFor(int, int)}). Ogni riga è ancora un array contiguo indicizzato per durata,
+ * quindi una transizione della DP costa esattamente come con il modello indipendente dal giro.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+public class StintCostTable {
+
+    /**
+     * Somme prefisse dei tempi sul giro: {@code costs[t][n]} = tempo di uno stint di {@code n} giri con la mescola {@code t}.
+     */
+    private final double[][] costs;
+
+    /**
+     * Per i modelli dipendenti dal giro, {@code rowsByStart[t][s][n]} = tempo di uno stint di {@code n} giri
+     * con la mescola {@code t} che inizia dopo il giro {@code s}; {@code null} se il costo non dipende dal giro.
+     */
+    private final double[][][] rowsByStart;
+
+    /**
+     * Tolleranza relativa con cui i tempi sul giro vengono riconosciuti come lineari nell'età della gomma.
+     */
+    private static final double LINEARITY_TOLERANCE = 1e-9;
+
+    /**
+     * Per ogni mescola, {@code true} se il tempo sul giro cresce linearmente con l'età della gomma
+     * (e quindi il costo di uno stint è una funzione quadratica della sua durata).
+     */
+    private final boolean[] linear;
+
+    /**
+     * Per ogni mescola, il tempo del primo giro con gomma nuova.
+     */
+    private final double[] firstLapTimes;
+
+    /**
+     * Per ogni mescola lineare, l'incremento del tempo sul giro per ogni giro di usura.
+     */
+    private final double[] degradationSteps;
+
+    /**
+     * Costruisce la tabella a partire dai tempi sul giro di ogni mescola.
+     *
+     * @param lapTimes {@code lapTimes[t][a]} = tempo del giro percorso con la mescola {@code t}
+     *                 quando la gomma ha già {@code a} giri di usura.
+     */
+    public StintCostTable(double[][] lapTimes) {
+        this.costs = new double[lapTimes.length][];
+        this.rowsByStart = null;
+        this.linear = new boolean[lapTimes.length];
+        this.firstLapTimes = new double[lapTimes.length];
+        this.degradationSteps = new double[lapTimes.length];
+        for (int t = 0; t < lapTimes.length; t++) {
+            double[] prefix = new double[lapTimes[t].length + 1];
+            for (int a = 0; a < lapTimes[t].length; a++) {
+                prefix[a + 1] = prefix[a] + lapTimes[t][a];
+            }
+            costs[t] = prefix;
+            detectLinearity(t, lapTimes[t]);
+        }
+    }
+
+    /**
+     * Costruisce una tabella dipendente dal giro a partire dalle righe di somme prefisse per giro di partenza.
+     * Nessuna mescola è considerata lineare: il costo non è una funzione della sola durata.
+     *
+     * @param rowsByStart {@code rowsByStart[t][s][n]} = tempo di {@code n} giri con la mescola {@code t} dopo il giro {@code s}.
+     */
+    private StintCostTable(double[][][] rowsByStart) {
+        this.rowsByStart = rowsByStart;
+        this.costs = new double[rowsByStart.length][];
+        this.linear = new boolean[rowsByStart.length];
+        this.firstLapTimes = new double[rowsByStart.length];
+        this.degradationSteps = new double[rowsByStart.length];
+        for (int t = 0; t < rowsByStart.length; t++) costs[t] = rowsByStart[t][0];
+    }
+
+    /**
+     * Verifica se i tempi sul giro di una mescola sono lineari nell'età della gomma
+     * e, in caso affermativo, ne salva tempo iniziale e pendenza.
+     *
+     * @param t        L'indice della mescola.
+     * @param lapTimes I tempi sul giro della mescola, indicizzati per età.
+     */
+    private void detectLinearity(int t, double[] lapTimes) {
+        if (lapTimes.length == 0) {
+            linear[t] = true;
+            return;
+        }
+        double first = lapTimes[0];
+        double step = lapTimes.length > 1 ? lapTimes[1] - lapTimes[0] : 0.0;
+        boolean isLinear = true;
+        for (int a = 2; a < lapTimes.length && isLinear; a++) {
+            double expected = first + a * step;
+            isLinear = Math.abs(lapTimes[a] - expected) <= LINEARITY_TOLERANCE * Math.max(1.0, Math.abs(expected));
+        }
+        linear[t] = isLinear;
+        firstLapTimes[t] = first;
+        degradationSteps[t] = step;
+    }
+
+    /**
+     * Crea la tabella per il modello di degrado lineare predetto dal servizio ML.
+     * <p>
+     * Modello lineare: Tempo(giro i) = BaseTime + (i * DegradationRate).
+     * Il degrado viene accumulato giro per giro, come nella simulazione originale.
+     * </p>
+     *
+     * @param tyres   Le predizioni delle mescole disponibili.
+     * @param maxLaps La durata massima di uno stint (tipicamente i giri totali della gara).
+     * @return La tabella dei costi pronta per la DP.
+     */
+    public static StintCostTable linear(List<TyrePrediction> tyres, int maxLaps) {
+        double[][] lapTimes = new double[tyres.size()][maxLaps];
+        for (int t = 0; t < tyres.size(); t++) {
+            TyrePrediction tyre = tyres.get(t);
+            double currentLapTime = tyre.getBase_time();
+            for (int a = 0; a < maxLaps; a++) {
+                lapTimes[t][a] = currentLapTime;
+                currentLapTime += tyre.getDegradation_rate();
+            }
+        }
+        return new StintCostTable(lapTimes);
+    }
+
+    /**
+     * Crea la tabella compilando il {@link DegradationModel} di ogni mescola.
+     * <p>
+     * Ogni modello viene valutato una sola volta per età della gomma: la DP legge poi solo le somme prefisse,
+     * con lo stesso costo per transizione qualunque sia la curva di degrado. Senza modelli specificati
+     * il risultato coincide con {@link #linear}.
+     * </p>
+     *
+     * @param tyres   Le predizioni delle mescole disponibili.
+     * @param maxLaps La durata massima di uno stint (tipicamente i giri totali della gara).
+     * @return La tabella dei costi pronta per la DP.
+     * @throws IllegalArgumentException se il modello di degrado di una mescola non è valido.
+     */
+    public static StintCostTable compile(List<TyrePrediction> tyres, int maxLaps) {
+        double[][] lapTimes = new double[tyres.size()][];
+        for (int t = 0; t < tyres.size(); t++) {
+            TyrePrediction tyre = tyres.get(t);
+            lapTimes[t] = DegradationModel.forTyre(tyre).compile(tyre, maxLaps);
+        }
+        return new StintCostTable(lapTimes);
+    }
+
+    /**
+     * Crea la tabella di una gara con le condizioni giro per giro (carburante e gommatura della pista).
+     * <p>
+     * Senza effetti del giro restituisce la tabella compilata ({@link #compile}); altrimenti calcola per ogni
+     * mescola e giro di partenza la riga delle somme prefisse, seguendo il modello di {@link RaceConditions}
+     * applicato agli incrementi della curva di degrado della mescola. Le righe sono O(giri^2 / 2) valori
+     * per mescola, calcolati una sola volta per richiesta.
+     * </p>
+     *
+     * @param tyres      Le predizioni delle mescole disponibili.
+     * @param totalLaps  Il numero totale di giri della gara.
+     * @param conditions Le condizioni della gara, oppure {@code null}.
+     * @return La tabella dei costi pronta per la DP.
+     */
+    public static StintCostTable forRace(List<TyrePrediction> tyres, int totalLaps, RaceConditions conditions) {
+        if (conditions == null || !conditions.isLapDependent()) return compile(tyres, totalLaps);
+
+        double[][][] rows = new double[tyres.size()][totalLaps + 1][];
+        for (int t = 0; t < tyres.size(); t++) {
+            TyrePrediction tyre = tyres.get(t);
+            // Curva di degrado della mescola: il carburante scala l'incremento di ogni giro di usura
+            DegradationModel model = DegradationModel.forTyre(tyre);
+            double firstLapTime = model.lapTime(tyre.getBase_time(), tyre.getDegradation_rate(), 0);
+            double[] wearSteps = model.wearSteps(tyre, totalLaps);
+            for (int start = 0; start <= totalLaps; start++) {
+                double[] row = new double[totalLaps - start + 1];
+                double wear = 0.0;
+                for (int n = 1; n < row.length; n++) {
+                    int lap = start + n;
+                    row[n] = row[n - 1] + firstLapTime + wear + conditions.lapOffset(lap);
+                    wear += wearSteps[n - 1] * conditions.wearMultiplier(lap, totalLaps);
+                }
+                rows[t][start] = row;
+            }
+        }
+        return new StintCostTable(rows);
+    }
+
+    /**
+     * Restituisce il tempo totale di uno stint che inizia dopo il giro {@code startLap}.
+     *
+     * @param tyreIndex L'indice della mescola.
+     * @param startLap  L'ultimo giro percorso prima dello stint (0 per il primo stint).
+     * @param laps      Il numero di giri dello stint.
+     * @return Il tempo totale in secondi.
+     */
+    public double stintTime(int tyreIndex, int startLap, int laps) {
+        return costsFor(tyreIndex, startLap)[laps];
+    }
+
+    /**
+     * Restituisce la riga delle somme prefisse degli stint che iniziano dopo il giro {@code startLap}
+     * (indicizzata per numero di giri). Se il costo non dipende dal giro è la riga di {@link #costsFor(int)}.
+     * L'array non va modificato.
+     *
+     * @param tyreIndex L'indice della mescola.
+     * @param startLap  L'ultimo giro percorso prima dello stint (0 per il primo stint).
+     * @return Le somme prefisse dei tempi sul giro.
+     */
+    public double[] costsFor(int tyreIndex, int startLap) {
+        return rowsByStart == null ? costs[tyreIndex] : rowsByStart[tyreIndex][startLap];
+    }
+
+    /**
+     * Indica se il costo di uno stint dipende dal giro in cui inizia.
+     *
+     * @return {@code true} per le tabelle create con condizioni di gara dipendenti dal giro.
+     */
+    public boolean isLapDependent() {
+        return rowsByStart != null;
+    }
+
+    /**
+     * Restituisce il tempo totale di uno stint (per le tabelle dipendenti dal giro, uno stint dal via).
+     *
+     * @param tyreIndex L'indice della mescola.
+     * @param laps      Il numero di giri dello stint.
+     * @return Il tempo totale in secondi.
+     */
+    public double stintTime(int tyreIndex, int laps) {
+        return costs[tyreIndex][laps];
+    }
+
+    /**
+     * Restituisce l'intera riga delle somme prefisse di una mescola (indicizzata per numero di giri);
+     * per le tabelle dipendenti dal giro è la riga degli stint dal via. L'array non va modificato.
+     *
+     * @param tyreIndex L'indice della mescola.
+     * @return Le somme prefisse dei tempi sul giro.
+     */
+    public double[] costsFor(int tyreIndex) {
+        return costs[tyreIndex];
+    }
+
+    /**
+     * Indica se tutte le mescole hanno degrado lineare, cioè se il costo di ogni stint
+     * è la funzione quadratica {@code n * T0 + D * n * (n - 1) / 2} della durata {@code n}.
+     *
+     * @return {@code true} se il modello di costo è quadratico per tutte le mescole.
+     */
+    public boolean isQuadratic() {
+        for (boolean l : linear) {
+            if (!l) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Restituisce il tempo del primo giro con gomma nuova ({@code T0}).
+     *
+     * @param tyreIndex L'indice della mescola.
+     * @return Il tempo in secondi.
+     */
+    public double getFirstLapTime(int tyreIndex) {
+        return firstLapTimes[tyreIndex];
+    }
+
+    /**
+     * Restituisce l'incremento del tempo sul giro per ogni giro di usura ({@code D}).
+     * Significativo solo se {@link #isQuadratic()} è vero.
+     *
+     * @param tyreIndex L'indice della mescola.
+     * @return Il degrado in secondi per giro.
+     */
+    public double getDegradationStep(int tyreIndex) {
+        return degradationSteps[tyreIndex];
+    }
+
+    /**
+     * Restituisce il numero di mescole presenti nella tabella.
+     * @return Il numero di mescole.
+     */
+    public int getTyreCount() {
+        return costs.length;
+    }
+
+    /**
+     * Restituisce la durata massima di uno stint coperta dalla tabella.
+     * @return Il numero massimo di giri.
+     */
+    public int getMaxLaps() {
+        return costs.length == 0 ? 0 : costs[0].length - 1;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Kernel di calcolo del ciclo più interno della DP a soluzione singola ({@code topK = 1}).
+ * <p>
+ * Per uno stato e una mescola, la DP cerca la durata dello stint che minimizza
+ * {@code costo[durata] + pit + valore[giro + durata]}: con le tabelle dense entrambi gli operandi
+ * sono array contigui, quindi la ricerca è una riduzione di minimo su doppi consecutivi.
+ * Tutte le implementazioni devono restituire esattamente lo stesso risultato della versione scalare
+ * (stesse operazioni in virgola mobile, primo indice a parità di minimo).
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+interface StintKernel {
+
+    /**
+     * Trova la prima posizione che minimizza {@code (costs[costOffset + i] + pitCost) + values[valueOffset + i]}.
+     *
+     * @param costs       I costi degli stint (somme prefisse della mescola).
+     * @param costOffset  La posizione del primo costo da considerare.
+     * @param pitCost     Il costo del pit-stop da aggiungere ad ogni candidato.
+     * @param values      I valori degli stati di arrivo (tabella {@code memo} con {@code topK = 1}).
+     * @param valueOffset La posizione del primo valore da considerare.
+     * @param length      Il numero di candidati.
+     * @return L'indice {@code i} (tra 0 e {@code length - 1}) del primo minimo, oppure -1 se {@code length <= 0}.
+     */
+    int firstArgMin(double[] costs, int costOffset, double pitCost, double[] values, int valueOffset, int length);
+
+    /**
+     * Sceglie il kernel da usare all'avvio del motore.
+     * <p>
+     * Il kernel vettoriale viene usato solo se richiesto, se il modulo {@code jdk.incubator.vector}
+     * è stato abilitato nella JVM ({@code --add-modules jdk.incubator.vector}) e se la classe è stata
+     * compilata (profilo Maven {@code vector}); altrimenti si usa quello scalare. La classe vettoriale
+     * viene caricata per riflessione, così senza il modulo non viene mai collegata.
+     * </p>
+     *
+     * @param vectorRequested {@code true} se è stata richiesta l'implementazione SIMD.
+     * @return Il kernel selezionato.
+     */
+    static StintKernel select(boolean vectorRequested) {
+        return select(vectorRequested, ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+    }
+
+    /**
+     * Sceglie il kernel conoscendo già la disponibilità del modulo (usato anche dai test).
+     *
+     * @param vectorRequested {@code true} se è stata richiesta l'implementazione SIMD.
+     * @param moduleAvailable {@code true} se il modulo {@code jdk.incubator.vector} è presente nella JVM.
+     * @return Il kernel selezionato.
+     */
+    static StintKernel select(boolean vectorRequested, boolean moduleAvailable) {
+        if (!vectorRequested) return new ScalarStintKernel();
+        if (!moduleAvailable) {
+            System.out.println("Modulo jdk.incubator.vector non abilitato: uso il kernel scalare");
+            return new ScalarStintKernel();
+        }
+        try {
+            StintKernel kernel = (StintKernel) Class.forName("com.ivancaccamo.pacf1.service.VectorStintKernel")
+                    .getDeclaredConstructor().newInstance();
+            System.out.println("Kernel SIMD attivo: " + kernel);
+            return kernel;
+        } catch (ClassNotFoundException e) {
+            System.out.println("Kernel SIMD non compilato (profilo Maven vector): uso il kernel scalare");
+            return new ScalarStintKernel();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("Errore caricamento kernel SIMD, uso il kernel scalare: " + e.getMessage());
+            return new ScalarStintKernel();
+        }
+    }
+}
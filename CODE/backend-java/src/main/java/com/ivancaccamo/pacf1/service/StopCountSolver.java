@@ -0,0 +1,256 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.Stint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * DP in avanti con la dimensione aggiuntiva del <b>numero di soste</b>, pensata per le analisi "what-if".
+ * <p>
+ * Per ogni stato (soste, maschera esatta delle mescole usate, giro) la tabella conserva il minimo
+ * <b>tempo di guida</b> (senza le perdite ai box) per arrivare a quel giro con uno stint che termina lì.
+ * Poiché la perdita ai box è la stessa per ogni sosta, il tempo totale di una strategia con {@code s}
+ * soste è {@code tempoDiGuida + s * pitLoss}: cambiare la perdita ai box non richiede alcun ricalcolo,
+ * basta riordinare le migliori soluzioni per numero di soste.
+ * </p>
+ * <p>
+ * Lo stato con maschera {@code M} dipende solo da stati con maschere contenute in {@code M}:
+ * quando cambia la predizione di una mescola {@code c} vengono ricalcolati solo gli stati
+ * la cui maschera contiene {@code c}, mentre gli altri restano validi.
+ * </p>
+ * <p>
+ * Le regole sono quelle di {@link OptimizationEngine}: stint successivi al primo di almeno
+ * {@link OptimizationEngine#MIN_STINT_LAPS} giri e almeno due mescole diverse. Il lavoro è
+ * O(soste * maschere * mescole * giri^2), quindi il numero massimo di soste va limitato.
+ * La classe non è thread-safe: l'accesso va sincronizzato dal chiamante.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class StopCountSolver {
+
+    private final int totalLaps;
+    private final int maxStops;
+    private final int tyreCount;
+    private final int maskCount;
+
+    /**
+     * Le predizioni correnti (copia modificabile).
+     */
+    private final List<TyrePrediction> tyres;
+
+    /**
+     * I costi degli stint per le predizioni correnti.
+     */
+    private StintCostTable costs;
+
+    /**
+     * Minimo tempo di guida per ogni stato (soste, maschera, giro).
+     */
+    private final double[] best;
+
+    /**
+     * L'ultimo stint (mescola, giri) della soluzione migliore di ogni stato.
+     */
+    private final int[] decisions;
+
+    /**
+     * La maschera dello stato precedente all'ultimo stint.
+     */
+    private final int[] previousMasks;
+
+    /**
+     * Costruisce e risolve la tabella.
+     *
+     * @param totalLaps Il numero totale di giri della gara.
+     * @param tyres     Le predizioni delle mescole disponibili.
+     * @param maxStops  Il numero massimo di soste considerato.
+     */
+    StopCountSolver(int totalLaps, List<TyrePrediction> tyres, int maxStops) {
+        this.totalLaps = totalLaps;
+        this.tyres = new ArrayList<>(tyres);
+        this.tyreCount = tyres.size();
+        this.maskCount = 1 << tyreCount;
+        // Con stint di almeno MIN_STINT_LAPS giri non servono più soste di così
+        this.maxStops = Math.max(0, Math.min(maxStops, (totalLaps - 1) / OptimizationEngine.MIN_STINT_LAPS));
+
+        int size = (this.maxStops + 1) * maskCount * (totalLaps + 1);
+        this.best = new double[size];
+        this.decisions = new int[size];
+        this.previousMasks = new int[size];
+        this.costs = StintCostTable.compile(this.tyres, totalLaps);
+        recompute(-1);
+    }
+
+    /**
+     * Restituisce il numero massimo di soste considerato dalla tabella.
+     *
+     * @return Il numero massimo di soste.
+     */
+    int getMaxStops() {
+        return maxStops;
+    }
+
+    /**
+     * Restituisce le predizioni correnti.
+     *
+     * @return Le predizioni, nell'ordine delle mescole.
+     */
+    List<TyrePrediction> getTyres() {
+        return tyres;
+    }
+
+    /**
+     * Sostituisce la predizione di una mescola e ricalcola solo gli stati che la usano.
+     *
+     * @param tyreIndex  L'indice della mescola.
+     * @param prediction La nuova predizione.
+     */
+    void updateTyre(int tyreIndex, TyrePrediction prediction) {
+        tyres.set(tyreIndex, prediction);
+        costs = StintCostTable.compile(tyres, totalLaps);
+        recompute(tyreIndex);
+    }
+
+    private int index(int stops, int mask, int lap) {
+        return (stops * maskCount + mask) * (totalLaps + 1) + lap;
+    }
+
+    /**
+     * Ricalcola gli stati in ordine di giro crescente (i predecessori sono sempre a giri precedenti).
+     *
+     * @param changedTyre La mescola modificata, oppure -1 per ricalcolare tutto.
+     */
+    private void recompute(int changedTyre) {
+        for (int lap = 1; lap <= totalLaps; lap++) {
+            for (int mask = 1; mask < maskCount; mask++) {
+                // Gli stati che non usano la mescola modificata non cambiano
+                if (changedTyre >= 0 && (mask & (1 << changedTyre)) == 0) continue;
+                for (int stops = 0; stops <= maxStops; stops++) {
+                    relax(lap, mask, stops);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcola uno stato scegliendo il miglior ultimo stint.
+     */
+    private void relax(int lap, int mask, int stops) {
+        int state = index(stops, mask, lap);
+        double bestTime = OptimizationEngine.INFINITY;
+        decisions[state] = SolverContext.NO_DECISION;
+        previousMasks[state] = 0;
+
+        // Con "stops" soste servono almeno 1 + stops * MIN_STINT_LAPS giri: prima lo stato è irraggiungibile
+        int firstReachableLap = 1 + stops * OptimizationEngine.MIN_STINT_LAPS;
+        if (lap < firstReachableLap) {
+            best[state] = bestTime;
+            return;
+        }
+        // L'ultimo stint non può iniziare prima che lo stato precedente (una sosta in meno) sia raggiungibile
+        int maxLastStint = lap - (firstReachableLap - OptimizationEngine.MIN_STINT_LAPS);
+
+        for (int t = 0; t < tyreCount; t++) {
+            int bit = 1 << t;
+            if ((mask & bit) == 0) continue;
+
+            if (stops == 0) {
+                // Primo stint: parte dal via con la sola mescola t
+                double time = costs.costsFor(t)[lap];
+                if (mask == bit && time < bestTime) {
+                    bestTime = time;
+                    decisions[state] = SolverContext.packDecision(t, lap);
+                }
+                continue;
+            }
+
+            // Stint successivo: prima di montare t la maschera era la stessa oppure non conteneva ancora t
+            bestTime = relaxFrom(state, stops, mask, t, lap, maxLastStint, bestTime);
+            bestTime = relaxFrom(state, stops, mask & ~bit, t, lap, maxLastStint, bestTime);
+        }
+        best[state] = bestTime;
+    }
+
+    /**
+     * Prova tutti gli ultimi stint con la mescola {@code t} a partire dagli stati con {@code previousMask}
+     * e una sosta in meno, aggiornando la decisione dello stato se trova un tempo migliore.
+     *
+     * @return Il miglior tempo trovato finora per lo stato.
+     */
+    private double relaxFrom(int state, int stops, int previousMask, int t, int lap, int maxLastStint, double bestTime) {
+        if (previousMask == 0) return bestTime;
+        double[] stintCosts = costs.costsFor(t);
+        for (int laps = OptimizationEngine.MIN_STINT_LAPS; laps <= maxLastStint; laps++) {
+            double time = best[index(stops - 1, previousMask, lap - laps)] + stintCosts[laps];
+            if (time < bestTime) {
+                bestTime = time;
+                decisions[state] = SolverContext.packDecision(t, laps);
+                previousMasks[state] = previousMask;
+            }
+        }
+        return bestTime;
+    }
+
+    /**
+     * Restituisce la strategia migliore per ogni numero di soste (da 1 al massimo), ordinate per tempo totale.
+     *
+     * @param pitLoss Il tempo perso per ogni pit-stop.
+     * @return Una strategia per ogni numero di soste realizzabile.
+     */
+    List<RaceStrategy> bestPerStopCount(double pitLoss) {
+        return bestPerStopCount(pitLoss, 1, maxStops);
+    }
+
+    /**
+     * Restituisce la strategia migliore per ogni numero di soste in un intervallo, ordinate per tempo totale.
+     *
+     * @param pitLoss  Il tempo perso per ogni pit-stop.
+     * @param minStops Il numero minimo di soste.
+     * @param maxStops Il numero massimo di soste (limitato a quello della tabella).
+     * @return Una strategia per ogni numero di soste realizzabile nell'intervallo.
+     */
+    List<RaceStrategy> bestPerStopCount(double pitLoss, int minStops, int maxStops) {
+        List<RaceStrategy> strategies = new ArrayList<>();
+        for (int stops = Math.max(0, minStops); stops <= Math.min(maxStops, this.maxStops); stops++) {
+            // Miglior maschera finale con almeno due mescole (regola delle due mescole)
+            int bestMask = -1;
+            for (int mask = 1; mask < maskCount; mask++) {
+                if (Integer.bitCount(mask) < 2) continue;
+                double time = best[index(stops, mask, totalLaps)];
+                if (time < OptimizationEngine.INFINITY
+                        && (bestMask < 0 || time < best[index(stops, bestMask, totalLaps)])) {
+                    bestMask = mask;
+                }
+            }
+            if (bestMask >= 0) strategies.add(reconstruct(stops, bestMask, pitLoss));
+        }
+        strategies.sort(Comparator.comparingDouble(RaceStrategy::getTotalTime));
+        return strategies;
+    }
+
+    /**
+     * Ricostruisce la strategia di uno stato finale seguendo a ritroso gli ultimi stint.
+     */
+    private RaceStrategy reconstruct(int stops, int mask, double pitLoss) {
+        RaceStrategy strategy = new RaceStrategy();
+        strategy.setTotalTime(best[index(stops, mask, totalLaps)] + stops * pitLoss);
+        strategy.setPitStops(stops);
+
+        int lap = totalLaps;
+        while (lap > 0) {
+            int state = index(stops, mask, lap);
+            int tyreIndex = SolverContext.decisionTyre(decisions[state]);
+            int laps = SolverContext.decisionLaps(decisions[state]);
+            strategy.getStints().add(0, new Stint(tyres.get(tyreIndex).getCompound(), lap - laps + 1, lap));
+            mask = previousMasks[state];
+            lap -= laps;
+            stops--;
+        }
+        return strategy;
+    }
+}
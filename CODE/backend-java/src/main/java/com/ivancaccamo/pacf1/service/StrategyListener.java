@@ -0,0 +1,21 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+
+import java.util.List;
+
+/**
+ * Destinatario dei risultati intermedi di un calcolo di {@link OptimizationEngine}.
+ *
+ * @author Team SPS-F1
+ */
+@FunctionalInterface
+public interface StrategyListener {
+
+    /**
+     * Riceve la lista aggiornata delle migliori strategie trovate finora.
+     *
+     * @param strategies Le strategie, ordinate per tempo totale crescente.
+     */
+    void onUpdate(List<RaceStrategy> strategies);
+}
@@ -0,0 +1,157 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache condivisa delle tabelle complete della DP, riusate tra richieste diverse.
+ * <p>
+ * Il valore di uno stato dipende solo da (predizioni, maschera, giri rimanenti) e non dal numero totale
+ * di giri: per ogni combinazione di predizioni (e parametri della tabella) basta quindi conservare la tabella
+ * della gara più lunga vista finora, che contiene come sottotabella ({@link SolverContext#suffixView(int)})
+ * quelle di tutte le gare più corte. Sprint e gara completa, o uno sweep sul numero di giri, condividono
+ * così lo stesso calcolo; una richiesta più lunga sostituisce la tabella con una che copre entrambe.
+ * </p>
+ * <p>
+ * Le tabelle vengono pubblicate solo dopo essere state riempite e da quel momento sono di sola lettura,
+ * quindi possono essere lette da più thread contemporaneamente; la mappa è sincronizzata e la risoluzione
+ * di una tabella mancante avviene fuori dal lock. La dimensione è limitata dal numero totale di soluzioni
+ * parziali conservate (circa 16 byte ciascuna): oltre il limite vengono scartate le tabelle usate meno di recente.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class SuffixTableCache {
+
+    /**
+     * Numero massimo di default di soluzioni parziali conservate (circa 16 MB).
+     */
+    static final long DEFAULT_MAX_SLOTS = 1_000_000;
+
+    /**
+     * Chiave di una tabella: predizioni e parametri che ne determinano il contenuto.
+     */
+    private record Key(String predictions, int topK, TransitionMode transition) {}
+
+    /**
+     * Tabelle in ordine di accesso (la prima è quella usata meno di recente).
+     */
+    private final LinkedHashMap<Key, SolverContext> tables = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long maxSlots = DEFAULT_MAX_SLOTS;
+    private long cachedSlots;
+
+    /**
+     * Calcola l'impronta delle predizioni: predizioni con la stessa impronta producono la stessa tabella.
+     * Comprende il {@link DegradationModel} di ogni mescola, descritto dal suo {@code toString()}.
+     *
+     * @param tyres Le predizioni delle mescole, nell'ordine usato dalle maschere.
+     * @return L'impronta testuale delle predizioni.
+     */
+    static String fingerprint(List<TyrePrediction> tyres) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (TyrePrediction tyre : tyres) {
+            fingerprint.append(tyre.getCompound()).append(':').append(tyre.getBase_time())
+                    .append(':').append(tyre.getDegradation_rate())
+                    .append(':').append(DegradationModel.forTyre(tyre)).append(';');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Imposta il numero massimo di soluzioni parziali conservate (0 disattiva la cache).
+     *
+     * @param maxSlots Il limite, in soluzioni parziali.
+     */
+    synchronized void setMaxSlots(long maxSlots) {
+        this.maxSlots = Math.max(0, maxSlots);
+        evict();
+    }
+
+    /**
+     * Indica se la cache è attiva.
+     *
+     * @return {@code false} se il limite è 0.
+     */
+    synchronized boolean isEnabled() {
+        return maxSlots > 0;
+    }
+
+    /**
+     * Cerca una tabella che copra una gara di {@code totalLaps} giri.
+     *
+     * @param tyres      Le predizioni delle mescole.
+     * @param totalLaps  Il numero totale di giri della gara.
+     * @param topK       Il numero di soluzioni per stato.
+     * @param transition La valutazione delle transizioni usata per riempire la tabella.
+     * @return La sottotabella della gara (sola lettura), oppure {@code null} se non presente.
+     */
+    synchronized SolverContext lookup(List<TyrePrediction> tyres, int totalLaps, int topK, TransitionMode transition) {
+        SolverContext table = tables.get(new Key(fingerprint(tyres), topK, transition));
+        if (table == null || table.totalLaps < totalLaps) return null;
+        return table.suffixView(totalLaps);
+    }
+
+    /**
+     * Restituisce il numero di giri della tabella conservata (0 se assente), così una nuova tabella
+     * può essere risolta abbastanza lunga da sostituirla.
+     *
+     * @param tyres      Le predizioni delle mescole.
+     * @param topK       Il numero di soluzioni per stato.
+     * @param transition La valutazione delle transizioni.
+     * @return Il numero di giri coperti.
+     */
+    synchronized int coveredLaps(List<TyrePrediction> tyres, int topK, TransitionMode transition) {
+        SolverContext table = tables.get(new Key(fingerprint(tyres), topK, transition));
+        return table == null ? 0 : table.totalLaps;
+    }
+
+    /**
+     * Pubblica una tabella completa; sostituisce quella conservata solo se copre più giri.
+     *
+     * @param table      La tabella, con tutti gli stati risolti (non va più modificata).
+     * @param transition La valutazione delle transizioni usata per riempirla.
+     */
+    synchronized void store(SolverContext table, TransitionMode transition) {
+        long slots = slots(table);
+        if (slots > maxSlots) return; // Da sola supera il limite: non la conserviamo
+
+        Key key = new Key(fingerprint(table.tyres), table.topK, transition);
+        SolverContext current = tables.get(key);
+        if (current != null) {
+            if (current.totalLaps >= table.totalLaps) return;
+            cachedSlots -= slots(current);
+        }
+        tables.put(key, table);
+        cachedSlots += slots;
+        evict();
+    }
+
+    /**
+     * Scarta le tabelle usate meno di recente finché la cache rientra nel limite.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Key, SolverContext>> eldest = tables.entrySet().iterator();
+        while (cachedSlots > maxSlots && eldest.hasNext()) {
+            cachedSlots -= slots(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    private static long slots(SolverContext table) {
+        return table.memo.length;
+    }
+
+    /**
+     * Restituisce il numero di tabelle conservate.
+     *
+     * @return Il numero di tabelle.
+     */
+    synchronized int size() {
+        return tables.size();
+    }
+}
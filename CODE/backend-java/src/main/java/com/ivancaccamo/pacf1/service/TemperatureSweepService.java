@@ -0,0 +1,153 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.ScenarioResult;
+import com.ivancaccamo.pacf1.model.Stint;
+import com.ivancaccamo.pacf1.model.StrategyScenario;
+import com.ivancaccamo.pacf1.model.TemperatureSweep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Servizio per l'analisi di sensibilità della strategia ottima alle temperature.
+ * <p>
+ * Ogni cella della griglia temperatura aria x temperatura pista diventa uno scenario di
+ * {@link BatchStrategyService}: le chiamate al servizio ML partono in parallelo e le celle
+ * per cui il modello predice lo stesso degrado condividono un unico calcolo della DP.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+@Service
+public class TemperatureSweepService {
+
+    /**
+     * Tolleranza sul numero di passi della griglia, per non perdere l'estremo superiore per errori di arrotondamento.
+     */
+    private static final double STEP_TOLERANCE = 1e-9;
+
+    private final BatchStrategyService batchService;
+
+    /**
+     * Costruisce il servizio.
+     *
+     * @param batchService Il servizio di calcolo batch.
+     */
+    @Autowired
+    public TemperatureSweepService(BatchStrategyService batchService) {
+        this.batchService = batchService;
+    }
+
+    /**
+     * Restituisce il numero di valori di un intervallo con passo costante, estremi inclusi.
+     *
+     * @param min  Il valore minimo.
+     * @param max  Il valore massimo (almeno {@code min}).
+     * @param step Il passo (positivo).
+     * @return Il numero di valori della griglia.
+     */
+    public static long rangeSize(double min, double max, double step) {
+        return (long) Math.floor((max - min) / step + STEP_TOLERANCE) + 1;
+    }
+
+    /**
+     * Verifica che la griglia delle temperature sia valida e non superi il numero massimo di celle.
+     * <p>
+     * Ogni asse viene confrontato con il limite prima del prodotto, che così non può andare in overflow.
+     * </p>
+     *
+     * @param airMin    La temperatura minima dell'aria.
+     * @param airMax    La temperatura massima dell'aria.
+     * @param airStep   Il passo della temperatura dell'aria.
+     * @param trackMin  La temperatura minima della pista.
+     * @param trackMax  La temperatura massima della pista.
+     * @param trackStep Il passo della temperatura della pista.
+     * @param maxCells  Il numero massimo di celle.
+     * @return {@code true} se estremi e passi sono validi e le celle sono al più {@code maxCells}.
+     */
+    public static boolean isValidGrid(double airMin, double airMax, double airStep,
+                                      double trackMin, double trackMax, double trackStep, int maxCells) {
+        if (!Double.isFinite(airMin) || !Double.isFinite(airMax) || !Double.isFinite(trackMin) || !Double.isFinite(trackMax)
+                || !(airStep > 0) || !(trackStep > 0) || airMax < airMin || trackMax < trackMin) {
+            return false;
+        }
+        long airCells = rangeSize(airMin, airMax, airStep);
+        long trackCells = rangeSize(trackMin, trackMax, trackStep);
+        return airCells <= maxCells && trackCells <= maxCells && airCells * trackCells <= maxCells;
+    }
+
+    /**
+     * Restituisce i valori di un intervallo con passo costante, estremi inclusi.
+     *
+     * @param min  Il valore minimo.
+     * @param max  Il valore massimo (almeno {@code min}).
+     * @param step Il passo (positivo).
+     * @return I valori della griglia.
+     * @throws IllegalArgumentException se la griglia ha più di {@code Integer.MAX_VALUE} valori.
+     */
+    public static List<Double> range(double min, double max, double step) {
+        long count = rangeSize(min, max, step);
+        if (count > Integer.MAX_VALUE) throw new IllegalArgumentException("Intervallo troppo grande: " + count + " valori");
+        List<Double> values = new ArrayList<>();
+        // Calcoliamo ogni valore dall'estremo inferiore, senza accumulare errori di somma
+        for (long i = 0; i < count; i++) values.add(min + i * step);
+        return values;
+    }
+
+    /**
+     * Calcola la strategia ottima per ogni cella della griglia delle temperature.
+     *
+     * @param circuit    Il circuito.
+     * @param laps       Il numero totale di giri.
+     * @param airTemps   Le temperature dell'aria (righe).
+     * @param trackTemps Le temperature della pista (colonne).
+     * @return La griglia con tempo, soste e sequenza di mescole della strategia ottima di ogni cella.
+     */
+    public TemperatureSweep sweep(String circuit, int laps, List<Double> airTemps, List<Double> trackTemps) {
+        List<StrategyScenario> scenarios = new ArrayList<>();
+        for (double airTemp : airTemps) {
+            for (double trackTemp : trackTemps) {
+                scenarios.add(new StrategyScenario(circuit, laps, airTemp, trackTemp, 1));
+            }
+        }
+
+        List<ScenarioResult> results = batchService.solveAll(scenarios);
+
+        TemperatureSweep sweep = new TemperatureSweep(circuit, laps, airTemps, trackTemps);
+        Map<String, Integer> sequenceIndexes = new HashMap<>();
+        for (ScenarioResult result : results) {
+            // Gli scenari sono in ordine di riga: indice = i * colonne + j
+            int i = result.getIndex() / trackTemps.size();
+            int j = result.getIndex() % trackTemps.size();
+            if (result.getStrategies().isEmpty()) {
+                sweep.getSequenceIndexes()[i][j] = -1;
+                continue;
+            }
+
+            RaceStrategy best = result.getStrategies().get(0);
+            sweep.getTotalTimes()[i][j] = best.getTotalTime();
+            sweep.getPitStops()[i][j] = best.getPitStops();
+            String sequence = compoundSequence(best);
+            sweep.getSequenceIndexes()[i][j] = sequenceIndexes.computeIfAbsent(sequence, s -> {
+                sweep.getSequences().add(s);
+                return sweep.getSequences().size() - 1;
+            });
+        }
+        return sweep;
+    }
+
+    /**
+     * Restituisce la sequenza delle mescole di una strategia (es. "SOFT-MEDIUM-HARD").
+     */
+    private static String compoundSequence(RaceStrategy strategy) {
+        StringJoiner sequence = new StringJoiner("-");
+        for (Stint stint : strategy.getStints()) sequence.add(stint.getCompound());
+        return sequence.toString();
+    }
+}
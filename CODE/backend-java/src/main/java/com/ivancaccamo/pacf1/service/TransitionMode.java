@@ -0,0 +1,26 @@
+package com.ivancaccamo.pacf1.service;
+
+/**
+ * Strategia con cui la DP valuta le transizioni (scelta della durata del prossimo stint).
+ *
+ * @author Team SPS-F1
+ */
+public enum TransitionMode {
+
+    /**
+     * Prova esplicitamente ogni durata ammessa per ogni mescola: O(giri) per stato.
+     * È la versione di riferimento, valida per qualsiasi modello di costo e per qualsiasi k.
+     */
+    BRUTE_FORCE,
+
+    /**
+     * Sfrutta la struttura del modello di degrado lineare, in cui il costo di uno stint è una
+     * funzione quadratica della sua durata: le transizioni diventano rette e il minimo viene
+     * trovato con una Convex Hull Trick (Li Chao tree) in O(log giri) per stato.
+     * <p>
+     * Si applica solo al calcolo della strategia ottima ({@code k = 1}) e quando tutte le mescole
+     * hanno degrado lineare; negli altri casi il motore ricade su {@link #BRUTE_FORCE}.
+     * </p>
+     */
+    CONVEX_HULL
+}
@@ -0,0 +1,69 @@
+package com.ivancaccamo.pacf1.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementazione SIMD di {@link StintKernel} basata sulla Vector API ({@code jdk.incubator.vector}).
+ * <p>
+ * Una prima passata calcola i candidati a blocchi di {@code SPECIES.length()} corsie e ne tiene il minimo
+ * per corsia; una seconda passata cerca il primo candidato uguale al minimo. Le somme sono eseguite
+ * nello stesso ordine della versione scalare ({@code (costo + pit) + valore}) e il minimo in virgola mobile
+ * non dipende dall'ordine di riduzione, quindi il risultato coincide bit per bit con {@link ScalarStintKernel}.
+ * </p>
+ * <p>
+ * Richiede {@code --add-modules jdk.incubator.vector} e viene compilata solo con il profilo Maven {@code vector}:
+ * viene istanziata solo da {@link StintKernel#select(boolean)}.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+class VectorStintKernel implements StintKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public int firstArgMin(double[] costs, int costOffset, double pitCost, double[] values, int valueOffset, int length) {
+        if (length <= 0) return -1;
+
+        DoubleVector pit = DoubleVector.broadcast(SPECIES, pitCost);
+        int lanes = SPECIES.length();
+        int upper = SPECIES.loopBound(length);
+
+        // Prima passata: minimo per corsia, poi riduzione sulle corsie e coda scalare
+        DoubleVector lanesMin = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < upper; i += lanes) {
+            lanesMin = lanesMin.min(candidates(costs, costOffset + i, pit, values, valueOffset + i));
+        }
+        double min = lanesMin.reduceLanes(VectorOperators.MIN);
+        for (int i = upper; i < length; i++) {
+            min = Math.min(min, costs[costOffset + i] + pitCost + values[valueOffset + i]);
+        }
+
+        // Seconda passata: primo candidato uguale al minimo
+        for (int i = 0; i < upper; i += lanes) {
+            VectorMask<Double> hits = candidates(costs, costOffset + i, pit, values, valueOffset + i)
+                    .compare(VectorOperators.EQ, min);
+            if (hits.anyTrue()) return i + hits.firstTrue();
+        }
+        for (int i = upper; i < length; i++) {
+            if (costs[costOffset + i] + pitCost + values[valueOffset + i] == min) return i;
+        }
+        return 0; // Non raggiungibile: il minimo è sempre uno dei candidati
+    }
+
+    /**
+     * Calcola un blocco di candidati {@code (costo + pit) + valore}.
+     */
+    private static DoubleVector candidates(double[] costs, int costOffset, DoubleVector pit, double[] values, int valueOffset) {
+        return DoubleVector.fromArray(SPECIES, costs, costOffset).add(pit)
+                .add(DoubleVector.fromArray(SPECIES, values, valueOffset));
+    }
+
+    @Override
+    public String toString() {
+        return "SIMD " + SPECIES.length() + "x double";
+    }
+}
@@ -0,0 +1,211 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.WhatIfSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Servizio delle sessioni "what-if": l'utente modifica un parametro alla volta e vede subito l'effetto.
+ * <p>
+ * Ogni sessione conserva una {@link StopCountSolver} già risolta. Cambiare la perdita ai box richiede solo
+ * di riordinare le migliori strategie per numero di soste; cambiare la predizione di una mescola ricalcola
+ * solo gli stati che la usano. In entrambi i casi la risposta arriva in pochi millisecondi.
+ * </p>
+ * <p>
+ * Le sessioni sono limitate (proprietà {@code pacf1.whatif.max-sessions}): oltre il limite
+ * viene chiusa quella usata meno di recente.
+ * </p>
+ *
+ * @author Team SPS-F1
+ */
+@Service
+public class WhatIfService {
+
+    /**
+     * Numero massimo di soste considerato se non indicato.
+     */
+    public static final int DEFAULT_MAX_STOPS = OptimizationEngine.DEFAULT_MAX_STOPS;
+
+    /**
+     * Numero massimo di soste accettato: la tabella ha (soste + 1) * 2^mescole * (giri + 1) stati
+     * e ogni modifica di una mescola ne ricalcola una parte.
+     */
+    public static final int MAX_STOPS = 10;
+
+    /**
+     * Numero massimo di giri accettato: il lavoro cresce con il quadrato dei giri e le sessioni
+     * devono rispondere in tempo reale agli slider.
+     */
+    public static final int MAX_LAPS = 500;
+
+    /**
+     * Numero massimo di sessioni tenute in memoria.
+     */
+    @Value("${pacf1.whatif.max-sessions:16}")
+    private int maxSessions = 16;
+
+    /**
+     * Una sessione aperta: la descrizione restituita al client e la tabella risolta.
+     */
+    private record Session(WhatIfSession info, StopCountSolver solver) {}
+
+    /**
+     * Sessioni aperte, in ordine di accesso (la prima è quella usata meno di recente).
+     */
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+            return size() > maxSessions;
+        }
+    };
+
+    /**
+     * Apre una sessione risolvendo la tabella per numero di soste.
+     *
+     * @param circuit   Il circuito della gara.
+     * @param totalLaps Il numero totale di giri.
+     * @param tyres     Le predizioni di degrado delle mescole disponibili.
+     * @param maxStops  Il numero massimo di soste considerato.
+     * @param pitLoss   Il tempo perso per ogni pit-stop, oppure {@code null} per il valore standard.
+     * @return Lo stato della sessione, con le migliori strategie per numero di soste.
+     * @throws IllegalArgumentException se i giri, le soste o la perdita ai box sono fuori dai limiti.
+     */
+    public WhatIfSession openSession(String circuit, int totalLaps, List<TyrePrediction> tyres,
+                                     int maxStops, Double pitLoss) {
+        if (totalLaps < 1 || totalLaps > MAX_LAPS) {
+            throw new IllegalArgumentException("Numero di giri non valido: " + totalLaps);
+        }
+        if (maxStops < 0 || maxStops > MAX_STOPS) {
+            throw new IllegalArgumentException("Numero massimo di soste non valido: " + maxStops);
+        }
+        if (pitLoss != null) checkPitLoss(pitLoss);
+        long start = System.nanoTime();
+        StopCountSolver solver = new StopCountSolver(totalLaps, tyres, maxStops);
+
+        WhatIfSession info = new WhatIfSession();
+        info.setId(UUID.randomUUID().toString());
+        info.setCircuit(circuit);
+        info.setLaps(totalLaps);
+        info.setMaxStops(solver.getMaxStops());
+        info.setPitLoss(pitLoss != null ? pitLoss : OptimizationEngine.PIT_STOP_LOSS);
+
+        Session session = new Session(info, solver);
+        synchronized (sessions) {
+            sessions.put(info.getId(), session);
+        }
+        synchronized (session) {
+            return refresh(session, start);
+        }
+    }
+
+    /**
+     * Cambia la perdita ai box: nessun ricalcolo della tabella, solo un nuovo ordinamento.
+     *
+     * @param sessionId L'identificativo della sessione.
+     * @param pitLoss   Il nuovo tempo perso per ogni pit-stop (non negativo).
+     * @return Lo stato aggiornato della sessione.
+     * @throws IllegalArgumentException se la sessione non esiste o il valore non è valido.
+     */
+    public WhatIfSession setPitLoss(String sessionId, double pitLoss) {
+        checkPitLoss(pitLoss);
+        Session session = find(sessionId);
+        synchronized (session) {
+            long start = System.nanoTime();
+            session.info().setPitLoss(pitLoss);
+            return refresh(session, start);
+        }
+    }
+
+    /**
+     * Cambia la predizione di una mescola: vengono ricalcolati solo gli stati che la usano.
+     *
+     * @param sessionId       L'identificativo della sessione.
+     * @param compound        La mescola da modificare.
+     * @param baseTime        Il nuovo tempo sul giro con gomma nuova.
+     * @param degradationRate Il nuovo degrado per giro.
+     * @return Lo stato aggiornato della sessione.
+     * @throws IllegalArgumentException se la sessione o la mescola non esistono o i valori non sono validi.
+     */
+    public WhatIfSession updateCompound(String sessionId, String compound, double baseTime, double degradationRate) {
+        if (!(baseTime > 0) || Double.isInfinite(baseTime)) {
+            throw new IllegalArgumentException("Tempo sul giro non valido: " + baseTime);
+        }
+        if (!(degradationRate >= 0) || Double.isInfinite(degradationRate)) {
+            throw new IllegalArgumentException("Degrado non valido: " + degradationRate);
+        }
+        Session session = find(sessionId);
+        synchronized (session) {
+            long start = System.nanoTime();
+            List<TyrePrediction> tyres = session.solver().getTyres();
+            int tyreIndex = -1;
+            for (int t = 0; t < tyres.size(); t++) {
+                if (tyres.get(t).getCompound().equals(compound)) tyreIndex = t;
+            }
+            if (tyreIndex < 0) throw new IllegalArgumentException("Mescola non disponibile: " + compound);
+
+            TyrePrediction prediction = new TyrePrediction();
+            prediction.setCompound(compound);
+            prediction.setBase_time(baseTime);
+            prediction.setDegradation_rate(degradationRate);
+            // La forma della curva di degrado resta quella predetta dal servizio ML
+            prediction.setDegradation_model(tyres.get(tyreIndex).getDegradation_model());
+            session.solver().updateTyre(tyreIndex, prediction);
+            return refresh(session, start);
+        }
+    }
+
+    /**
+     * Chiude una sessione liberando la tabella.
+     *
+     * @param sessionId L'identificativo della sessione.
+     * @return {@code true} se la sessione esisteva.
+     */
+    public boolean closeSession(String sessionId) {
+        synchronized (sessions) {
+            return sessions.remove(sessionId) != null;
+        }
+    }
+
+    /**
+     * Controlla che la perdita ai box sia un numero finito non negativo.
+     */
+    private static void checkPitLoss(double pitLoss) {
+        if (!(pitLoss >= 0) || Double.isInfinite(pitLoss)) {
+            throw new IllegalArgumentException("Perdita ai box non valida: " + pitLoss);
+        }
+    }
+
+    private Session find(String sessionId) {
+        Session session;
+        synchronized (sessions) {
+            session = sessions.get(sessionId);
+        }
+        if (session == null) throw new IllegalArgumentException("Sessione what-if inesistente: " + sessionId);
+        return session;
+    }
+
+    /**
+     * Calcola le strategie con i parametri correnti (da chiamare con il lock della sessione).
+     * Restituisce una copia, così la risposta non cambia se nel frattempo arriva un'altra modifica.
+     */
+    private WhatIfSession refresh(Session session, long start) {
+        WhatIfSession info = session.info();
+        WhatIfSession snapshot = new WhatIfSession();
+        snapshot.setId(info.getId());
+        snapshot.setCircuit(info.getCircuit());
+        snapshot.setLaps(info.getLaps());
+        snapshot.setMaxStops(info.getMaxStops());
+        snapshot.setPitLoss(info.getPitLoss());
+        snapshot.setPredictions(new ArrayList<>(session.solver().getTyres()));
+        snapshot.setStrategies(session.solver().bestPerStopCount(info.getPitLoss()));
+        snapshot.setUpdateMicros((System.nanoTime() - start) / 1_000);
+        return snapshot;
+    }
+}
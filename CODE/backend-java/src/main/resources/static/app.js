@@ -213,28 +213,23 @@ async function calculateStrategy() {
     // Mostra spinner di caricamento
     loading.classList.remove('d-none');
 
+    const query = `circuit=${encodeURIComponent(circuit)}&laps=${laps}&airTemp=${air}&trackTemp=${track}`;
+
+    // Se il browser supporta i Server-Sent Events mostriamo subito la prima strategia e la raffiniamo man mano
+    if (typeof EventSource !== 'undefined') {
+        streamStrategy(query, laps);
+        return;
+    }
+
     try {
         // Chiamata API al Backend Java
         // Passiamo i parametri in query string (GET)
-        const response = await fetch(`/api/strategy?circuit=${encodeURIComponent(circuit)}&laps=${laps}&airTemp=${air}&trackTemp=${track}`);
+        const response = await fetch(`/api/strategy?${query}`);
         
         if (!response.ok) throw new Error("Errore API Java");
         
         const strategies = await response.json();
-        
-        if (strategies.length === 0) {
-            container.innerHTML = '<div class="alert alert-warning">Nessuna strategia trovata. Riprova con parametri diversi.</div>';
-        } else {
-            // Renderizza le card delle strategie
-            renderStrategies(strategies, laps);
-            
-            // MOSTRA IL BOTTONE DEL GRAFICO
-            // Ora che abbiamo i dati, abilitiamo il pulsante per vedere la telemetria
-            document.getElementById('btnToggleChart').classList.remove('d-none');
-            
-            // Genera il grafico (ma rimane nascosto finché non clicchi)
-            drawStrategyChart(strategies, laps);
-        }
+        showFinalStrategies(strategies, laps);
 
     } catch (error) {
         console.error("Errore:", error);
@@ -245,6 +240,73 @@ async function calculateStrategy() {
     }
 }
 
+// Stream SSE del calcolo in corso (chiuso se l'utente avvia un nuovo calcolo)
+let strategyStream = null;
+
+/**
+ * Riceve le strategie in streaming da /api/strategy/stream.
+ * Ogni evento "update" aggiorna le card (la prima risposta arriva in pochi millisecondi),
+ * l'evento "complete" contiene il risultato definitivo e abilita il grafico.
+ * @param {string} query - I parametri della richiesta in query string.
+ * @param {number} laps - Il numero totale di giri.
+ */
+function streamStrategy(query, laps) {
+    const loading = document.getElementById('loading');
+    const container = document.getElementById('strategiesContainer');
+
+    // Chiudendo lo stream precedente il server interrompe il calcolo non più necessario
+    if (strategyStream) strategyStream.close();
+    const source = new EventSource(`/api/strategy/stream?${query}`);
+    strategyStream = source;
+
+    const finish = () => {
+        source.close();
+        if (strategyStream === source) strategyStream = null;
+        loading.classList.add('d-none');
+    };
+
+    source.addEventListener('update', (event) => {
+        // Prima strategia disponibile: nascondiamo lo spinner e mostriamo le card
+        loading.classList.add('d-none');
+        renderStrategies(JSON.parse(event.data), laps);
+    });
+
+    source.addEventListener('complete', (event) => {
+        finish();
+        showFinalStrategies(JSON.parse(event.data), laps);
+    });
+
+    // Evento "error" inviato dal server (es. servizio ML non disponibile) o errore di connessione
+    source.addEventListener('error', (event) => {
+        finish();
+        const message = event.data ? event.data : 'connessione interrotta';
+        container.innerHTML = `<div class="alert alert-danger">Errore di comunicazione col server: ${message}</div>`;
+    });
+}
+
+/**
+ * Mostra il risultato definitivo del calcolo: card delle strategie e grafico della telemetria.
+ * @param {Array} strategies - Lista di oggetti strategia restituiti dal backend.
+ * @param {number} laps - Il numero totale di giri.
+ */
+function showFinalStrategies(strategies, laps) {
+    const container = document.getElementById('strategiesContainer');
+
+    if (strategies.length === 0) {
+        container.innerHTML = '<div class="alert alert-warning">Nessuna strategia trovata. Riprova con parametri diversi.</div>';
+    } else {
+        // Renderizza le card delle strategie
+        renderStrategies(strategies, laps);
+        
+        // MOSTRA IL BOTTONE DEL GRAFICO
+        // Ora che abbiamo i dati, abilitiamo il pulsante per vedere la telemetria
+        document.getElementById('btnToggleChart').classList.remove('d-none');
+        
+        // Genera il grafico (ma rimane nascosto finché non clicchi)
+        drawStrategyChart(strategies, laps);
+    }
+}
+
 /**
  * Genera l'HTML per le card delle strategie (Top 3).
  * @param {Array} strategies - Lista di oggetti strategia restituiti dal backend.
@@ -0,0 +1,133 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.ScenarioResult;
+import com.ivancaccamo.pacf1.model.StrategyScenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.tyre;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchStrategyServiceTest {
+
+    private OptimizationEngine engine;
+    private FakeMLService mlService;
+    private BatchStrategyService batchService;
+
+    /**
+     * Servizio ML finto: conta le chiamate e simula la latenza del microservizio Python.
+     * Il circuito "Offline" simula il servizio non raggiungibile.
+     */
+    private static class FakeMLService extends PythonMLService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public PredictionResponse getPrediction(String circuit, double airTemp, double trackTemp) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if ("Offline".equals(circuit)) return null;
+
+            // Più fa caldo, più le gomme degradano
+            PredictionResponse response = new PredictionResponse();
+            response.setCircuit(circuit);
+            response.setPredictions(List.of(
+                    tyre("SOFT", 90.0, 0.1 + trackTemp / 1000),
+                    tyre("MEDIUM", 91.0, 0.06 + trackTemp / 2000),
+                    tyre("HARD", 92.5, 0.02)));
+            return response;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        engine = new OptimizationEngine();
+        mlService = new FakeMLService();
+        batchService = new BatchStrategyService(mlService, engine);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    void testBatch_DeduplicatesPredictionsAndMatchesSingleRequests() {
+        List<StrategyScenario> scenarios = new ArrayList<>();
+        for (double trackTemp : new double[]{30.0, 45.0}) {
+            for (int laps : new int[]{50, 57, 70}) {
+                scenarios.add(new StrategyScenario("Bahrain Grand Prix", laps, 30.0, trackTemp, 3));
+                scenarios.add(new StrategyScenario("Bahrain Grand Prix", laps, 30.0, trackTemp, 3)); // Duplicato
+            }
+        }
+
+        List<ScenarioResult> results = batchService.solveAll(scenarios);
+
+        // Una sola chiamata ML per ogni coppia di temperature
+        assertEquals(2, mlService.calls.get());
+        assertEquals(scenarios.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            ScenarioResult result = results.get(i);
+            StrategyScenario scenario = scenarios.get(i);
+            assertEquals(i, result.getIndex());
+            assertNull(result.getError());
+
+            // Stesso risultato della richiesta singola
+            List<RaceStrategy> single = engine.calculateTopStrategies(scenario.getLaps(),
+                    new FakeMLService().getPrediction(scenario.getCircuit(), scenario.getAirTemp(),
+                            scenario.getTrackTemp()).getPredictions(), scenario.getK());
+            assertEquals(single.size(), result.getStrategies().size());
+            for (int s = 0; s < single.size(); s++) {
+                assertEquals(single.get(s).getTotalTime(), result.getStrategies().get(s).getTotalTime(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testBatch_ReportsUnavailablePredictions() {
+        List<StrategyScenario> scenarios = List.of(
+                new StrategyScenario("Offline", 57, 30.0, 45.0, 3),
+                new StrategyScenario("Bahrain Grand Prix", 57, 30.0, 45.0, 3));
+
+        List<ScenarioResult> results = batchService.solveAll(scenarios);
+
+        // Lo scenario senza predizioni riporta l'errore senza bloccare gli altri
+        assertNotNull(results.get(0).getError());
+        assertTrue(results.get(0).getStrategies().isEmpty());
+        assertNull(results.get(1).getError());
+        assertFalse(results.get(1).getStrategies().isEmpty());
+    }
+
+    @Test
+    void testBatch_ReportsInvalidScenariosWithoutSolving() {
+        StrategyScenario withBudget = new StrategyScenario("Bahrain Grand Prix", 57, 30.0, 45.0, 3);
+        withBudget.setBudgetMs(-1);
+        List<StrategyScenario> scenarios = List.of(
+                new StrategyScenario("Bahrain Grand Prix", -5, 30.0, 45.0, 3),
+                new StrategyScenario("Bahrain Grand Prix", OptimizationEngine.MAX_RACE_LAPS + 1, 30.0, 45.0, 3),
+                withBudget,
+                new StrategyScenario("Bahrain Grand Prix", 57, 30.0, 45.0, 500));
+
+        List<ScenarioResult> results = batchService.solveAll(scenarios);
+
+        // Gli scenari non validi non arrivano al servizio ML né al pool dei calcoli
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(results.get(i).getError());
+            assertTrue(results.get(i).getStrategies().isEmpty());
+        }
+        assertEquals(1, mlService.calls.get());
+        // Il numero di strategie viene limitato come nella richiesta singola
+        assertNull(results.get(3).getError());
+        assertEquals(OptimizationEngine.MAX_TOP_K, results.get(3).getStrategies().size());
+    }
+}
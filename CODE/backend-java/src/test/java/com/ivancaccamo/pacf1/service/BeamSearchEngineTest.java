@@ -0,0 +1,54 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.OptimizationResult;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.Stint;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.tyre;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeamSearchEngineTest {
+
+    private final BeamSearchEngine beamSearch = new BeamSearchEngine();
+    private final BranchAndBoundEngine exact = new BranchAndBoundEngine();
+
+    private final List<TyrePrediction> tyres = List.of(
+            tyre("C1", 92.8, 0.015), tyre("C2", 92.2, 0.025), tyre("C3", 91.5, 0.045),
+            tyre("C4", 90.9, 0.07), tyre("C5", 90.3, 0.11));
+
+    @Test
+    void testSearch_ReturnsValidStrategiesForEveryWidth() {
+        for (int totalLaps : new int[] { 15, 57, 200 }) {
+            double optimum = exact.search(totalLaps, tyres, 1).getStrategies().get(0).getTotalTime();
+
+            for (int width : new int[] { 1, 8, BeamSearchEngine.DEFAULT_BEAM_WIDTH }) {
+                OptimizationResult result = beamSearch.search(totalLaps, tyres, 3, width);
+                assertEquals("BEAM", result.getEngine());
+                assertFalse(result.getStrategies().isEmpty());
+
+                double previous = 0;
+                for (RaceStrategy strategy : result.getStrategies()) {
+                    // Mai meglio dell'ottimo esatto, sempre una strategia completa e regolare
+                    assertTrue(strategy.getTotalTime() >= optimum - 1e-6);
+                    assertTrue(strategy.getTotalTime() >= previous);
+                    assertEquals(totalLaps, strategy.getStints().get(strategy.getStints().size() - 1).getEndLap());
+                    assertTrue(strategy.getStints().stream().map(Stint::getCompound).distinct().count() >= 2);
+                    previous = strategy.getTotalTime();
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSearch_DefaultWidthFindsTheOptimum() {
+        for (int totalLaps : new int[] { 44, 57, 71 }) {
+            double optimum = exact.search(totalLaps, tyres, 1).getStrategies().get(0).getTotalTime();
+            RaceStrategy best = beamSearch.search(totalLaps, tyres, 1, BeamSearchEngine.DEFAULT_BEAM_WIDTH).getStrategies().get(0);
+
+            assertEquals(optimum, best.getTotalTime(), 1e-6);
+        }
+    }
+}
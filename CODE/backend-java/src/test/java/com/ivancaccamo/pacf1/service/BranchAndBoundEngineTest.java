@@ -0,0 +1,72 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.OptimizationResult;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.Stint;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.standard;
+import static com.ivancaccamo.pacf1.service.TestTyres.tyre;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BranchAndBoundEngineTest {
+
+    private final OptimizationEngine dp = new OptimizationEngine();
+    private final BranchAndBoundEngine branchAndBound = new BranchAndBoundEngine();
+
+    private final List<TyrePrediction> threeCompounds = standard();
+
+    private final List<TyrePrediction> sevenCompounds = List.of(
+            tyre("C1", 92.8, 0.015), tyre("C2", 92.2, 0.025), tyre("C3", 91.5, 0.045), tyre("C4", 90.9, 0.07),
+            tyre("C5", 90.3, 0.11), tyre("INTERMEDIATE", 96.0, 0.02), tyre("WET", 99.0, 0.01));
+
+    @Test
+    void testSearch_MatchesDynamicProgramming() {
+        for (List<TyrePrediction> tyres : List.of(threeCompounds, sevenCompounds)) {
+            for (int totalLaps : new int[] { 5, 15, 44, 57, 71 }) {
+                List<RaceStrategy> reference = dp.calculateTopStrategies(totalLaps, tyres, 5);
+                List<RaceStrategy> result = branchAndBound.search(totalLaps, tyres, 5).getStrategies();
+
+                assertEquals(reference.size(), result.size());
+                for (int i = 0; i < result.size(); i++) {
+                    RaceStrategy strategy = result.get(i);
+                    // Stesso ottimo; le alternative non sono mai peggiori di quelle della DP
+                    if (i == 0) assertEquals(reference.get(0).getTotalTime(), strategy.getTotalTime(), 1e-6);
+                    assertTrue(strategy.getTotalTime() <= reference.get(i).getTotalTime() + 1e-6);
+                    assertEquals(expectedTime(strategy, tyres), strategy.getTotalTime(), 1e-6);
+                    assertEquals(totalLaps, strategy.getStints().get(strategy.getStints().size() - 1).getEndLap());
+                    assertTrue(strategy.getStints().stream().map(Stint::getCompound).distinct().count() >= 2);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSearch_PrunesMostOfTheStateSpace() {
+        OptimizationResult result = branchAndBound.search(71, sevenCompounds, 1);
+
+        assertEquals(1, result.getStrategies().size());
+        assertEquals("BRANCH_AND_BOUND", result.getEngine());
+        // Con 7 mescole la DP risolve migliaia di stati, la ricerca ne espande poche decine
+        assertTrue(result.getNodesExpanded() * 100 < result.getDpStates(),
+                "Nodi espansi: " + result.getNodesExpanded() + ", stati DP: " + result.getDpStates());
+    }
+
+    /**
+     * Ricalcola il tempo totale di una strategia giro per giro (modello lineare + 20s per sosta).
+     */
+    private double expectedTime(RaceStrategy strategy, List<TyrePrediction> tyres) {
+        double total = 20.0 * strategy.getPitStops();
+        for (Stint stint : strategy.getStints()) {
+            TyrePrediction tyre = tyres.stream().filter(t -> t.getCompound().equals(stint.getCompound())).findFirst().orElseThrow();
+            double lapTime = tyre.getBase_time();
+            for (int lap = 0; lap < stint.getLaps(); lap++) {
+                total += lapTime;
+                lapTime += tyre.getDegradation_rate();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.DegradationSpec;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.Stint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.standard;
+import static com.ivancaccamo.pacf1.service.TestTyres.tyre;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DegradationModelTest {
+
+    private static DegradationSpec cliff(int lap, double penalty, double rate) {
+        DegradationSpec spec = new DegradationSpec("CLIFF");
+        spec.setCliff_lap(lap);
+        spec.setCliff_penalty(penalty);
+        spec.setCliff_rate(rate);
+        return spec;
+    }
+
+    @Test
+    void testLinearModel_MatchesLinearTable() {
+        List<TyrePrediction> tyres = List.of(tyre("SOFT", 90.0, 0.1), tyre("HARD", 92.5, 0.02));
+        tyres.get(1).setDegradation_model(new DegradationSpec("LINEAR"));
+
+        StintCostTable linear = StintCostTable.linear(tyres, 57);
+        StintCostTable compiled = StintCostTable.compile(tyres, 57);
+
+        for (int t = 0; t < tyres.size(); t++) {
+            assertArrayEquals(linear.costsFor(t), compiled.costsFor(t));
+        }
+        assertTrue(compiled.isQuadratic());
+    }
+
+    @Test
+    void testCompiledLapTimes_PerModel() {
+        TyrePrediction soft = tyre("SOFT", 90.0, 0.1);
+
+        DegradationSpec quadratic = new DegradationSpec("quadratic");
+        quadratic.setQuadratic_rate(0.01);
+        soft.setDegradation_model(quadratic);
+        assertArrayEquals(new double[] { 90.0, 90.11, 90.24, 90.39 },
+                DegradationModel.forTyre(soft).compile(soft, 4), 1e-9);
+
+        // Due giri di riscaldamento (la gomma migliora), poi degrado normale e doppio dal quarto giro
+        DegradationSpec piecewise = new DegradationSpec("PIECEWISE");
+        piecewise.setBreakpoints(List.of(2, 4));
+        piecewise.setRate_factors(List.of(-1.0, 1.0, 2.0));
+        soft.setDegradation_model(piecewise);
+        assertArrayEquals(new double[] { 90.0, 89.9, 89.8, 89.9, 90.0, 90.2 },
+                DegradationModel.forTyre(soft).compile(soft, 6), 1e-9);
+
+        soft.setDegradation_model(cliff(3, 2.0, 0.5));
+        assertArrayEquals(new double[] { 90.0, 90.1, 90.2, 92.3, 92.9 },
+                DegradationModel.forTyre(soft).compile(soft, 5), 1e-9);
+
+        soft.setDegradation_model(new DegradationSpec("EXPONENTIAL"));
+        assertThrows(IllegalArgumentException.class, () -> DegradationModel.forTyre(soft));
+        piecewise.setRate_factors(List.of(1.0));
+        soft.setDegradation_model(piecewise);
+        assertThrows(IllegalArgumentException.class, () -> DegradationModel.forTyre(soft));
+    }
+
+    @Test
+    void testNonLinearModel_ConvexHullFallsBackToBruteForce() {
+        List<TyrePrediction> tyres = standard();
+        tyres.get(0).setDegradation_model(cliff(18, 1.5, 0.3));
+        DegradationSpec quadratic = new DegradationSpec("QUADRATIC");
+        quadratic.setQuadratic_rate(0.002);
+        tyres.get(1).setDegradation_model(quadratic);
+
+        assertFalse(StintCostTable.compile(tyres, 57).isQuadratic());
+
+        OptimizationEngine engine = new OptimizationEngine();
+        RaceStrategy hull = engine.optimize(57, tyres, 1,
+                new SolverOptions(SolverMode.ITERATIVE, TransitionMode.CONVEX_HULL)).getStrategies().get(0);
+        RaceStrategy brute = engine.optimize(57, tyres, 1,
+                new SolverOptions(SolverMode.ITERATIVE, TransitionMode.BRUTE_FORCE)).getStrategies().get(0);
+
+        assertEquals(brute.getTotalTime(), hull.getTotalTime(), 1e-6);
+    }
+
+    @Test
+    void testCliff_ShortensStints() {
+        // La SOFT è nettamente più veloce: con degrado lineare conviene uno stint lungo
+        List<TyrePrediction> linear = List.of(tyre("SOFT", 88.0, 0.05), tyre("HARD", 90.0, 0.02));
+        List<TyrePrediction> withCliff = List.of(tyre("SOFT", 88.0, 0.05), tyre("HARD", 90.0, 0.02));
+        withCliff.get(0).setDegradation_model(cliff(15, 10.0, 0.5));
+
+        // Stessa cache: le predizioni con e senza crollo non devono condividere le tabelle
+        OptimizationEngine engine = new OptimizationEngine();
+        RaceStrategy before = engine.calculateTopStrategies(57, linear, 1).get(0);
+        RaceStrategy after = engine.calculateTopStrategies(57, withCliff, 1).get(0);
+
+        assertTrue(longestSoftStint(before) > 15);
+        assertTrue(longestSoftStint(after) <= 15);
+        assertTrue(after.getTotalTime() > before.getTotalTime());
+    }
+
+    private static int longestSoftStint(RaceStrategy strategy) {
+        int longest = 0;
+        for (Stint stint : strategy.getStints()) {
+            if (stint.getCompound().equals("SOFT")) longest = Math.max(longest, stint.getLaps());
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.LiveSession;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.Stint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.standard;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveStrategyServiceTest {
+
+    private OptimizationEngine engine;
+    private LiveStrategyService liveService;
+    private List<TyrePrediction> mockTyres;
+
+    @BeforeEach
+    void setUp() {
+        engine = new OptimizationEngine();
+        liveService = new LiveStrategyService(engine);
+        mockTyres = standard();
+    }
+
+    @Test
+    void testPlan_FromStartMatchesFullOptimization() {
+        int totalLaps = 57;
+        RaceStrategy best = engine.calculateTopStrategies(totalLaps, mockTyres, 1).get(0);
+        LiveSession session = liveService.openSession("Bahrain Grand Prix", totalLaps, mockTyres, 3);
+
+        // Sulla griglia con gomme nuove il piano coincide con l'ottimo della gara intera
+        String firstCompound = best.getStints().get(0).getCompound();
+        List<RaceStrategy> plan = liveService.plan(session.getId(), 0, firstCompound, 0, List.of(), 1);
+        assertEquals(best.getTotalTime(), plan.get(0).getTotalTime(), 1e-6);
+        assertEquals(1, plan.get(0).getStints().get(0).getStartLap());
+    }
+
+    @Test
+    void testPlan_MidRaceFollowsOptimalStrategy() {
+        int totalLaps = 57;
+        RaceStrategy best = engine.calculateTopStrategies(totalLaps, mockTyres, 1).get(0);
+        LiveSession session = liveService.openSession("Bahrain Grand Prix", totalLaps, mockTyres, 3);
+
+        // A metà del primo stint dell'ottimo, il resto del piano vale il tempo rimanente dell'ottimo
+        Stint first = best.getStints().get(0);
+        int lap = first.getEndLap() / 2;
+        TyrePrediction tyre = mockTyres.stream().filter(t -> t.getCompound().equals(first.getCompound())).findFirst().get();
+        double spent = 0;
+        for (int age = 0; age < lap; age++) spent += tyre.getBase_time() + age * tyre.getDegradation_rate();
+
+        List<RaceStrategy> plan = liveService.plan(session.getId(), lap, first.getCompound(), lap,
+                List.of(first.getCompound()), 3);
+        assertEquals(best.getTotalTime() - spent, plan.get(0).getTotalTime(), 1e-6);
+
+        // Gli stint del piano coprono esattamente i giri rimanenti
+        for (RaceStrategy strategy : plan) {
+            assertEquals(lap + 1, strategy.getStints().get(0).getStartLap());
+            assertEquals(totalLaps, strategy.getStints().get(strategy.getStints().size() - 1).getEndLap());
+        }
+
+        // Gomma appena montata a fine gara: serve ancora la seconda mescola, quindi un'altra sosta
+        List<RaceStrategy> late = liveService.plan(session.getId(), totalLaps - 12, "HARD", 0, List.of("HARD"), 1);
+        assertEquals(2, late.get(0).getStints().size());
+    }
+
+    @Test
+    void testPlan_RejectsInvalidInput() {
+        LiveSession session = liveService.openSession("Bahrain Grand Prix", 57, mockTyres, 1);
+        assertThrows(IllegalArgumentException.class, () -> liveService.plan("missing", 10, "SOFT", 10, List.of(), 1));
+        assertThrows(IllegalArgumentException.class, () -> liveService.plan(session.getId(), 10, "WET", 10, List.of(), 1));
+        assertThrows(IllegalArgumentException.class, () -> liveService.plan(session.getId(), 57, "SOFT", 10, List.of(), 1));
+
+        // Età della gomma fuori scala: niente tabelle enormi né overflow, la richiesta è rifiutata
+        assertThrows(IllegalArgumentException.class, () -> liveService.plan(session.getId(), 10, "SOFT", -1, List.of(), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> liveService.plan(session.getId(), 10, "SOFT", 10 + OptimizationEngine.MAX_PRIOR_TYRE_LAPS + 1, List.of(), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> liveService.plan(session.getId(), 10, "SOFT", Integer.MAX_VALUE, List.of(), 1));
+        assertFalse(liveService.plan(session.getId(), 10, "SOFT", 10 + OptimizationEngine.MAX_PRIOR_TYRE_LAPS, List.of(), 1).isEmpty());
+
+        assertTrue(liveService.closeSession(session.getId()));
+        assertThrows(IllegalArgumentException.class, () -> liveService.plan(session.getId(), 10, "SOFT", 10, List.of(), 1));
+    }
+
+    @Test
+    void testOpenSession_RejectsInvalidRaceLength() {
+        // Stessi limiti di /strategy: niente tabelle di dimensione negativa o enormi
+        assertThrows(IllegalArgumentException.class, () -> liveService.openSession("Bahrain Grand Prix", 0, mockTyres, 1));
+        assertThrows(IllegalArgumentException.class, () -> liveService.openSession("Bahrain Grand Prix", -5, mockTyres, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> liveService.openSession("Bahrain Grand Prix", OptimizationEngine.MAX_RACE_LAPS + 1, mockTyres, 1));
+        assertThrows(IllegalArgumentException.class, () -> liveService.openSession("Bahrain Grand Prix", 57, mockTyres, 0));
+    }
+}
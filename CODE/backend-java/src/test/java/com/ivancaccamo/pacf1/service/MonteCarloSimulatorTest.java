@@ -0,0 +1,93 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.SimulationResult;
+import com.ivancaccamo.pacf1.model.SimulationResult.StrategyOutcome;
+import com.ivancaccamo.pacf1.model.Stint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.standard;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloSimulatorTest {
+
+    private OptimizationEngine engine;
+    private MonteCarloSimulator simulator;
+    private List<TyrePrediction> tyres;
+
+    @BeforeEach
+    void setUp() {
+        engine = new OptimizationEngine();
+        simulator = new MonteCarloSimulator();
+        tyres = standard();
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.shutdown();
+    }
+
+    @Test
+    void testNoUncertainty_MatchesDeterministicTimes() {
+        List<RaceStrategy> candidates = engine.calculateTopStrategies(57, tyres, 3);
+        SimulationOptions options = new SimulationOptions();
+        options.setRaces(1000);
+        options.setSafetyCarProbability(0.0);
+        options.setPitLossSigma(0.0);
+        options.setDegradationSigma(0.0);
+
+        SimulationResult result = simulator.simulate(candidates, tyres, options);
+
+        assertEquals(candidates.size(), result.getOutcomes().size());
+        for (int i = 0; i < candidates.size(); i++) {
+            StrategyOutcome outcome = result.getOutcomes().get(i);
+            double expected = candidates.get(i).getTotalTime();
+            assertEquals(expected, outcome.getMeanTime(), 1e-6);
+            assertEquals(expected, outcome.getP10Time(), 1e-6);
+            assertEquals(expected, outcome.getP90Time(), 1e-6);
+            assertEquals(0.0, outcome.getStdDevTime(), 1e-6);
+        }
+        // Senza incertezza vince sempre la strategia ottima
+        assertEquals(1.0, result.getOutcomes().get(0).getWinProbability(), 1e-12);
+    }
+
+    @Test
+    void testWithUncertainty_ReproducibleAndConsistent() {
+        List<RaceStrategy> candidates = engine.calculateTopStrategies(57, tyres, 5);
+        SimulationOptions options = new SimulationOptions();
+        options.setSeed(42L);
+
+        SimulationResult first = simulator.simulate(candidates, tyres, options);
+        SimulationResult second = simulator.simulate(candidates, tyres, options);
+        System.out.println("100000 gare x " + candidates.size() + " strategie in " + first.getElapsedMs() + " ms");
+
+        double totalProbability = 0.0;
+        for (int i = 0; i < candidates.size(); i++) {
+            StrategyOutcome outcome = first.getOutcomes().get(i);
+            // Stesso seme, stessi risultati
+            assertEquals(outcome.getMeanTime(), second.getOutcomes().get(i).getMeanTime(), 0.0);
+            assertEquals(outcome.getWinProbability(), second.getOutcomes().get(i).getWinProbability(), 0.0);
+
+            assertTrue(outcome.getP10Time() <= outcome.getMeanTime());
+            assertTrue(outcome.getMeanTime() <= outcome.getP90Time());
+            assertTrue(outcome.getStdDevTime() > 0.0);
+            totalProbability += outcome.getWinProbability();
+        }
+        assertEquals(1.0, totalProbability, 1e-9);
+    }
+
+    @Test
+    void testUnknownCompound_Rejected() {
+        RaceStrategy strategy = new RaceStrategy();
+        strategy.getStints().add(new Stint("SOFT", 1, 20));
+        strategy.getStints().add(new Stint("INTERMEDIATE", 21, 57));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> simulator.simulate(List.of(strategy), tyres, new SimulationOptions()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.Stint;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.tyre;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizationEngineConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS = 200;
+
+    @Test
+    void testConcurrentRequests_MatchSingleThreadedResults() throws Exception {
+        // Un solo engine condiviso, come il singleton Spring
+        OptimizationEngine engine = new OptimizationEngine();
+
+        // Scenari diversi (giri, k, predizioni) per far collidere richieste con tabelle diverse
+        int[] lapCounts = { 20, 33, 50, 57, 71 };
+        List<List<TyrePrediction>> tyreSets = List.of(
+                tyres(90.0, 0.10, 91.0, 0.06, 92.5, 0.02),
+                tyres(80.0, 0.15, 80.8, 0.08, 81.9, 0.03));
+
+        // Risultati di riferimento calcolati in modo sequenziale
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            expected.add(describe(engine.calculateTopStrategies(
+                    lapCounts[i % lapCounts.length], tyreSets.get(i % tyreSets.size()), 1 + i % 4)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                final int request = i;
+                futures.add(pool.submit(() -> describe(engine.calculateTopStrategies(
+                        lapCounts[request % lapCounts.length], tyreSets.get(request % tyreSets.size()), 1 + request % 4))));
+            }
+            for (int i = 0; i < REQUESTS; i++) {
+                assertEquals(expected.get(i), futures.get(i).get(), "Risultato diverso per la richiesta " + i);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static List<TyrePrediction> tyres(double softBase, double softDeg, double mediumBase, double mediumDeg,
+                                              double hardBase, double hardDeg) {
+        return List.of(tyre("SOFT", softBase, softDeg), tyre("MEDIUM", mediumBase, mediumDeg), tyre("HARD", hardBase, hardDeg));
+    }
+
+    /**
+     * Rappresentazione testuale completa (tempi esatti + stint) per confrontare i risultati.
+     */
+    private static String describe(List<RaceStrategy> strategies) {
+        StringBuilder sb = new StringBuilder();
+        for (RaceStrategy strategy : strategies) {
+            sb.append(Double.doubleToLongBits(strategy.getTotalTime())).append(':').append(strategy.getPitStops());
+            for (Stint stint : strategy.getStints()) {
+                sb.append(' ').append(stint.getCompound()).append(stint.getStartLap()).append('-').append(stint.getEndLap());
+            }
+            sb.append('|');
+        }
+        return sb.toString();
+    }
+}
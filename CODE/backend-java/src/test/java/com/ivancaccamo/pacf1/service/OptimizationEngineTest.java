@@ -1,7 +1,10 @@
 package com.ivancaccamo.pacf1.service;
 
+import com.ivancaccamo.pacf1.model.OptimizationResult;
+import com.ivancaccamo.pacf1.model.PitWindowTable;
 import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
 import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.Stint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
@@ -80,4 +83,350 @@ class OptimizationEngineTest {
         assertNotNull(result);
         assertTrue(result.isEmpty(), "Se non ci sono gomme, non ci sono strategie");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCalculateTopStrategies_KBest() {
+        // Chiediamo 5 alternative in una sola passata della DP k-best
+        int totalLaps = 50;
+
+        List<RaceStrategy> result = engine.calculateTopStrategies(totalLaps, mockTyres, 5);
+
+        assertEquals(5, result.size(), "Dovrebbe restituire esattamente k strategie");
+        // La migliore deve coincidere con quella della Top 3 classica
+        assertEquals(engine.calculateTop3Strategies(totalLaps, mockTyres).get(0).getTotalTime(),
+                result.get(0).getTotalTime(), 1e-6);
+
+        for (int i = 0; i < result.size(); i++) {
+            RaceStrategy s = result.get(i);
+            // Ordinate per tempo crescente
+            if (i > 0) assertTrue(s.getTotalTime() >= result.get(i - 1).getTotalTime());
+            // Il tempo dichiarato deve corrispondere agli stint ricostruiti
+            assertEquals(expectedTime(s), s.getTotalTime(), 1e-6);
+            assertEquals(s.getStints().size() - 1, s.getPitStops());
+            assertEquals(totalLaps, s.getStints().get(s.getStints().size() - 1).getEndLap());
+        }
+    }
+
+    @Test
+    void testIterativeSolver_MatchesRecursive() {
+        // Senza cache ogni modalità riempie la propria tabella
+        engine.setTableCacheSlots(0);
+        int totalLaps = 57;
+
+        List<RaceStrategy> recursive = engine.calculateTopStrategies(totalLaps, mockTyres, 5, SolverMode.RECURSIVE);
+        List<RaceStrategy> iterative = engine.calculateTopStrategies(totalLaps, mockTyres, 5, SolverMode.ITERATIVE);
+
+        assertEquals(recursive.size(), iterative.size());
+        for (int i = 0; i < recursive.size(); i++) {
+            assertEquals(recursive.get(i).getTotalTime(), iterative.get(i).getTotalTime());
+            assertEquals(recursive.get(i).getStints().size(), iterative.get(i).getStints().size());
+        }
+    }
+
+    @Test
+    void testIterativeSolver_EnduranceRace() {
+        // Simulazione lunga (es. endurance): 600 "giri"
+        int totalLaps = 600;
+
+        List<RaceStrategy> result = engine.calculateTopStrategies(totalLaps, mockTyres, 3, SolverMode.ITERATIVE);
+
+        assertFalse(result.isEmpty());
+        RaceStrategy best = result.get(0);
+        assertEquals(totalLaps, best.getStints().get(best.getStints().size() - 1).getEndLap());
+        assertEquals(expectedTime(best), best.getTotalTime(), 1e-6);
+    }
+
+    @Test
+    void testParallelSolver_MatchesIterative() {
+        // Senza cache ogni modalità riempie la propria tabella
+        engine.setTableCacheSlots(0);
+        // 30 giri: sotto la soglia, fallback sequenziale; 400 giri: fronti d'onda sul pool
+        for (int totalLaps : new int[] { 30, 400 }) {
+            List<RaceStrategy> iterative = engine.calculateTopStrategies(totalLaps, mockTyres, 5, SolverMode.ITERATIVE);
+            List<RaceStrategy> parallel = engine.calculateTopStrategies(totalLaps, mockTyres, 5, SolverMode.PARALLEL);
+
+            assertEquals(iterative.size(), parallel.size());
+            for (int i = 0; i < iterative.size(); i++) {
+                assertEquals(iterative.get(i).getTotalTime(), parallel.get(i).getTotalTime(), 0.0);
+                assertEquals(iterative.get(i).getStints().size(), parallel.get(i).getStints().size());
+            }
+        }
+    }
+
+    @Test
+    void testTimeBudget_ReturnsPartialValidStrategies() {
+        int totalLaps = 2000;
+        for (SolverMode mode : SolverMode.values()) {
+            SolverOptions options = new SolverOptions(mode, TransitionMode.BRUTE_FORCE);
+            options.setBudgetMs(1);
+
+            OptimizationResult result = engine.optimize(totalLaps, mockTyres, 3, options);
+
+            // Budget troppo piccolo per l'intera tabella: risultato parziale ma con strategie valide
+            assertTrue(result.isPartial(), "Risultato non parziale in modalità " + mode);
+            assertFalse(result.getStrategies().isEmpty(), "Nessuna strategia in modalità " + mode);
+            for (RaceStrategy strategy : result.getStrategies()) {
+                assertEquals(totalLaps, strategy.getStints().get(strategy.getStints().size() - 1).getEndLap());
+                assertEquals(expectedTime(strategy), strategy.getTotalTime(), 1e-6);
+            }
+        }
+
+        // Senza budget il calcolo arriva in fondo
+        assertFalse(engine.optimize(57, mockTyres, 3, new SolverOptions()).isPartial());
+
+        // Budget enorme: nessun overflow della scadenza, il calcolo arriva in fondo
+        SolverOptions unlimited = new SolverOptions();
+        unlimited.setBudgetMs(Long.MAX_VALUE);
+        assertFalse(engine.optimize(57, mockTyres, 3, unlimited).isPartial());
+        assertFalse(Deadline.after(Long.MAX_VALUE / 1_000_000L - 1).isExpired());
+    }
+
+    @Test
+    void testListener_ReceivesImprovingUpdates() {
+        List<List<RaceStrategy>> updates = new ArrayList<>();
+        OptimizationResult result = engine.optimize(57, mockTyres, 3, new SolverOptions(), Deadline.none(), updates::add);
+
+        // Il primo tempo di ogni aggiornamento non peggiora mai e l'ultimo aggiornamento è il risultato finale
+        assertFalse(updates.isEmpty());
+        for (int i = 1; i < updates.size(); i++) {
+            assertTrue(updates.get(i).get(0).getTotalTime() <= updates.get(i - 1).get(0).getTotalTime() + 1e-9);
+        }
+        List<RaceStrategy> last = updates.get(updates.size() - 1);
+        assertEquals(result.getStrategies().size(), last.size());
+        for (int i = 0; i < last.size(); i++) {
+            assertEquals(result.getStrategies().get(i).getTotalTime(), last.get(i).getTotalTime(), 1e-9);
+        }
+
+        // Calcolo annullato prima di iniziare (client disconnesso): si risolvono solo gli stati dell'ultimo stint
+        Deadline cancelled = Deadline.none();
+        cancelled.cancel();
+        OptimizationResult aborted = engine.optimize(57, mockTyres, 3, new SolverOptions(), cancelled, null);
+        assertTrue(aborted.isPartial());
+        assertTrue(aborted.getNodesExpanded() <= (OptimizationEngine.MIN_STINT_LAPS + 1) * 7L);
+        assertFalse(aborted.getStrategies().isEmpty());
+    }
+
+    @Test
+    void testStopCount_OneStrategyPerStopCount() {
+        OptimizationResult result = engine.optimizeByStopCount(57, mockTyres, 10, 1, OptimizationEngine.DEFAULT_MAX_STOPS);
+        List<RaceStrategy> strategies = result.getStrategies();
+
+        // La migliore coincide con l'ottimo della DP e ogni strategia ha un numero di soste diverso
+        RaceStrategy optimum = engine.calculateTopStrategies(57, mockTyres, 1).get(0);
+        assertEquals(optimum.getTotalTime(), strategies.get(0).getTotalTime(), 1e-6);
+        assertEquals(strategies.size(), strategies.stream().map(RaceStrategy::getPitStops).distinct().count());
+        for (RaceStrategy strategy : strategies) {
+            assertEquals(strategy.getPitStops() + 1, strategy.getStints().size());
+            assertEquals(expectedTime(strategy), strategy.getTotalTime(), 1e-6);
+        }
+
+        // Numero di soste imposto
+        List<RaceStrategy> twoStops = engine.optimizeByStopCount(57, mockTyres, 3, 2, 2).getStrategies();
+        assertEquals(1, twoStops.size());
+        assertEquals(2, twoStops.get(0).getPitStops());
+    }
+
+    @Test
+    void testNearOptimal_AllStrategiesWithinTolerance() {
+        double tolerance = 0.2;
+        OptimizationResult result = engine.enumerateNearOptimal(57, mockTyres, tolerance, 100);
+        List<RaceStrategy> strategies = result.getStrategies();
+        assertFalse(result.isTruncated());
+
+        // Ordinate per tempo, la prima è l'ottimo, tutte distinte ed entro la tolleranza
+        RaceStrategy optimum = engine.calculateTopStrategies(57, mockTyres, 1).get(0);
+        assertEquals(optimum.getTotalTime(), strategies.get(0).getTotalTime(), 1e-6);
+        assertEquals(strategies.size(), strategies.stream().map(s -> s.getStints().toString()).distinct().count());
+        for (int i = 0; i < strategies.size(); i++) {
+            RaceStrategy strategy = strategies.get(i);
+            assertEquals(expectedTime(strategy), strategy.getTotalTime(), 1e-6);
+            assertTrue(strategy.getTotalTime() <= optimum.getTotalTime() + tolerance + 1e-6);
+            if (i > 0) assertTrue(strategies.get(i - 1).getTotalTime() <= strategy.getTotalTime() + 1e-9);
+        }
+
+        // Nessuna strategia entro la tolleranza manca: confronto con l'enumerazione esaustiva
+        assertEquals(countWithin(57, 0, 0, 0.0, optimum.getTotalTime() + tolerance + 1e-6), strategies.size());
+
+        // Con un limite più basso la lista viene troncata mantenendo le migliori
+        OptimizationResult truncated = engine.enumerateNearOptimal(57, mockTyres, tolerance, 2);
+        if (strategies.size() > 2) {
+            assertTrue(truncated.isTruncated());
+            assertEquals(2, truncated.getStrategies().size());
+            assertEquals(strategies.get(1).getTotalTime(), truncated.getStrategies().get(1).getTotalTime(), 1e-9);
+        }
+    }
+
+    @Test
+    void testPitWindowTable_MatchesOptimalStrategy() {
+        PitWindowTable table = engine.pitWindowTable(57, mockTyres);
+        RaceStrategy optimum = engine.calculateTopStrategies(57, mockTyres, 1).get(0);
+        assertEquals(optimum.getTotalTime(), table.getOptimalTime(), 1e-6);
+
+        // Fermandosi al giro della prima sosta ottima si ottiene l'ottimo, e lì restare fuori non conviene
+        Stint first = optimum.getStints().get(0);
+        int tyre = table.getCompounds().indexOf(first.getCompound());
+        assertEquals(optimum.getTotalTime(), table.getPitLapTimes()[tyre][first.getEndLap()], 1e-6);
+        assertTrue(table.getStayOutGains()[tyre][first.getEndLap()] <= 1e-6);
+
+        // Il valore di uno stato è coerente con i costi degli stint: dal giro 47 con SOFT e MEDIUM usate
+        // resta solo un ultimo stint di 10 giri (più la sosta)
+        int softMedium = 0b011;
+        double lastStint = Math.min(table.getStintTimes()[0][10],
+                Math.min(table.getStintTimes()[1][10], table.getStintTimes()[2][10]));
+        assertEquals(20.0 + lastStint, table.getRemainingTimes()[softMedium][47], 1e-6);
+        // Con una sola mescola usata non si può finire la gara senza fermarsi
+        assertNull(table.getRemainingTimes()[0b001][57]);
+        assertEquals(0.0, table.getRemainingTimes()[softMedium][57], 0.0);
+    }
+
+    @Test
+    void testTableCache_SharedAcrossRaceLengths() {
+        OptimizationEngine uncached = new OptimizationEngine();
+        uncached.setTableCacheSlots(0);
+
+        // La gara lunga riempie la tabella, le più corte (sprint compresa) ne leggono una sottotabella
+        OptimizationResult full = engine.optimize(70, mockTyres, 5, new SolverOptions());
+        assertTrue(full.getNodesExpanded() > 0);
+        for (int laps : new int[] { 70, 57, 44, 24 }) {
+            OptimizationResult shared = engine.optimize(laps, mockTyres, 5, new SolverOptions());
+            List<RaceStrategy> reference = uncached.calculateTopStrategies(laps, mockTyres, 5);
+
+            assertEquals(0, shared.getNodesExpanded(), "Tabella non riusata con " + laps + " giri");
+            assertEquals(reference.size(), shared.getStrategies().size());
+            for (int i = 0; i < reference.size(); i++) {
+                RaceStrategy strategy = shared.getStrategies().get(i);
+                assertEquals(reference.get(i).getTotalTime(), strategy.getTotalTime(), 1e-9);
+                assertEquals(reference.get(i).getStints().size(), strategy.getStints().size());
+                assertEquals(laps, strategy.getStints().get(strategy.getStints().size() - 1).getEndLap());
+                assertEquals(expectedTime(strategy), strategy.getTotalTime(), 1e-6);
+            }
+        }
+
+        // Una gara più lunga sostituisce la tabella con una che copre entrambe
+        assertTrue(engine.optimize(90, mockTyres, 5, new SolverOptions()).getNodesExpanded() > 0);
+        assertEquals(0, engine.optimize(70, mockTyres, 5, new SolverOptions()).getNodesExpanded());
+    }
+
+    @Test
+    void testConvexHullTransitions_MatchBruteForce() {
+        SolverOptions bruteForce = new SolverOptions(SolverMode.ITERATIVE, TransitionMode.BRUTE_FORCE);
+        SolverOptions convex = new SolverOptions(SolverMode.ITERATIVE, TransitionMode.CONVEX_HULL);
+
+        for (int totalLaps : new int[] { 15, 44, 57, 78, 300 }) {
+            RaceStrategy reference = engine.calculateTopStrategies(totalLaps, mockTyres, 1, bruteForce).get(0);
+            RaceStrategy optimised = engine.calculateTopStrategies(totalLaps, mockTyres, 1, convex).get(0);
+
+            assertEquals(reference.getTotalTime(), optimised.getTotalTime(), 1e-6, "Tempo diverso con " + totalLaps + " giri");
+            assertEquals(expectedTime(optimised), optimised.getTotalTime(), 1e-6);
+        }
+    }
+
+    @Test
+    void testLapDependentCosts_MatchBruteForce() {
+        RaceConditions conditions = new RaceConditions(0.05, 0.02, 0.5);
+        double expected = bruteForceMin(30, 0, 0, conditions);
+
+        for (SolverMode mode : SolverMode.values()) {
+            for (TransitionMode transition : TransitionMode.values()) {
+                SolverOptions options = new SolverOptions(mode, transition);
+                options.setRaceConditions(conditions);
+                List<RaceStrategy> strategies = engine.optimize(30, mockTyres, 3, options).getStrategies();
+
+                assertEquals(expected, strategies.get(0).getTotalTime(), 1e-6, mode + " / " + transition);
+                for (RaceStrategy strategy : strategies) {
+                    assertEquals(simulate(strategy, 30, conditions), strategy.getTotalTime(), 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLapOffsetsOnly_ShiftAllStrategiesEqually() {
+        // Carburante e pista senza effetto sull'usura: stessa strategia, tempo spostato della somma dei guadagni
+        SolverOptions options = new SolverOptions();
+        options.setRaceConditions(new RaceConditions(0.05, 0.02, 0.0));
+        RaceStrategy reference = engine.calculateTopStrategies(57, mockTyres, 1).get(0);
+        RaceStrategy shifted = engine.optimize(57, mockTyres, 1, options).getStrategies().get(0);
+
+        assertEquals(reference.getTotalTime() - 0.07 * 57 * 56 / 2.0, shifted.getTotalTime(), 1e-6);
+        assertEquals(reference.getStints().size(), shifted.getStints().size());
+        for (int i = 0; i < reference.getStints().size(); i++) {
+            assertEquals(reference.getStints().get(i).getCompound(), shifted.getStints().get(i).getCompound());
+            assertEquals(reference.getStints().get(i).getLaps(), shifted.getStints().get(i).getLaps());
+        }
+    }
+
+    /**
+     * Simula giro per giro una strategia con le condizioni di gara.
+     */
+    private double simulate(RaceStrategy strategy, int totalLaps, RaceConditions conditions) {
+        double time = 20.0 * strategy.getPitStops();
+        for (Stint stint : strategy.getStints()) {
+            TyrePrediction tyre = mockTyres.stream().filter(p -> p.getCompound().equals(stint.getCompound())).findFirst().get();
+            time += stintTime(tyre, stint.getStartLap() - 1, stint.getLaps(), totalLaps, conditions);
+        }
+        return time;
+    }
+
+    private static double stintTime(TyrePrediction tyre, int startLap, int laps, int totalLaps, RaceConditions c) {
+        double time = 0.0;
+        double wear = 0.0;
+        for (int lap = startLap + 1; lap <= startLap + laps; lap++) {
+            time += tyre.getBase_time() + wear - (c.getFuelEffect() + c.getTrackEvolution()) * (lap - 1);
+            wear += tyre.getDegradation_rate() * (1.0 + c.getFuelWearFactor() * (totalLaps - lap + 1) / totalLaps);
+        }
+        return time;
+    }
+
+    /**
+     * Miglior tempo per forza bruta con le condizioni di gara (gare corte).
+     */
+    private double bruteForceMin(int totalLaps, int lap, int mask, RaceConditions conditions) {
+        if (lap == totalLaps) return Integer.bitCount(mask) >= 2 ? 0.0 : Double.MAX_VALUE;
+        double best = Double.MAX_VALUE;
+        for (int t = 0; t < mockTyres.size(); t++) {
+            for (int laps = lap == 0 ? 1 : OptimizationEngine.MIN_STINT_LAPS; lap + laps <= totalLaps; laps++) {
+                double rest = bruteForceMin(totalLaps, lap + laps, mask | (1 << t), conditions);
+                if (rest == Double.MAX_VALUE) continue;
+                double time = (lap == 0 ? 0.0 : 20.0) + stintTime(mockTyres.get(t), lap, laps, totalLaps, conditions);
+                best = Math.min(best, time + rest);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Conta per forza bruta le strategie valide che finiscono entro {@code bound} (stint successivi
+     * al primo di almeno 10 giri, almeno due mescole diverse).
+     */
+    private long countWithin(int totalLaps, int lap, int mask, double time, double bound) {
+        // Ogni giro rimanente costa almeno il tempo base della mescola più veloce (90 s)
+        if (time + (totalLaps - lap) * 90.0 > bound) return 0;
+        if (lap == totalLaps) return Integer.bitCount(mask) >= 2 ? 1 : 0;
+        long count = 0;
+        for (int t = 0; t < mockTyres.size(); t++) {
+            TyrePrediction tyre = mockTyres.get(t);
+            for (int laps = lap == 0 ? 1 : OptimizationEngine.MIN_STINT_LAPS; lap + laps <= totalLaps; laps++) {
+                double stint = laps * tyre.getBase_time() + tyre.getDegradation_rate() * laps * (laps - 1) / 2.0;
+                count += countWithin(totalLaps, lap + laps, mask | (1 << t), time + (lap == 0 ? 0 : 20.0) + stint, bound);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Ricalcola il tempo totale di una strategia giro per giro (modello lineare + 20s per sosta).
+     */
+    private double expectedTime(RaceStrategy strategy) {
+        double total = 20.0 * strategy.getPitStops();
+        for (Stint stint : strategy.getStints()) {
+            TyrePrediction tyre = mockTyres.stream()
+                    .filter(t -> t.getCompound().equals(stint.getCompound()))
+                    .findFirst().orElseThrow();
+            for (int lap = 0; lap < stint.getLaps(); lap++) {
+                total += tyre.getBase_time() + lap * tyre.getDegradation_rate();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.SafetyCarPlan;
+import com.ivancaccamo.pacf1.model.Stint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.standard;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SafetyCarSolverTest {
+
+    private OptimizationEngine engine;
+    private List<TyrePrediction> tyres;
+
+    private static double[] uniform(int laps, double probability) {
+        double[] probabilities = new double[laps];
+        Arrays.fill(probabilities, probability);
+        return probabilities;
+    }
+
+    @BeforeEach
+    void setUp() {
+        engine = new OptimizationEngine();
+        tyres = standard();
+    }
+
+    @Test
+    void testNoSafetyCar_MatchesDeterministicOptimum() {
+        RaceStrategy optimum = engine.calculateTopStrategies(57, tyres, 1).get(0);
+        SafetyCarPlan plan = engine.optimizeWithSafetyCar(57, tyres, uniform(57, 0.0),
+                OptimizationEngine.DEFAULT_SAFETY_CAR_PIT_LOSS);
+
+        assertEquals(optimum.getTotalTime(), plan.getExpectedTime(), 1e-6);
+        assertEquals(optimum.getTotalTime(), plan.getNominalStrategy().getTotalTime(), 1e-6);
+        assertEquals(optimum.getPitStops(), plan.getNominalStrategy().getPitStops());
+    }
+
+    @Test
+    void testSafetyCar_LowersExpectedTimeAndPolicyIsConsistent() {
+        RaceStrategy optimum = engine.calculateTopStrategies(57, tyres, 1).get(0);
+        SafetyCarPlan plan = engine.optimizeWithSafetyCar(57, tyres, uniform(57, 0.1),
+                OptimizationEngine.DEFAULT_SAFETY_CAR_PIT_LOSS);
+
+        // Le soste più economiche possono solo migliorare il tempo atteso
+        assertTrue(plan.getExpectedTime() < optimum.getTotalTime());
+
+        // Il piano nominale è una strategia valida, con il tempo dei suoi stint
+        RaceStrategy nominal = plan.getNominalStrategy();
+        double time = OptimizationEngine.PIT_STOP_LOSS * nominal.getPitStops();
+        for (Stint stint : nominal.getStints()) {
+            TyrePrediction tyre = tyres.stream().filter(t -> t.getCompound().equals(stint.getCompound())).findFirst().orElseThrow();
+            time += stint.getLaps() * tyre.getBase_time() + tyre.getDegradation_rate() * stint.getLaps() * (stint.getLaps() - 1) / 2.0;
+        }
+        assertEquals(time, nominal.getTotalTime(), 1e-6);
+        assertEquals(57, nominal.getStints().get(nominal.getStints().size() - 1).getEndLap());
+        assertTrue(nominal.getStints().stream().map(Stint::getCompound).distinct().count() >= 2);
+
+        // Con la safety car ci si ferma in qualche stato, mai nelle ultime MIN_STINT_LAPS tornate
+        int[][][] policy = plan.getSafetyCarPolicy();
+        boolean pits = false;
+        for (int t = 0; t < tyres.size(); t++) {
+            for (int lap = 1; lap < 57; lap++) {
+                for (int age = 1; age < lap; age++) {
+                    int decision = policy[t][lap][age];
+                    if (decision >= 0) {
+                        pits = true;
+                        assertTrue(57 - lap >= OptimizationEngine.MIN_STINT_LAPS);
+                        assertTrue(age >= OptimizationEngine.MIN_STINT_LAPS);
+                    }
+                }
+            }
+        }
+        assertTrue(pits);
+        // Gomma morbida molto usurata a metà gara: con la safety car conviene fermarsi
+        assertTrue(plan.getSafetyCarPolicy()[0][30][25] >= 0);
+        assertEquals(SafetyCarPlan.UNREACHABLE, plan.getSafetyCarPolicy()[0][30][30]);
+    }
+
+    @Test
+    void testInvalidProbabilities_AreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.optimizeWithSafetyCar(57, tyres, uniform(10, 0.1), 10.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.optimizeWithSafetyCar(57, tyres, uniform(57, 1.5), 10.0));
+    }
+}
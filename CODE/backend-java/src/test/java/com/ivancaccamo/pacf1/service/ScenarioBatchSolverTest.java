@@ -0,0 +1,155 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyreQuantile;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.RobustStrategyResult;
+import com.ivancaccamo.pacf1.model.Stint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.standard;
+import static com.ivancaccamo.pacf1.service.TestTyres.tyre;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioBatchSolverTest {
+
+    private OptimizationEngine engine;
+    private List<List<TyrePrediction>> scenarios;
+
+    private static TyreQuantile quantile(double level, double baseTime, double degradation) {
+        TyreQuantile quantile = new TyreQuantile();
+        quantile.setQuantile(level);
+        quantile.setBase_time(baseTime);
+        quantile.setDegradation_rate(degradation);
+        return quantile;
+    }
+
+    /**
+     * Tempo di una strategia con le predizioni di uno scenario.
+     */
+    private static double timeIn(RaceStrategy strategy, List<TyrePrediction> scenario, int totalLaps) {
+        StintCostTable costs = StintCostTable.linear(scenario, totalLaps);
+        double time = OptimizationEngine.PIT_STOP_LOSS * strategy.getPitStops();
+        for (Stint stint : strategy.getStints()) {
+            for (int t = 0; t < scenario.size(); t++) {
+                if (scenario.get(t).getCompound().equals(stint.getCompound())) time += costs.stintTime(t, stint.getLaps());
+            }
+        }
+        return time;
+    }
+
+    @BeforeEach
+    void setUp() {
+        engine = new OptimizationEngine();
+        engine.setTableCacheSlots(0);
+
+        // Degrado incerto soprattutto per la SOFT: 3 quantili per mescola, 27 scenari
+        TyrePrediction soft = tyre("SOFT", 90.0, 0.1);
+        soft.setQuantiles(List.of(quantile(0.1, 89.8, 0.06), quantile(0.5, 90.0, 0.1), quantile(0.9, 90.3, 0.2)));
+        TyrePrediction medium = tyre("MEDIUM", 91.0, 0.06);
+        medium.setQuantiles(List.of(quantile(0.1, 90.8, 0.05), quantile(0.5, 91.0, 0.06), quantile(0.9, 91.2, 0.08)));
+        TyrePrediction hard = tyre("HARD", 92.5, 0.02);
+        hard.setQuantiles(List.of(quantile(0.1, 92.4, 0.015), quantile(0.5, 92.5, 0.02), quantile(0.9, 92.7, 0.025)));
+        scenarios = OptimizationEngine.quantileScenarios(List.of(soft, medium, hard));
+    }
+
+    @Test
+    void testQuantileScenarios_AllCombinations() {
+        assertEquals(27, scenarios.size());
+        for (List<TyrePrediction> scenario : scenarios) {
+            assertEquals(List.of("SOFT", "MEDIUM", "HARD"), scenario.stream().map(TyrePrediction::getCompound).toList());
+        }
+    }
+
+    @Test
+    void testSingleScenario_MatchesDeterministicOptimum() {
+        List<TyrePrediction> tyres = standard();
+        RaceStrategy optimum = engine.calculateTopStrategies(57, tyres, 1).get(0);
+
+        RobustStrategyResult result = engine.optimizeRobust(57, List.of(tyres), RiskMeasure.WORST_CASE, 0.0);
+
+        assertEquals(optimum.getTotalTime(), result.getRiskTime(), 1e-6);
+        assertEquals(optimum.getPitStops(), result.getStrategy().getPitStops());
+    }
+
+    @Test
+    void testWorstCase_NotWorseThanAnyScenarioOptimum() {
+        long start = System.nanoTime();
+        RobustStrategyResult result = engine.optimizeRobust(57, scenarios, RiskMeasure.WORST_CASE, 0.0);
+        System.out.println("Ottimizzazione robusta su " + scenarios.size() + " scenari in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms, nodi espansi: " + result.getNodesExpanded());
+
+        // I tempi riportati sono quelli della strategia in ogni scenario
+        double worst = 0.0;
+        for (int s = 0; s < scenarios.size(); s++) {
+            double time = timeIn(result.getStrategy(), scenarios.get(s), 57);
+            assertEquals(time, result.getScenarioTimes()[s], 1e-6);
+            worst = Math.max(worst, time);
+        }
+        assertEquals(worst, result.getRiskTime(), 1e-6);
+
+        // L'ottimo di ogni scenario è una candidata: nessuna può avere uno scenario peggiore migliore
+        double lowerBound = 0.0;
+        for (List<TyrePrediction> scenario : scenarios) {
+            RaceStrategy scenarioOptimum = engine.calculateTopStrategies(57, scenario, 1).get(0);
+            lowerBound = Math.max(lowerBound, scenarioOptimum.getTotalTime());
+            double scenarioWorst = 0.0;
+            for (List<TyrePrediction> other : scenarios) scenarioWorst = Math.max(scenarioWorst, timeIn(scenarioOptimum, other, 57));
+            assertTrue(result.getRiskTime() <= scenarioWorst + 1e-6);
+        }
+        assertTrue(result.getRiskTime() >= lowerBound - 1e-6);
+    }
+
+    @Test
+    void testCvarAtZero_MatchesMeanPrediction() {
+        // Con alpha = 0 il CVaR è la media: con costi lineari nei parametri coincide con l'ottimo della predizione media
+        List<TyrePrediction> mean = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            double base = 0.0;
+            double degradation = 0.0;
+            for (List<TyrePrediction> scenario : scenarios) {
+                base += scenario.get(t).getBase_time();
+                degradation += scenario.get(t).getDegradation_rate();
+            }
+            mean.add(tyre(scenarios.get(0).get(t).getCompound(), base / scenarios.size(), degradation / scenarios.size()));
+        }
+        RaceStrategy optimum = engine.calculateTopStrategies(57, mean, 1).get(0);
+
+        RobustStrategyResult result = engine.optimizeRobust(57, scenarios, RiskMeasure.CVAR, 0.0);
+
+        assertEquals(optimum.getTotalTime(), result.getRiskTime(), 1e-6);
+        assertEquals(result.getMeanTime(), result.getRiskTime(), 1e-6);
+    }
+
+    @Test
+    void testCvarLongRace_BoundedTime() {
+        long start = System.nanoTime();
+        RobustStrategyResult result = engine.optimizeRobust(120, scenarios, RiskMeasure.CVAR, 0.8);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("CVaR su 120 giri in " + elapsedMs + " ms, nodi espansi: " + result.getNodesExpanded());
+
+        assertNotNull(result.getStrategy());
+        assertEquals(120, result.getStrategy().getStints().get(result.getStrategy().getStints().size() - 1).getEndLap());
+        assertTrue(elapsedMs < 5_000, "Ottimizzazione robusta troppo lenta: " + elapsedMs + " ms");
+        for (int s = 0; s < scenarios.size(); s++) {
+            assertEquals(timeIn(result.getStrategy(), scenarios.get(s), 120), result.getScenarioTimes()[s], 1e-6);
+        }
+    }
+
+    @Test
+    void testDeadline_ReturnsPartialStrategyWithGap() {
+        RobustStrategyResult exact = engine.optimizeRobust(100, scenarios, RiskMeasure.CVAR, 0.5);
+        RobustStrategyResult partial = engine.optimizeRobust(100, scenarios, RiskMeasure.CVAR, 0.5, Deadline.after(1));
+
+        // Anche interrotta, la ricerca restituisce una strategia valida e un limite sulla distanza dall'ottimo
+        assertFalse(exact.isPartial());
+        assertEquals(0.0, exact.getOptimalityGap(), 1e-9);
+        assertNotNull(partial.getStrategy());
+        assertTrue(partial.getRiskTime() >= exact.getRiskTime() - 1e-6);
+        assertTrue(partial.getRiskTime() - partial.getOptimalityGap() <= exact.getRiskTime() + 1e-6);
+    }
+}
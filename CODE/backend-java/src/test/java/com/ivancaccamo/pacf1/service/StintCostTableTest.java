@@ -0,0 +1,65 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StintCostTableTest {
+
+    @Test
+    void testLinearTable_MatchesLapByLapSimulation() {
+        TyrePrediction soft = new TyrePrediction();
+        soft.setCompound("SOFT");
+        soft.setBase_time(90.0);
+        soft.setDegradation_rate(0.1);
+
+        StintCostTable table = StintCostTable.linear(List.of(soft), 40);
+
+        // Simulazione giro per giro del modello lineare
+        double total = 0;
+        double lapTime = 90.0;
+        for (int laps = 1; laps <= 40; laps++) {
+            total += lapTime;
+            lapTime += 0.1;
+            assertEquals(total, table.stintTime(0, laps), "Costo errato per " + laps + " giri");
+        }
+        assertEquals(0.0, table.stintTime(0, 0));
+        assertEquals(40, table.getMaxLaps());
+    }
+
+    @Test
+    void testCustomLapTimes_NonLinearCurve() {
+        // Curva non lineare: giro di riscaldamento lento, poi "cliff" al quarto giro
+        double[][] lapTimes = { { 92.0, 90.0, 90.2, 95.0 } };
+
+        StintCostTable table = new StintCostTable(lapTimes);
+
+        assertEquals(92.0, table.stintTime(0, 1), 1e-9);
+        assertEquals(182.0, table.stintTime(0, 2), 1e-9);
+        assertEquals(367.2, table.stintTime(0, 4), 1e-9);
+    }
+
+    @Test
+    void testForRace_RowPerStartLap() {
+        TyrePrediction soft = new TyrePrediction();
+        soft.setCompound("SOFT");
+        soft.setBase_time(90.0);
+        soft.setDegradation_rate(0.1);
+
+        // Senza effetti del giro la tabella è quella lineare
+        assertFalse(StintCostTable.forRace(List.of(soft), 20, new RaceConditions()).isLapDependent());
+
+        StintCostTable table = StintCostTable.forRace(List.of(soft), 20, new RaceConditions(0.05, 0.0, 1.0));
+        assertTrue(table.isLapDependent());
+        assertFalse(table.isQuadratic());
+
+        // Stint di 2 giri dopo il giro 10: giri 11 e 12; l'usura del giro 11 è scalata dal carburante rimasto (metà)
+        double lap11 = 90.0 - 0.05 * 10;
+        double lap12 = 90.0 + 0.1 * (1.0 + 10.0 / 20) - 0.05 * 11;
+        assertEquals(lap11 + lap12, table.stintTime(0, 10, 2), 1e-9);
+        assertEquals(table.stintTime(0, 0, 5), table.stintTime(0, 5), 1e-12);
+        assertEquals(11, table.costsFor(0, 10).length);
+    }
+}
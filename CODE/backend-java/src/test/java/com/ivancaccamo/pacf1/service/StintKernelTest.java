@@ -0,0 +1,59 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Random;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.standard;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StintKernelTest {
+
+    @Test
+    void testSelectedKernel_MatchesScalar() {
+        StintKernel scalar = new ScalarStintKernel();
+        StintKernel selected = StintKernel.select(true);
+        Random random = new Random(42);
+
+        for (int length = 0; length <= 70; length++) {
+            double[] costs = new double[length + 10];
+            double[] values = new double[length + 3];
+            for (int i = 0; i < costs.length; i++) costs[i] = Math.round(random.nextDouble() * 50) / 4.0;
+            for (int i = 0; i < values.length; i++) values[i] = Math.round(random.nextDouble() * 50) / 4.0;
+
+            // Valori arrotondati: molti pareggi, deve vincere sempre il primo indice
+            assertEquals(scalar.firstArgMin(costs, 10, 20.0, values, 3, length),
+                    selected.firstArgMin(costs, 10, 20.0, values, 3, length), "Indice diverso con " + length + " candidati");
+        }
+    }
+
+    @Test
+    void testSelect_FallsBackToScalarWithoutVectorModule() {
+        // Senza il modulo la classe vettoriale non viene nemmeno caricata
+        assertInstanceOf(ScalarStintKernel.class, StintKernel.select(true, false));
+        assertInstanceOf(ScalarStintKernel.class, StintKernel.select(false, true));
+        assertInstanceOf(ScalarStintKernel.class, StintKernel.select(false, false));
+    }
+
+    @Test
+    void testVectorEngine_MatchesScalarEngine() {
+        OptimizationEngine scalarEngine = new OptimizationEngine();
+        OptimizationEngine vectorEngine = new OptimizationEngine();
+        vectorEngine.setVectorKernelEnabled(true);
+
+        List<TyrePrediction> tyres = standard();
+        for (int totalLaps : new int[] { 12, 35, 57, 71, 250 }) {
+            RaceStrategy expected = scalarEngine.calculateTopStrategies(totalLaps, tyres, 1, SolverMode.ITERATIVE).get(0);
+            RaceStrategy actual = vectorEngine.calculateTopStrategies(totalLaps, tyres, 1, SolverMode.ITERATIVE).get(0);
+
+            assertEquals(expected.getTotalTime(), actual.getTotalTime(), 0.0);
+            assertEquals(expected.getStints().size(), actual.getStints().size());
+            for (int i = 0; i < expected.getStints().size(); i++) {
+                assertEquals(expected.getStints().get(i).getCompound(), actual.getStints().get(i).getCompound());
+                assertEquals(expected.getStints().get(i).getEndLap(), actual.getStints().get(i).getEndLap());
+            }
+        }
+    }
+}
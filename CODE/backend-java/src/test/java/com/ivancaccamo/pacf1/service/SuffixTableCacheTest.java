@@ -0,0 +1,60 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuffixTableCacheTest {
+
+    private static List<TyrePrediction> tyres(double softDegradation) {
+        TyrePrediction soft = new TyrePrediction();
+        soft.setCompound("SOFT");
+        soft.setBase_time(90.0);
+        soft.setDegradation_rate(softDegradation);
+        TyrePrediction hard = new TyrePrediction();
+        hard.setCompound("HARD");
+        hard.setBase_time(92.5);
+        hard.setDegradation_rate(0.02);
+        return List.of(soft, hard);
+    }
+
+    @Test
+    void testLookup_CoversShorterRacesOnly() {
+        SuffixTableCache cache = new SuffixTableCache();
+        SolverContext table = new SolverContext(60, tyres(0.1), 3);
+        cache.store(table, TransitionMode.BRUTE_FORCE);
+
+        SolverContext sprint = cache.lookup(tyres(0.1), 24, 3, TransitionMode.BRUTE_FORCE);
+        assertNotNull(sprint);
+        assertEquals(24, sprint.totalLaps);
+        // Stessi giri rimanenti, stessa cella
+        assertEquals(table.stateIndex(60 - 5, 1), sprint.stateIndex(24 - 5, 1));
+
+        assertNull(cache.lookup(tyres(0.1), 61, 3, TransitionMode.BRUTE_FORCE));
+        assertNull(cache.lookup(tyres(0.2), 24, 3, TransitionMode.BRUTE_FORCE));
+        assertNull(cache.lookup(tyres(0.1), 24, 1, TransitionMode.BRUTE_FORCE));
+        assertNull(cache.lookup(tyres(0.1), 24, 3, TransitionMode.CONVEX_HULL));
+    }
+
+    @Test
+    void testStore_EvictsLeastRecentlyUsed() {
+        SuffixTableCache cache = new SuffixTableCache();
+        // Ogni tabella da 60 giri con 2 mescole e top 3 occupa 61 * 4 * 3 soluzioni parziali
+        cache.setMaxSlots(2 * 61 * 4 * 3);
+        cache.store(new SolverContext(60, tyres(0.1), 3), TransitionMode.BRUTE_FORCE);
+        cache.store(new SolverContext(60, tyres(0.2), 3), TransitionMode.BRUTE_FORCE);
+        assertNotNull(cache.lookup(tyres(0.1), 60, 3, TransitionMode.BRUTE_FORCE)); // Ora la più recente
+
+        cache.store(new SolverContext(60, tyres(0.3), 3), TransitionMode.BRUTE_FORCE);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.lookup(tyres(0.1), 60, 3, TransitionMode.BRUTE_FORCE));
+        assertNull(cache.lookup(tyres(0.2), 60, 3, TransitionMode.BRUTE_FORCE));
+
+        // Una tabella più corta non sostituisce quella già presente
+        cache.store(new SolverContext(30, tyres(0.1), 3), TransitionMode.BRUTE_FORCE);
+        assertEquals(60, cache.coveredLaps(tyres(0.1), 3, TransitionMode.BRUTE_FORCE));
+    }
+}
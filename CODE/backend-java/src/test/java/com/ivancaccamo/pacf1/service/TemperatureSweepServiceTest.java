@@ -0,0 +1,108 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.OptimizationResult;
+import com.ivancaccamo.pacf1.model.PredictionResponse;
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.TemperatureSweep;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.tyre;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemperatureSweepServiceTest {
+
+    private CountingEngine engine;
+    private BatchStrategyService batchService;
+    private TemperatureSweepService sweepService;
+
+    /**
+     * Motore che conta i calcoli effettivamente eseguiti.
+     */
+    private static class CountingEngine extends OptimizationEngine {
+        final AtomicInteger solves = new AtomicInteger();
+
+        @Override
+        public OptimizationResult optimize(int totalLaps, List<TyrePrediction> tyres, int k, SolverOptions options) {
+            solves.incrementAndGet();
+            return super.optimize(totalLaps, tyres, k, options);
+        }
+    }
+
+    /**
+     * Servizio ML finto: il degrado dipende solo dalla temperatura della pista.
+     */
+    private static class TrackOnlyMLService extends PythonMLService {
+        @Override
+        public PredictionResponse getPrediction(String circuit, double airTemp, double trackTemp) {
+            PredictionResponse response = new PredictionResponse();
+            response.setCircuit(circuit);
+            response.setPredictions(List.of(
+                    tyre("SOFT", 90.0, 0.05 + trackTemp / 200),
+                    tyre("MEDIUM", 91.0, 0.06),
+                    tyre("HARD", 92.5, 0.02)));
+            return response;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        engine = new CountingEngine();
+        batchService = new BatchStrategyService(new TrackOnlyMLService(), engine);
+        sweepService = new TemperatureSweepService(batchService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    void testRange_IncludesBothEnds() {
+        assertEquals(List.of(20.0, 25.0, 30.0), TemperatureSweepService.range(20, 30, 5));
+        assertEquals(4, TemperatureSweepService.range(0.0, 0.3, 0.1).size());
+        assertEquals(1, TemperatureSweepService.rangeSize(10, 12, 5));
+    }
+
+    @Test
+    void testValidGrid_RejectsOverflowingAndInvalidRanges() {
+        assertTrue(TemperatureSweepService.isValidGrid(15, 40, 5, 20, 60, 5, 100));
+        assertFalse(TemperatureSweepService.isValidGrid(15, 40, 5, 20, 60, 5, 10));
+
+        // 4.6e18 x 4 celle: il prodotto in long tornerebbe a 4 con l'overflow
+        assertFalse(TemperatureSweepService.isValidGrid(0, 4.611686018427388E18, 1, 0, 3, 1, 1000));
+        assertFalse(TemperatureSweepService.isValidGrid(0, Double.POSITIVE_INFINITY, 1, 0, 3, 1, 1000));
+        assertFalse(TemperatureSweepService.isValidGrid(0, Double.NaN, 1, 0, 3, 1, 1000));
+        assertFalse(TemperatureSweepService.isValidGrid(0, 10, 0, 0, 3, 1, 1000));
+        assertFalse(TemperatureSweepService.isValidGrid(0, 10, Double.NaN, 0, 3, 1, 1000));
+        assertFalse(TemperatureSweepService.isValidGrid(10, 0, 1, 0, 3, 1, 1000));
+    }
+
+    @Test
+    void testSweep_ReusesSolvesForIdenticalPredictions() {
+        List<Double> airTemps = TemperatureSweepService.range(15, 40, 5);
+        List<Double> trackTemps = TemperatureSweepService.range(20, 60, 10);
+
+        TemperatureSweep sweep = sweepService.sweep("Bahrain Grand Prix", 57, airTemps, trackTemps);
+
+        // Le predizioni cambiano solo con la pista: un calcolo per colonna
+        assertEquals(trackTemps.size(), engine.solves.get());
+        for (int i = 0; i < airTemps.size(); i++) {
+            for (int j = 0; j < trackTemps.size(); j++) {
+                assertNotNull(sweep.getTotalTimes()[i][j]);
+                assertEquals(sweep.getTotalTimes()[0][j], sweep.getTotalTimes()[i][j]);
+                int sequence = sweep.getSequenceIndexes()[i][j];
+                assertEquals(sweep.getPitStops()[i][j], sweep.getSequences().get(sequence).split("-").length - 1);
+            }
+        }
+
+        // Con la pista più calda la SOFT degrada di più: il tempo ottimo non migliora
+        for (int j = 1; j < trackTemps.size(); j++) {
+            assertTrue(sweep.getTotalTimes()[0][j] >= sweep.getTotalTimes()[0][j - 1]);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Predizioni delle mescole condivise dai test dei motori di ottimizzazione.
+ */
+final class TestTyres {
+
+    private TestTyres() {}
+
+    /**
+     * Crea la predizione di una mescola con degrado lineare.
+     */
+    static TyrePrediction tyre(String compound, double baseTime, double degradation) {
+        TyrePrediction tyre = new TyrePrediction();
+        tyre.setCompound(compound);
+        tyre.setBase_time(baseTime);
+        tyre.setDegradation_rate(degradation);
+        return tyre;
+    }
+
+    /**
+     * Le tre mescole di riferimento dei test (SOFT, MEDIUM, HARD), in una nuova lista modificabile.
+     */
+    static List<TyrePrediction> standard() {
+        return new ArrayList<>(List.of(tyre("SOFT", 90.0, 0.1), tyre("MEDIUM", 91.0, 0.06), tyre("HARD", 92.5, 0.02)));
+    }
+}
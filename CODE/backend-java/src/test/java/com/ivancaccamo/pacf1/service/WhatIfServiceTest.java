@@ -0,0 +1,104 @@
+package com.ivancaccamo.pacf1.service;
+
+import com.ivancaccamo.pacf1.model.PredictionResponse.TyrePrediction;
+import com.ivancaccamo.pacf1.model.RaceStrategy;
+import com.ivancaccamo.pacf1.model.WhatIfSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ivancaccamo.pacf1.service.TestTyres.standard;
+import static com.ivancaccamo.pacf1.service.TestTyres.tyre;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhatIfServiceTest {
+
+    private WhatIfService whatIfService;
+    private List<TyrePrediction> mockTyres;
+
+    @BeforeEach
+    void setUp() {
+        whatIfService = new WhatIfService();
+        mockTyres = standard();
+    }
+
+    @Test
+    void testSession_MatchesOptimizationEngine() {
+        WhatIfSession session = whatIfService.openSession("Bahrain Grand Prix", 57, mockTyres,
+                WhatIfService.DEFAULT_MAX_STOPS, null);
+        RaceStrategy expected = new OptimizationEngine().calculateTopStrategies(57, mockTyres, 1).get(0);
+
+        // Con la perdita ai box standard la migliore strategia coincide con quella del motore
+        assertEquals(OptimizationEngine.PIT_STOP_LOSS, session.getPitLoss());
+        assertEquals(expected.getTotalTime(), session.getStrategies().get(0).getTotalTime(), 1e-6);
+
+        // Una strategia per numero di soste, ciascuna con il numero di stint corrispondente
+        for (RaceStrategy strategy : session.getStrategies()) {
+            assertEquals(strategy.getPitStops() + 1, strategy.getStints().size());
+            assertEquals(57, strategy.getStints().get(strategy.getStints().size() - 1).getEndLap());
+        }
+    }
+
+    @Test
+    void testPitLoss_ReRanksStopCounts() {
+        WhatIfSession session = whatIfService.openSession("Bahrain Grand Prix", 57, mockTyres, 4, 20.0);
+
+        WhatIfSession cheapStops = whatIfService.setPitLoss(session.getId(), 0.0);
+        WhatIfSession expensiveStops = whatIfService.setPitLoss(session.getId(), 200.0);
+
+        // Soste gratuite: conviene fermarsi di più; soste costosissime: una sola sosta
+        assertTrue(cheapStops.getStrategies().get(0).getPitStops() > 1);
+        assertEquals(1, expensiveStops.getStrategies().get(0).getPitStops());
+
+        // Il tempo di guida di ogni numero di soste non cambia con la perdita ai box
+        for (RaceStrategy cheap : cheapStops.getStrategies()) {
+            RaceStrategy expensive = expensiveStops.getStrategies().stream()
+                    .filter(s -> s.getPitStops() == cheap.getPitStops()).findFirst().get();
+            assertEquals(cheap.getTotalTime() + 200.0 * cheap.getPitStops(), expensive.getTotalTime(), 1e-6);
+        }
+    }
+
+    @Test
+    void testUpdateCompound_MatchesFreshSession() {
+        WhatIfSession session = whatIfService.openSession("Bahrain Grand Prix", 57, mockTyres, 4, null);
+        WhatIfSession updated = whatIfService.updateCompound(session.getId(), "MEDIUM", 90.4, 0.05);
+
+        // Il ricalcolo parziale coincide con una sessione nuova con la predizione modificata
+        List<TyrePrediction> changed = new ArrayList<>(mockTyres);
+        changed.set(1, tyre("MEDIUM", 90.4, 0.05));
+        WhatIfSession fresh = whatIfService.openSession("Bahrain Grand Prix", 57, changed, 4, null);
+
+        assertEquals(fresh.getStrategies().size(), updated.getStrategies().size());
+        for (int i = 0; i < fresh.getStrategies().size(); i++) {
+            assertEquals(fresh.getStrategies().get(i).getTotalTime(), updated.getStrategies().get(i).getTotalTime(), 1e-6);
+        }
+        assertEquals(90.4, updated.getPredictions().get(1).getBase_time());
+
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.updateCompound(session.getId(), "WET", 95, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.setPitLoss("missing", 20));
+    }
+
+    @Test
+    void testSession_RejectsOutOfRangeParameters() {
+        // Niente tabelle di dimensione negativa o enormi
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.openSession("Bahrain Grand Prix", -1, mockTyres, 4, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> whatIfService.openSession("Bahrain Grand Prix", WhatIfService.MAX_LAPS + 1, mockTyres, 4, null));
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.openSession("Bahrain Grand Prix", 57, mockTyres, -1, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> whatIfService.openSession("Bahrain Grand Prix", 57, mockTyres, WhatIfService.MAX_STOPS + 1, null));
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.openSession("Bahrain Grand Prix", 57, mockTyres, 4, -5.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> whatIfService.openSession("Bahrain Grand Prix", 57, mockTyres, 4, Double.NaN));
+
+        WhatIfSession session = whatIfService.openSession("Bahrain Grand Prix", 57, mockTyres, 4, null);
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.setPitLoss(session.getId(), Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.updateCompound(session.getId(), "MEDIUM", 0, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.updateCompound(session.getId(), "MEDIUM", Double.NaN, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.updateCompound(session.getId(), "MEDIUM", 91.0, -0.1));
+        assertThrows(IllegalArgumentException.class,
+                () -> whatIfService.updateCompound(session.getId(), "MEDIUM", 91.0, Double.POSITIVE_INFINITY));
+    }
+}
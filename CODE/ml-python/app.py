@@ -1,6 +1,8 @@
 from flask import Flask, request, jsonify
+import numpy as np
 import pandas as pd
 import pickle
+import json
 import os
 
 app = Flask(__name__)
@@ -16,6 +18,17 @@ if os.path.exists(MODEL_FILE):
 else:
     print("ATTENZIONE: Modello non trovato. Esegui train_model.py")
 
+# Curve di degrado non lineari per mescola (facoltative), es.
+# {"SOFT": {"type": "CLIFF", "cliff_lap": 22, "cliff_penalty": 1.5, "cliff_rate": 0.3}}
+# Le mescole assenti usano il degrado lineare.
+DEGRADATION_MODELS_FILE = 'degradation_models.json'
+degradation_models = {}
+
+if os.path.exists(DEGRADATION_MODELS_FILE):
+    with open(DEGRADATION_MODELS_FILE) as f:
+        degradation_models = json.load(f)
+    print(f"Modelli di degrado caricati per: {', '.join(degradation_models)}")
+
 @app.route('/predict', methods=['POST'])
 def predict():
     """
@@ -25,8 +38,13 @@ def predict():
         "circuit_name": "Bahrain Grand Prix",
         "air_temp": 25.0,
         "track_temp": 30.0,
-        "compounds": ["SOFT", "MEDIUM", "HARD"]
+        "compounds": ["SOFT", "MEDIUM", "HARD"],
+        "quantiles": [0.1, 0.5, 0.9]    (facoltativo)
     }
+    Se sono richiesti i quantili, per ogni mescola vengono restituiti anche i quantili
+    delle predizioni dei singoli alberi della Random Forest (la dispersione della stima).
+    Se in degradation_models.json è definita una curva di degrado per la mescola,
+    viene restituita nel campo "degradation_model" (tipi LINEAR, QUADRATIC, PIECEWISE, CLIFF).
     """
     if not model:
         return jsonify({"error": "Model not loaded"}), 500
@@ -40,6 +58,7 @@ def predict():
     team = data.get('team', 'Red Bull Racing')      # Default generico
     driver = data.get('driver', 'Verstappen')       # Default generico
     year = data.get('year', 2024)                   # Anno corrente
+    quantiles = data.get('quantiles') or []         # Facoltativo
 
     results = []
 
@@ -59,11 +78,28 @@ def predict():
         # Il modello restituisce [[base_time, degradation]]
         pred = model.predict(input_df)[0]
         
-        results.append({
+        result = {
             "compound": comp,
             "base_time": round(pred[0], 3),        # Secondi
             "degradation_rate": round(pred[1], 4)  # Secondi persi al giro
-        })
+        }
+
+        if quantiles:
+            # Predizioni dei singoli alberi: la media è la predizione del modello,
+            # i quantili ne misurano l'incertezza
+            features = model.named_steps['preprocessor'].transform(input_df)
+            trees = np.array([tree.predict(features)[0]
+                              for tree in model.named_steps['regressor'].estimators_])
+            result["quantiles"] = [{
+                "quantile": q,
+                "base_time": round(float(np.quantile(trees[:, 0], q)), 3),
+                "degradation_rate": round(float(np.quantile(trees[:, 1], q)), 4)
+            } for q in quantiles]
+
+        if comp in degradation_models:
+            result["degradation_model"] = degradation_models[comp]
+
+        results.append(result)
 
     return jsonify({
         "circuit": circuit,